@@ -0,0 +1,133 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package benchmarks;
+
+import algorithms.sorting.ColumnarStateMachine;
+import algorithms.sorting.SortingAction;
+import algorithms.sorting.TraceCodec;
+import algorithms.sorting.TraceFile;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the decode throughput of the compressed trace encoding in states per second. The trace imitates Bubble sort:
+ * passes over the array comparing neighbouring elements and swapping some of them. The compression ratio compared to
+ * the uncompressed trace file format is printed once per trial.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CodecBenchmark {
+
+    /**
+     * The length of the sorted array.
+     *
+     * @since v1.0.0
+     */
+    private static final int ARRAY_LENGTH = 1_000;
+
+    /**
+     * The number of states in the trace.
+     *
+     * @since v1.0.0
+     */
+    private static final int STATES = 1_000_000;
+
+    /**
+     * The probability that a comparison is followed by a swap.
+     *
+     * @since v1.0.0
+     */
+    @Param({"0.1", "0.5"})
+    public double swapProbability;
+
+    /**
+     * The compressed trace.
+     *
+     * @since v1.0.0
+     */
+    private byte[] compressed;
+
+    /**
+     * Records and compresses the trace and prints the compression ratio.
+     *
+     * @throws IOException  Never, since the trace is compressed in memory.
+     * @since v1.0.0
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        SplittableRandom random = new SplittableRandom(42);
+        int[] initial = new int[ARRAY_LENGTH];
+        for (int i = 0; i < ARRAY_LENGTH; i++) {
+            initial[i] = random.nextInt(ARRAY_LENGTH);
+        }
+        int[] array = initial.clone();
+
+        ColumnarStateMachine machine = new ColumnarStateMachine(initial);
+        long time = 0;
+        int iteration = 0;
+        while (machine.size() < STATES) {
+            for (int j = 0; j < ARRAY_LENGTH - 1 && machine.size() < STATES; j++) {
+                time += 20 + random.nextInt(10);
+                machine.append(SortingAction.COMPARE, j, j + 1, array[j], array[j + 1], iteration, time);
+                if (random.nextDouble() < swapProbability && machine.size() < STATES) {
+                    time += 20 + random.nextInt(10);
+                    machine.append(SortingAction.SWAP, j, j + 1, array[j], array[j + 1], iteration, time);
+                    int tmp = array[j];
+                    array[j] = array[j + 1];
+                    array[j + 1] = tmp;
+                }
+            }
+            iteration++;
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long bytes = TraceCodec.encode(out, initial, machine);
+        compressed = out.toByteArray();
+        System.out.printf("%nCompression ratio: %.2f (%d states in %d bytes)%n", (double) STATES * TraceFile.RECORD_SIZE / bytes, STATES, bytes);
+    }
+
+    /**
+     * Decodes all states of the compressed trace.
+     *
+     * @param blackhole The blackhole consuming the decoded columns.
+     * @throws IOException  Never, since the trace is decoded from memory.
+     * @since v1.0.0
+     */
+    @Benchmark
+    @OperationsPerInvocation(STATES)
+    public void decode(Blackhole blackhole) throws IOException {
+        try (TraceCodec.Decoder decoder = new TraceCodec.Decoder(new ByteArrayInputStream(compressed))) {
+            while (decoder.next()) {
+                blackhole.consume(decoder.getFirstIndex());
+                blackhole.consume(decoder.getFirstElement());
+                blackhole.consume(decoder.getTimeNanos());
+            }
+        }
+    }
+}
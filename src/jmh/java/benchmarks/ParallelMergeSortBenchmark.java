@@ -0,0 +1,119 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package benchmarks;
+
+import algorithms.sorting.parallelmergesort.ParallelMergeSort;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the parallel Merge sort algorithm sorting a shuffled array without recording states on pools of different
+ * parallelism, to show how sorting scales with the number of cores.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParallelMergeSortBenchmark {
+
+    /**
+     * The number of worker threads of the pool.
+     *
+     * @since v1.0.0
+     */
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    /**
+     * The length of the sorted array.
+     *
+     * @since v1.0.0
+     */
+    @Param({"10000000"})
+    public int arrayLength;
+
+    /**
+     * The array before sorting.
+     *
+     * @since v1.0.0
+     */
+    private int[] input;
+
+    /**
+     * The pool running the tasks.
+     *
+     * @since v1.0.0
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * The algorithm measured by the next invocation.
+     *
+     * @since v1.0.0
+     */
+    private ParallelMergeSort algorithm;
+
+    /**
+     * Creates the shuffled array and the pool.
+     *
+     * @since v1.0.0
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        input = SortingBenchmark.createInput("SHUFFLED", arrayLength);
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Shuts the pool down.
+     *
+     * @since v1.0.0
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Creates a new algorithm on the unsorted array before each invocation, so that only sorting is measured.
+     *
+     * @since v1.0.0
+     */
+    @Setup(Level.Invocation)
+    public void createAlgorithm() {
+        algorithm = new ParallelMergeSort(input);
+        algorithm.setPool(pool);
+    }
+
+    /**
+     * Sorts the array without recording states.
+     *
+     * @return  The sorted array.
+     * @since v1.0.0
+     */
+    @Benchmark
+    public int[] sort() {
+        algorithm.sort();
+        return algorithm.getArray();
+    }
+}
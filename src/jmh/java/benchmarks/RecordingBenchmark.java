@@ -0,0 +1,192 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package benchmarks;
+
+import algorithms.StateMachine;
+import algorithms.sorting.ColumnarStateMachine;
+import algorithms.sorting.SortingAction;
+import algorithms.sorting.SortingState;
+import datastructure.Pair;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of recording a single state in isolation from any algorithm: creating sorting states with and
+ * without copies of the array, appending them to a linked state machine and appending the columns of a state to a
+ * columnar state machine. The state machines are cleared regularly, so their size stays bounded.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RecordingBenchmark {
+
+    /**
+     * The number of states after which the state machines are cleared.
+     *
+     * @since v1.0.0
+     */
+    private static final int MAX_STATES = 1 << 20;
+
+    /**
+     * The length of the array of the states.
+     *
+     * @since v1.0.0
+     */
+    @Param({"100", "1000"})
+    public int arrayLength;
+
+    /**
+     * The array the states refer to.
+     *
+     * @since v1.0.0
+     */
+    private int[] array;
+
+    /**
+     * The linked state machine the states are appended to.
+     *
+     * @since v1.0.0
+     */
+    private StateMachine machine;
+
+    /**
+     * The columnar state machine the columns of the states are appended to.
+     *
+     * @since v1.0.0
+     */
+    private ColumnarStateMachine columnar;
+
+    /**
+     * The index of the next state.
+     *
+     * @since v1.0.0
+     */
+    private int index = 0;
+
+    /**
+     * Creates the array and the state machines.
+     *
+     * @since v1.0.0
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        array = new int[arrayLength];
+        for (int i = 0; i < arrayLength; i++) {
+            array[i] = i + 1;
+        }
+        machine = new StateMachine();
+        columnar = new ColumnarStateMachine(array);
+    }
+
+    /**
+     * Clears the state machines after each iteration.
+     *
+     * @since v1.0.0
+     */
+    @TearDown(Level.Iteration)
+    public void clear() {
+        machine.clear();
+        columnar.clear();
+    }
+
+    /**
+     * Returns the first index of the next state. Moves along the array like Bubble sort.
+     *
+     * @return  The index.
+     * @since v1.0.0
+     */
+    private int nextIndex() {
+        index = index + 1 < arrayLength - 1 ? index + 1 : 0;
+        return index;
+    }
+
+    /**
+     * Creates a compare state without copies of the array.
+     *
+     * @return  The state.
+     * @since v1.0.0
+     */
+    private SortingState createState() {
+        int i = nextIndex();
+        return SortingState.state(
+                1, 0, 1, null, null, Integer.MIN_VALUE, Integer.MIN_VALUE, new Pair<>(i, i + 1), new Pair<>(array[i], array[i + 1]), SortingAction.COMPARE
+        );
+    }
+
+    /**
+     * Creates a compare state without copies of the array, as recorded in delta mode between keyframes.
+     *
+     * @return  The state.
+     * @since v1.0.0
+     */
+    @Benchmark
+    public SortingState createDeltaState() {
+        return createState();
+    }
+
+    /**
+     * Creates a compare state with a copy of the array, as recorded in full mode.
+     *
+     * @return  The state.
+     * @since v1.0.0
+     */
+    @Benchmark
+    public SortingState createFullState() {
+        int i = nextIndex();
+        return SortingState.state(
+                1, 0, 1, array.clone(), null, Integer.MIN_VALUE, Integer.MIN_VALUE, new Pair<>(i, i + 1), new Pair<>(array[i], array[i + 1]), SortingAction.COMPARE
+        );
+    }
+
+    /**
+     * Creates a compare state without copies of the array and appends it to a linked state machine. The cost of
+     * appending is the difference to createDeltaState.
+     *
+     * @return  The state machine.
+     * @since v1.0.0
+     */
+    @Benchmark
+    public StateMachine createAndAppendState() {
+        if (machine.size() == MAX_STATES) {
+            machine.clear();
+        }
+        machine.append(createState());
+        return machine;
+    }
+
+    /**
+     * Appends the columns of a compare state to a columnar state machine.
+     *
+     * @return  The state machine.
+     * @since v1.0.0
+     */
+    @Benchmark
+    public StateMachine appendColumns() {
+        if (columnar.size() == MAX_STATES) {
+            columnar.clear();
+        }
+        int i = nextIndex();
+        columnar.append(SortingAction.COMPARE, i, i + 1, array[i], array[i + 1], 1, 0);
+        return columnar;
+    }
+}
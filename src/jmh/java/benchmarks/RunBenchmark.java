@@ -0,0 +1,118 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package benchmarks;
+
+import algorithms.StateMachine;
+import algorithms.sorting.SortingAlgorithm;
+import algorithms.sorting.TraceMode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures each sorting algorithm running on sorted, reversed and shuffled arrays of different lengths while recording
+ * its states in each trace mode. The full trace mode is left out, since copying the whole array for each state does not
+ * fit into memory for the larger arrays. Compare with {@link SortingBenchmark} for the overhead of recording.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RunBenchmark {
+
+    /**
+     * The name of the algorithm.
+     *
+     * @since v1.0.0
+     */
+    @Param({"Bubble Sort"})
+    public String algorithmName;
+
+    /**
+     * The length of the sorted array.
+     *
+     * @since v1.0.0
+     */
+    @Param({"100", "1000"})
+    public int arrayLength;
+
+    /**
+     * The shape of the array before sorting: sorted, reversed or shuffled.
+     *
+     * @since v1.0.0
+     */
+    @Param({"SORTED", "REVERSED", "SHUFFLED"})
+    public String shape;
+
+    /**
+     * The mode in which the states are recorded.
+     *
+     * @since v1.0.0
+     */
+    @Param({"DELTA", "COLUMNAR"})
+    public TraceMode traceMode;
+
+    /**
+     * The array before sorting.
+     *
+     * @since v1.0.0
+     */
+    private int[] input;
+
+    /**
+     * The algorithm measured by the next invocation.
+     *
+     * @since v1.0.0
+     */
+    private SortingAlgorithm algorithm;
+
+    /**
+     * Creates the array before sorting in the requested shape.
+     *
+     * @since v1.0.0
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        input = SortingBenchmark.createInput(shape, arrayLength);
+    }
+
+    /**
+     * Creates a new algorithm on the unsorted array before each invocation, so that only running is measured.
+     *
+     * @since v1.0.0
+     */
+    @Setup(Level.Invocation)
+    public void createAlgorithm() {
+        algorithm = SortingBenchmark.createAlgorithm(algorithmName, input);
+        algorithm.setTraceMode(traceMode);
+    }
+
+    /**
+     * Runs the algorithm and records its states.
+     *
+     * @return  The state machine containing the states.
+     * @since v1.0.0
+     */
+    @Benchmark
+    public StateMachine run() {
+        return algorithm.getStateMachine();
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package benchmarks;
+
+import algorithms.sorting.ColumnarStateMachine;
+import algorithms.sorting.SortingAction;
+import algorithms.sorting.SortingState;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of seeking a random state in a trace and rebuilding its array, depending on the length of the
+ * trace and the keyframe interval. The trace consists of comparisons and swaps of neighbouring elements, like the trace
+ * of Bubble sort.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SeekBenchmark {
+
+    /**
+     * The length of the sorted array.
+     *
+     * @since v1.0.0
+     */
+    private static final int ARRAY_LENGTH = 1_000;
+
+    /**
+     * The number of states in the trace.
+     *
+     * @since v1.0.0
+     */
+    @Param({"100000", "1000000", "10000000"})
+    public long traceLength;
+
+    /**
+     * The number of states between two keyframes.
+     *
+     * @since v1.0.0
+     */
+    @Param({"64", "1024", "16384"})
+    public int keyframeInterval;
+
+    /**
+     * The recorded trace.
+     *
+     * @since v1.0.0
+     */
+    private ColumnarStateMachine machine;
+
+    /**
+     * The random number generator used to pick the states to seek.
+     *
+     * @since v1.0.0
+     */
+    private SplittableRandom random;
+
+    /**
+     * Records a trace of random comparisons and swaps of neighbouring elements and takes all snapshots once, so that
+     * only the seek itself is measured.
+     *
+     * @since v1.0.0
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new SplittableRandom(42);
+        int[] initial = new int[ARRAY_LENGTH];
+        for (int i = 0; i < ARRAY_LENGTH; i++) {
+            initial[i] = i + 1;
+        }
+        machine = new ColumnarStateMachine(initial);
+        for (long step = 0; step < traceLength; step++) {
+            int index = random.nextInt(ARRAY_LENGTH - 1);
+            SortingAction action = random.nextBoolean() ? SortingAction.COMPARE : SortingAction.SWAP;
+            machine.append(action, index, index + 1, 0, 0, (int) step, step);
+        }
+        machine.setKeyframeInterval(keyframeInterval);
+        machine.getArrayAt(traceLength);
+    }
+
+    /**
+     * Seeks a random state and rebuilds the array before its action.
+     *
+     * @return  The rebuilt array.
+     * @since v1.0.0
+     */
+    @Benchmark
+    public int[] seekAndRebuild() {
+        SortingState state = machine.seek(random.nextLong(traceLength));
+        return state.getArrayBefore();
+    }
+}
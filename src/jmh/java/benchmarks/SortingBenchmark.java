@@ -0,0 +1,135 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package benchmarks;
+
+import algorithms.AlgorithmCatalog;
+import algorithms.sorting.SortingAlgorithm;
+import algorithms.sorting.workload.WorkloadGenerator;
+import algorithms.sorting.workload.WorkloadShape;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures each sorting algorithm sorting sorted, reversed and shuffled arrays of different lengths without recording
+ * states. See {@link RunBenchmark} for running the algorithms with recording states.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SortingBenchmark {
+
+    /**
+     * The name of the algorithm.
+     *
+     * @since v1.0.0
+     */
+    @Param({"Bubble Sort", "Quick Sort", "Heap Sort", "Merge Sort", "Intro Sort", "Counting Sort", "LSD Radix Sort", "MSD Radix Sort", "Parallel Merge Sort"})
+    public String algorithmName;
+
+    /**
+     * The length of the sorted array.
+     *
+     * @since v1.0.0
+     */
+    @Param({"100", "1000"})
+    public int arrayLength;
+
+    /**
+     * The shape of the array before sorting: sorted, reversed or shuffled.
+     *
+     * @since v1.0.0
+     */
+    @Param({"SORTED", "REVERSED", "SHUFFLED"})
+    public String shape;
+
+    /**
+     * The array before sorting.
+     *
+     * @since v1.0.0
+     */
+    private int[] input;
+
+    /**
+     * The algorithm measured by the next invocation.
+     *
+     * @since v1.0.0
+     */
+    private SortingAlgorithm algorithm;
+
+    /**
+     * Creates the array before sorting in the requested shape.
+     *
+     * @since v1.0.0
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        input = createInput(shape, arrayLength);
+    }
+
+    /**
+     * Creates a new algorithm on the unsorted array before each invocation, so that only sorting is measured.
+     *
+     * @since v1.0.0
+     */
+    @Setup(Level.Invocation)
+    public void createAlgorithm() {
+        algorithm = createAlgorithm(algorithmName, input);
+    }
+
+    /**
+     * Sorts the array without recording states.
+     *
+     * @return  The sorted array.
+     * @since v1.0.0
+     */
+    @Benchmark
+    public int[] sort() {
+        algorithm.sort();
+        return algorithm.getArray();
+    }
+
+    /**
+     * Creates an array of the given shape and length with the workload generator, always from the same seed.
+     *
+     * @param shape The name of the shape. See {@link WorkloadShape}.
+     * @param length    The length of the array.
+     * @return  The array.
+     * @throws IllegalArgumentException If the shape is unknown.
+     * @since v1.0.0
+     */
+    static int[] createInput(String shape, int length) {
+        return new WorkloadGenerator(42).generate(WorkloadShape.valueOf(shape), length);
+    }
+
+    /**
+     * Creates the algorithm with the given name on the given array, looked up in the algorithm catalog.
+     *
+     * @param algorithmName The name of the algorithm.
+     * @param input The array to be sorted. Is copied by the algorithm.
+     * @return  The algorithm.
+     * @since v1.0.0
+     */
+    static SortingAlgorithm createAlgorithm(String algorithmName, int[] input) {
+        return AlgorithmCatalog.getInstance().createSortingAlgorithm(algorithmName, input);
+    }
+}
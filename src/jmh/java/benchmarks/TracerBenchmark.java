@@ -0,0 +1,129 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package benchmarks;
+
+import algorithms.sorting.Tracer;
+import algorithms.sorting.bubblesort.BubbleSort;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares sorting with the no-op tracer to a hand-written Bubble sort without any tracing calls. If the JIT compiler
+ * removes the calls of the no-op tracer, both benchmarks run at the same speed.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TracerBenchmark {
+
+    /**
+     * The length of the sorted array.
+     *
+     * @since v1.0.0
+     */
+    @Param({"1000", "10000"})
+    public int arrayLength;
+
+    /**
+     * The unsorted array, copied before each invocation.
+     *
+     * @since v1.0.0
+     */
+    private int[] unsorted;
+
+    /**
+     * The array sorted by the hand-written implementation.
+     *
+     * @since v1.0.0
+     */
+    private int[] array;
+
+    /**
+     * The algorithm sorting with the no-op tracer.
+     *
+     * @since v1.0.0
+     */
+    private BubbleSort bubbleSort;
+
+    /**
+     * Creates the unsorted array and the algorithm.
+     *
+     * @since v1.0.0
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        unsorted = new int[arrayLength];
+        for (int i = 0; i < arrayLength; i++) {
+            unsorted[i] = random.nextInt(arrayLength);
+        }
+        array = new int[arrayLength];
+        bubbleSort = new BubbleSort(unsorted);
+    }
+
+    /**
+     * Restores the unsorted arrays before each invocation.
+     *
+     * @since v1.0.0
+     */
+    @Setup(Level.Invocation)
+    public void restore() {
+        System.arraycopy(unsorted, 0, array, 0, arrayLength);
+        System.arraycopy(unsorted, 0, bubbleSort.getArray(), 0, arrayLength);
+    }
+
+    /**
+     * Sorts with the single implementation of Bubble sort and the no-op tracer.
+     *
+     * @return  The sorted array.
+     * @since v1.0.0
+     */
+    @Benchmark
+    public int[] noOpTracer() {
+        bubbleSort.sort(Tracer.NONE);
+        return bubbleSort.getArray();
+    }
+
+    /**
+     * Sorts with a hand-written Bubble sort without tracing calls.
+     *
+     * @return  The sorted array.
+     * @since v1.0.0
+     */
+    @Benchmark
+    public int[] handWritten() {
+        int n = arrayLength;
+        while (n > 1) {
+            for (int i = 0; i < n - 1; i++) {
+                if (array[i] > array[i + 1]) {
+                    int tmp = array[i];
+                    array[i] = array[i + 1];
+                    array[i + 1] = tmp;
+                }
+            }
+            n--;
+        }
+        return array;
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package benchmarks;
+
+import algorithms.sorting.workload.WorkloadGenerator;
+import algorithms.sorting.workload.WorkloadShape;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the workload generator filling a large array of each shape on pools of different parallelism. The
+ * generated arrays do not depend on the parallelism.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class WorkloadBenchmark {
+
+    /**
+     * The shape of the array.
+     *
+     * @since v1.0.0
+     */
+    @Param({"SORTED", "SHUFFLED", "RANDOM", "NEARLY_SORTED", "FEW_UNIQUE", "SAWTOOTH", "ORGAN_PIPE", "ZIPF", "RANDOM_RUNS"})
+    public WorkloadShape shape;
+
+    /**
+     * The number of worker threads of the pool.
+     *
+     * @since v1.0.0
+     */
+    @Param({"1", "4"})
+    public int parallelism;
+
+    /**
+     * The length of the array.
+     *
+     * @since v1.0.0
+     */
+    @Param({"100000000"})
+    public int arrayLength;
+
+    /**
+     * The array filled by each invocation.
+     *
+     * @since v1.0.0
+     */
+    private int[] array;
+
+    /**
+     * The pool running the parallel streams of the generator.
+     *
+     * @since v1.0.0
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * The generator.
+     *
+     * @since v1.0.0
+     */
+    private final WorkloadGenerator generator = new WorkloadGenerator(42);
+
+    /**
+     * Allocates the array and creates the pool.
+     *
+     * @since v1.0.0
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        array = new int[arrayLength];
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Shuts the pool down.
+     *
+     * @since v1.0.0
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Fills the array with the default parameter of the shape. Parallel streams started inside the pool run on it.
+     *
+     * @return  The filled array.
+     * @since v1.0.0
+     */
+    @Benchmark
+    public int[] fill() {
+        pool.submit(() -> generator.fill(array, shape, shape.getDefaultParameter(arrayLength))).join();
+        return array;
+    }
+}
@@ -16,8 +16,13 @@
  *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
  */
 
+import cli.HeadlessRunner;
+
+import java.util.Arrays;
+
 /**
- * Main class with main method. Entry point to application.
+ * Main class with main method. Entry point to application. Starts the graphical user interface, or the headless runner
+ * if the first argument is --headless. In headless mode, the Launcher class is never loaded, so neither is JavaFX.
  *
  * @author Tim-Michael Krieg
  * @version 1.0.0
@@ -25,6 +30,10 @@
  */
 public class Main {
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--headless")) {
+            HeadlessRunner.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         Launcher.main(args);
     }
 }
\ No newline at end of file
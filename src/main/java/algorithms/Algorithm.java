@@ -19,6 +19,8 @@ package algorithms;
 
 import algorithms.summary.AlgoSummary;
 
+import java.util.concurrent.CancellationException;
+
 /**
  * An object of this class represents an algorithm. Each algorithm includes a method to run the actual algorithm on the
  * data structure and further, it includes a method to create the associated state machine that can be used to plot the
@@ -31,11 +33,12 @@ import algorithms.summary.AlgoSummary;
 public abstract class Algorithm {
 
     /**
-     * The state machine of this algorithm. Can be used to plot the algorithm.
+     * The state machine of this algorithm. Can be used to plot the algorithm. Subclasses may replace it by a different
+     * implementation of a state machine.
      *
      * @since v1.0.0
      */
-    protected final StateMachine stateMachine = new StateMachine();
+    protected StateMachine stateMachine = new StateMachine();
 
     /**
      * The total time elapsed from the start of the algorithm until completion.
@@ -49,7 +52,14 @@ public abstract class Algorithm {
      *
      * @since v1.0.0
      */
-    protected int totalIterations = 0;
+    protected long totalIterations = 0;
+
+    /**
+     * The operation counters of the last run of the algorithm.
+     *
+     * @since v1.0.0
+     */
+    protected final Metrics metrics = new Metrics();
 
     /**
      * Returns the name of this algorithm.
@@ -87,6 +97,42 @@ public abstract class Algorithm {
         return stateMachine;
     }
 
+    /**
+     * Runs the algorithm on a virtual thread and returns a stream of its states. The states can be consumed while the
+     * algorithm is still running, so the first state is available right away. The algorithm is paused whenever the
+     * given number of states was produced but not yet consumed. Closing the stream stops the algorithm. While the
+     * algorithm is streaming, the regular state machine must not be used.
+     *
+     * @param capacity  The maximum number of states that are produced but not yet consumed.
+     * @return  The stream of states.
+     * @since v1.0.0
+     */
+    public StateStream streamStateMachine(int capacity) {
+        if (stateMachine instanceof StateStream) {
+            throw new IllegalStateException("The algorithm is already streaming its states.");
+        }
+        StateMachine recorded = stateMachine;
+        StateStream stream = new StateStream(capacity);
+        stateMachine = stream;
+
+        Thread producer = Thread.ofVirtual().name(getName() + " producer").unstarted(() -> {
+            Throwable failure = null;
+            try {
+                run();
+            } catch (CancellationException e) {
+                // The stream was closed by the consumer.
+            } catch (RuntimeException | Error e) {
+                failure = e;
+            } finally {
+                stateMachine = recorded;
+            }
+            stream.finish(failure);
+        });
+        stream.setProducer(producer);
+        producer.start();
+        return stream;
+    }
+
     /**
      * Returns the total time elapsed from the beginning of the algorithm until completion. Only call after method run.
      *
@@ -103,10 +149,20 @@ public abstract class Algorithm {
      * @return  The total number of iterations.
      * @since v1.0.0
      */
-    public int getTotalIterations() {
+    public long getTotalIterations() {
         return totalIterations;
     }
 
+    /**
+     * Returns the operation counters of the last run of the algorithm. Only call after method run.
+     *
+     * @return  The metrics.
+     * @since v1.0.0
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
     /**
      * Runs the algorithm and builds the state machine.
      *
@@ -0,0 +1,172 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms;
+
+import algorithms.sorting.SortingAlgorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.ServiceLoader;
+
+/**
+ * The catalog of all available algorithms, shared by the graphical user interface and the headless runner. The
+ * algorithms are discovered through the ServiceLoader, which finds every {@link AlgorithmProvider} listed in a file
+ * META-INF/services/algorithms.AlgorithmProvider on the class path. Only the providers are loaded when the catalog is
+ * created; the class of an algorithm is loaded when the algorithm is created for the first time.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+public class AlgorithmCatalog {
+
+    /**
+     * The catalog of the algorithms on the class path. Created on first use.
+     *
+     * @since v1.0.0
+     */
+    private static volatile AlgorithmCatalog instance;
+
+    /**
+     * The providers of all algorithms, in the order they were discovered.
+     *
+     * @since v1.0.0
+     */
+    private final List<AlgorithmProvider> providers;
+
+    /**
+     * Constructor initializing the catalog with the given providers.
+     *
+     * @param providers The providers of the algorithms.
+     * @since v1.0.0
+     */
+    public AlgorithmCatalog(List<AlgorithmProvider> providers) {
+        this.providers = List.copyOf(providers);
+    }
+
+    /**
+     * Returns the catalog of the algorithms on the class path. The providers are discovered on the first call.
+     *
+     * @return  The catalog.
+     * @since v1.0.0
+     */
+    public static AlgorithmCatalog getInstance() {
+        AlgorithmCatalog catalog = instance;
+        if (catalog == null) {
+            synchronized (AlgorithmCatalog.class) {
+                catalog = instance;
+                if (catalog == null) {
+                    List<AlgorithmProvider> providers = new ArrayList<>();
+                    ServiceLoader.load(AlgorithmProvider.class, AlgorithmCatalog.class.getClassLoader()).forEach(providers::add);
+                    instance = catalog = new AlgorithmCatalog(providers);
+                }
+            }
+        }
+        return catalog;
+    }
+
+    /**
+     * Returns the providers of all algorithms.
+     *
+     * @return  The providers. The list cannot be modified.
+     * @since v1.0.0
+     */
+    public List<AlgorithmProvider> getProviders() {
+        return providers;
+    }
+
+    /**
+     * Returns the providers of all algorithms of the given type (example: sorting). Case is ignored.
+     *
+     * @param type  The type of the algorithms.
+     * @return  The providers. The list cannot be modified.
+     * @since v1.0.0
+     */
+    public List<AlgorithmProvider> getProviders(String type) {
+        return providers.stream().filter(provider -> provider.getType().equalsIgnoreCase(type)).toList();
+    }
+
+    /**
+     * Returns the names of all algorithms of the given type (example: sorting). Case is ignored.
+     *
+     * @param type  The type of the algorithms.
+     * @return  The names. The list cannot be modified.
+     * @since v1.0.0
+     */
+    public List<String> getNames(String type) {
+        return getProviders(type).stream().map(AlgorithmProvider::getName).toList();
+    }
+
+    /**
+     * Returns the provider of the algorithm with the given name. Case and spaces are ignored, so "bubblesort" finds
+     * "Bubble Sort".
+     *
+     * @param name  The name of the algorithm.
+     * @return  The provider, or null if there is no algorithm with the given name.
+     * @since v1.0.0
+     */
+    public AlgorithmProvider find(String name) {
+        String normalized = normalize(name);
+        for (AlgorithmProvider provider : providers) {
+            if (normalize(provider.getName()).equals(normalized)) {
+                return provider;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates the sorting algorithm with the given name on the given array.
+     *
+     * @param name  The name of the algorithm.
+     * @param array The array to be sorted. Is copied by the algorithm.
+     * @return  The algorithm.
+     * @throws IllegalArgumentException If there is no algorithm with the given name.
+     * @since v1.0.0
+     */
+    public SortingAlgorithm createSortingAlgorithm(String name, int[] array) {
+        AlgorithmProvider provider = find(name);
+        if (provider == null) {
+            throw new IllegalArgumentException("Unknown algorithm: " + name + ".");
+        }
+        return provider.createSortingAlgorithm(array);
+    }
+
+    /**
+     * Removes spaces from the given name and converts it to lower case.
+     *
+     * @param name  The name.
+     * @return  The normalized name.
+     * @since v1.0.0
+     */
+    private static String normalize(String name) {
+        return name.replace(" ", "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the names of all algorithms.
+     *
+     * @return  The string representation.
+     * @since v1.0.0
+     */
+    @Override
+    public String toString() {
+        return providers.stream().map(AlgorithmProvider::getName).toList().toString();
+    }
+}
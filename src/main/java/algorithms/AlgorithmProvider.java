@@ -0,0 +1,264 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms;
+
+import algorithms.sorting.SortingAlgorithm;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Service provider interface publishing an algorithm to the {@link AlgorithmCatalog}. Providers are discovered through
+ * the ServiceLoader, so adding an algorithm only requires a provider and an entry in the file
+ * META-INF/services/algorithms.AlgorithmProvider. A provider only describes its algorithm. It refers to the class of the
+ * algorithm by name, so the class is not loaded before the algorithm is created. Providers usually extend
+ * {@link Base}, which holds the description and looks up the constructor of the algorithm only once.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+public interface AlgorithmProvider {
+
+    /**
+     * Returns the name of the algorithm, as returned by its getName method.
+     *
+     * @return  The name.
+     * @since v1.0.0
+     */
+    String getName();
+
+    /**
+     * Returns the type of the algorithm (example: sorting), as returned by its getType method.
+     *
+     * @return  The type.
+     * @since v1.0.0
+     */
+    String getType();
+
+    /**
+     * Returns the time complexity class of the algorithm in the worst case (example: O(n²)).
+     *
+     * @return  The complexity class.
+     * @since v1.0.0
+     */
+    String getComplexity();
+
+    /**
+     * Returns whether the algorithm records its states, so it can be displayed.
+     *
+     * @return  True if the algorithm records its states.
+     * @since v1.0.0
+     */
+    boolean isTraced();
+
+    /**
+     * Returns the fully qualified name of the class of the algorithm. Must be given as a string, so that the class is
+     * not loaded together with the provider.
+     *
+     * @return  The class name.
+     * @since v1.0.0
+     */
+    String getClassName();
+
+    /**
+     * Loads the class of the sorting algorithm and creates the algorithm on the given array. The class must be a
+     * subclass of SortingAlgorithm with a public constructor taking the array.
+     *
+     * @param array The array to be sorted. Is copied by the algorithm.
+     * @return  The algorithm.
+     * @throws IllegalStateException    If the class cannot be loaded or instantiated.
+     * @since v1.0.0
+     */
+    default SortingAlgorithm createSortingAlgorithm(int[] array) {
+        return newSortingAlgorithm(findSortingConstructor(), array);
+    }
+
+    /**
+     * Loads the class of the sorting algorithm and looks up its constructor taking the array.
+     *
+     * @return  The constructor.
+     * @throws IllegalStateException    If the class cannot be loaded or has no such constructor.
+     * @since v1.0.0
+     */
+    private Constructor<? extends SortingAlgorithm> findSortingConstructor() {
+        try {
+            return Class.forName(getClassName(), true, getClass().getClassLoader())
+                    .asSubclass(SortingAlgorithm.class)
+                    .getConstructor(int[].class);
+        } catch (ClassNotFoundException | NoSuchMethodException | ClassCastException e) {
+            throw new IllegalStateException("Cannot create the algorithm " + getName() + ".", e);
+        }
+    }
+
+    /**
+     * Creates the sorting algorithm on the given array with the given constructor.
+     *
+     * @param constructor   The constructor of the algorithm.
+     * @param array The array to be sorted. Is copied by the algorithm.
+     * @return  The algorithm.
+     * @throws IllegalStateException    If the algorithm cannot be instantiated or its constructor fails.
+     * @since v1.0.0
+     */
+    private SortingAlgorithm newSortingAlgorithm(Constructor<? extends SortingAlgorithm> constructor, int[] array) {
+        try {
+            return constructor.newInstance((Object) array);
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new IllegalStateException("Cannot create the algorithm " + getName() + ".", e);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("The constructor of the algorithm " + getName() + " failed.", e.getCause());
+        }
+    }
+
+    /**
+     * Provider described by the name, type, complexity and class name passed to its constructor. The class of the
+     * algorithm is loaded when the first algorithm is created, and its constructor is reused afterwards. The algorithm
+     * records its states.
+     *
+     * @author Tim-Michael Krieg
+     * @version 1.0.0
+     * @since v1.0.0
+     */
+    abstract class Base implements AlgorithmProvider {
+
+        /**
+         * The name of the algorithm.
+         *
+         * @since v1.0.0
+         */
+        private final String name;
+
+        /**
+         * The type of the algorithm.
+         *
+         * @since v1.0.0
+         */
+        private final String type;
+
+        /**
+         * The worst-case time complexity class of the algorithm.
+         *
+         * @since v1.0.0
+         */
+        private final String complexity;
+
+        /**
+         * The fully qualified name of the class of the algorithm.
+         *
+         * @since v1.0.0
+         */
+        private final String className;
+
+        /**
+         * The constructor of the sorting algorithm, or null until the first algorithm is created.
+         *
+         * @since v1.0.0
+         */
+        private volatile Constructor<? extends SortingAlgorithm> sortingConstructor;
+
+        /**
+         * Constructor initializing the description of the algorithm.
+         *
+         * @param name  The name of the algorithm, as returned by its getName method.
+         * @param type  The type of the algorithm, as returned by its getType method.
+         * @param complexity    The worst-case time complexity class of the algorithm.
+         * @param className The fully qualified name of the class of the algorithm.
+         * @since v1.0.0
+         */
+        protected Base(String name, String type, String complexity, String className) {
+            this.name = name;
+            this.type = type;
+            this.complexity = complexity;
+            this.className = className;
+        }
+
+        /**
+         * Returns the name of the algorithm.
+         *
+         * @return  The name.
+         * @since v1.0.0
+         */
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the type of the algorithm.
+         *
+         * @return  The type.
+         * @since v1.0.0
+         */
+        @Override
+        public String getType() {
+            return type;
+        }
+
+        /**
+         * Returns the worst-case time complexity class of the algorithm.
+         *
+         * @return  The complexity class.
+         * @since v1.0.0
+         */
+        @Override
+        public String getComplexity() {
+            return complexity;
+        }
+
+        /**
+         * Returns true, since the algorithm records its states.
+         *
+         * @return  True.
+         * @since v1.0.0
+         */
+        @Override
+        public boolean isTraced() {
+            return true;
+        }
+
+        /**
+         * Returns the fully qualified name of the class of the algorithm.
+         *
+         * @return  The class name.
+         * @since v1.0.0
+         */
+        @Override
+        public String getClassName() {
+            return className;
+        }
+
+        /**
+         * Creates the sorting algorithm on the given array. The class of the algorithm is only loaded and its
+         * constructor only looked up for the first algorithm.
+         *
+         * @param array The array to be sorted. Is copied by the algorithm.
+         * @return  The algorithm.
+         * @throws IllegalStateException    If the class cannot be loaded or instantiated.
+         * @since v1.0.0
+         */
+        @Override
+        public SortingAlgorithm createSortingAlgorithm(int[] array) {
+            Constructor<? extends SortingAlgorithm> constructor = sortingConstructor;
+            if (constructor == null) {
+                constructor = ((AlgorithmProvider) this).findSortingConstructor();
+                sortingConstructor = constructor;
+            }
+            return ((AlgorithmProvider) this).newSortingAlgorithm(constructor, array);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The operation counters of a single run of an algorithm. Each counter is a 64-bit LongAdder, so counters never
+ * overflow for long runs, and several threads of a parallel algorithm can count without contending for a lock. Besides
+ * the predefined counters, algorithms may register further counters by name. A snapshot of all counters is given as a
+ * map from name to value, listing the predefined counters first and the registered counters by name.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+public class Metrics {
+
+    /**
+     * The name of the counter of comparisons.
+     *
+     * @since v1.0.0
+     */
+    public static final String COMPARISONS = "comparisons";
+
+    /**
+     * The name of the counter of swaps.
+     *
+     * @since v1.0.0
+     */
+    public static final String SWAPS = "swaps";
+
+    /**
+     * The name of the counter of array reads.
+     *
+     * @since v1.0.0
+     */
+    public static final String READS = "reads";
+
+    /**
+     * The name of the counter of array writes.
+     *
+     * @since v1.0.0
+     */
+    public static final String WRITES = "writes";
+
+    /**
+     * The counter of comparisons.
+     *
+     * @since v1.0.0
+     */
+    public final LongAdder comparisons = new LongAdder();
+
+    /**
+     * The counter of swaps.
+     *
+     * @since v1.0.0
+     */
+    public final LongAdder swaps = new LongAdder();
+
+    /**
+     * The counter of array reads.
+     *
+     * @since v1.0.0
+     */
+    public final LongAdder reads = new LongAdder();
+
+    /**
+     * The counter of array writes.
+     *
+     * @since v1.0.0
+     */
+    public final LongAdder writes = new LongAdder();
+
+    /**
+     * The counters registered by algorithms, by name.
+     *
+     * @since v1.0.0
+     */
+    private final ConcurrentHashMap<String, LongAdder> custom = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the predefined counter with the given name, or null if the name does not belong to a predefined counter.
+     *
+     * @param name  The name of the counter.
+     * @return  The predefined counter.
+     * @since v1.0.0
+     */
+    private LongAdder predefined(String name) {
+        return switch (name) {
+            case COMPARISONS -> comparisons;
+            case SWAPS -> swaps;
+            case READS -> reads;
+            case WRITES -> writes;
+            default -> null;
+        };
+    }
+
+    /**
+     * Returns the counter with the given name. The counter is registered if it does not exist yet.
+     *
+     * @param name  The name of the counter.
+     * @return  The counter.
+     * @since v1.0.0
+     */
+    public LongAdder counter(String name) {
+        LongAdder counter = predefined(name);
+        return counter != null ? counter : custom.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    /**
+     * Returns the current value of the counter with the given name, or 0 if there is no such counter.
+     *
+     * @param name  The name of the counter.
+     * @return  The value.
+     * @since v1.0.0
+     */
+    public long get(String name) {
+        LongAdder counter = predefined(name);
+        if (counter == null) {
+            counter = custom.get(name);
+        }
+        return counter != null ? counter.sum() : 0;
+    }
+
+    /**
+     * Returns the current values of all counters. The predefined counters come first, followed by the registered
+     * counters sorted by name. The map is not updated afterwards.
+     *
+     * @return  The values by name.
+     * @since v1.0.0
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> snapshot = new LinkedHashMap<>();
+        snapshot.put(COMPARISONS, comparisons.sum());
+        snapshot.put(SWAPS, swaps.sum());
+        snapshot.put(READS, reads.sum());
+        snapshot.put(WRITES, writes.sum());
+        new TreeMap<>(custom).forEach((name, counter) -> snapshot.put(name, counter.sum()));
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    /**
+     * Resets all counters to 0. Counters registered by algorithms are kept.
+     *
+     * @since v1.0.0
+     */
+    public void reset() {
+        comparisons.reset();
+        swaps.reset();
+        reads.reset();
+        writes.reset();
+        custom.values().forEach(LongAdder::reset);
+    }
+}
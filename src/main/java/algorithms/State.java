@@ -47,7 +47,7 @@ public abstract class State {
      *
      * @since v1.0.0
      */
-    protected final int id;
+    protected final long id;
 
     /**
      * Time elapsed from start of algorithm until this state.
@@ -72,7 +72,7 @@ public abstract class State {
      * @param iteration The iteration.
      * @since v1.0.0
      */
-    protected State(int id, double time, int iteration) {
+    protected State(long id, double time, int iteration) {
         this.id = id;
         this.time = time;
         this.iteration = iteration;
@@ -84,7 +84,7 @@ public abstract class State {
      * @return  The id.
      * @since v1.0.0
      */
-    public int getId() {
+    public long getId() {
         return id;
     }
 
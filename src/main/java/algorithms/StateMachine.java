@@ -17,13 +17,18 @@
  */
 package algorithms;
 
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.concurrent.CancellationException;
 
 /**
  * This class works as a wrapper for each state of an algorithm. Each state of the algorithm contains information about
  * the current step that was executed by the algorithm. For example, in sorting a step would be to swap two elements.
  * Additional information about the algorithm is stored in a separate AlgoSummary object. Furthermore, this class
- * implements the Iterable interface to allow for iteration over the steps of the algorithm using an iterator.
+ * implements the Iterable interface to allow for iteration over the steps of the algorithm using an iterator. To jump to
+ * a step without walking the whole list, every K-th state is stored in a keyframe index (see {@link #seek(long)}).
+ * While the states are recorded, a progress listener is told the number of states recorded so far (see
+ * {@link #setProgressListener(ProgressListener)}).
  *
  * @author Tim-Michael Krieg
  * @version 1.0.0
@@ -31,11 +36,6 @@ import java.util.Iterator;
  */
 public class StateMachine implements Iterable<State> {
 
-    /*
-    TODO:
-        - Progress for each state
-     */
-
     /**
      * The first and initial state of the algorithm.
      *
@@ -51,11 +51,54 @@ public class StateMachine implements Iterable<State> {
     public State last;
 
     /**
-     * The total number of states the algorithm has.
+     * The number of states appended to this state machine.
+     *
+     * @since v1.0.0
+     */
+    private long numberOfStates = 0;
+
+    /**
+     * The default number of states between two keyframes.
+     *
+     * @since v1.0.0
+     */
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 1024;
+
+    /**
+     * The number of states between two keyframes. Seeking a state walks at most this many states.
+     *
+     * @since v1.0.0
+     */
+    private int keyframeInterval = DEFAULT_KEYFRAME_INTERVAL;
+
+    /**
+     * Every K-th state of this state machine, where K is the keyframe interval. Only the first numberOfKeyframes
+     * entries are used.
      *
      * @since v1.0.0
      */
-    public int numberOfStates = 0;
+    private State[] keyframes = new State[16];
+
+    /**
+     * The number of keyframes stored in the keyframe index.
+     *
+     * @since v1.0.0
+     */
+    private int numberOfKeyframes = 0;
+
+    /**
+     * The number of states between two calls of the progress listener.
+     *
+     * @since v1.0.0
+     */
+    public static final int PROGRESS_INTERVAL = 4096;
+
+    /**
+     * The listener told about the progress of the recording, or null if there is none.
+     *
+     * @since v1.0.0
+     */
+    private ProgressListener progressListener;
 
     /**
      * Appends a state to the list of states. If no state has been added yet, the state is set as the first state. Else,
@@ -65,15 +108,139 @@ public class StateMachine implements Iterable<State> {
      * @since v1.0.0
      */
     public void append(State state) {
+        if (isKeyframe(numberOfStates)) {
+            addKeyframe(state);
+        }
         if (first == null) {
             first = last = state;
             numberOfStates++;
+            reportProgress();
             return;
         }
         state.previous = last;
         last.next = state;
         last = last.next;
         numberOfStates++;
+        reportProgress();
+    }
+
+    /**
+     * Returns the number of states stored in this state machine.
+     *
+     * @return  The number of states.
+     * @since v1.0.0
+     */
+    public long size() {
+        return numberOfStates;
+    }
+
+    /**
+     * Sets the listener told about the progress of the recording. The listener is called on the thread recording the
+     * states, every {@link #PROGRESS_INTERVAL} states.
+     *
+     * @param progressListener  The listener, or null to remove it.
+     * @since v1.0.0
+     */
+    public void setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Tells the progress listener the number of states recorded so far, if another progress interval is completed.
+     * Must be called by each append method after the number of states was increased.
+     *
+     * @throws CancellationException    If the listener cancelled the recording.
+     * @since v1.0.0
+     */
+    protected void reportProgress() {
+        if (progressListener != null && size() % PROGRESS_INTERVAL == 0) {
+            progressListener.recorded(size());
+        }
+    }
+
+    /**
+     * Returns whether the states appended to this state machine are linked to their neighbours. Delta states need the
+     * links to rebuild their arrays.
+     *
+     * @return  True, if the states are linked.
+     * @since v1.0.0
+     */
+    public boolean isLinked() {
+        return true;
+    }
+
+    /**
+     * Returns the number of states between two keyframes.
+     *
+     * @return  The keyframe interval.
+     * @since v1.0.0
+     */
+    public int getKeyframeInterval() {
+        return keyframeInterval;
+    }
+
+    /**
+     * Sets the number of states between two keyframes and rebuilds the keyframe index. A smaller interval makes
+     * seeking faster at the cost of memory.
+     *
+     * @param keyframeInterval  The keyframe interval. Must be positive.
+     * @since v1.0.0
+     */
+    public void setKeyframeInterval(int keyframeInterval) {
+        if (keyframeInterval < 1) {
+            throw new IllegalArgumentException("The keyframe interval must be positive.");
+        }
+        this.keyframeInterval = keyframeInterval;
+        numberOfKeyframes = 0;
+        long step = 0;
+        for (State state = first; state != null; state = state.next) {
+            if (isKeyframe(step++)) {
+                addKeyframe(state);
+            }
+        }
+    }
+
+    /**
+     * Returns whether the state with the given number is a keyframe.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @return  True, if the state is a keyframe.
+     * @since v1.0.0
+     */
+    public boolean isKeyframe(long step) {
+        return step % keyframeInterval == 0;
+    }
+
+    /**
+     * Adds a state to the keyframe index.
+     *
+     * @param state The state.
+     * @since v1.0.0
+     */
+    private void addKeyframe(State state) {
+        if (numberOfKeyframes == keyframes.length) {
+            keyframes = Arrays.copyOf(keyframes, keyframes.length * 2);
+        }
+        keyframes[numberOfKeyframes++] = state;
+    }
+
+    /**
+     * Returns the state with the given number. The closest keyframe before the state is looked up in the keyframe
+     * index, then at most keyframe interval minus one states are walked.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @return  The state.
+     * @since v1.0.0
+     */
+    public State seek(long step) {
+        if (step < 0 || step >= numberOfStates) {
+            throw new IndexOutOfBoundsException("State " + step + " is out of bounds for " + numberOfStates + " states.");
+        }
+        State state = keyframes[(int) (step / keyframeInterval)];
+        for (long i = step % keyframeInterval; i > 0; i--) {
+            state = state.next;
+        }
+        return state;
     }
 
     /**
@@ -116,12 +283,36 @@ public class StateMachine implements Iterable<State> {
     }
 
     /**
-     * Clears the state machine by setting the first and last state to null and the number of states to 0.
+     * Clears the state machine by setting the first and last state to null, the number of states to 0 and by emptying
+     * the keyframe index.
      *
      * @since v1.0.0
      */
     public void clear() {
         first = last = null;
         numberOfStates = 0;
+        keyframes = new State[16];
+        numberOfKeyframes = 0;
+    }
+
+    /**
+     * A listener told about the progress while the states of an algorithm are recorded. The listener can stop the
+     * recording cooperatively by throwing a {@link CancellationException}, which ends the run of the algorithm.
+     *
+     * @author Tim-Michael Krieg
+     * @version 1.0.0
+     * @since v1.0.0
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+
+        /**
+         * Called on the thread recording the states whenever another progress interval of states was recorded.
+         *
+         * @param states    The number of states recorded so far.
+         * @throws CancellationException    To cancel the recording.
+         * @since v1.0.0
+         */
+        void recorded(long states);
     }
 }
@@ -0,0 +1,305 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+
+/**
+ * A state machine that hands each state over to a consumer instead of keeping it. The algorithm appends its states on a
+ * producer thread, while the consumer iterates over them. Appending blocks as soon as the buffer is full, so the
+ * producer never runs further ahead than the capacity of the buffer and memory stays bounded independent of the total
+ * number of states. The states are not linked to each other, hence delta states cannot be recorded into a stream.
+ * The consumer either iterates over the states, waiting for each state, or polls them, which never waits and is used
+ * on threads that must not block. Create a stream through {@link Algorithm#streamStateMachine(int)}.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+public class StateStream extends StateMachine implements AutoCloseable {
+
+    /**
+     * The state that marks the end of the stream. Is never handed over to the consumer.
+     *
+     * @since v1.0.0
+     */
+    private static final State END = new State(0, 0, 0) {
+        @Override
+        public String toString() {
+            return "End of stream";
+        }
+    };
+
+    /**
+     * The buffer between the producer and the consumer.
+     *
+     * @since v1.0.0
+     */
+    private final BlockingQueue<State> buffer;
+
+    /**
+     * The thread that runs the algorithm and appends the states.
+     *
+     * @since v1.0.0
+     */
+    private Thread producer;
+
+    /**
+     * The exception that terminated the algorithm, if any. Is rethrown to the consumer at the end of the stream.
+     *
+     * @since v1.0.0
+     */
+    private volatile Throwable failure;
+
+    /**
+     * The number of states appended by the producer.
+     *
+     * @since v1.0.0
+     */
+    private volatile long size = 0;
+
+    /**
+     * Whether the consumer took the end of the stream out of the buffer.
+     *
+     * @since v1.0.0
+     */
+    private volatile boolean ended = false;
+
+    /**
+     * Constructor initializing the buffer between the producer and the consumer.
+     *
+     * @param capacity  The maximum number of states that are produced but not yet consumed.
+     * @since v1.0.0
+     */
+    StateStream(int capacity) {
+        buffer = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Sets the thread that runs the algorithm. The thread is interrupted when the stream is closed.
+     *
+     * @param producer  The producer thread.
+     * @since v1.0.0
+     */
+    void setProducer(Thread producer) {
+        this.producer = producer;
+    }
+
+    /**
+     * Hands a state over to the consumer. Blocks while the buffer is full.
+     *
+     * @param state  The state to be handed over.
+     * @throws CancellationException    If the stream was closed by the consumer.
+     * @since v1.0.0
+     */
+    @Override
+    public void append(State state) {
+        try {
+            buffer.put(state);
+            size++;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("The state stream was closed.");
+        }
+    }
+
+    /**
+     * Returns the number of states appended by the producer so far, including the states not yet consumed.
+     *
+     * @return  The number of states.
+     * @since v1.0.0
+     */
+    @Override
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns false, since the states of a stream are handed over one by one and are not linked to each other.
+     *
+     * @return  False.
+     * @since v1.0.0
+     */
+    @Override
+    public boolean isLinked() {
+        return false;
+    }
+
+    /**
+     * Marks the end of the stream. Called by the producer after the algorithm terminated.
+     *
+     * @param failure   The exception that terminated the algorithm, or null if it completed.
+     * @since v1.0.0
+     */
+    void finish(Throwable failure) {
+        this.failure = failure;
+        try {
+            buffer.put(END);
+        } catch (InterruptedException e) {
+            // The stream was closed, so there is no consumer waiting for the end.
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns an iterator that takes the states out of the buffer. Calls of hasNext block until the producer appended
+     * the next state or finished.
+     *
+     * @return  The iterator.
+     * @since v1.0.0
+     */
+    @Override
+    public Iterator<State> iterator() {
+        return new Iterator<>() {
+            State next = null;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    next = take();
+                }
+                return next != END;
+            }
+
+            @Override
+            public State next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                State state = next;
+                next = null;
+                return state;
+            }
+        };
+    }
+
+    /**
+     * Takes the next state out of the buffer without waiting for the producer. At the end of the stream, an exception
+     * that terminated the algorithm is rethrown.
+     *
+     * @return  The next state, or null if the producer has not appended it yet or the stream ended.
+     * @since v1.0.0
+     */
+    public State poll() {
+        State state = buffer.poll();
+        if (state == null) {
+            return null;
+        }
+        return end(state) ? null : state;
+    }
+
+    /**
+     * Returns whether the consumer reached the end of the stream, so no more states follow.
+     *
+     * @return  True if the stream ended, false if more states may follow.
+     * @since v1.0.0
+     */
+    public boolean isEnded() {
+        return ended;
+    }
+
+    /**
+     * Takes the next state out of the buffer. At the end of the stream, an exception that terminated the algorithm is
+     * rethrown.
+     *
+     * @return  The next state or the end marker.
+     * @since v1.0.0
+     */
+    private State take() {
+        State state;
+        try {
+            state = buffer.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for the next state.");
+        }
+        end(state);
+        return state;
+    }
+
+    /**
+     * Checks whether the given state taken out of the buffer is the end of the stream. The end is put back, so later
+     * calls see it again, and an exception that terminated the algorithm is rethrown.
+     *
+     * @param state The state taken out of the buffer.
+     * @return  True if the state is the end of the stream.
+     * @since v1.0.0
+     */
+    private boolean end(State state) {
+        if (state != END) {
+            return false;
+        }
+        ended = true;
+        buffer.add(END);
+        if (failure != null) {
+            throw new IllegalStateException("The algorithm terminated with an exception.", failure);
+        }
+        return true;
+    }
+
+    /**
+     * Not supported, since the states of a stream are not kept.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @return  Nothing.
+     * @throws UnsupportedOperationException    Always.
+     * @since v1.0.0
+     */
+    @Override
+    public State seek(long step) {
+        throw new UnsupportedOperationException("A state stream cannot seek.");
+    }
+
+    /**
+     * Prints each remaining state of this stream to the console. Consumes the stream.
+     *
+     * @since v1.0.0
+     */
+    @Override
+    public void print() {
+        for (State state : this) {
+            System.out.println(state);
+        }
+    }
+
+    /**
+     * Closes the stream by interrupting the producer and waiting until it stopped. The producer stops at the next state
+     * it appends. States left in the buffer are dropped.
+     *
+     * @since v1.0.0
+     */
+    @Override
+    public void close() {
+        if (producer == null) {
+            return;
+        }
+        producer.interrupt();
+        buffer.clear();
+        try {
+            producer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        buffer.clear();
+        buffer.add(END);
+    }
+}
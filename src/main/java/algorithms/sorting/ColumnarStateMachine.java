@@ -0,0 +1,371 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting;
+
+import algorithms.State;
+
+import java.util.Arrays;
+
+/**
+ * A sorting trace that stores its states in parallel primitive arrays instead of a linked list of state objects. Each
+ * column (action, indices, elements, iteration and time) grows in chunks, so appending never copies the recorded
+ * states.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+public class ColumnarStateMachine extends SortingTrace {
+
+    /**
+     * The number of bits used to address a state inside a chunk.
+     *
+     * @since v1.0.0
+     */
+    private static final int CHUNK_BITS = 14;
+
+    /**
+     * The number of states stored in each chunk.
+     *
+     * @since v1.0.0
+     */
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    /**
+     * The mask used to compute the position of a state inside its chunk.
+     *
+     * @since v1.0.0
+     */
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /**
+     * The actions of all states in this state machine, given as ordinals of the SortingAction enumeration.
+     *
+     * @since v1.0.0
+     */
+    private byte[][] actions = new byte[0][];
+
+    /**
+     * The first indices of all states. For highlight states, this is the highlighted index.
+     *
+     * @since v1.0.0
+     */
+    private int[][] firstIndices = new int[0][];
+
+    /**
+     * The second indices of all states.
+     *
+     * @since v1.0.0
+     */
+    private int[][] secondIndices = new int[0][];
+
+    /**
+     * The first elements of all states. For highlight states, this is the highlighted element.
+     *
+     * @since v1.0.0
+     */
+    private int[][] firstElements = new int[0][];
+
+    /**
+     * The second elements of all states.
+     *
+     * @since v1.0.0
+     */
+    private int[][] secondElements = new int[0][];
+
+    /**
+     * The iterations of the algorithm in all states.
+     *
+     * @since v1.0.0
+     */
+    private int[][] iterations = new int[0][];
+
+    /**
+     * The time elapsed in nanoseconds from the start of the algorithm until each state.
+     *
+     * @since v1.0.0
+     */
+    private long[][] times = new long[0][];
+
+    /**
+     * The number of states stored in this state machine.
+     *
+     * @since v1.0.0
+     */
+    private long size = 0;
+
+    /**
+     * Constructor initializing the array before the first state, which is needed to rebuild the array of each state.
+     *
+     * @param initial   The array before the first state. Is not copied.
+     * @since v1.0.0
+     */
+    public ColumnarStateMachine(int[] initial) {
+        super(initial);
+    }
+
+    /**
+     * Appends a sorting state to this state machine. Only the columns of the state are stored, the state object itself
+     * is not kept.
+     *
+     * @param state  The state to be appended. Must be a sorting state.
+     * @since v1.0.0
+     */
+    @Override
+    public void append(State state) {
+        if (!(state instanceof SortingState sortingState)) {
+            throw new IllegalArgumentException("A columnar state machine can only store sorting states.");
+        }
+        append(
+                sortingState.getAction(),
+                sortingState.getFirstIndex(),
+                sortingState.getSecondIndex(),
+                sortingState.getFirstElement(),
+                sortingState.getSecondElement(),
+                sortingState.getIteration(),
+                (long) (sortingState.getTime() * 1_000_000_000)
+        );
+    }
+
+    /**
+     * Appends a state to this state machine without creating a state object.
+     *
+     * @param action    The action that takes place in the state.
+     * @param index1    The first index. For highlight states, the highlighted index.
+     * @param index2    The second index.
+     * @param element1  The first element. For highlight states, the highlighted element.
+     * @param element2  The second element.
+     * @param iteration The iteration of the algorithm in the state.
+     * @param time  The time elapsed in nanoseconds from the start of the algorithm until the state.
+     * @since v1.0.0
+     */
+    public void append(SortingAction action, int index1, int index2, int element1, int element2, int iteration, long time) {
+        int chunk = (int) (size >>> CHUNK_BITS);
+        int offset = (int) (size & CHUNK_MASK);
+        if (offset == 0) {
+            addChunk(chunk);
+        }
+        actions[chunk][offset] = (byte) action.ordinal();
+        firstIndices[chunk][offset] = index1;
+        secondIndices[chunk][offset] = index2;
+        firstElements[chunk][offset] = element1;
+        secondElements[chunk][offset] = element2;
+        iterations[chunk][offset] = iteration;
+        times[chunk][offset] = time;
+        size++;
+        reportProgress();
+    }
+
+    /**
+     * Allocates a new chunk for each column. The outer arrays double their length whenever they are full.
+     *
+     * @param chunk The number of the new chunk.
+     * @since v1.0.0
+     */
+    private void addChunk(int chunk) {
+        if (chunk == actions.length) {
+            int length = Math.max(4, chunk * 2);
+            actions = Arrays.copyOf(actions, length);
+            firstIndices = Arrays.copyOf(firstIndices, length);
+            secondIndices = Arrays.copyOf(secondIndices, length);
+            firstElements = Arrays.copyOf(firstElements, length);
+            secondElements = Arrays.copyOf(secondElements, length);
+            iterations = Arrays.copyOf(iterations, length);
+            times = Arrays.copyOf(times, length);
+        }
+        actions[chunk] = new byte[CHUNK_SIZE];
+        firstIndices[chunk] = new int[CHUNK_SIZE];
+        secondIndices[chunk] = new int[CHUNK_SIZE];
+        firstElements[chunk] = new int[CHUNK_SIZE];
+        secondElements[chunk] = new int[CHUNK_SIZE];
+        iterations[chunk] = new int[CHUNK_SIZE];
+        times[chunk] = new long[CHUNK_SIZE];
+    }
+
+    /**
+     * Returns the number of states stored in this state machine.
+     *
+     * @return  The number of states.
+     * @since v1.0.0
+     */
+    @Override
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns an estimate of the memory used by this state machine in bytes. Counts the allocated chunks of all
+     * columns, the array before the first state and the snapshots, assuming that the keyframe interval is at least the
+     * length of the array.
+     *
+     * @return  The estimated number of bytes.
+     * @since v1.0.0
+     */
+    public long getEstimatedBytes() {
+        long chunks = (size + CHUNK_SIZE - 1) >>> CHUNK_BITS;
+        long columns = chunks * CHUNK_SIZE * (Byte.BYTES + 5L * Integer.BYTES + Long.BYTES);
+        long arrays = (long) getInitialArray().length * Integer.BYTES + size / getKeyframeInterval() * getInitialArray().length * Integer.BYTES;
+        return columns + arrays;
+    }
+
+    /**
+     * Returns the action that takes place in the given state.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @return  The action.
+     * @since v1.0.0
+     */
+    @Override
+    public SortingAction getAction(long step) {
+        return ACTIONS[actions[(int) (step >>> CHUNK_BITS)][(int) (step & CHUNK_MASK)]];
+    }
+
+    /**
+     * Returns the first index of the given state. For highlight states, the highlighted index is returned.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @return  The first index.
+     * @since v1.0.0
+     */
+    @Override
+    public int getFirstIndex(long step) {
+        return firstIndices[(int) (step >>> CHUNK_BITS)][(int) (step & CHUNK_MASK)];
+    }
+
+    /**
+     * Returns the second index of the given state.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @return  The second index.
+     * @since v1.0.0
+     */
+    @Override
+    public int getSecondIndex(long step) {
+        return secondIndices[(int) (step >>> CHUNK_BITS)][(int) (step & CHUNK_MASK)];
+    }
+
+    /**
+     * Returns the first element of the given state. For highlight states, the highlighted element is returned.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @return  The first element.
+     * @since v1.0.0
+     */
+    @Override
+    public int getFirstElement(long step) {
+        return firstElements[(int) (step >>> CHUNK_BITS)][(int) (step & CHUNK_MASK)];
+    }
+
+    /**
+     * Returns the second element of the given state.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @return  The second element.
+     * @since v1.0.0
+     */
+    @Override
+    public int getSecondElement(long step) {
+        return secondElements[(int) (step >>> CHUNK_BITS)][(int) (step & CHUNK_MASK)];
+    }
+
+    /**
+     * Returns the iteration of the algorithm in the given state.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @return  The iteration.
+     * @since v1.0.0
+     */
+    @Override
+    public int getIteration(long step) {
+        return iterations[(int) (step >>> CHUNK_BITS)][(int) (step & CHUNK_MASK)];
+    }
+
+    /**
+     * Returns the time elapsed in nanoseconds from the start of the algorithm until the given state.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @return  The time elapsed in nanoseconds.
+     * @since v1.0.0
+     */
+    @Override
+    public long getTimeNanos(long step) {
+        return times[(int) (step >>> CHUNK_BITS)][(int) (step & CHUNK_MASK)];
+    }
+
+    /**
+     * Performs the action of the given state on the given array. Only swaps, writes and copies change the array. Reads the
+     * columns directly instead of going through the getters.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @param array The array.
+     * @since v1.0.0
+     */
+    @Override
+    public void applyTo(long step, int[] array) {
+        int chunk = (int) (step >>> CHUNK_BITS);
+        int offset = (int) (step & CHUNK_MASK);
+        int action = actions[chunk][offset];
+        if (action == SortingAction.SWAP.ordinal()) {
+            int index1 = firstIndices[chunk][offset];
+            int index2 = secondIndices[chunk][offset];
+            int tmp = array[index1];
+            array[index1] = array[index2];
+            array[index2] = tmp;
+        } else if (action == SortingAction.WRITE.ordinal() || action == SortingAction.COPY.ordinal()) {
+            array[firstIndices[chunk][offset]] = firstElements[chunk][offset];
+        }
+    }
+
+    /**
+     * Reverts the action of the given state on the given array, which must be the array after the state. Reads the
+     * columns directly instead of going through the getters.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @param array The array.
+     * @since v1.0.0
+     */
+    @Override
+    public void undo(long step, int[] array) {
+        int chunk = (int) (step >>> CHUNK_BITS);
+        int offset = (int) (step & CHUNK_MASK);
+        int action = actions[chunk][offset];
+        if (action == SortingAction.SWAP.ordinal()) {
+            applyTo(step, array);
+        } else if (action == SortingAction.WRITE.ordinal() || action == SortingAction.COPY.ordinal()) {
+            array[firstIndices[chunk][offset]] = secondElements[chunk][offset];
+        }
+    }
+
+    /**
+     * Clears the state machine by dropping all chunks and snapshots and setting the number of states to 0.
+     *
+     * @since v1.0.0
+     */
+    @Override
+    public void clear() {
+        super.clear();
+        actions = new byte[0][];
+        firstIndices = new int[0][];
+        secondIndices = new int[0][];
+        firstElements = new int[0][];
+        secondElements = new int[0][];
+        iterations = new int[0][];
+        times = new long[0][];
+        size = 0;
+    }
+}
@@ -0,0 +1,306 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting;
+
+import algorithms.State;
+
+import java.nio.MappedByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * A sorting trace that reads its states from a memory-mapped trace file. Nothing but the header is decoded when the
+ * file is loaded; the columns of a state are read from the mapped file whenever they are accessed. Since a single
+ * mapping cannot exceed 2 GB, the records are mapped in segments. The trace is read-only. Load a trace through
+ * {@link TraceFile#load(Path)}. Since the records are only decoded when they are accessed, a corrupted record is
+ * reported by an IllegalStateException naming the file when it is read.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+public class MappedTrace extends SortingTrace {
+
+    /**
+     * The number of bits used to address a state inside a segment.
+     *
+     * @since v1.0.0
+     */
+    private static final int SEGMENT_BITS = 25;
+
+    /**
+     * The number of states mapped by each segment.
+     *
+     * @since v1.0.0
+     */
+    static final long SEGMENT_STATES = 1L << SEGMENT_BITS;
+
+    /**
+     * The mask used to compute the position of a state inside its segment.
+     *
+     * @since v1.0.0
+     */
+    private static final long SEGMENT_MASK = SEGMENT_STATES - 1;
+
+    /**
+     * The path of the trace file, used in the messages of exceptions.
+     *
+     * @since v1.0.0
+     */
+    private final Path path;
+
+    /**
+     * The name of the algorithm that recorded the trace.
+     *
+     * @since v1.0.0
+     */
+    private final String algorithmName;
+
+    /**
+     * The number of states in the trace.
+     *
+     * @since v1.0.0
+     */
+    private final long size;
+
+    /**
+     * The mapped segments of the file containing the records of the states.
+     *
+     * @since v1.0.0
+     */
+    private final MappedByteBuffer[] segments;
+
+    /**
+     * Constructor initializing the trace from the header of a trace file and its mapped records.
+     *
+     * @param path  The path of the trace file.
+     * @param algorithmName The name of the algorithm that recorded the trace.
+     * @param initial   The array before the first state.
+     * @param size  The number of states in the trace.
+     * @param segments  The mapped segments containing the records of the states.
+     * @since v1.0.0
+     */
+    MappedTrace(Path path, String algorithmName, int[] initial, long size, MappedByteBuffer[] segments) {
+        super(initial);
+        this.path = path;
+        this.algorithmName = algorithmName;
+        this.size = size;
+        this.segments = segments;
+        setKeyframeInterval(Math.max(DEFAULT_KEYFRAME_INTERVAL, initial.length));
+    }
+
+    /**
+     * Returns the name of the algorithm that recorded the trace.
+     *
+     * @return  The name of the algorithm.
+     * @since v1.0.0
+     */
+    public String getAlgorithmName() {
+        return algorithmName;
+    }
+
+    /**
+     * Not supported, since a mapped trace is read-only.
+     *
+     * @param state  The state to be appended.
+     * @throws UnsupportedOperationException    Always.
+     * @since v1.0.0
+     */
+    @Override
+    public void append(State state) {
+        throw new UnsupportedOperationException("A mapped trace is read-only.");
+    }
+
+    /**
+     * Not supported, since a mapped trace is read-only.
+     *
+     * @throws UnsupportedOperationException    Always.
+     * @since v1.0.0
+     */
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("A mapped trace is read-only.");
+    }
+
+    /**
+     * Returns the number of states stored in the trace file.
+     *
+     * @return  The number of states.
+     * @since v1.0.0
+     */
+    @Override
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the mapped segment that contains the record of the given state.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @return  The segment.
+     * @since v1.0.0
+     */
+    private MappedByteBuffer segment(long step) {
+        return segments[(int) (step >>> SEGMENT_BITS)];
+    }
+
+    /**
+     * Returns the position of the record of the given state inside its segment.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @return  The position in bytes.
+     * @since v1.0.0
+     */
+    private int position(long step) {
+        return (int) (step & SEGMENT_MASK) * TraceFile.RECORD_SIZE;
+    }
+
+    /**
+     * Creates the exception reporting that the record of the given state is corrupted.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @param reason    What is wrong with the record.
+     * @return  The exception.
+     * @since v1.0.0
+     */
+    private IllegalStateException corrupted(long step, String reason) {
+        return new IllegalStateException("Trace file is corrupted, state " + step + " " + reason + ": " + path);
+    }
+
+    /**
+     * Returns the action that takes place in the given state.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @return  The action.
+     * @throws IllegalStateException    If the record stores no valid action.
+     * @since v1.0.0
+     */
+    @Override
+    public SortingAction getAction(long step) {
+        byte action = segment(step).get(position(step));
+        if (action < 0 || action >= ACTIONS.length) {
+            throw corrupted(step, "has the unknown action " + action);
+        }
+        return ACTIONS[action];
+    }
+
+    /**
+     * Performs the action of the given state on the given array.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @param array The array.
+     * @throws IllegalStateException    If the record stores no valid action or indices outside the array.
+     * @since v1.0.0
+     */
+    @Override
+    public void applyTo(long step, int[] array) {
+        try {
+            super.applyTo(step, array);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw corrupted(step, "has indices outside the array");
+        }
+    }
+
+    /**
+     * Reverts the action of the given state on the given array.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @param array The array.
+     * @throws IllegalStateException    If the record stores no valid action or indices outside the array.
+     * @since v1.0.0
+     */
+    @Override
+    public void undo(long step, int[] array) {
+        try {
+            super.undo(step, array);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw corrupted(step, "has indices outside the array");
+        }
+    }
+
+    /**
+     * Returns the first index of the given state. For highlight states, the highlighted index is returned.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @return  The first index.
+     * @since v1.0.0
+     */
+    @Override
+    public int getFirstIndex(long step) {
+        return segment(step).getInt(position(step) + 1);
+    }
+
+    /**
+     * Returns the second index of the given state.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @return  The second index.
+     * @since v1.0.0
+     */
+    @Override
+    public int getSecondIndex(long step) {
+        return segment(step).getInt(position(step) + 5);
+    }
+
+    /**
+     * Returns the first element of the given state. For highlight states, the highlighted element is returned.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @return  The first element.
+     * @since v1.0.0
+     */
+    @Override
+    public int getFirstElement(long step) {
+        return segment(step).getInt(position(step) + 9);
+    }
+
+    /**
+     * Returns the second element of the given state.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @return  The second element.
+     * @since v1.0.0
+     */
+    @Override
+    public int getSecondElement(long step) {
+        return segment(step).getInt(position(step) + 13);
+    }
+
+    /**
+     * Returns the iteration of the algorithm in the given state.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @return  The iteration.
+     * @since v1.0.0
+     */
+    @Override
+    public int getIteration(long step) {
+        return segment(step).getInt(position(step) + 17);
+    }
+
+    /**
+     * Returns the time elapsed in nanoseconds from the start of the algorithm until the given state.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @return  The time elapsed in nanoseconds.
+     * @since v1.0.0
+     */
+    @Override
+    public long getTimeNanos(long step) {
+        return segment(step).getLong(position(step) + 21);
+    }
+}
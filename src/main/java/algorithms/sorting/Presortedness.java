@@ -0,0 +1,379 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+/**
+ * Measures of how far an array is from being sorted in ascending order. All measures work on arbitrary values,
+ * including duplicates, and are computed in O(n log n) time, so they can be computed for large arrays:
+ * <ul>
+ *    <li>inversions: the number of pairs of elements in the wrong order, counted while merge sorting a copy of the array,
+ *    <li>runs: the number of maximal ascending runs,
+ *    <li>longest increasing subsequence: the length of the longest strictly increasing subsequence, computed by
+ *    patience sorting,
+ *    <li>max displacement: the largest distance of an element from its position in the stably sorted array.
+ * </ul>
+ * Equal elements are never out of order. The inversions, runs and displacements can be computed in parallel.
+ *
+ * @param length    The length of the array.
+ * @param inversions    The number of pairs of indices i &lt; j with array[i] &gt; array[j].
+ * @param runs  The number of maximal ascending runs, 0 for an empty array and 1 for a sorted array.
+ * @param longestIncreasingSubsequence  The length of the longest strictly increasing subsequence.
+ * @param maxDisplacement   The largest distance of an element from its position in the stably sorted array.
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+public record Presortedness(int length, long inversions, int runs, int longestIncreasingSubsequence, int maxDisplacement) {
+
+    /**
+     * The length of the ranges below which the inversions are counted sequentially in parallel mode.
+     *
+     * @since v1.0.0
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 13;
+
+    /**
+     * The length of the ranges which are sorted by insertion sort while counting the inversions.
+     *
+     * @since v1.0.0
+     */
+    private static final int INSERTION_THRESHOLD = 32;
+
+    /**
+     * Computes the measures of the given array sequentially.
+     *
+     * @param array The array. Is not changed.
+     * @return  The measures.
+     * @since v1.0.0
+     */
+    public static Presortedness of(int[] array) {
+        return of(array, false);
+    }
+
+    /**
+     * Computes the measures of the given array. In parallel mode, the inversions, runs and displacements are computed in
+     * the common fork/join pool. The longest increasing subsequence is always computed sequentially.
+     *
+     * @param array The array. Is not changed.
+     * @param parallel  Whether to compute in parallel.
+     * @return  The measures.
+     * @since v1.0.0
+     */
+    public static Presortedness of(int[] array, boolean parallel) {
+        return new Presortedness(
+                array.length,
+                countInversions(array, parallel),
+                countRuns(array, parallel),
+                longestIncreasingSubsequence(array),
+                maxDisplacement(array, parallel)
+        );
+    }
+
+    /**
+     * Returns the largest possible number of inversions of an array of this length, n(n-1)/2, reached by a strictly
+     * descending array.
+     *
+     * @return  The largest possible number of inversions.
+     * @since v1.0.0
+     */
+    public long maxInversions() {
+        return (long) length * (length - 1) / 2;
+    }
+
+    /**
+     * Returns the Kendall tau rank correlation between the array and its sorted order. It is 1 for a sorted array,
+     * -1 for a strictly descending array and close to 0 for a shuffled array. Ties are not corrected for.
+     *
+     * @return  The Kendall tau, between -1 and 1.
+     * @since v1.0.0
+     */
+    public double kendallTau() {
+        long pairs = maxInversions();
+        return pairs == 0 ? 1 : 1 - 2.0 * inversions / pairs;
+    }
+
+    /**
+     * Returns the share of the array that already lies in order, the length of the longest increasing subsequence
+     * divided by the length of the array. Its complement is the share of elements that have to be moved to sort the
+     * array.
+     *
+     * @return  The sorted share, between 0 and 1.
+     * @since v1.0.0
+     */
+    public double sortedShare() {
+        return length == 0 ? 1 : (double) longestIncreasingSubsequence / length;
+    }
+
+    /**
+     * Returns a compact string-representation of the measures.
+     *
+     * @return  The string-representation.
+     * @since v1.0.0
+     */
+    @Override
+    public String toString() {
+        return String.format(
+                "inversions: %d (Kendall tau: %f), runs: %d, longest increasing subsequence: %d, max displacement: %d",
+                inversions,
+                kendallTau(),
+                runs,
+                longestIncreasingSubsequence,
+                maxDisplacement
+        );
+    }
+
+    /**
+     * Counts the inversions of the given array by merge sorting a copy of it.
+     *
+     * @param array The array. Is not changed.
+     * @param parallel  Whether to sort the halves in parallel.
+     * @return  The number of inversions.
+     * @since v1.0.0
+     */
+    private static long countInversions(int[] array, boolean parallel) {
+        int[] copy = Arrays.copyOf(array, array.length);
+        int[] buffer = new int[array.length];
+        if (parallel) {
+            return ForkJoinPool.commonPool().invoke(new InversionTask(copy, buffer, 0, copy.length));
+        }
+        return countInversions(copy, buffer, 0, copy.length);
+    }
+
+    /**
+     * Sorts the given range of the array and counts its inversions.
+     *
+     * @param array The array.
+     * @param buffer    The buffer used while merging. Has the same length as the array.
+     * @param from  The index of the first element of the range.
+     * @param to    The index after the last element of the range.
+     * @return  The number of inversions within the range.
+     * @since v1.0.0
+     */
+    private static long countInversions(int[] array, int[] buffer, int from, int to) {
+        if (to - from <= INSERTION_THRESHOLD) {
+            return insertionSort(array, from, to);
+        }
+        int mid = (from + to) >>> 1;
+        return countInversions(array, buffer, from, mid)
+                + countInversions(array, buffer, mid, to)
+                + merge(array, buffer, from, mid, to);
+    }
+
+    /**
+     * Sorts the given range of the array by insertion sort. Each shift of an element removes exactly one inversion.
+     *
+     * @param array The array.
+     * @param from  The index of the first element of the range.
+     * @param to    The index after the last element of the range.
+     * @return  The number of inversions within the range.
+     * @since v1.0.0
+     */
+    private static long insertionSort(int[] array, int from, int to) {
+        long inversions = 0;
+        for (int i = from + 1; i < to; i++) {
+            int element = array[i];
+            int j = i - 1;
+            while (j >= from && array[j] > element) {
+                array[j + 1] = array[j];
+                j--;
+            }
+            array[j + 1] = element;
+            inversions += i - 1 - j;
+        }
+        return inversions;
+    }
+
+    /**
+     * Merges the sorted ranges [from, mid) and [mid, to) of the array and counts the inversions between them. Each
+     * element taken from the right range precedes all remaining elements of the left range.
+     *
+     * @param array The array.
+     * @param buffer    The buffer the ranges are copied to.
+     * @param from  The index of the first element of the left range.
+     * @param mid   The index of the first element of the right range.
+     * @param to    The index after the last element of the right range.
+     * @return  The number of inversions between the ranges.
+     * @since v1.0.0
+     */
+    private static long merge(int[] array, int[] buffer, int from, int mid, int to) {
+        if (array[mid - 1] <= array[mid]) {
+            return 0;
+        }
+        System.arraycopy(array, from, buffer, from, to - from);
+        long inversions = 0;
+        int i = from;
+        int j = mid;
+        int k = from;
+        while (i < mid && j < to) {
+            if (buffer[j] < buffer[i]) {
+                inversions += mid - i;
+                array[k++] = buffer[j++];
+            } else {
+                array[k++] = buffer[i++];
+            }
+        }
+        System.arraycopy(buffer, i, array, k, mid - i);
+        System.arraycopy(buffer, j, array, k + mid - i, to - j);
+        return inversions;
+    }
+
+    /**
+     * Counts the maximal ascending runs of the given array, which is one more than the number of descents.
+     *
+     * @param array The array.
+     * @param parallel  Whether to count in parallel.
+     * @return  The number of runs.
+     * @since v1.0.0
+     */
+    private static int countRuns(int[] array, boolean parallel) {
+        if (array.length == 0) {
+            return 0;
+        }
+        IntStream indices = IntStream.range(1, array.length);
+        if (parallel) {
+            indices = indices.parallel();
+        }
+        return 1 + (int) indices.filter(i -> array[i - 1] > array[i]).count();
+    }
+
+    /**
+     * Computes the length of the longest strictly increasing subsequence of the given array by patience sorting. The
+     * i-th entry of the piles is the smallest element ending an increasing subsequence of length i + 1.
+     *
+     * @param array The array.
+     * @return  The length of the longest increasing subsequence.
+     * @since v1.0.0
+     */
+    private static int longestIncreasingSubsequence(int[] array) {
+        int[] piles = new int[array.length];
+        int length = 0;
+        for (int element : array) {
+            int pile = Arrays.binarySearch(piles, 0, length, element);
+            if (pile < 0) {
+                pile = -pile - 1;
+                piles[pile] = element;
+                if (pile == length) {
+                    length++;
+                }
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Computes the largest distance of an element from its position in the stably sorted array. The elements are
+     * sorted together with their indices, packed into longs so that equal elements keep their order.
+     *
+     * @param array The array.
+     * @param parallel  Whether to sort and scan in parallel.
+     * @return  The largest displacement.
+     * @since v1.0.0
+     */
+    private static int maxDisplacement(int[] array, boolean parallel) {
+        long[] keys = new long[array.length];
+        for (int i = 0; i < array.length; i++) {
+            keys[i] = (long) array[i] << 32 | i;
+        }
+        IntStream positions = IntStream.range(0, keys.length);
+        if (parallel) {
+            Arrays.parallelSort(keys);
+            positions = positions.parallel();
+        } else {
+            Arrays.sort(keys);
+        }
+        return positions.map(position -> Math.abs(position - (int) keys[position])).max().orElse(0);
+    }
+
+    /**
+     * A fork/join task sorting a range of the array and counting its inversions. The halves are handled by separate
+     * tasks and merged afterwards. Small ranges are handled sequentially.
+     *
+     * @author Tim-Michael Krieg
+     * @version 1.0.0
+     * @since v1.0.0
+     */
+    private static class InversionTask extends RecursiveTask<Long> {
+
+        /**
+         * The array.
+         *
+         * @since v1.0.0
+         */
+        private final int[] array;
+
+        /**
+         * The buffer used while merging.
+         *
+         * @since v1.0.0
+         */
+        private final int[] buffer;
+
+        /**
+         * The index of the first element of the range.
+         *
+         * @since v1.0.0
+         */
+        private final int from;
+
+        /**
+         * The index after the last element of the range.
+         *
+         * @since v1.0.0
+         */
+        private final int to;
+
+        /**
+         * Constructor initializing the range handled by the task.
+         *
+         * @param array The array.
+         * @param buffer    The buffer used while merging.
+         * @param from  The index of the first element of the range.
+         * @param to    The index after the last element of the range.
+         * @since v1.0.0
+         */
+        InversionTask(int[] array, int[] buffer, int from, int to) {
+            this.array = array;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Sorts the range and counts its inversions.
+         *
+         * @return  The number of inversions within the range.
+         * @since v1.0.0
+         */
+        @Override
+        protected Long compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                return countInversions(array, buffer, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            InversionTask left = new InversionTask(array, buffer, from, mid);
+            InversionTask right = new InversionTask(array, buffer, mid, to);
+            invokeAll(left, right);
+            return left.join() + right.join() + merge(array, buffer, from, mid, to);
+        }
+    }
+}
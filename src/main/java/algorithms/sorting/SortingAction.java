@@ -18,7 +18,11 @@
 package algorithms.sorting;
 
 /**
- * Each element of this enumeration represents an action taken by a sorting algorithm in order to sort an array.
+ * Each element of this enumeration represents an action taken by a sorting algorithm in order to sort an array. Besides
+ * comparing and swapping elements, algorithms that do not sort in place write elements to the array, read them into an
+ * auxiliary buffer and copy them back. For these actions, the first index is the index in the array and the second
+ * index is the index in the buffer. The first element is the element written to or read from the array and the second
+ * element is the element it overwrites.
  *
  * @author Tim-Michael Krieg
  * @version 1.0.0
@@ -45,5 +49,79 @@ public enum SortingAction {
      *
      * @since v1.0.0
      */
-    SWAP
+    SWAP,
+
+    /**
+     * The action of writing an element to an index inside the array, for example from a count. The second index is -1.
+     *
+     * @since v1.0.0
+     */
+    WRITE,
+
+    /**
+     * The action of reading an element inside the array into an auxiliary buffer. The array does not change.
+     *
+     * @since v1.0.0
+     */
+    BUFFER,
+
+    /**
+     * The action of copying an element from an auxiliary buffer back to an index inside the array.
+     *
+     * @since v1.0.0
+     */
+    COPY;
+
+    /**
+     * Returns whether this action changes the array.
+     *
+     * @return  True, if the action is a swap, write or copy.
+     * @since v1.0.0
+     */
+    public boolean changesArray() {
+        return this == SWAP || this == WRITE || this == COPY;
+    }
+
+    /**
+     * Performs this action on the given array. Swaps exchange the elements at both indices; writes and copies set the
+     * element at the first index to the first element. The other actions do not change the array.
+     *
+     * @param array The array.
+     * @param index1    The first index of the action.
+     * @param index2    The second index of the action.
+     * @param element1  The first element of the action.
+     * @since v1.0.0
+     */
+    public void applyTo(int[] array, int index1, int index2, int element1) {
+        switch (this) {
+            case SWAP -> {
+                int tmp = array[index1];
+                array[index1] = array[index2];
+                array[index2] = tmp;
+            }
+            case WRITE, COPY -> array[index1] = element1;
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Reverts this action on the given array, which must be the array after the action. Swaps are their own inverse;
+     * writes and copies set the element at the first index back to the second element, which is the element they
+     * overwrote. The other actions do not change the array.
+     *
+     * @param array The array.
+     * @param index1    The first index of the action.
+     * @param index2    The second index of the action.
+     * @param element2  The second element of the action.
+     * @since v1.0.0
+     */
+    public void undo(int[] array, int index1, int index2, int element2) {
+        switch (this) {
+            case SWAP -> applyTo(array, index1, index2, element2);
+            case WRITE, COPY -> array[index1] = element2;
+            default -> {
+            }
+        }
+    }
 }
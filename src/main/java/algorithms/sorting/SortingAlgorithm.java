@@ -18,6 +18,9 @@
 package algorithms.sorting;
 
 import algorithms.Algorithm;
+import algorithms.StateMachine;
+import algorithms.sorting.workload.Workload;
+import datastructure.Pair;
 
 import java.util.Arrays;
 
@@ -46,18 +49,33 @@ public abstract class SortingAlgorithm extends Algorithm {
     protected int[] before;
 
     /**
-     * The total number of comparisons performed by the sorting algorithm.
+     * The workload the array was generated from, or null if the array was not generated from a workload.
      *
      * @since v1.0.0
      */
-    protected int totalComparisons = 0;
+    protected Workload workload;
 
     /**
-     * The total number of swaps performed by the sorting algorithm.
+     * The mode in which the states of the algorithm are recorded. See the TraceMode enumeration for more details.
      *
      * @since v1.0.0
      */
-    protected int totalSwaps = 0;
+    protected TraceMode traceMode = TraceMode.FULL;
+
+    /**
+     * The iteration reported to the tracer by the next call of {@link #compare(Tracer, int, int)}. Algorithms using the
+     * helper methods reset it to 1 before sorting.
+     *
+     * @since v1.0.0
+     */
+    protected int iteration = 1;
+
+    /**
+     * The listener told about the progress while the states of the algorithm are recorded, or null if there is none.
+     *
+     * @since v1.0.0
+     */
+    private StateMachine.ProgressListener progressListener;
 
     /**
      * Constructor initializing the array that is to be sorted by the algorithm.
@@ -68,6 +86,7 @@ public abstract class SortingAlgorithm extends Algorithm {
     protected SortingAlgorithm(int[] array) {
         this.array = Arrays.copyOf(array, array.length);
         before = getArrayCopy();
+        stateMachine = createStateMachine();
     }
 
     /**
@@ -87,19 +106,42 @@ public abstract class SortingAlgorithm extends Algorithm {
      * @since v1.0.0
      */
     public void setArray(int[] array) {
+        setArray(array, null);
+    }
+
+    /**
+     * Sets the array that is to be sorted by the sorting algorithm and the workload it was generated from, so that
+     * the summary can report how to generate the array again.
+     *
+     * @param array The array to be sorted.
+     * @param workload  The workload the array was generated from, or null if it was not generated from a workload.
+     * @since v1.0.0
+     */
+    public void setArray(int[] array, Workload workload) {
         this.array = Arrays.copyOf(array, array.length);
         this.before = getArrayCopy();
+        this.workload = workload;
         reset();
     }
 
+    /**
+     * Returns the workload the array was generated from.
+     *
+     * @return  The workload, or null if the array was not generated from a workload.
+     * @since v1.0.0
+     */
+    public Workload getWorkload() {
+        return workload;
+    }
+
     /**
      * Returns the total number of comparisons performed by the sorting algorithm. Only call after method run.
      *
      * @return  The total number of comparisons.
      * @since v1.0.0
      */
-    public int getTotalComparisons() {
-        return totalComparisons;
+    public long getTotalComparisons() {
+        return metrics.comparisons.sum();
     }
 
     /**
@@ -108,8 +150,67 @@ public abstract class SortingAlgorithm extends Algorithm {
      * @return  The total number of swaps.
      * @since v1.0.0
      */
-    public int getTotalSwaps() {
-        return totalSwaps;
+    public long getTotalSwaps() {
+        return metrics.swaps.sum();
+    }
+
+    /**
+     * Returns the mode in which the states of the algorithm are recorded.
+     *
+     * @return  The trace mode.
+     * @since v1.0.0
+     */
+    public TraceMode getTraceMode() {
+        return traceMode;
+    }
+
+    /**
+     * Sets the mode in which the states of the algorithm are recorded. Since states of a columnar state machine cannot
+     * be mixed with state objects, the state machine is replaced and all recorded states are dropped.
+     *
+     * @param traceMode The trace mode.
+     * @since v1.0.0
+     */
+    public void setTraceMode(TraceMode traceMode) {
+        this.traceMode = traceMode;
+        stateMachine = createStateMachine();
+    }
+
+    /**
+     * Sets the listener told about the progress while the states of the algorithm are recorded. The listener is kept
+     * when the state machine is replaced. It may cancel the recording by throwing a CancellationException, which is
+     * thrown on by method getStateMachine.
+     *
+     * @param progressListener  The listener, or null to remove it.
+     * @since v1.0.0
+     */
+    public void setProgressListener(StateMachine.ProgressListener progressListener) {
+        this.progressListener = progressListener;
+        stateMachine.setProgressListener(progressListener);
+    }
+
+    /**
+     * Estimates the number of states the algorithm records on its current array, so that the progress of a recording
+     * can be shown before it is finished. The default estimate of 1.5 n log n states fits quick sort on a shuffled array;
+     * algorithms whose number of states grows differently override this method.
+     *
+     * @return  The estimated number of states.
+     * @since v1.0.0
+     */
+    public long estimateStates() {
+        return estimateStates(1.5);
+    }
+
+    /**
+     * Estimates the number of states of an algorithm taking the given multiple of n log n steps on an array of length n.
+     *
+     * @param factor    The number of states per element and binary digit of the length.
+     * @return  The estimated number of states, at least 1.
+     * @since v1.0.0
+     */
+    protected long estimateStates(double factor) {
+        int n = array.length;
+        return n < 2 ? 1 : (long) (factor * n * (Math.log(n) / Math.log(2)));
     }
 
     /**
@@ -154,32 +255,530 @@ public abstract class SortingAlgorithm extends Algorithm {
     }
 
     /**
-     * Computes the level of unsortedness of an array. Since all arrays are constructed in a simple manner, a check for
-     * equality of index and element is enough. However, this method will be replaced by a more sophisticated method in
-     * the future.
+     * Runs the algorithm. Running the algorithm sorts the array from the smallest to the biggest value. This method is
+     * simply to check whether the implementation of the algorithm works. No states are recorded.
      *
-     * @param array The array.
-     * @return  The unsortedness.
      * @since v1.0.0
      */
-    public static double getUnsortednessOfArray(int[] array) {
-        int n = array.length;
-        int sum = 0;
-        for (int i = 0; i < n; i++) {
-            if (array[i] == i + 1) {
-                sum++;
+    public void sort() {
+        sort(Tracer.NONE);
+    }
+
+    /**
+     * Sorts the array from the smallest to the biggest value and reports each action to the given tracer. This is the
+     * single implementation of the algorithm, used both for sorting and for recording the states.
+     *
+     * @param tracer    The tracer receiving the actions.
+     * @since v1.0.0
+     */
+    public abstract void sort(Tracer tracer);
+
+    /**
+     * Compares the elements at the given indices and reports the comparison to the tracer. Each comparison starts a new
+     * iteration.
+     *
+     * @param tracer    The tracer receiving the action.
+     * @param index1    The index of the first element.
+     * @param index2    The index of the second element.
+     * @return  A negative number, zero or a positive number, if the first element is smaller than, equal to or bigger
+     *          than the second element.
+     * @since v1.0.0
+     */
+    protected final int compare(Tracer tracer, int index1, int index2) {
+        tracer.compare(array, iteration++, index1, index2);
+        return Integer.compare(array[index1], array[index2]);
+    }
+
+    /**
+     * Reports the swap to the tracer and swaps the elements at the given indices.
+     *
+     * @param tracer    The tracer receiving the action.
+     * @param index1    The index of the first element.
+     * @param index2    The index of the second element.
+     * @since v1.0.0
+     */
+    protected final void swap(Tracer tracer, int index1, int index2) {
+        tracer.swap(array, iteration, index1, index2);
+        int tmp = array[index1];
+        array[index1] = array[index2];
+        array[index2] = tmp;
+    }
+
+    /**
+     * Reports the write to the tracer and writes the given element to the given index.
+     *
+     * @param tracer    The tracer receiving the action.
+     * @param index The index the element is written to.
+     * @param element   The element.
+     * @since v1.0.0
+     */
+    protected final void write(Tracer tracer, int index, int element) {
+        tracer.write(array, iteration, index, element);
+        array[index] = element;
+    }
+
+    /**
+     * Reports the read to the tracer and reads the element at the given index into the given buffer.
+     *
+     * @param tracer    The tracer receiving the action.
+     * @param index The index of the element in the array.
+     * @param buffer    The buffer.
+     * @param bufferIndex   The index the element is stored at in the buffer.
+     * @since v1.0.0
+     */
+    protected final void buffer(Tracer tracer, int index, int[] buffer, int bufferIndex) {
+        tracer.buffer(array, iteration, index, bufferIndex);
+        buffer[bufferIndex] = array[index];
+    }
+
+    /**
+     * Reports the copy to the tracer and copies the element at the given index of the given buffer to the given index.
+     *
+     * @param tracer    The tracer receiving the action.
+     * @param index The index the element is copied to.
+     * @param buffer    The buffer.
+     * @param bufferIndex   The index of the element in the buffer.
+     * @since v1.0.0
+     */
+    protected final void copy(Tracer tracer, int index, int[] buffer, int bufferIndex) {
+        tracer.copy(array, iteration, index, bufferIndex, buffer[bufferIndex]);
+        array[index] = buffer[bufferIndex];
+    }
+
+    /**
+     * Sorts the array of this algorithm with the given algorithm and reports its actions to the given tracer. The given
+     * algorithm works on the array of this algorithm itself, so its actions are counted and recorded as actions of this
+     * algorithm. Used by algorithms that fall back to another algorithm for inputs they cannot handle.
+     *
+     * @param delegate  The algorithm sorting the array. Its own array is replaced.
+     * @param tracer    The tracer receiving the actions.
+     * @since v1.0.0
+     */
+    protected final void sortWith(SortingAlgorithm delegate, Tracer tracer) {
+        delegate.array = array;
+        delegate.sort(tracer);
+        iteration = delegate.iteration;
+    }
+
+    /**
+     * Partitions the given range around the median of its first, middle and last element. After sorting these three
+     * elements, the pivot is moved next to the last element, so the first and the last element stop both scans. The range must hold at least four elements.
+     *
+     * @param tracer    The tracer receiving the actions.
+     * @param low   The first index of the range.
+     * @param high  The last index of the range.
+     * @return  The final index of the pivot.
+     * @since v1.0.0
+     */
+    protected final int partition(Tracer tracer, int low, int high) {
+        int mid = (low + high) >>> 1;
+        if (compare(tracer, mid, low) < 0) {
+            swap(tracer, mid, low);
+        }
+        if (compare(tracer, high, low) < 0) {
+            swap(tracer, high, low);
+        }
+        if (compare(tracer, high, mid) < 0) {
+            swap(tracer, high, mid);
+        }
+
+        // Move the pivot next to the last element.
+        int pivot = high - 1;
+        swap(tracer, mid, pivot);
+
+        int i = low;
+        int j = pivot;
+        while (true) {
+            while (compare(tracer, ++i, pivot) < 0) {
+                // The pivot stops the scan.
+            }
+            while (compare(tracer, --j, pivot) > 0) {
+                // The first element stops the scan.
             }
+            if (i >= j) {
+                break;
+            }
+            swap(tracer, i, j);
         }
-        return (double) sum / n;
+        swap(tracer, i, pivot);
+        return i;
     }
 
     /**
-     * Runs the algorithm. Running the algorithm sorts the array from the smallest to the biggest value. This method is
-     * simply to check whether the implementation of the algorithm works.
+     * Sorts the given range of the array by insertion sort, swapping each element with its left neighbour until it is
+     * in place.
+     *
+     * @param tracer    The tracer receiving the actions.
+     * @param low   The first index of the range.
+     * @param high  The last index of the range.
+     * @since v1.0.0
+     */
+    protected final void insertionSort(Tracer tracer, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            for (int j = i; j > low && compare(tracer, j - 1, j) > 0; j--) {
+                swap(tracer, j - 1, j);
+            }
+        }
+    }
+
+    /**
+     * Runs the algorithm and builds the state machine.
+     *
+     * @since v1.0.0
+     */
+    @Override
+    protected void run() {
+        metrics.reset();
+        Counter recorder = new Recorder();
+        sort(recorder);
+        totalTime = (double) (System.nanoTime() - recorder.startTime) / 1_000_000_000;
+        totalIterations = recorder.iterations;
+    }
+
+    /**
+     * Sorts the array and counts the operations of the algorithm in its metrics, without recording states. Sets the
+     * total time and the total number of iterations like method run.
+     *
+     * @since v1.0.0
+     */
+    public void count() {
+        metrics.reset();
+        Counter counter = new Counter();
+        sort(counter);
+        totalTime = (double) (System.nanoTime() - counter.startTime) / 1_000_000_000;
+        totalIterations = counter.iterations;
+    }
+
+    /**
+     * Appends a state with the given action on the given indices and elements to the state machine. If the state
+     * machine does not link its states (for example, a state stream), delta states could not rebuild their arrays, so
+     * only states recorded in full mode carry arrays in that case. In columnar mode, the state is written to the
+     * primitive columns without allocating.
+     *
+     * @param action    The action that takes place in the state.
+     * @param id    The id (typically the number) of the state.
+     * @param timeNanos The time elapsed in nanoseconds from start of algorithm until this state.
+     * @param iteration The iteration of the algorithm in this state.
+     * @param index1    The first index of the action.
+     * @param index2    The second index of the action.
+     * @param element1  The first element of the action.
+     * @param element2  The second element of the action.
+     * @since v1.0.0
+     */
+    private void trace(SortingAction action, long id, long timeNanos, int iteration, int index1, int index2, int element1, int element2) {
+        if (traceMode == TraceMode.COLUMNAR && stateMachine instanceof ColumnarStateMachine columnar) {
+            columnar.append(action, index1, index2, element1, element2, iteration, timeNanos);
+            return;
+        }
+        double time = (double) timeNanos / 1_000_000_000;
+        if (traceMode != TraceMode.FULL && !stateMachine.isLinked()) {
+            stateMachine.append(
+                    SortingState.state(id, time, iteration, null, null, Integer.MIN_VALUE, Integer.MIN_VALUE, new Pair<>(index1, index2), new Pair<>(element1, element2), action)
+            );
+            return;
+        }
+        switch (traceMode) {
+            case FULL -> {
+                int[] copy = getArrayCopy();
+                int[] after = null;
+                if (action.changesArray()) {
+                    after = getArrayCopy();
+                    action.applyTo(after, index1, index2, element1);
+                }
+                stateMachine.append(switch (action) {
+                    case WRITE -> SortingState.write(id, time, iteration, copy, after, index1, element1, element2);
+                    case BUFFER -> SortingState.buffer(id, time, iteration, copy, index1, index2, element1);
+                    case COPY -> SortingState.copy(id, time, iteration, copy, after, index1, index2, element1, element2);
+                    default -> SortingState.state(id, time, iteration, copy, after, Integer.MIN_VALUE, Integer.MIN_VALUE, new Pair<>(index1, index2), new Pair<>(element1, element2), action);
+                });
+            }
+            case DELTA -> stateMachine.append(
+                    SortingState.deltaState(id, time, iteration, before, getKeyframeSnapshot(), Integer.MIN_VALUE, Integer.MIN_VALUE, new Pair<>(index1, index2), new Pair<>(element1, element2), action)
+            );
+            case COLUMNAR -> throw new IllegalStateException("The state machine does not match the columnar trace mode.");
+        }
+    }
+
+    /**
+     * The tracer counting the operations of the algorithm in its metrics without recording states. Each comparison reads
+     * two elements; each swap reads and writes two elements. Writing or copying an element writes it, reading an element
+     * into a buffer reads it.
+     *
+     * @author Tim-Michael Krieg
+     * @version 1.0.0
+     * @since v1.0.0
+     */
+    private class Counter implements Tracer {
+
+        /**
+         * The time the algorithm was started at, as given by System.nanoTime.
+         *
+         * @since v1.0.0
+         */
+        protected final long startTime = System.nanoTime();
+
+        /**
+         * The iteration of the last action.
+         *
+         * @since v1.0.0
+         */
+        private int iteration = 0;
+
+        /**
+         * The total number of iterations. Accumulated from the differences between the iterations of consecutive
+         * actions, so it keeps counting when the iteration reported by the algorithm overflows.
+         *
+         * @since v1.0.0
+         */
+        private long iterations = 0;
+
+        /**
+         * Counts a comparison.
+         *
+         * @param array The array that is sorted.
+         * @param iteration The iteration of the algorithm.
+         * @param index1    The index of the first element.
+         * @param index2    The index of the second element.
+         * @since v1.0.0
+         */
+        @Override
+        public void compare(int[] array, int iteration, int index1, int index2) {
+            countIterations(iteration);
+            metrics.comparisons.increment();
+            metrics.reads.add(2);
+        }
+
+        /**
+         * Counts a swap.
+         *
+         * @param array The array that is sorted.
+         * @param iteration The iteration of the algorithm.
+         * @param index1    The index of the first element.
+         * @param index2    The index of the second element.
+         * @since v1.0.0
+         */
+        @Override
+        public void swap(int[] array, int iteration, int index1, int index2) {
+            countIterations(iteration);
+            metrics.swaps.increment();
+            metrics.reads.add(2);
+            metrics.writes.add(2);
+        }
+
+        /**
+         * Counts a write.
+         *
+         * @param array The array that is sorted.
+         * @param iteration The iteration of the algorithm.
+         * @param index The index the element is written to.
+         * @param element   The element.
+         * @since v1.0.0
+         */
+        @Override
+        public void write(int[] array, int iteration, int index, int element) {
+            countIterations(iteration);
+            metrics.writes.increment();
+        }
+
+        /**
+         * Counts a read into a buffer.
+         *
+         * @param array The array that is sorted.
+         * @param iteration The iteration of the algorithm.
+         * @param index The index of the element in the array.
+         * @param bufferIndex   The index the element is stored at in the buffer.
+         * @since v1.0.0
+         */
+        @Override
+        public void buffer(int[] array, int iteration, int index, int bufferIndex) {
+            countIterations(iteration);
+            metrics.reads.increment();
+        }
+
+        /**
+         * Counts a copy from a buffer.
+         *
+         * @param array The array that is sorted.
+         * @param iteration The iteration of the algorithm.
+         * @param index The index the element is copied to.
+         * @param bufferIndex   The index of the element in the buffer.
+         * @param element   The element.
+         * @since v1.0.0
+         */
+        @Override
+        public void copy(int[] array, int iteration, int index, int bufferIndex, int element) {
+            countIterations(iteration);
+            metrics.writes.increment();
+        }
+
+        /**
+         * Returns false, since the counter only counts the actions.
+         *
+         * @return  False.
+         * @since v1.0.0
+         */
+        @Override
+        public boolean isRecording() {
+            return false;
+        }
+
+        /**
+         * Counts a number of actions of the same kind at once.
+         *
+         * @param action    The action.
+         * @param times The number of actions.
+         * @param iteration The iteration of the algorithm after the actions.
+         * @since v1.0.0
+         */
+        @Override
+        public void count(SortingAction action, long times, int iteration) {
+            countIterations(iteration);
+            switch (action) {
+                case COMPARE -> {
+                    metrics.comparisons.add(times);
+                    metrics.reads.add(2 * times);
+                }
+                case SWAP -> {
+                    metrics.swaps.add(times);
+                    metrics.reads.add(2 * times);
+                    metrics.writes.add(2 * times);
+                }
+                case WRITE, COPY -> metrics.writes.add(times);
+                case BUFFER -> metrics.reads.add(times);
+                case HIGHLIGHT -> {
+                }
+            }
+        }
+
+        /**
+         * Adds the difference between the given iteration and the iteration of the last action to the total number of
+         * iterations.
+         *
+         * @param iteration The iteration of the current action.
+         * @since v1.0.0
+         */
+        private void countIterations(int iteration) {
+            iterations += iteration - this.iteration;
+            this.iteration = iteration;
+        }
+    }
+
+    /**
+     * The tracer recording the actions of the algorithm as states of the state machine, in addition to counting them.
+     *
+     * @author Tim-Michael Krieg
+     * @version 1.0.0
+     * @since v1.0.0
+     */
+    private class Recorder extends Counter {
+
+        /**
+         * The id of the next state.
+         *
+         * @since v1.0.0
+         */
+        private long id = 1;
+
+        /**
+         * Returns true, since the recorder records the actions as states.
+         *
+         * @return  True.
+         * @since v1.0.0
+         */
+        @Override
+        public boolean isRecording() {
+            return true;
+        }
+
+        /**
+         * Counts and records a compare state.
+         *
+         * @param array The array that is sorted.
+         * @param iteration The iteration of the algorithm.
+         * @param index1    The index of the first element.
+         * @param index2    The index of the second element.
+         * @since v1.0.0
+         */
+        @Override
+        public void compare(int[] array, int iteration, int index1, int index2) {
+            super.compare(array, iteration, index1, index2);
+            trace(SortingAction.COMPARE, id++, System.nanoTime() - startTime, iteration, index1, index2, array[index1], array[index2]);
+        }
+
+        /**
+         * Counts and records a swap state.
+         *
+         * @param array The array that is sorted.
+         * @param iteration The iteration of the algorithm.
+         * @param index1    The index of the first element.
+         * @param index2    The index of the second element.
+         * @since v1.0.0
+         */
+        @Override
+        public void swap(int[] array, int iteration, int index1, int index2) {
+            super.swap(array, iteration, index1, index2);
+            trace(SortingAction.SWAP, id++, System.nanoTime() - startTime, iteration, index1, index2, array[index1], array[index2]);
+        }
+
+        /**
+         * Counts and records a write state.
+         *
+         * @param array The array that is sorted.
+         * @param iteration The iteration of the algorithm.
+         * @param index The index the element is written to.
+         * @param element   The element.
+         * @since v1.0.0
+         */
+        @Override
+        public void write(int[] array, int iteration, int index, int element) {
+            super.write(array, iteration, index, element);
+            trace(SortingAction.WRITE, id++, System.nanoTime() - startTime, iteration, index, -1, element, array[index]);
+        }
+
+        /**
+         * Counts and records a buffer state.
+         *
+         * @param array The array that is sorted.
+         * @param iteration The iteration of the algorithm.
+         * @param index The index of the element in the array.
+         * @param bufferIndex   The index the element is stored at in the buffer.
+         * @since v1.0.0
+         */
+        @Override
+        public void buffer(int[] array, int iteration, int index, int bufferIndex) {
+            super.buffer(array, iteration, index, bufferIndex);
+            trace(SortingAction.BUFFER, id++, System.nanoTime() - startTime, iteration, index, bufferIndex, array[index], array[index]);
+        }
+
+        /**
+         * Counts and records a copy state.
+         *
+         * @param array The array that is sorted.
+         * @param iteration The iteration of the algorithm.
+         * @param index The index the element is copied to.
+         * @param bufferIndex   The index of the element in the buffer.
+         * @param element   The element.
+         * @since v1.0.0
+         */
+        @Override
+        public void copy(int[] array, int iteration, int index, int bufferIndex, int element) {
+            super.copy(array, iteration, index, bufferIndex, element);
+            trace(SortingAction.COPY, id++, System.nanoTime() - startTime, iteration, index, bufferIndex, element, array[index]);
+        }
+    }
+
+    /**
+     * Returns a copy of the array if the next state is a keyframe of the state machine, else null. Delta states with a
+     * snapshot bound the number of states replayed when an array is rebuilt. The first state needs no snapshot, since
+     * the array before sorting is used instead.
      *
+     * @return  The snapshot, or null.
      * @since v1.0.0
      */
-    public abstract void sort();
+    private int[] getKeyframeSnapshot() {
+        long step = stateMachine.size();
+        return step > 0 && stateMachine.isKeyframe(step) ? getArrayCopy() : null;
+    }
 
     /**
      * Resets the algorithm. The reset is done by resetting the attributes of the algorithm. Further, the state machine
@@ -188,11 +787,25 @@ public abstract class SortingAlgorithm extends Algorithm {
      * @since v1.0.0
      */
     private void reset() {
-        totalComparisons = 0;
-        totalSwaps = 0;
+        metrics.reset();
         totalIterations = 0;
         totalTime = 0;
-        stateMachine.clear();
+        stateMachine = createStateMachine();
+    }
+
+    /**
+     * Creates an empty state machine that fits the trace mode of the algorithm. A columnar state machine needs the
+     * array before sorting to rebuild the arrays of its states. The keyframe interval is at least the length of the
+     * array, so the snapshots of the array never take more than one element per state.
+     *
+     * @return  The state machine.
+     * @since v1.0.0
+     */
+    private StateMachine createStateMachine() {
+        StateMachine machine = traceMode == TraceMode.COLUMNAR ? new ColumnarStateMachine(before) : new StateMachine();
+        machine.setKeyframeInterval(Math.max(StateMachine.DEFAULT_KEYFRAME_INTERVAL, array.length));
+        machine.setProgressListener(progressListener);
+        return machine;
     }
 
 }
@@ -0,0 +1,282 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting;
+
+import algorithms.AlgorithmCatalog;
+import algorithms.sorting.parallelmergesort.ParallelMergeSort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Runs several sorting algorithms on copies of the same array and ranks them by time. Each algorithm runs as its own
+ * task in a dedicated ForkJoinPool, so the number of algorithms running at the same time is fixed by the parallelism
+ * of the race and does not depend on the common pool. By default, the algorithms run one after another, since
+ * algorithms running at the same time compete for cores, caches and memory bandwidth and distort each other's timings.
+ * Parallel algorithms do not use the common pool either: each run gets its own pool with an equal share of the
+ * processors. Each algorithm first sorts untimed warmup copies, then sorts a timed copy without recording states, and
+ * finally sorts another copy counting its operations. Counting is kept out of the timed run, so the times are not
+ * distorted by the counters.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+public class SortingRace {
+
+    /**
+     * The result of a single algorithm in a race.
+     *
+     * @param rank  The rank of the algorithm, starting at 1 for the fastest algorithm.
+     * @param name  The name of the algorithm.
+     * @param time  The time in seconds the algorithm took to sort the array without recording states.
+     * @param summary   The summary of the run counting the operations of the algorithm.
+     * @since v1.0.0
+     */
+    public record Result(int rank, String name, double time, SortingSummary summary) {
+
+        /**
+         * Returns the number of comparisons of the algorithm.
+         *
+         * @return  The number of comparisons.
+         * @since v1.0.0
+         */
+        public long comparisons() {
+            return summary.getTotalComparisons();
+        }
+
+        /**
+         * Returns the number of swaps of the algorithm.
+         *
+         * @return  The number of swaps.
+         * @since v1.0.0
+         */
+        public long swaps() {
+            return summary.getTotalSwaps();
+        }
+    }
+
+    /**
+     * The names of the algorithms taking part in the race.
+     *
+     * @since v1.0.0
+     */
+    private final List<String> algorithmNames;
+
+    /**
+     * The maximum number of algorithms running at the same time.
+     *
+     * @since v1.0.0
+     */
+    private int parallelism = 1;
+
+    /**
+     * The number of untimed runs of each algorithm before the timed run.
+     *
+     * @since v1.0.0
+     */
+    private int warmupRuns = 0;
+
+    /**
+     * Constructor initializing a race of all sorting algorithms of the algorithm catalog.
+     *
+     * @since v1.0.0
+     */
+    public SortingRace() {
+        this(AlgorithmCatalog.getInstance().getNames("Sorting"));
+    }
+
+    /**
+     * Constructor initializing a race of the algorithms with the given names. The algorithms run one after another.
+     *
+     * @param algorithmNames    The names of the algorithms.
+     * @since v1.0.0
+     */
+    public SortingRace(List<String> algorithmNames) {
+        this.algorithmNames = List.copyOf(algorithmNames);
+    }
+
+    /**
+     * Returns the maximum number of algorithms running at the same time.
+     *
+     * @return  The parallelism.
+     * @since v1.0.0
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the maximum number of algorithms running at the same time. The default parallelism of 1 runs the algorithms
+     * one after another, so they cannot distort each other's timings. A higher parallelism finishes the race sooner,
+     * but the times are only comparable among algorithms that are not limited by memory bandwidth.
+     *
+     * @param parallelism   The parallelism. Must be positive.
+     * @since v1.0.0
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be positive.");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Returns the number of untimed runs of each algorithm before the timed run.
+     *
+     * @return  The number of warmup runs.
+     * @since v1.0.0
+     */
+    public int getWarmupRuns() {
+        return warmupRuns;
+    }
+
+    /**
+     * Sets the number of untimed runs of each algorithm before the timed run. Warmup runs let the JIT compiler compile
+     * the algorithm before it is timed.
+     *
+     * @param warmupRuns    The number of warmup runs. Must not be negative.
+     * @since v1.0.0
+     */
+    public void setWarmupRuns(int warmupRuns) {
+        if (warmupRuns < 0) {
+            throw new IllegalArgumentException("The number of warmup runs must not be negative.");
+        }
+        this.warmupRuns = warmupRuns;
+    }
+
+    /**
+     * Runs all algorithms on copies of the given array and returns their results, ranked by time.
+     *
+     * @param array The array to be sorted. Is not changed.
+     * @return  The results, starting with the fastest algorithm.
+     * @throws IllegalStateException    If an algorithm failed.
+     * @since v1.0.0
+     */
+    public List<Result> run(int[] array) {
+        int[] input = Arrays.copyOf(array, array.length);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<ForkJoinTask<Result>> tasks = new ArrayList<>();
+            for (String name : algorithmNames) {
+                tasks.add(pool.submit(() -> race(name, input)));
+            }
+
+            List<Result> results = new ArrayList<>();
+            for (ForkJoinTask<Result> task : tasks) {
+                results.add(task.get());
+            }
+            results.sort(Comparator.comparingDouble(Result::time));
+
+            List<Result> ranked = new ArrayList<>();
+            for (int i = 0; i < results.size(); i++) {
+                Result result = results.get(i);
+                ranked.add(new Result(i + 1, result.name(), result.time(), result.summary()));
+            }
+            return ranked;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The race was interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("An algorithm failed during the race.", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs a single algorithm: the warmup runs, the timed run and the counting run. Each run sorts a new copy of the
+     * array. Parallel algorithms run their tasks in a pool of their own, which gets the processors divided by the
+     * parallelism of the race.
+     *
+     * @param name  The name of the algorithm.
+     * @param input The array to be sorted. Is not changed.
+     * @return  The result without rank.
+     * @since v1.0.0
+     */
+    private Result race(String name, int[] input) {
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() / parallelism));
+        try {
+            for (int i = 0; i < warmupRuns; i++) {
+                create(name, input, pool).sort();
+            }
+
+            SortingAlgorithm timed = create(name, input, pool);
+            long start = System.nanoTime();
+            timed.sort();
+            double time = (double) (System.nanoTime() - start) / 1_000_000_000;
+
+            SortingAlgorithm counted = create(name, input, pool);
+            counted.count();
+            return new Result(0, counted.getName(), time, counted.getSummary());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Creates the algorithm with the given name on a copy of the given array. Parallel algorithms are given the pool
+     * of the run.
+     *
+     * @param name  The name of the algorithm.
+     * @param input The array to be sorted. Is copied by the algorithm.
+     * @param pool  The pool running the tasks of parallel algorithms.
+     * @return  The algorithm.
+     * @since v1.0.0
+     */
+    private static SortingAlgorithm create(String name, int[] input, ForkJoinPool pool) {
+        SortingAlgorithm algorithm = AlgorithmCatalog.getInstance().createSortingAlgorithm(name, input);
+        if (algorithm instanceof ParallelMergeSort parallel) {
+            parallel.setPool(pool);
+        }
+        return algorithm;
+    }
+
+    /**
+     * Formats the given results as a table with one row per algorithm.
+     *
+     * @param results   The ranked results.
+     * @return  The table.
+     * @since v1.0.0
+     */
+    public static String toTable(List<Result> results) {
+        int width = "Algorithm".length();
+        for (Result result : results) {
+            width = Math.max(width, result.name().length());
+        }
+        StringBuilder builder = new StringBuilder();
+        String format = "%-4s  %-" + width + "s  %12s  %15s  %15s%n";
+        builder.append(String.format(format, "Rank", "Algorithm", "Time (ms)", "Comparisons", "Swaps"));
+        for (Result result : results) {
+            builder.append(String.format(
+                    format,
+                    result.rank(),
+                    result.name(),
+                    String.format("%.3f", result.time() * 1000),
+                    result.comparisons(),
+                    result.swaps()
+            ));
+        }
+        return builder.toString();
+    }
+}
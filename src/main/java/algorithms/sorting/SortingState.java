@@ -83,6 +83,14 @@ public class SortingState extends State {
      */
     private final SortingAction action;
 
+    /**
+     * The array before the first state of the trace. Only set for delta states, which do not store copies of the array
+     * and instead rebuild them on demand by replaying the preceding states on this array.
+     *
+     * @since v1.0.0
+     */
+    private final int[] initial;
+
     /**
      * Constructor initializing a state of a sorting algorithm. Use methods for initialization.
      *
@@ -96,9 +104,10 @@ public class SortingState extends State {
      * @param indices   The indices of the elements that are either compared or swapped in this state.
      * @param elements  The elements of the elements that are either compared or swapped in this state.
      * @param action    The action that takes place in this state. See the SortingAction enumeration for more details.
+     * @param initial   The array before the first state of the trace. Only set for delta states.
      * @since v1.0.0
      */
-    private SortingState(int id, double time, int iteration, int[] before, int[] after, int index, int element, Pair<Integer, Integer> indices, Pair<Integer, Integer> elements, SortingAction action) {
+    private SortingState(long id, double time, int iteration, int[] before, int[] after, int index, int element, Pair<Integer, Integer> indices, Pair<Integer, Integer> elements, SortingAction action, int[] initial) {
         super(id, time, iteration);
         this.before = before;
         this.after = after;
@@ -107,6 +116,17 @@ public class SortingState extends State {
         this.indices = indices;
         this.elements = elements;
         this.action = action;
+        this.initial = initial;
+    }
+
+    /**
+     * Constructor for subclasses that act as a view on states stored elsewhere, for example in a columnar state
+     * machine. Such subclasses have to override the getters of this class.
+     *
+     * @since v1.0.0
+     */
+    protected SortingState() {
+        this(0, 0, 0, null, null, Integer.MIN_VALUE, Integer.MIN_VALUE, null, null, null, null);
     }
 
     /**
@@ -125,8 +145,8 @@ public class SortingState extends State {
      * @return  A new state of a sorting algorithm.
      * @since v1.0.0
      */
-    public static SortingState state(int id, double time, int iteration, int[] before, int[] after, int index, int element, Pair<Integer, Integer> indices, Pair<Integer, Integer> elements, SortingAction action) {
-        return new SortingState(id, time, iteration, before, after, index, element, indices, elements, action);
+    public static SortingState state(long id, double time, int iteration, int[] before, int[] after, int index, int element, Pair<Integer, Integer> indices, Pair<Integer, Integer> elements, SortingAction action) {
+        return new SortingState(id, time, iteration, before, after, index, element, indices, elements, action, null);
     }
 
     /**
@@ -141,8 +161,8 @@ public class SortingState extends State {
      * @return  The highlight state.
      * @since v1.0.0
      */
-    public static SortingState highlight(int id, double time, int iteration, int[] before, int index, int element) {
-        return new SortingState(id, time, iteration, before, null, index, element, null, null, SortingAction.HIGHLIGHT);
+    public static SortingState highlight(long id, double time, int iteration, int[] before, int index, int element) {
+        return new SortingState(id, time, iteration, before, null, index, element, null, null, SortingAction.HIGHLIGHT, null);
     }
 
     /**
@@ -157,8 +177,8 @@ public class SortingState extends State {
      * @return  The compare state.
      * @since v1.0.0
      */
-    public static SortingState comparison(int id, double time, int iteration, int[] before, Pair<Integer, Integer> indices, Pair<Integer, Integer> elements) {
-        return new SortingState(id, time, iteration, before, null, Integer.MIN_VALUE, Integer.MIN_VALUE, indices, elements, SortingAction.COMPARE);
+    public static SortingState comparison(long id, double time, int iteration, int[] before, Pair<Integer, Integer> indices, Pair<Integer, Integer> elements) {
+        return new SortingState(id, time, iteration, before, null, Integer.MIN_VALUE, Integer.MIN_VALUE, indices, elements, SortingAction.COMPARE, null);
     }
 
     /**
@@ -174,28 +194,155 @@ public class SortingState extends State {
      * @return  The swap state.
      * @since v1.0.0
      */
-    public static SortingState swap(int id, double time, int iteration, int[] before, int[] after, Pair<Integer, Integer> indices, Pair<Integer, Integer> elements) {
-        return new SortingState(id, time, iteration, before, after, Integer.MIN_VALUE, Integer.MIN_VALUE, indices, elements, SortingAction.SWAP);
+    public static SortingState swap(long id, double time, int iteration, int[] before, int[] after, Pair<Integer, Integer> indices, Pair<Integer, Integer> elements) {
+        return new SortingState(id, time, iteration, before, after, Integer.MIN_VALUE, Integer.MIN_VALUE, indices, elements, SortingAction.SWAP, null);
+    }
+
+    /**
+     * Constructs a write state of a sorting algorithm.
+     *
+     * @param id    The id (typically the number) of the state.
+     * @param time  The time elapsed from start of algorithm until this state.
+     * @param iteration The iteration of the algorithm in this state.
+     * @param before    The state of the array before the write.
+     * @param after The state of the array after the write.
+     * @param index The index the element is written to.
+     * @param element   The element that is written.
+     * @param overwritten   The element that is overwritten.
+     * @return  The write state.
+     * @since v1.0.0
+     */
+    public static SortingState write(long id, double time, int iteration, int[] before, int[] after, int index, int element, int overwritten) {
+        return new SortingState(id, time, iteration, before, after, Integer.MIN_VALUE, Integer.MIN_VALUE, new Pair<>(index, -1), new Pair<>(element, overwritten), SortingAction.WRITE, null);
+    }
+
+    /**
+     * Constructs a buffer state of a sorting algorithm.
+     *
+     * @param id    The id (typically the number) of the state.
+     * @param time  The time elapsed from start of algorithm until this state.
+     * @param iteration The iteration of the algorithm in this state.
+     * @param before    The state of the array.
+     * @param index The index of the element that is read into the buffer.
+     * @param bufferIndex   The index the element is stored at in the buffer.
+     * @param element   The element that is read into the buffer.
+     * @return  The buffer state.
+     * @since v1.0.0
+     */
+    public static SortingState buffer(long id, double time, int iteration, int[] before, int index, int bufferIndex, int element) {
+        return new SortingState(id, time, iteration, before, null, Integer.MIN_VALUE, Integer.MIN_VALUE, new Pair<>(index, bufferIndex), new Pair<>(element, element), SortingAction.BUFFER, null);
     }
 
     /**
-     * Returns the state of the array before the action by the algorithm was performed.
+     * Constructs a copy state of a sorting algorithm.
+     *
+     * @param id    The id (typically the number) of the state.
+     * @param time  The time elapsed from start of algorithm until this state.
+     * @param iteration The iteration of the algorithm in this state.
+     * @param before    The state of the array before the copy.
+     * @param after The state of the array after the copy.
+     * @param index The index the element is copied to.
+     * @param bufferIndex   The index of the element in the buffer.
+     * @param element   The element that is copied.
+     * @param overwritten   The element that is overwritten.
+     * @return  The copy state.
+     * @since v1.0.0
+     */
+    public static SortingState copy(long id, double time, int iteration, int[] before, int[] after, int index, int bufferIndex, int element, int overwritten) {
+        return new SortingState(id, time, iteration, before, after, Integer.MIN_VALUE, Integer.MIN_VALUE, new Pair<>(index, bufferIndex), new Pair<>(element, overwritten), SortingAction.COPY, null);
+    }
+
+    /**
+     * Constructs a state of a sorting algorithm that does not store copies of the array, unless a snapshot is given.
+     * States with a snapshot act as keyframes: rebuilding the array of a later state starts from the closest snapshot
+     * instead of the array before the first state.
+     *
+     * @param id    The id (typically the number) of the state.
+     * @param time  The time elapsed from start of algorithm until this state.
+     * @param iteration The iteration of the algorithm in this state.
+     * @param initial   The array before the first state of the trace. Is not copied.
+     * @param snapshot  The state of the array before the action by the sorting algorithm was performed, or null.
+     * @param index The index of the element inside the array that is currently highlighted by the algorithm.
+     * @param element   The element inside the array that is currently highlighted by the algorithm.
+     * @param indices   The indices of the elements that are either compared or swapped in this state.
+     * @param elements  The elements of the elements that are either compared or swapped in this state.
+     * @param action    The action that takes place in this state. See the SortingAction enumeration for more details.
+     * @return  A new delta state of a sorting algorithm.
+     * @since v1.0.0
+     */
+    public static SortingState deltaState(long id, double time, int iteration, int[] initial, int[] snapshot, int index, int element, Pair<Integer, Integer> indices, Pair<Integer, Integer> elements, SortingAction action) {
+        return new SortingState(id, time, iteration, snapshot, null, index, element, indices, elements, action, initial);
+    }
+
+    /**
+     * Returns the state of the array before the action by the algorithm was performed. For delta states, the array is
+     * rebuilt on every call.
      *
      * @return  The array.
      * @since v1.0.0
      */
     public int[] getArrayBefore() {
-        return before;
+        if (before != null || initial == null) {
+            return before;
+        }
+        return rebuildArray();
     }
 
     /**
-     * Returns the state of the array after the action by the algorithm was performed.
+     * Returns the state of the array after the action by the algorithm was performed. Only states whose action changes
+     * the array have an array after the action. For delta states, the array is rebuilt on every call.
      *
      * @return  The array.
      * @since v1.0.0
      */
     public int[] getArrayAfter() {
-        return after;
+        if (after != null || initial == null || !action.changesArray()) {
+            return after;
+        }
+        int[] array = rebuildArray();
+        applyTo(array);
+        return array;
+    }
+
+    /**
+     * Returns whether this state is a delta state. Delta states do not store copies of the array.
+     *
+     * @return  True, if this is a delta state.
+     * @since v1.0.0
+     */
+    public boolean isDelta() {
+        return initial != null;
+    }
+
+    /**
+     * Performs the action of this state on the given array. Only swaps, writes and copies change the array.
+     *
+     * @param array The array.
+     * @since v1.0.0
+     */
+    public void applyTo(int[] array) {
+        getAction().applyTo(array, getFirstIndex(), getSecondIndex(), getFirstElement());
+    }
+
+    /**
+     * Rebuilds the array before the action of this state was performed. The previous states are walked back until a
+     * state that still stores a copy of the array is found, or until the first state is reached. Then the array is
+     * replayed forward up to this state.
+     *
+     * @return  The rebuilt array.
+     * @since v1.0.0
+     */
+    private int[] rebuildArray() {
+        SortingState anchor = this;
+        while (anchor.before == null && anchor.previous instanceof SortingState previous) {
+            anchor = previous;
+        }
+
+        int[] array = anchor.before != null ? anchor.before.clone() : initial.clone();
+        for (State state = anchor; state != this; state = state.next) {
+            ((SortingState) state).applyTo(array);
+        }
+        return array;
     }
 
     /**
@@ -239,6 +386,50 @@ public class SortingState extends State {
         return elements;
     }
 
+    /**
+     * Returns the index of the first element that is compared or swapped in this state. For highlight states, the
+     * highlighted index is returned. Unlike {@link #getIndices()}, no pair is created.
+     *
+     * @return  The first index.
+     * @since v1.0.0
+     */
+    public int getFirstIndex() {
+        return indices != null ? indices.first : index;
+    }
+
+    /**
+     * Returns the index of the second element that is compared or swapped in this state. For highlight states,
+     * {@code Integer.MIN_VALUE} is returned.
+     *
+     * @return  The second index.
+     * @since v1.0.0
+     */
+    public int getSecondIndex() {
+        return indices != null ? indices.second : Integer.MIN_VALUE;
+    }
+
+    /**
+     * Returns the first element that is compared or swapped in this state. For highlight states, the highlighted
+     * element is returned.
+     *
+     * @return  The first element.
+     * @since v1.0.0
+     */
+    public int getFirstElement() {
+        return elements != null ? elements.first : element;
+    }
+
+    /**
+     * Returns the second element that is compared or swapped in this state. For highlight states,
+     * {@code Integer.MIN_VALUE} is returned.
+     *
+     * @return  The second element.
+     * @since v1.0.0
+     */
+    public int getSecondElement() {
+        return elements != null ? elements.second : Integer.MIN_VALUE;
+    }
+
     /**
      * Returns the action that takes place in this state. See the SortingState enumeration for more details.
      *
@@ -259,44 +450,63 @@ public class SortingState extends State {
     public String toString() {
         StringBuilder builder = new StringBuilder();
 
-        builder.append(String.format("ID: %d, Iteration: %d, ", id, iteration));
+        builder.append(String.format("ID: %d, Iteration: %d, ", getId(), getIteration()));
 
-        switch (action) {
+        switch (getAction()) {
             case HIGHLIGHT -> builder.append(
                     "Performed action: Highlight"
             ).append(
-                    String.format(", Highlighted index: %d", index)
+                    String.format(", Highlighted index: %d", getFirstIndex())
+            ).append(
+                    String.format(", Highlighted element: %d", getFirstElement())
+            ).append(
+                    String.format(", Array: %s", Arrays.toString(getArrayBefore()))
+            );
+            case COMPARE -> builder.append(
+                    "Performed action: Compare"
+            ).append(
+                    String.format(", Compared indices: %d and %d", getFirstIndex(), getSecondIndex())
+            ).append(
+                    String.format(", Compared elements: %d and %d, ", getFirstElement(), getSecondElement())
+            ).append(
+                    String.format(", Array: %s", Arrays.toString(getArrayBefore()))
+            );
+            case SWAP -> builder.append(
+                    "Performed action: Swap"
+            ).append(
+                    String.format(", Swapped indices: %d and %d", getFirstIndex(), getSecondIndex())
+            ).append(
+                    String.format(", Swapped elements: %d and %d", getFirstElement(), getSecondElement())
+            ).append(
+                    String.format(", Array before swap: %s, Array after swap: %s", Arrays.toString(getArrayBefore()), Arrays.toString(getArrayAfter()))
+            );
+            case WRITE -> builder.append(
+                    "Performed action: Write"
+            ).append(
+                    String.format(", Written index: %d", getFirstIndex())
+            ).append(
+                    String.format(", Written element: %d, Overwritten element: %d", getFirstElement(), getSecondElement())
+            ).append(
+                    String.format(", Array before write: %s, Array after write: %s", Arrays.toString(getArrayBefore()), Arrays.toString(getArrayAfter()))
+            );
+            case BUFFER -> builder.append(
+                    "Performed action: Buffer"
+            ).append(
+                    String.format(", Read index: %d, Buffer index: %d", getFirstIndex(), getSecondIndex())
+            ).append(
+                    String.format(", Read element: %d", getFirstElement())
+            ).append(
+                    String.format(", Array: %s", Arrays.toString(getArrayBefore()))
+            );
+            case COPY -> builder.append(
+                    "Performed action: Copy"
+            ).append(
+                    String.format(", Buffer index: %d, Written index: %d", getSecondIndex(), getFirstIndex())
             ).append(
-                    String.format(", Highlighted element: %d", element)
+                    String.format(", Copied element: %d, Overwritten element: %d", getFirstElement(), getSecondElement())
             ).append(
-                    String.format(", Array: %s", Arrays.toString(before))
+                    String.format(", Array before copy: %s, Array after copy: %s", Arrays.toString(getArrayBefore()), Arrays.toString(getArrayAfter()))
             );
-            case COMPARE -> {
-                assert indices != null;
-                assert elements != null;
-                builder.append(
-                        "Performed action: Compare"
-                ).append(
-                        String.format(", Compared indices: %d and %d", indices.first, indices.second)
-                ).append(
-                        String.format(", Compared elements: %d and %d, ", elements.first, elements.second)
-                ).append(
-                        String.format(", Array: %s", Arrays.toString(before))
-                );
-            }
-            case SWAP -> {
-                assert indices != null;
-                assert elements != null;
-                builder.append(
-                        "Performed action: Swap"
-                ).append(
-                        String.format(", Swapped indices: %d and %d", indices.first, indices.second)
-                ).append(
-                        String.format(", Swapped elements: %d and %d", elements.first, elements.second)
-                ).append(
-                        String.format(", Array before swap: %s, Array after swap: %s", Arrays.toString(before), Arrays.toString(after))
-                );
-            }
         }
 
         return builder.toString();
@@ -17,6 +17,8 @@
  */
 package algorithms.sorting;
 
+import algorithms.Metrics;
+import algorithms.sorting.workload.Workload;
 import algorithms.summary.AlgoSummary;
 
 /**
@@ -30,6 +32,13 @@ import algorithms.summary.AlgoSummary;
  */
 public class SortingSummary extends AlgoSummary {
 
+    /**
+     * The length of the arrays above which the presortedness is computed in parallel.
+     *
+     * @since v1.0.0
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
     /**
      * The length of the array that was sorted.
      *
@@ -45,18 +54,18 @@ public class SortingSummary extends AlgoSummary {
     private final int[] before;
 
     /**
-     * The total number of comparisons performed by the sorting algorithm.
+     * The workload the array was generated from, or null if it was not generated from a workload.
      *
      * @since v1.0.0
      */
-    private final int totalComparisons;
+    private final Workload workload;
 
     /**
-     * The total number of swaps performed by the sorting algorithm.
+     * The presortedness of the array before it was sorted. Computed on the first request.
      *
      * @since v1.0.0
      */
-    private final int totalSwaps;
+    private Presortedness presortedness;
 
     /**
      * Constructor extracting the name and the type of the algorithm, the total time passed until completion of the
@@ -69,8 +78,7 @@ public class SortingSummary extends AlgoSummary {
         super(algorithm);
         arrayLength = algorithm.array.length;
         before = algorithm.before;
-        totalComparisons = algorithm.getTotalComparisons();
-        totalSwaps = algorithm.getTotalSwaps();
+        workload = algorithm.workload;
     }
 
     /**
@@ -83,14 +91,38 @@ public class SortingSummary extends AlgoSummary {
         return arrayLength;
     }
 
+    /**
+     * Returns the workload the array was generated from. Generating the workload again yields the same array.
+     *
+     * @return  The workload, or null if the array was not generated from a workload.
+     * @since v1.0.0
+     */
+    public Workload getWorkload() {
+        return workload;
+    }
+
+    /**
+     * Returns the presortedness of the array before it was sorted. It is computed in O(n log n) time on the first call,
+     * in parallel for large arrays.
+     *
+     * @return  The presortedness.
+     * @since v1.0.0
+     */
+    public Presortedness getPresortedness() {
+        if (presortedness == null) {
+            presortedness = Presortedness.of(before, before.length > PARALLEL_THRESHOLD);
+        }
+        return presortedness;
+    }
+
     /**
      * Returns the total number of comparisons performed by the sorting algorithm.
      *
      * @return  The total number of comparisons.
      * @since v1.0.0
      */
-    public int getTotalComparisons() {
-        return totalComparisons;
+    public long getTotalComparisons() {
+        return getMetric(Metrics.COMPARISONS);
     }
 
     /**
@@ -99,8 +131,8 @@ public class SortingSummary extends AlgoSummary {
      * @return  The total number of swaps.
      * @since v1.0.0
      */
-    public int getTotalSwaps() {
-        return totalSwaps;
+    public long getTotalSwaps() {
+        return getMetric(Metrics.SWAPS);
     }
 
     /**
@@ -112,15 +144,15 @@ public class SortingSummary extends AlgoSummary {
     @Override
     public String toString() {
         return String.format(
-                "Type of algorithm: %s, Name of algorithm: %s, Length of array: %d, Level of sorting before: %f, Total time elapsed: %f, Total number of iterations: %d, Total number of comparisons: %d, Total number of swaps: %d",
+                "Type of algorithm: %s, Name of algorithm: %s, Length of array: %d, Workload: %s, Presortedness: %s, Total time elapsed: %f, Total number of iterations: %d, Metrics: %s",
                 type,
                 name,
                 arrayLength,
-                SortingAlgorithm.getUnsortednessOfArray(before),
+                workload == null ? "unknown" : workload,
+                getPresortedness(),
                 totalTime,
                 totalIterations,
-                totalComparisons,
-                totalSwaps
+                metrics
         );
     }
 }
@@ -0,0 +1,552 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting;
+
+import algorithms.State;
+import algorithms.StateMachine;
+import datastructure.Pair;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A state machine for sorting algorithms that does not store its states as objects. Subclasses decide how the columns
+ * of each state (action, indices, elements, iteration and time) are stored, for example in primitive arrays or in a
+ * memory-mapped file. The states are never materialized: iterating over this state machine hands out a single reusable
+ * cursor that reads the columns of the current state. The arrays before and after each state are rebuilt on demand:
+ * every K states, a snapshot of the array is kept, so rebuilding replays at most K states from the closest snapshot.
+ * The snapshots are taken lazily, the first time an array behind them is requested.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+public abstract class SortingTrace extends StateMachine {
+
+    /**
+     * All sorting actions, indexed by their ordinal. Cached since each call of values creates a new array.
+     *
+     * @since v1.0.0
+     */
+    protected static final SortingAction[] ACTIONS = SortingAction.values();
+
+    /**
+     * The array before the first state. Is not copied and must not be changed.
+     *
+     * @since v1.0.0
+     */
+    private final int[] initial;
+
+    /**
+     * The snapshots of the array. The j-th snapshot is the array before the action of the state with the number j * K
+     * was performed, where K is the keyframe interval. Only the first numberOfSnapshots entries are used.
+     *
+     * @since v1.0.0
+     */
+    private int[][] snapshots = new int[0][];
+
+    /**
+     * The number of snapshots taken so far.
+     *
+     * @since v1.0.0
+     */
+    private int numberOfSnapshots = 0;
+
+    /**
+     * Constructor initializing the array before the first state, which is needed to rebuild the array of each state.
+     *
+     * @param initial   The array before the first state. Is not copied.
+     * @since v1.0.0
+     */
+    protected SortingTrace(int[] initial) {
+        this.initial = initial;
+    }
+
+    /**
+     * Returns the number of states stored in this state machine. Traces store their states in their own format, so
+     * each trace counts them itself.
+     *
+     * @return  The number of states.
+     * @since v1.0.0
+     */
+    @Override
+    public abstract long size();
+
+    /**
+     * Returns the array before the first state. The returned array must not be changed.
+     *
+     * @return  The array before the first state.
+     * @since v1.0.0
+     */
+    public int[] getInitialArray() {
+        return initial;
+    }
+
+    /**
+     * Returns the action that takes place in the given state.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @return  The action.
+     * @since v1.0.0
+     */
+    public abstract SortingAction getAction(long step);
+
+    /**
+     * Returns the first index of the given state. For highlight states, the highlighted index is returned.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @return  The first index.
+     * @since v1.0.0
+     */
+    public abstract int getFirstIndex(long step);
+
+    /**
+     * Returns the second index of the given state.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @return  The second index.
+     * @since v1.0.0
+     */
+    public abstract int getSecondIndex(long step);
+
+    /**
+     * Returns the first element of the given state. For highlight states, the highlighted element is returned.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @return  The first element.
+     * @since v1.0.0
+     */
+    public abstract int getFirstElement(long step);
+
+    /**
+     * Returns the second element of the given state.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @return  The second element.
+     * @since v1.0.0
+     */
+    public abstract int getSecondElement(long step);
+
+    /**
+     * Returns the iteration of the algorithm in the given state.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @return  The iteration.
+     * @since v1.0.0
+     */
+    public abstract int getIteration(long step);
+
+    /**
+     * Returns the time elapsed in nanoseconds from the start of the algorithm until the given state.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @return  The time elapsed in nanoseconds.
+     * @since v1.0.0
+     */
+    public abstract long getTimeNanos(long step);
+
+    /**
+     * Rebuilds the array before the action of the given state was performed. The closest snapshot before the state is
+     * copied and at most keyframe interval minus one states are replayed on it.
+     *
+     * @param step  The number of the state, starting at 0. Passing the number of states returns the sorted array.
+     * @return  The rebuilt array.
+     * @since v1.0.0
+     */
+    public int[] getArrayAt(long step) {
+        if (step < 0 || step > size()) {
+            throw new IndexOutOfBoundsException("State " + step + " is out of bounds for " + size() + " states.");
+        }
+        int keyframe = (int) (step / getKeyframeInterval());
+        takeSnapshots(keyframe);
+        int[] array = snapshots[keyframe].clone();
+        for (long i = (long) keyframe * getKeyframeInterval(); i < step; i++) {
+            applyTo(i, array);
+        }
+        return array;
+    }
+
+    /**
+     * Takes all snapshots up to the given one that have not been taken yet. Each snapshot is taken by replaying the
+     * states since the previous snapshot.
+     *
+     * @param keyframe  The number of the last snapshot needed.
+     * @since v1.0.0
+     */
+    private void takeSnapshots(int keyframe) {
+        if (numberOfSnapshots == 0) {
+            snapshots = new int[16][];
+            snapshots[numberOfSnapshots++] = initial;
+        }
+        while (numberOfSnapshots <= keyframe) {
+            int[] array = snapshots[numberOfSnapshots - 1].clone();
+            long start = (long) (numberOfSnapshots - 1) * getKeyframeInterval();
+            for (long i = start; i < start + getKeyframeInterval(); i++) {
+                applyTo(i, array);
+            }
+            if (numberOfSnapshots == snapshots.length) {
+                snapshots = Arrays.copyOf(snapshots, snapshots.length * 2);
+            }
+            snapshots[numberOfSnapshots++] = array;
+        }
+    }
+
+    /**
+     * Sets the number of states between two keyframes. The snapshots taken so far are dropped.
+     *
+     * @param keyframeInterval  The keyframe interval. Must be positive.
+     * @since v1.0.0
+     */
+    @Override
+    public void setKeyframeInterval(int keyframeInterval) {
+        super.setKeyframeInterval(keyframeInterval);
+        snapshots = new int[0][];
+        numberOfSnapshots = 0;
+    }
+
+    /**
+     * Returns a new cursor positioned on the state with the given number. Rebuilding the arrays of the returned state
+     * replays at most keyframe interval minus one states.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @return  The cursor.
+     * @since v1.0.0
+     */
+    @Override
+    public Cursor seek(long step) {
+        return cursor().moveTo(step);
+    }
+
+    /**
+     * Performs the action of the given state on the given array. Only swaps, writes and copies change the array.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @param array The array.
+     * @since v1.0.0
+     */
+    public void applyTo(long step, int[] array) {
+        getAction(step).applyTo(array, getFirstIndex(step), getSecondIndex(step), getFirstElement(step));
+    }
+
+    /**
+     * Reverts the action of the given state on the given array, which must be the array after the state. Walking
+     * back from the array after a state to an earlier one only takes one step per state in between, without going
+     * back to a snapshot.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @param array The array.
+     * @since v1.0.0
+     */
+    public void undo(long step, int[] array) {
+        getAction(step).undo(array, getFirstIndex(step), getSecondIndex(step), getSecondElement(step));
+    }
+
+    /**
+     * Returns a new cursor positioned before the first state.
+     *
+     * @return  The cursor.
+     * @since v1.0.0
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Returns an iterator over the states of this state machine. The iterator is a cursor and returns itself on each
+     * call of next, so no object is created per state. Returned states are only valid until the next call of next.
+     *
+     * @return  The iterator.
+     * @since v1.0.0
+     */
+    @Override
+    public Iterator<State> iterator() {
+        return cursor();
+    }
+
+    /**
+     * Prints each state of this state machine to the console by calling the overwritten toString method.
+     *
+     * @since v1.0.0
+     */
+    @Override
+    public void print() {
+        Cursor cursor = cursor();
+        while (cursor.hasNext()) {
+            System.out.println(cursor.next());
+        }
+    }
+
+    /**
+     * Clears the state machine by dropping all snapshots and setting the number of states to 0. Subclasses drop their
+     * stored states.
+     *
+     * @since v1.0.0
+     */
+    @Override
+    public void clear() {
+        super.clear();
+        snapshots = new int[0][];
+        numberOfSnapshots = 0;
+    }
+
+    /**
+     * A reusable view on one state of a sorting trace. The cursor is a sorting state whose getters read the
+     * columns of the state it is positioned on. Moving the cursor changes the state it represents, so it must not be
+     * stored for later use.
+     *
+     * @author Tim-Michael Krieg
+     * @version 1.0.0
+     * @since v1.0.0
+     */
+    public class Cursor extends SortingState implements Iterator<State> {
+
+        /**
+         * The number of the state the cursor is positioned on, starting at 0. Is -1 before the first call of next.
+         *
+         * @since v1.0.0
+         */
+        private long step = -1;
+
+        /**
+         * Constructor creating a cursor positioned before the first state.
+         *
+         * @since v1.0.0
+         */
+        private Cursor() {
+            super();
+        }
+
+        /**
+         * Returns the number of the state the cursor is positioned on, starting at 0.
+         *
+         * @return  The number of the state.
+         * @since v1.0.0
+         */
+        public long getStep() {
+            return step;
+        }
+
+        /**
+         * Returns whether there is a state after the current one.
+         *
+         * @return  True, if there is a next state.
+         * @since v1.0.0
+         */
+        @Override
+        public boolean hasNext() {
+            return step + 1 < size();
+        }
+
+        /**
+         * Moves the cursor to the next state and returns it.
+         *
+         * @return  This cursor.
+         * @since v1.0.0
+         */
+        @Override
+        public Cursor next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            step++;
+            return this;
+        }
+
+        /**
+         * Moves the cursor to the state with the given number.
+         *
+         * @param step  The number of the state, starting at 0.
+         * @return  This cursor.
+         * @since v1.0.0
+         */
+        public Cursor moveTo(long step) {
+            if (step < 0 || step >= size()) {
+                throw new IndexOutOfBoundsException("State " + step + " is out of bounds for " + size() + " states.");
+            }
+            this.step = step;
+            return this;
+        }
+
+        /**
+         * Returns the id of the current state, which is its number starting at 1.
+         *
+         * @return  The id.
+         * @since v1.0.0
+         */
+        @Override
+        public long getId() {
+            return step + 1;
+        }
+
+        /**
+         * Returns the time elapsed in seconds from the start of the algorithm until the current state.
+         *
+         * @return  The time elapsed.
+         * @since v1.0.0
+         */
+        @Override
+        public double getTime() {
+            return (double) getTimeNanos(step) / 1_000_000_000;
+        }
+
+        /**
+         * Returns the iteration of the algorithm in the current state.
+         *
+         * @return  The iteration.
+         * @since v1.0.0
+         */
+        @Override
+        public int getIteration() {
+            return SortingTrace.this.getIteration(step);
+        }
+
+        /**
+         * Returns the action that takes place in the current state.
+         *
+         * @return  The action.
+         * @since v1.0.0
+         */
+        @Override
+        public SortingAction getAction() {
+            return SortingTrace.this.getAction(step);
+        }
+
+        /**
+         * Returns the first index of the current state.
+         *
+         * @return  The first index.
+         * @since v1.0.0
+         */
+        @Override
+        public int getFirstIndex() {
+            return SortingTrace.this.getFirstIndex(step);
+        }
+
+        /**
+         * Returns the second index of the current state.
+         *
+         * @return  The second index.
+         * @since v1.0.0
+         */
+        @Override
+        public int getSecondIndex() {
+            return SortingTrace.this.getSecondIndex(step);
+        }
+
+        /**
+         * Returns the first element of the current state.
+         *
+         * @return  The first element.
+         * @since v1.0.0
+         */
+        @Override
+        public int getFirstElement() {
+            return SortingTrace.this.getFirstElement(step);
+        }
+
+        /**
+         * Returns the second element of the current state.
+         *
+         * @return  The second element.
+         * @since v1.0.0
+         */
+        @Override
+        public int getSecondElement() {
+            return SortingTrace.this.getSecondElement(step);
+        }
+
+        /**
+         * Returns the highlighted index of the current state, if it is a highlight state.
+         *
+         * @return  The index.
+         * @since v1.0.0
+         */
+        @Override
+        public int getIndex() {
+            return getAction() == SortingAction.HIGHLIGHT ? getFirstIndex() : Integer.MIN_VALUE;
+        }
+
+        /**
+         * Returns the highlighted element of the current state, if it is a highlight state.
+         *
+         * @return  The element.
+         * @since v1.0.0
+         */
+        @Override
+        public int getElement() {
+            return getAction() == SortingAction.HIGHLIGHT ? getFirstElement() : Integer.MIN_VALUE;
+        }
+
+        /**
+         * Returns the indices of the current state as a new pair.
+         *
+         * @return  The indices.
+         * @since v1.0.0
+         */
+        @Override
+        public Pair<Integer, Integer> getIndices() {
+            return getAction() == SortingAction.HIGHLIGHT ? null : new Pair<>(getFirstIndex(), getSecondIndex());
+        }
+
+        /**
+         * Returns the elements of the current state as a new pair.
+         *
+         * @return  The elements.
+         * @since v1.0.0
+         */
+        @Override
+        public Pair<Integer, Integer> getElements() {
+            return getAction() == SortingAction.HIGHLIGHT ? null : new Pair<>(getFirstElement(), getSecondElement());
+        }
+
+        /**
+         * Rebuilds the array before the action of the current state was performed.
+         *
+         * @return  The array.
+         * @since v1.0.0
+         */
+        @Override
+        public int[] getArrayBefore() {
+            return getArrayAt(step);
+        }
+
+        /**
+         * Rebuilds the array after the action of the current state was performed. Only states whose action changes the
+         * array have an array after the action.
+         *
+         * @return  The array.
+         * @since v1.0.0
+         */
+        @Override
+        public int[] getArrayAfter() {
+            return getAction().changesArray() ? getArrayAt(step + 1) : null;
+        }
+
+        /**
+         * Returns true, since the cursor never stores copies of the array.
+         *
+         * @return  True.
+         * @since v1.0.0
+         */
+        @Override
+        public boolean isDelta() {
+            return true;
+        }
+    }
+}
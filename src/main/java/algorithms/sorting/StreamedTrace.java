@@ -0,0 +1,279 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting;
+
+import algorithms.State;
+import algorithms.StateStream;
+
+/**
+ * A trace that reads the states of a state stream while the algorithm is still running, so the states can be played
+ * before the algorithm finished. Only the most recent states are kept, in a window of fixed length, so memory stays
+ * bounded independent of the total number of states: the trace can be read forward from any state in the window, but
+ * states that left the window are gone, and arrays can only be rebuilt while the first state is still in the window.
+ * States are taken out of the stream by method fill, which never waits for the algorithm, so it can be called on the
+ * JavaFX application thread.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+public class StreamedTrace extends SortingTrace implements AutoCloseable {
+
+    /**
+     * The stream the states are read from.
+     *
+     * @since v1.0.0
+     */
+    private final StateStream stream;
+
+    /**
+     * The actions of the states in the window, by the number of the state modulo the length of the window.
+     *
+     * @since v1.0.0
+     */
+    private final byte[] actions;
+
+    /**
+     * The first indices of the states in the window.
+     *
+     * @since v1.0.0
+     */
+    private final int[] indices1;
+
+    /**
+     * The second indices of the states in the window.
+     *
+     * @since v1.0.0
+     */
+    private final int[] indices2;
+
+    /**
+     * The first elements of the states in the window.
+     *
+     * @since v1.0.0
+     */
+    private final int[] elements1;
+
+    /**
+     * The second elements of the states in the window.
+     *
+     * @since v1.0.0
+     */
+    private final int[] elements2;
+
+    /**
+     * The iterations of the states in the window.
+     *
+     * @since v1.0.0
+     */
+    private final int[] iterations;
+
+    /**
+     * The times of the states in the window in nanoseconds.
+     *
+     * @since v1.0.0
+     */
+    private final long[] times;
+
+    /**
+     * The number of states read from the stream.
+     *
+     * @since v1.0.0
+     */
+    private long size = 0;
+
+    /**
+     * Constructor initializing the stream and the window of the trace.
+     *
+     * @param initial   The array before the first state. Is not copied.
+     * @param stream    The stream the states are read from.
+     * @param window    The number of states kept. Must be positive.
+     * @since v1.0.0
+     */
+    public StreamedTrace(int[] initial, StateStream stream, int window) {
+        super(initial);
+        if (window < 1) {
+            throw new IllegalArgumentException("The window must hold at least one state.");
+        }
+        this.stream = stream;
+        actions = new byte[window];
+        indices1 = new int[window];
+        indices2 = new int[window];
+        elements1 = new int[window];
+        elements2 = new int[window];
+        iterations = new int[window];
+        times = new long[window];
+    }
+
+    /**
+     * Reads the states the algorithm produced so far out of the stream, without waiting for further states. No state
+     * at or after the given one is pushed out of the window.
+     *
+     * @param step  The number of the first state still needed.
+     * @throws IllegalStateException    If the algorithm terminated with an exception.
+     * @since v1.0.0
+     */
+    public void fill(long step) {
+        while (size - step < actions.length) {
+            State state = stream.poll();
+            if (state == null) {
+                return;
+            }
+            SortingState sortingState = (SortingState) state;
+            int slot = (int) (size % actions.length);
+            actions[slot] = (byte) sortingState.getAction().ordinal();
+            indices1[slot] = sortingState.getFirstIndex();
+            indices2[slot] = sortingState.getSecondIndex();
+            elements1[slot] = sortingState.getFirstElement();
+            elements2[slot] = sortingState.getSecondElement();
+            iterations[slot] = sortingState.getIteration();
+            times[slot] = Math.round(sortingState.getTime() * 1_000_000_000);
+            size++;
+        }
+    }
+
+    /**
+     * Returns whether all states of the algorithm were read, so the trace does not grow anymore.
+     *
+     * @return  True if the trace is complete.
+     * @since v1.0.0
+     */
+    public boolean isComplete() {
+        return stream.isEnded();
+    }
+
+    /**
+     * Returns the number of states read from the stream so far, including the states that left the window.
+     *
+     * @return  The number of states.
+     * @since v1.0.0
+     */
+    @Override
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the position in the window of the given state.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @return  The position in the window.
+     * @throws IndexOutOfBoundsException   If the state was not read yet or left the window.
+     * @since v1.0.0
+     */
+    private int slot(long step) {
+        if (step < size - actions.length || step >= size) {
+            throw new IndexOutOfBoundsException("State " + step + " is not in the window of the streamed trace.");
+        }
+        return (int) (step % actions.length);
+    }
+
+    /**
+     * Returns the action that takes place in the given state.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @return  The action.
+     * @since v1.0.0
+     */
+    @Override
+    public SortingAction getAction(long step) {
+        return ACTIONS[actions[slot(step)]];
+    }
+
+    /**
+     * Returns the first index of the given state.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @return  The first index.
+     * @since v1.0.0
+     */
+    @Override
+    public int getFirstIndex(long step) {
+        return indices1[slot(step)];
+    }
+
+    /**
+     * Returns the second index of the given state.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @return  The second index.
+     * @since v1.0.0
+     */
+    @Override
+    public int getSecondIndex(long step) {
+        return indices2[slot(step)];
+    }
+
+    /**
+     * Returns the first element of the given state.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @return  The first element.
+     * @since v1.0.0
+     */
+    @Override
+    public int getFirstElement(long step) {
+        return elements1[slot(step)];
+    }
+
+    /**
+     * Returns the second element of the given state.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @return  The second element.
+     * @since v1.0.0
+     */
+    @Override
+    public int getSecondElement(long step) {
+        return elements2[slot(step)];
+    }
+
+    /**
+     * Returns the iteration of the algorithm in the given state.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @return  The iteration.
+     * @since v1.0.0
+     */
+    @Override
+    public int getIteration(long step) {
+        return iterations[slot(step)];
+    }
+
+    /**
+     * Returns the time elapsed in nanoseconds from the start of the algorithm until the given state.
+     *
+     * @param step  The number of the state, starting at 0.
+     * @return  The time elapsed in nanoseconds.
+     * @since v1.0.0
+     */
+    @Override
+    public long getTimeNanos(long step) {
+        return times[slot(step)];
+    }
+
+    /**
+     * Closes the stream, which stops the algorithm if it is still running.
+     *
+     * @since v1.0.0
+     */
+    @Override
+    public void close() {
+        stream.close();
+    }
+}
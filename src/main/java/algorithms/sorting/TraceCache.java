@@ -0,0 +1,267 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A cache of the traces of sorting algorithms. A trace is identified by the name of the algorithm, the hash of the
+ * array before sorting and the length of that array, so running the same algorithm on the same array again does not
+ * record its states again. The cache is bounded by an estimated number of bytes; when it is full, the least recently
+ * used traces are evicted. The numbers of hits, misses and evictions are counted. All methods are thread-safe.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+public class TraceCache {
+
+    /**
+     * The default maximum number of bytes used by the cached traces.
+     *
+     * @since v1.0.0
+     */
+    public static final long DEFAULT_BYTE_BUDGET = 256L << 20;
+
+    /**
+     * The key identifying a trace.
+     *
+     * @param algorithmName The name of the algorithm.
+     * @param hash  The hash of the array before sorting.
+     * @param length    The length of the array before sorting.
+     * @since v1.0.0
+     */
+    private record Key(String algorithmName, int hash, int length) {
+
+        /**
+         * Creates the key of the trace of the given algorithm on the given array.
+         *
+         * @param algorithmName The name of the algorithm.
+         * @param array The array before sorting.
+         * @return  The key.
+         * @since v1.0.0
+         */
+        static Key of(String algorithmName, int[] array) {
+            return new Key(algorithmName, Arrays.hashCode(array), array.length);
+        }
+    }
+
+    /**
+     * The cached traces in access order, starting with the least recently used trace.
+     *
+     * @since v1.0.0
+     */
+    private final LinkedHashMap<Key, ColumnarStateMachine> traces = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The maximum number of bytes used by the cached traces.
+     *
+     * @since v1.0.0
+     */
+    private final long byteBudget;
+
+    /**
+     * The estimated number of bytes used by the cached traces.
+     *
+     * @since v1.0.0
+     */
+    private long bytes = 0;
+
+    /**
+     * The number of lookups that found a trace.
+     *
+     * @since v1.0.0
+     */
+    private long hits = 0;
+
+    /**
+     * The number of lookups that did not find a trace.
+     *
+     * @since v1.0.0
+     */
+    private long misses = 0;
+
+    /**
+     * The number of traces evicted to stay within the byte budget.
+     *
+     * @since v1.0.0
+     */
+    private long evictions = 0;
+
+    /**
+     * Constructor initializing the maximum number of bytes used by the cached traces.
+     *
+     * @param byteBudget    The maximum number of bytes.
+     * @since v1.0.0
+     */
+    public TraceCache(long byteBudget) {
+        this.byteBudget = byteBudget;
+    }
+
+    /**
+     * Returns the trace of the given algorithm on its current array. If the trace is not cached, the algorithm records
+     * it in columnar mode and it is added to the cache.
+     *
+     * @param algorithm The algorithm. Its array must not be sorted yet.
+     * @return  The trace.
+     * @since v1.0.0
+     */
+    public ColumnarStateMachine get(SortingAlgorithm algorithm) {
+        ColumnarStateMachine trace = getIfPresent(algorithm.getName(), algorithm.before);
+        return trace != null ? trace : record(algorithm);
+    }
+
+    /**
+     * Lets the given algorithm record its trace in columnar mode and adds the trace to the cache, without looking it up
+     * first. The trace is recorded without holding the lock of the cache, so other threads can use the cache in the
+     * meantime.
+     *
+     * @param algorithm The algorithm. Its array must not be sorted yet.
+     * @return  The trace.
+     * @since v1.0.0
+     */
+    public ColumnarStateMachine record(SortingAlgorithm algorithm) {
+        algorithm.setTraceMode(TraceMode.COLUMNAR);
+        ColumnarStateMachine trace = (ColumnarStateMachine) algorithm.getStateMachine();
+        put(algorithm.getName(), trace);
+        return trace;
+    }
+
+    /**
+     * Returns the cached trace of the algorithm with the given name on the given array, or null if it is not cached.
+     *
+     * @param algorithmName The name of the algorithm.
+     * @param array The array before sorting.
+     * @return  The trace, or null.
+     * @since v1.0.0
+     */
+    public synchronized ColumnarStateMachine getIfPresent(String algorithmName, int[] array) {
+        ColumnarStateMachine trace = traces.get(Key.of(algorithmName, array));
+        // The hash may collide, so the array itself is compared as well.
+        if (trace == null || !Arrays.equals(trace.getInitialArray(), array)) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return trace;
+    }
+
+    /**
+     * Adds the given trace of the algorithm with the given name to the cache. Evicts the least recently used traces
+     * until the cache fits into its byte budget. A trace larger than the whole budget is not cached.
+     *
+     * @param algorithmName The name of the algorithm.
+     * @param trace The trace. Must not be changed afterwards.
+     * @since v1.0.0
+     */
+    public synchronized void put(String algorithmName, ColumnarStateMachine trace) {
+        long size = trace.getEstimatedBytes();
+        if (size > byteBudget) {
+            return;
+        }
+        ColumnarStateMachine previous = traces.put(Key.of(algorithmName, trace.getInitialArray()), trace);
+        if (previous != null) {
+            bytes -= previous.getEstimatedBytes();
+        }
+        bytes += size;
+
+        Iterator<ColumnarStateMachine> eldest = traces.values().iterator();
+        while (bytes > byteBudget) {
+            bytes -= eldest.next().getEstimatedBytes();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Removes all traces from the cache. The counters are kept.
+     *
+     * @since v1.0.0
+     */
+    public synchronized void clear() {
+        traces.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Returns the number of cached traces.
+     *
+     * @return  The number of traces.
+     * @since v1.0.0
+     */
+    public synchronized int size() {
+        return traces.size();
+    }
+
+    /**
+     * Returns the estimated number of bytes used by the cached traces.
+     *
+     * @return  The number of bytes.
+     * @since v1.0.0
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns the number of lookups that found a trace.
+     *
+     * @return  The number of hits.
+     * @since v1.0.0
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups that did not find a trace.
+     *
+     * @return  The number of misses.
+     * @since v1.0.0
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of traces evicted to stay within the byte budget.
+     *
+     * @return  The number of evictions.
+     * @since v1.0.0
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns a string representation of the counters of the cache.
+     *
+     * @return  The string representation.
+     * @since v1.0.0
+     */
+    @Override
+    public synchronized String toString() {
+        return String.format(
+                "Trace cache: %d hits, %d misses, %d evictions, %d traces, %.1f MB",
+                hits, misses, evictions, traces.size(), bytes / (1024.0 * 1024.0)
+        );
+    }
+}
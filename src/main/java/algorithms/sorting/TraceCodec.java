@@ -0,0 +1,921 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting;
+
+import algorithms.State;
+import algorithms.StateMachine;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Compressed encoding of the states of a sorting algorithm. Instead of absolute values, each state stores the difference
+ * of its first index, iteration and time to the previous state and the difference of its second index to its first
+ * index, all as zigzag-encoded variable-length integers. Most sorting algorithms move through the array step by step,
+ * so these differences are small and take a single byte. The elements of a state are not stored at all if they can be
+ * derived from the array or the auxiliary buffer, which are tracked by replaying the actions. Only written elements
+ * are always stored. Runs of comparisons of neighbouring
+ * elements in consecutive iterations without a swap in between, as in Bubble sort, are collapsed into a single run
+ * record that only stores the times of its states.
+ * <p>
+ * The encoder and decoder work on streams, so the same format is used in memory and on disk. The stream starts with
+ * the magic number "JAPZ", a version byte and the array before the first state, followed by the records until the end
+ * of the stream.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+public class TraceCodec {
+
+    /**
+     * The magic number at the start of each compressed trace. Spells "JAPZ" in ASCII.
+     *
+     * @since v1.0.0
+     */
+    public static final int MAGIC = 0x4A41505A;
+
+    /**
+     * The version of the format.
+     *
+     * @since v1.0.0
+     */
+    public static final byte VERSION = 3;
+
+    /**
+     * The tag of a run record. Tags of single records contain the ordinal of their action in the lowest three bits.
+     *
+     * @since v1.0.0
+     */
+    private static final int RUN = 0x07;
+
+    /**
+     * The flag set in the tag of a single record whose elements cannot be derived from the array and are stored.
+     *
+     * @since v1.0.0
+     */
+    private static final int EXPLICIT_ELEMENTS = 0x08;
+
+    /**
+     * The size of the buffers of the encoder and decoder in bytes.
+     *
+     * @since v1.0.0
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * All sorting actions, indexed by their ordinal.
+     *
+     * @since v1.0.0
+     */
+    private static final SortingAction[] ACTIONS = SortingAction.values();
+
+    /**
+     * Encodes all states of the given state machine to the given stream. The stream is closed afterwards.
+     *
+     * @param out   The stream the compressed trace is written to.
+     * @param initial   The array before the first state.
+     * @param machine   The state machine containing the sorting states.
+     * @return  The number of bytes written.
+     * @throws IOException  If the stream cannot be written.
+     * @since v1.0.0
+     */
+    public static long encode(OutputStream out, int[] initial, StateMachine machine) throws IOException {
+        try (Encoder encoder = new Encoder(out, initial)) {
+            if (machine instanceof SortingTrace trace) {
+                for (long step = 0; step < trace.size(); step++) {
+                    encoder.write(
+                            trace.getAction(step),
+                            trace.getFirstIndex(step),
+                            trace.getSecondIndex(step),
+                            trace.getFirstElement(step),
+                            trace.getSecondElement(step),
+                            trace.getIteration(step),
+                            trace.getTimeNanos(step)
+                    );
+                }
+            } else {
+                for (State state : machine) {
+                    encoder.write((SortingState) state);
+                }
+            }
+            encoder.flush();
+            return encoder.getBytesWritten();
+        }
+    }
+
+    /**
+     * Decodes all states of the given compressed trace into a columnar state machine. The stream is closed afterwards.
+     *
+     * @param in    The stream the compressed trace is read from.
+     * @return  The state machine containing the decoded states.
+     * @throws IOException  If the stream cannot be read or does not contain a compressed trace.
+     * @since v1.0.0
+     */
+    public static ColumnarStateMachine decode(InputStream in) throws IOException {
+        try (Decoder decoder = new Decoder(in)) {
+            ColumnarStateMachine machine = new ColumnarStateMachine(decoder.getInitialArray());
+            while (decoder.next()) {
+                machine.append(
+                        decoder.getAction(),
+                        decoder.getFirstIndex(),
+                        decoder.getSecondIndex(),
+                        decoder.getFirstElement(),
+                        decoder.getSecondElement(),
+                        decoder.getIteration(),
+                        decoder.getTimeNanos()
+                );
+            }
+            return machine;
+        }
+    }
+
+    /**
+     * Encodes sorting states one by one to a stream. Comparisons of neighbouring elements are held back until the run
+     * they belong to ends, so the encoder has to be flushed or closed after the last state.
+     *
+     * @author Tim-Michael Krieg
+     * @version 1.0.0
+     * @since v1.0.0
+     */
+    public static class Encoder implements AutoCloseable {
+
+        /**
+         * The stream the compressed trace is written to.
+         *
+         * @since v1.0.0
+         */
+        private final OutputStream out;
+
+        /**
+         * The buffer holding bytes not yet written to the stream.
+         *
+         * @since v1.0.0
+         */
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+
+        /**
+         * The number of bytes in the buffer.
+         *
+         * @since v1.0.0
+         */
+        private int position = 0;
+
+        /**
+         * The number of bytes written so far, including the bytes in the buffer.
+         *
+         * @since v1.0.0
+         */
+        private long bytesWritten = 0;
+
+        /**
+         * The number of states written so far, including the states of the pending run.
+         *
+         * @since v1.0.0
+         */
+        private long statesWritten = 0;
+
+        /**
+         * The number of run records written so far.
+         *
+         * @since v1.0.0
+         */
+        private long runsWritten = 0;
+
+        /**
+         * The array before the next state, used to decide whether the elements of a state can be derived.
+         *
+         * @since v1.0.0
+         */
+        private final int[] array;
+
+        /**
+         * The auxiliary buffer before the next state, used to decide whether the elements of a copy can be derived.
+         *
+         * @since v1.0.0
+         */
+        private int[] auxiliary;
+
+        /**
+         * The first index of the last written state.
+         *
+         * @since v1.0.0
+         */
+        private int lastIndex = 0;
+
+        /**
+         * The iteration of the last written state.
+         *
+         * @since v1.0.0
+         */
+        private int lastIteration = 0;
+
+        /**
+         * The time of the last written state.
+         *
+         * @since v1.0.0
+         */
+        private long lastTime = 0;
+
+        /**
+         * The first index of the last state before the pending run.
+         *
+         * @since v1.0.0
+         */
+        private int runBaseIndex;
+
+        /**
+         * The iteration of the last state before the pending run.
+         *
+         * @since v1.0.0
+         */
+        private int runBaseIteration;
+
+        /**
+         * The time differences of the states of the pending run. Only the first runLength entries are used.
+         *
+         * @since v1.0.0
+         */
+        private long[] runTimes = new long[64];
+
+        /**
+         * The number of states in the pending run.
+         *
+         * @since v1.0.0
+         */
+        private int runLength = 0;
+
+        /**
+         * Constructor writing the header of the compressed trace.
+         *
+         * @param out   The stream the compressed trace is written to.
+         * @param initial   The array before the first state. Is copied.
+         * @throws IOException  If the stream cannot be written.
+         * @since v1.0.0
+         */
+        public Encoder(OutputStream out, int[] initial) throws IOException {
+            this.out = out;
+            this.array = Arrays.copyOf(initial, initial.length);
+            this.auxiliary = new int[initial.length];
+            writeByte(MAGIC >>> 24);
+            writeByte(MAGIC >>> 16);
+            writeByte(MAGIC >>> 8);
+            writeByte(MAGIC);
+            writeByte(VERSION);
+            writeVarLong(initial.length);
+            for (int element : initial) {
+                writeVarLong(zigzag(element));
+            }
+        }
+
+        /**
+         * Writes the given sorting state.
+         *
+         * @param state The state.
+         * @throws IOException  If the stream cannot be written.
+         * @since v1.0.0
+         */
+        public void write(SortingState state) throws IOException {
+            write(
+                    state.getAction(),
+                    state.getFirstIndex(),
+                    state.getSecondIndex(),
+                    state.getFirstElement(),
+                    state.getSecondElement(),
+                    state.getIteration(),
+                    (long) (state.getTime() * 1_000_000_000)
+            );
+        }
+
+        /**
+         * Writes a state given by its columns.
+         *
+         * @param action    The action that takes place in the state.
+         * @param index1    The first index. For highlight states, the highlighted index.
+         * @param index2    The second index.
+         * @param element1  The first element. For highlight states, the highlighted element.
+         * @param element2  The second element.
+         * @param iteration The iteration of the algorithm in the state.
+         * @param time  The time elapsed in nanoseconds from the start of the algorithm until the state.
+         * @throws IOException  If the stream cannot be written.
+         * @since v1.0.0
+         */
+        public void write(SortingAction action, int index1, int index2, int element1, int element2, int iteration, long time) throws IOException {
+            boolean highlight = action == SortingAction.HIGHLIGHT;
+            boolean derived = switch (action) {
+                case HIGHLIGHT -> element1 == array[index1] && index2 == Integer.MIN_VALUE && element2 == Integer.MIN_VALUE;
+                case COMPARE, SWAP -> element1 == array[index1] && element2 == array[index2];
+                case WRITE -> false;
+                case BUFFER -> element1 == array[index1] && element2 == element1;
+                case COPY -> index2 >= 0 && index2 < auxiliary.length && element1 == auxiliary[index2] && element2 == array[index1];
+            };
+
+            if (action == SortingAction.COMPARE && derived && index2 == index1 + 1) {
+                // Each comparison of a run moves one index to the right and advances the iteration by one.
+                if (runLength > 0 && (index1 != lastIndex + 1 || iteration != lastIteration + 1)) {
+                    flushRun();
+                }
+                if (runLength == 0) {
+                    runBaseIndex = lastIndex;
+                    runBaseIteration = lastIteration;
+                } else if (runLength == runTimes.length) {
+                    runTimes = Arrays.copyOf(runTimes, runLength * 2);
+                }
+                runTimes[runLength++] = time - lastTime;
+                lastIndex = index1;
+                lastIteration = iteration;
+                lastTime = time;
+                statesWritten++;
+                return;
+            }
+
+            flushRun();
+            writeByte(action.ordinal() | (derived ? 0 : EXPLICIT_ELEMENTS));
+            writeVarLong(zigzag(index1 - lastIndex));
+            if (!highlight) {
+                writeVarLong(zigzag(index2 - index1));
+            }
+            if (!derived) {
+                writeVarLong(zigzag(element1));
+                if (!highlight) {
+                    writeVarLong(zigzag(element2));
+                }
+            }
+            writeVarLong(zigzag(iteration - lastIteration));
+            writeVarLong(zigzag(time - lastTime));
+            lastIndex = index1;
+            lastIteration = iteration;
+            lastTime = time;
+            statesWritten++;
+            auxiliary = apply(action, array, auxiliary, index1, index2, element1);
+        }
+
+        /**
+         * Writes the pending run. A run of a single comparison is written as a single record.
+         *
+         * @throws IOException  If the stream cannot be written.
+         * @since v1.0.0
+         */
+        private void flushRun() throws IOException {
+            if (runLength == 0) {
+                return;
+            }
+            int first = lastIndex - runLength + 1;
+            int firstIteration = lastIteration - runLength + 1;
+            if (runLength == 1) {
+                writeByte(SortingAction.COMPARE.ordinal());
+                writeVarLong(zigzag(first - runBaseIndex));
+                writeVarLong(zigzag(1));
+                writeVarLong(zigzag(lastIteration - runBaseIteration));
+                writeVarLong(zigzag(runTimes[0]));
+            } else {
+                writeByte(RUN);
+                runsWritten++;
+                writeVarLong(runLength);
+                writeVarLong(zigzag(first - runBaseIndex));
+                writeVarLong(zigzag(firstIteration - runBaseIteration));
+                for (int i = 0; i < runLength; i++) {
+                    writeVarLong(zigzag(runTimes[i]));
+                }
+            }
+            runLength = 0;
+        }
+
+        /**
+         * Returns the number of bytes written so far. Does not include the pending run.
+         *
+         * @return  The number of bytes.
+         * @since v1.0.0
+         */
+        public long getBytesWritten() {
+            return bytesWritten;
+        }
+
+        /**
+         * Returns the number of states written so far.
+         *
+         * @return  The number of states.
+         * @since v1.0.0
+         */
+        public long getStatesWritten() {
+            return statesWritten;
+        }
+
+        /**
+         * Returns the number of run records written so far, each standing for several comparisons. Does not include
+         * the pending run.
+         *
+         * @return  The number of run records.
+         * @since v1.0.0
+         */
+        public long getRunsWritten() {
+            return runsWritten;
+        }
+
+        /**
+         * Returns the ratio between the size of the written states in the uncompressed trace file format and their
+         * compressed size. Should be called after flushing.
+         *
+         * @return  The compression ratio.
+         * @since v1.0.0
+         */
+        public double getCompressionRatio() {
+            return bytesWritten == 0 ? 0 : (double) statesWritten * TraceFile.RECORD_SIZE / bytesWritten;
+        }
+
+        /**
+         * Writes the pending run and all buffered bytes to the stream.
+         *
+         * @throws IOException  If the stream cannot be written.
+         * @since v1.0.0
+         */
+        public void flush() throws IOException {
+            flushRun();
+            out.write(buffer, 0, position);
+            position = 0;
+            out.flush();
+        }
+
+        /**
+         * Flushes the encoder and closes the stream.
+         *
+         * @throws IOException  If the stream cannot be written.
+         * @since v1.0.0
+         */
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                out.close();
+            }
+        }
+
+        /**
+         * Writes a variable-length unsigned integer, seven bits per byte, lowest bits first.
+         *
+         * @param value The value.
+         * @throws IOException  If the stream cannot be written.
+         * @since v1.0.0
+         */
+        private void writeVarLong(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                writeByte((int) (value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            writeByte((int) value);
+        }
+
+        /**
+         * Writes a single byte into the buffer, writing the buffer to the stream if it is full.
+         *
+         * @param value The byte, given in the lowest eight bits.
+         * @throws IOException  If the stream cannot be written.
+         * @since v1.0.0
+         */
+        private void writeByte(int value) throws IOException {
+            if (position == buffer.length) {
+                out.write(buffer, 0, position);
+                position = 0;
+            }
+            buffer[position++] = (byte) value;
+            bytesWritten++;
+        }
+    }
+
+    /**
+     * Decodes a compressed trace state by state. After each call of next, the getters return the columns of the
+     * current state. No state objects are created.
+     *
+     * @author Tim-Michael Krieg
+     * @version 1.0.0
+     * @since v1.0.0
+     */
+    public static class Decoder implements AutoCloseable {
+
+        /**
+         * The stream the compressed trace is read from.
+         *
+         * @since v1.0.0
+         */
+        private final InputStream in;
+
+        /**
+         * The buffer holding bytes read from the stream but not yet decoded.
+         *
+         * @since v1.0.0
+         */
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+
+        /**
+         * The position of the next byte in the buffer.
+         *
+         * @since v1.0.0
+         */
+        private int position = 0;
+
+        /**
+         * The number of bytes in the buffer.
+         *
+         * @since v1.0.0
+         */
+        private int limit = 0;
+
+        /**
+         * The array before the first state.
+         *
+         * @since v1.0.0
+         */
+        private final int[] initial;
+
+        /**
+         * The array before the current state.
+         *
+         * @since v1.0.0
+         */
+        private final int[] array;
+
+        /**
+         * The auxiliary buffer before the current state.
+         *
+         * @since v1.0.0
+         */
+        private int[] auxiliary;
+
+        /**
+         * The action of the current state, or null before the first and after the last state.
+         *
+         * @since v1.0.0
+         */
+        private SortingAction action = null;
+
+        /**
+         * The first index of the current state.
+         *
+         * @since v1.0.0
+         */
+        private int index1 = 0;
+
+        /**
+         * The second index of the current state.
+         *
+         * @since v1.0.0
+         */
+        private int index2 = 0;
+
+        /**
+         * The first element of the current state.
+         *
+         * @since v1.0.0
+         */
+        private int element1 = 0;
+
+        /**
+         * The second element of the current state.
+         *
+         * @since v1.0.0
+         */
+        private int element2 = 0;
+
+        /**
+         * The iteration of the algorithm in the current state.
+         *
+         * @since v1.0.0
+         */
+        private int iteration = 0;
+
+        /**
+         * The time elapsed in nanoseconds from the start of the algorithm until the current state.
+         *
+         * @since v1.0.0
+         */
+        private long time = 0;
+
+        /**
+         * The number of states left in the current run.
+         *
+         * @since v1.0.0
+         */
+        private int runLeft = 0;
+
+        /**
+         * Constructor reading the header of the compressed trace.
+         *
+         * @param in    The stream the compressed trace is read from.
+         * @throws IOException  If the stream cannot be read or does not contain a compressed trace.
+         * @since v1.0.0
+         */
+        public Decoder(InputStream in) throws IOException {
+            this.in = in;
+            int magic = readByte() << 24 | readByte() << 16 | readByte() << 8 | readByte();
+            if (magic != MAGIC) {
+                throw new IOException("Not a compressed trace.");
+            }
+            int version = readByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported compressed trace version " + version + ".");
+            }
+            initial = new int[(int) readVarLong()];
+            for (int i = 0; i < initial.length; i++) {
+                initial[i] = (int) unzigzag(readVarLong());
+            }
+            array = Arrays.copyOf(initial, initial.length);
+            auxiliary = new int[initial.length];
+        }
+
+        /**
+         * Returns the array before the first state. Must not be changed.
+         *
+         * @return  The array before the first state.
+         * @since v1.0.0
+         */
+        public int[] getInitialArray() {
+            return initial;
+        }
+
+        /**
+         * Decodes the next state.
+         *
+         * @return  True if a state was decoded, false at the end of the stream.
+         * @throws IOException  If the stream cannot be read or is corrupted.
+         * @since v1.0.0
+         */
+        public boolean next() throws IOException {
+            try {
+                return decodeNext();
+            } catch (ArrayIndexOutOfBoundsException e) {
+                throw new IOException("Corrupted compressed trace, index out of the array.", e);
+            }
+        }
+
+        /**
+         * Decodes the next state without checking the decoded indices, which {@link #next()} does.
+         *
+         * @return  True if a state was decoded, false at the end of the stream.
+         * @throws IOException  If the stream cannot be read or contains an unknown tag.
+         * @since v1.0.0
+         */
+        private boolean decodeNext() throws IOException {
+            if (action != null) {
+                auxiliary = apply(action, array, auxiliary, index1, index2, element1);
+            }
+
+            if (runLeft > 0) {
+                runLeft--;
+                index1++;
+                index2++;
+                iteration++;
+                element1 = array[index1];
+                element2 = array[index2];
+                time += unzigzag(readVarLong());
+                return true;
+            }
+
+            if (!fill()) {
+                action = null;
+                return false;
+            }
+            int tag = readByte();
+            if (tag == RUN) {
+                runLeft = (int) readVarLong() - 1;
+                action = SortingAction.COMPARE;
+                index1 += (int) unzigzag(readVarLong());
+                index2 = index1 + 1;
+                element1 = array[index1];
+                element2 = array[index2];
+                iteration += (int) unzigzag(readVarLong());
+                time += unzigzag(readVarLong());
+                return true;
+            }
+
+            if ((tag & ~(RUN | EXPLICIT_ELEMENTS)) != 0 || (tag & RUN) >= ACTIONS.length) {
+                throw new IOException("Corrupted compressed trace, unknown tag " + tag + ".");
+            }
+            action = ACTIONS[tag & RUN];
+            boolean highlight = action == SortingAction.HIGHLIGHT;
+            index1 += (int) unzigzag(readVarLong());
+            index2 = highlight ? Integer.MIN_VALUE : index1 + (int) unzigzag(readVarLong());
+            if ((tag & EXPLICIT_ELEMENTS) != 0) {
+                element1 = (int) unzigzag(readVarLong());
+                element2 = highlight ? Integer.MIN_VALUE : (int) unzigzag(readVarLong());
+            } else {
+                switch (action) {
+                    case HIGHLIGHT -> {
+                        element1 = array[index1];
+                        element2 = Integer.MIN_VALUE;
+                    }
+                    case BUFFER -> element1 = element2 = array[index1];
+                    case COPY -> {
+                        element1 = auxiliary[index2];
+                        element2 = array[index1];
+                    }
+                    default -> {
+                        element1 = array[index1];
+                        element2 = array[index2];
+                    }
+                }
+            }
+            iteration += (int) unzigzag(readVarLong());
+            time += unzigzag(readVarLong());
+            return true;
+        }
+
+        /**
+         * Returns the action of the current state.
+         *
+         * @return  The action.
+         * @since v1.0.0
+         */
+        public SortingAction getAction() {
+            return action;
+        }
+
+        /**
+         * Returns the first index of the current state. For highlight states, the highlighted index is returned.
+         *
+         * @return  The first index.
+         * @since v1.0.0
+         */
+        public int getFirstIndex() {
+            return index1;
+        }
+
+        /**
+         * Returns the second index of the current state.
+         *
+         * @return  The second index.
+         * @since v1.0.0
+         */
+        public int getSecondIndex() {
+            return index2;
+        }
+
+        /**
+         * Returns the first element of the current state. For highlight states, the highlighted element is returned.
+         *
+         * @return  The first element.
+         * @since v1.0.0
+         */
+        public int getFirstElement() {
+            return element1;
+        }
+
+        /**
+         * Returns the second element of the current state.
+         *
+         * @return  The second element.
+         * @since v1.0.0
+         */
+        public int getSecondElement() {
+            return element2;
+        }
+
+        /**
+         * Returns the iteration of the algorithm in the current state.
+         *
+         * @return  The iteration.
+         * @since v1.0.0
+         */
+        public int getIteration() {
+            return iteration;
+        }
+
+        /**
+         * Returns the time elapsed in nanoseconds from the start of the algorithm until the current state.
+         *
+         * @return  The time elapsed in nanoseconds.
+         * @since v1.0.0
+         */
+        public long getTimeNanos() {
+            return time;
+        }
+
+        /**
+         * Closes the stream.
+         *
+         * @throws IOException  If the stream cannot be closed.
+         * @since v1.0.0
+         */
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        /**
+         * Makes sure that the buffer contains at least one byte, reading from the stream if necessary.
+         *
+         * @return  True if a byte is available, false at the end of the stream.
+         * @throws IOException  If the stream cannot be read.
+         * @since v1.0.0
+         */
+        private boolean fill() throws IOException {
+            while (position == limit) {
+                limit = in.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit < 0) {
+                    limit = 0;
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Reads a variable-length unsigned integer, seven bits per byte, lowest bits first.
+         *
+         * @return  The value.
+         * @throws IOException  If the stream cannot be read or ends within the value.
+         * @since v1.0.0
+         */
+        private long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed variable-length integer.");
+        }
+
+        /**
+         * Reads a single byte from the buffer, refilling the buffer if it is empty.
+         *
+         * @return  The byte as an unsigned value.
+         * @throws IOException  If the stream cannot be read or ends.
+         * @since v1.0.0
+         */
+        private int readByte() throws IOException {
+            if (position == limit && !fill()) {
+                throw new EOFException("Unexpected end of the compressed trace.");
+            }
+            return buffer[position++] & 0xFF;
+        }
+    }
+
+    /**
+     * Performs the given action on the array and the auxiliary buffer tracked by the encoder or decoder. Reading into
+     * the buffer stores the element in the buffer, which grows if the buffer index is beyond its end.
+     *
+     * @param action    The action.
+     * @param array The array.
+     * @param buffer    The auxiliary buffer.
+     * @param index1    The first index of the action.
+     * @param index2    The second index of the action.
+     * @param element1  The first element of the action.
+     * @return  The auxiliary buffer, which is a new array if it grew.
+     * @since v1.0.0
+     */
+    private static int[] apply(SortingAction action, int[] array, int[] buffer, int index1, int index2, int element1) {
+        if (action != SortingAction.BUFFER) {
+            action.applyTo(array, index1, index2, element1);
+            return buffer;
+        }
+        if (index2 >= buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(index2 + 1, buffer.length * 2));
+        }
+        buffer[index2] = element1;
+        return buffer;
+    }
+
+    /**
+     * Maps a signed value to an unsigned one, so that values close to zero have a short variable-length encoding.
+     *
+     * @param value The signed value.
+     * @return  The zigzag-encoded value.
+     * @since v1.0.0
+     */
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * Reverses the zigzag encoding.
+     *
+     * @param value The zigzag-encoded value.
+     * @return  The signed value.
+     * @since v1.0.0
+     */
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
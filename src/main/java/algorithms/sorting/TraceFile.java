@@ -0,0 +1,203 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting;
+
+import algorithms.State;
+import algorithms.StateMachine;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Utility class to save the states of a sorting algorithm to a binary file and to load them back. The file starts with
+ * a header containing the name of the algorithm, the array before sorting and the number of states. It is followed by
+ * one record of fixed size per state, so any state can be found without reading the states before it. Loading a file
+ * maps it into memory and decodes the states lazily, see {@link MappedTrace}. All numbers are stored in big-endian
+ * byte order.
+ *
+ * <pre>
+ * int     magic number ("JAPT")
+ * short   version
+ * int     length of the name in bytes, followed by the name in UTF-8
+ * int     length of the array, followed by the elements of the array
+ * long    number of states
+ * records (byte action, int index1, int index2, int element1, int element2, int iteration, long time in ns)
+ * </pre>
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+public class TraceFile {
+
+    /**
+     * The magic number at the start of each trace file. Spells "JAPT" in ASCII.
+     *
+     * @since v1.0.0
+     */
+    public static final int MAGIC = 0x4A415054;
+
+    /**
+     * The version of the file format.
+     *
+     * @since v1.0.0
+     */
+    public static final short VERSION = 1;
+
+    /**
+     * The size of the record of a single state in bytes.
+     *
+     * @since v1.0.0
+     */
+    public static final int RECORD_SIZE = 29;
+
+    /**
+     * Runs the given sorting algorithm and saves its states to the given file. The file is overwritten if it exists.
+     *
+     * @param path  The path of the file.
+     * @param algorithm The sorting algorithm.
+     * @throws IOException  If the file cannot be written.
+     * @since v1.0.0
+     */
+    public static void save(Path path, SortingAlgorithm algorithm) throws IOException {
+        StateMachine machine = algorithm.getStateMachine();
+        save(path, algorithm.getName(), algorithm.before, machine);
+    }
+
+    /**
+     * Saves the given states of a sorting algorithm to the given file. The file is overwritten if it exists.
+     *
+     * @param path  The path of the file.
+     * @param algorithmName The name of the algorithm.
+     * @param initial   The array before the first state.
+     * @param machine   The state machine containing the sorting states.
+     * @throws IOException  If the file cannot be written.
+     * @since v1.0.0
+     */
+    public static void save(Path path, String algorithmName, int[] initial, StateMachine machine) throws IOException {
+        long numberOfStates = machine.size();
+        byte[] name = algorithmName.getBytes(StandardCharsets.UTF_8);
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(name.length);
+            out.write(name);
+            out.writeInt(initial.length);
+            for (int element : initial) {
+                out.writeInt(element);
+            }
+            out.writeLong(numberOfStates);
+
+            long written = 0;
+            for (State state : machine) {
+                SortingState sortingState = (SortingState) state;
+                out.writeByte(sortingState.getAction().ordinal());
+                out.writeInt(sortingState.getFirstIndex());
+                out.writeInt(sortingState.getSecondIndex());
+                out.writeInt(sortingState.getFirstElement());
+                out.writeInt(sortingState.getSecondElement());
+                out.writeInt(sortingState.getIteration());
+                out.writeLong((long) (sortingState.getTime() * 1_000_000_000));
+                written++;
+            }
+            if (written != numberOfStates) {
+                throw new IllegalStateException("The state machine changed while it was saved.");
+            }
+        }
+    }
+
+    /**
+     * Loads the states saved in the given file. Only the header is read; the states are decoded from the memory-mapped
+     * file when they are accessed, so even large files open instantly.
+     *
+     * @param path  The path of the file.
+     * @return  The loaded trace.
+     * @throws IOException  If the file cannot be read or is not a valid trace file.
+     * @since v1.0.0
+     */
+    public static MappedTrace load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), Integer.MAX_VALUE));
+            if (header.remaining() < Integer.BYTES + Short.BYTES || header.getInt() != MAGIC) {
+                throw new IOException("Not a trace file: " + path);
+            }
+            short version = header.getShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported trace file version " + version + ": " + path);
+            }
+
+            byte[] name = new byte[readLength(header, 1, path)];
+            header.get(name);
+            int[] initial = new int[readLength(header, Integer.BYTES, path)];
+            header.asIntBuffer().get(initial);
+            header.position(header.position() + initial.length * Integer.BYTES);
+            if (header.remaining() < Long.BYTES) {
+                throw new IOException("Trace file header is truncated: " + path);
+            }
+            long numberOfStates = header.getLong();
+
+            long start = header.position();
+            if (numberOfStates < 0 || numberOfStates > (channel.size() - start) / RECORD_SIZE
+                    || channel.size() != start + numberOfStates * RECORD_SIZE) {
+                throw new IOException("Trace file is truncated or corrupted: " + path);
+            }
+
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((numberOfStates + MappedTrace.SEGMENT_STATES - 1) / MappedTrace.SEGMENT_STATES)];
+            for (int i = 0; i < segments.length; i++) {
+                long states = Math.min(MappedTrace.SEGMENT_STATES, numberOfStates - (long) i * MappedTrace.SEGMENT_STATES);
+                segments[i] = channel.map(
+                        FileChannel.MapMode.READ_ONLY,
+                        start + (long) i * MappedTrace.SEGMENT_STATES * RECORD_SIZE,
+                        states * RECORD_SIZE
+                );
+            }
+
+            return new MappedTrace(path, new String(name, StandardCharsets.UTF_8), initial, numberOfStates, segments);
+        }
+    }
+
+    /**
+     * Reads the length of a field of the header and checks that the field fits into the rest of the header.
+     *
+     * @param header    The header, positioned at the length.
+     * @param elementSize   The size of each element of the field in bytes.
+     * @param path  The path of the file, used in the message of the exception.
+     * @return  The number of elements of the field.
+     * @throws IOException  If the header ends within the length or the field.
+     * @since v1.0.0
+     */
+    private static int readLength(ByteBuffer header, int elementSize, Path path) throws IOException {
+        if (header.remaining() < Integer.BYTES) {
+            throw new IOException("Trace file header is truncated: " + path);
+        }
+        int length = header.getInt();
+        if (length < 0 || length > (header.remaining() - Long.BYTES) / elementSize) {
+            throw new IOException("Trace file header is truncated or corrupted: " + path);
+        }
+        return length;
+    }
+}
@@ -0,0 +1,53 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting;
+
+/**
+ * Each element of this enumeration represents a way in which a sorting algorithm records its states into the state
+ * machine. The mode decides how much memory a recorded trace occupies.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+public enum TraceMode {
+
+    /**
+     * Each state stores a full copy of the array before (and, for swaps, after) the action. Memory grows with the
+     * number of states times the length of the array.
+     *
+     * @since v1.0.0
+     */
+    FULL,
+
+    /**
+     * Each state only stores the action, the indices and the elements. The arrays are rebuilt on demand by replaying
+     * the trace from the array before sorting. Memory grows with the number of states only.
+     *
+     * @since v1.0.0
+     */
+    DELTA,
+
+    /**
+     * The states are not stored as objects at all. Instead, their actions, indices and elements are written to the
+     * primitive columns of a ColumnarStateMachine. Iterating over the states hands out a single reusable cursor.
+     *
+     * @since v1.0.0
+     */
+    COLUMNAR
+}
@@ -0,0 +1,143 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting;
+
+/**
+ * Receives the actions of a sorting algorithm while it sorts. Each sorting algorithm has a single implementation that
+ * reports its actions to a tracer, so sorting with and without recording states runs the same code. The no-op tracer
+ * {@link #NONE} has empty methods, which the JIT compiler inlines and removes, so sorting without recording runs at the
+ * speed of a plain implementation.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+public interface Tracer {
+
+    /**
+     * The tracer that ignores all actions.
+     *
+     * @since v1.0.0
+     */
+    Tracer NONE = new Tracer() {
+        @Override
+        public void compare(int[] array, int iteration, int index1, int index2) {
+        }
+
+        @Override
+        public void swap(int[] array, int iteration, int index1, int index2) {
+        }
+
+        @Override
+        public void write(int[] array, int iteration, int index, int element) {
+        }
+
+        @Override
+        public void buffer(int[] array, int iteration, int index, int bufferIndex) {
+        }
+
+        @Override
+        public void copy(int[] array, int iteration, int index, int bufferIndex, int element) {
+        }
+
+        @Override
+        public boolean isRecording() {
+            return false;
+        }
+    };
+
+    /**
+     * Called when the algorithm compares the elements at the given indices.
+     *
+     * @param array The array that is sorted.
+     * @param iteration The iteration of the algorithm.
+     * @param index1    The index of the first element.
+     * @param index2    The index of the second element.
+     * @since v1.0.0
+     */
+    void compare(int[] array, int iteration, int index1, int index2);
+
+    /**
+     * Called when the algorithm swaps the elements at the given indices, before they are swapped.
+     *
+     * @param array The array that is sorted.
+     * @param iteration The iteration of the algorithm.
+     * @param index1    The index of the first element.
+     * @param index2    The index of the second element.
+     * @since v1.0.0
+     */
+    void swap(int[] array, int iteration, int index1, int index2);
+
+    /**
+     * Called when the algorithm writes an element to the given index, before it is written.
+     *
+     * @param array The array that is sorted.
+     * @param iteration The iteration of the algorithm.
+     * @param index The index the element is written to.
+     * @param element   The element.
+     * @since v1.0.0
+     */
+    void write(int[] array, int iteration, int index, int element);
+
+    /**
+     * Called when the algorithm reads the element at the given index into an auxiliary buffer.
+     *
+     * @param array The array that is sorted.
+     * @param iteration The iteration of the algorithm.
+     * @param index The index of the element in the array.
+     * @param bufferIndex   The index the element is stored at in the buffer.
+     * @since v1.0.0
+     */
+    void buffer(int[] array, int iteration, int index, int bufferIndex);
+
+    /**
+     * Called when the algorithm copies an element from an auxiliary buffer to the given index, before it is copied.
+     *
+     * @param array The array that is sorted.
+     * @param iteration The iteration of the algorithm.
+     * @param index The index the element is copied to.
+     * @param bufferIndex   The index of the element in the buffer.
+     * @param element   The element.
+     * @since v1.0.0
+     */
+    void copy(int[] array, int iteration, int index, int bufferIndex, int element);
+
+    /**
+     * Returns whether the tracer records the actions, so that it needs each action with its indices and the array at
+     * the time of the action. Tracers that only count the actions may instead be given the number of actions at once
+     * by method count, which lets parallel algorithms count per task instead of ordering their actions.
+     *
+     * @return  True if the tracer records the actions, false if it only counts them.
+     * @since v1.0.0
+     */
+    default boolean isRecording() {
+        return true;
+    }
+
+    /**
+     * Called instead of the other methods when the algorithm reports a number of actions of the same kind at once.
+     * Only called on tracers that do not record the actions. Ignores the actions by default.
+     *
+     * @param action    The action.
+     * @param times The number of actions.
+     * @param iteration The iteration of the algorithm after the actions.
+     * @since v1.0.0
+     */
+    default void count(SortingAction action, long times, int iteration) {
+    }
+}
@@ -17,9 +17,9 @@
  */
 package algorithms.sorting.bubblesort;
 
+import algorithms.sorting.Presortedness;
 import algorithms.sorting.SortingAlgorithm;
-import algorithms.sorting.SortingState;
-import datastructure.Pair;
+import algorithms.sorting.Tracer;
 
 /**
  * An object of this class represents the Bubble sort algorithm executed on an int array.
@@ -64,64 +64,30 @@ public class BubbleSort extends SortingAlgorithm {
     }
 
     /**
-     * Runs the algorithm and builds the state machine.
+     * Estimates the number of states the algorithm records on its current array. Bubble sort compares every pair of
+     * neighbours in each pass, which are n (n - 1) / 2 comparisons, and swaps once per inversion of the array.
      *
+     * @return  The estimated number of states.
      * @since v1.0.0
      */
     @Override
-    protected void run() {
-        long startTime = System.nanoTime();
-        int n = array.length;
-        int id = 1;
-        int iteration = 1;
-        while(n > 1) {
-            for (int i = 0; i < n - 1; i++) {
-                stateMachine.append(
-                        SortingState.comparison(
-                                id++,
-                                (double) (System.nanoTime() - startTime) / 1_000_000_000,
-                                iteration++,
-                                getArrayCopy(),
-                                new Pair<>(i, i + 1),
-                                new Pair<>(array[i], array[i + 1])
-                        )
-                );
-                if (array[i] > array[i + 1]) {
-                    int[] before = getArrayCopy();
-                    int tmp = array[i];
-                    array[i] = array[i + 1];
-                    array[i + 1] = tmp;
-                    stateMachine.append(
-                            SortingState.swap(
-                                    id++,
-                                    (double) (System.nanoTime() - startTime) / 1_000_000_000,
-                                    iteration,
-                                    before,
-                                    getArrayCopy(),
-                                    new Pair<>(i, i + 1),
-                                    new Pair<>(array[i + 1], array[i])
-                            )
-                    );
-                    totalSwaps++;
-                }
-                totalComparisons++;
-            }
-            n--;
-        }
-        totalTime = (double) (System.nanoTime() - startTime) / 1_000_000_000;
-        totalIterations = iteration;
+    public long estimateStates() {
+        long n = array.length;
+        return Math.max(1, n * (n - 1) / 2 + Presortedness.of(array).inversions());
     }
 
     /**
-     * Runs the algorithm. Running the algorithm sorts the array from the smallest to the biggest value. This method is
-     * simply to check whether the implementation of the algorithm works.
+     * Runs the algorithm. Running the algorithm sorts the array from the smallest to the biggest value. Each comparison
+     * and swap is reported to the given tracer.
      *
+     * @param tracer    The tracer receiving the actions.
      * @since v1.0.0
      */
     @Override
-    public void sort() {
+    public void sort(Tracer tracer) {
         // Get number of elements in array.
         int n = array.length;
+        int iteration = 1;
 
         // Iterate through all items.
         while(n > 1) {
@@ -130,7 +96,9 @@ public class BubbleSort extends SortingAlgorithm {
             for (int i = 0; i < n - 1; i++) {
 
                 // Compare the i-th element to the subsequent element (i + 1). If it is larger, swap the two elements.
+                tracer.compare(array, iteration++, i, i + 1);
                 if (array[i] > array[i + 1]) {
+                    tracer.swap(array, iteration, i, i + 1);
 
                     // Save element at index i in variable.
                     int tmp = array[i];
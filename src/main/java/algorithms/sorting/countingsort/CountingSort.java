@@ -0,0 +1,184 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting.countingsort;
+
+import algorithms.sorting.SortingAlgorithm;
+import algorithms.sorting.Tracer;
+import algorithms.sorting.mergesort.MergeSort;
+
+/**
+ * An object of this class represents the Counting sort algorithm executed on an int array. The elements are read into a
+ * buffer while the occurrences of each element are counted. Then the array is overwritten with each element as often
+ * as it occurred, from the smallest to the biggest element. No elements are compared, unless the range of the elements
+ * is too large for an array of counts (see {@link #maxRange(int)}). Then the array is sorted by Merge sort instead,
+ * whose comparisons, reads and copies are traced and counted like those of Counting sort.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+public class CountingSort extends SortingAlgorithm {
+
+    /**
+     * The largest array of counts allocated, whatever the length of the array.
+     *
+     * @since v1.0.0
+     */
+    public static final int MAX_RANGE = 1 << 26;
+
+    /**
+     * The array of counts may always have this length, so short arrays of small elements are counted.
+     *
+     * @since v1.0.0
+     */
+    public static final int MIN_RANGE = 1 << 10;
+
+    /**
+     * The maximum number of counts per element of the array.
+     *
+     * @since v1.0.0
+     */
+    public static final int RANGE_FACTOR = 4;
+
+    /**
+     * Constructor initializing the array that is to be sorted by the Counting sort algorithm.
+     *
+     * @param array The array to be sorted.
+     * @since v1.0.0
+     */
+    public CountingSort(int[] array) {
+        super(array);
+    }
+
+    /**
+     * Returns the name of the Counting sort algorithm.
+     *
+     * @return The name.
+     * @since v1.0.0
+     */
+    @Override
+    public String getName() {
+        return "Counting Sort";
+    }
+
+    /**
+     * Returns the type of this algorithm.
+     *
+     * @return The type.
+     * @since v1.0.0
+     */
+    @Override
+    public String getType() {
+        return "Sorting";
+    }
+
+    /**
+     * Returns the maximum difference between the biggest and the smallest element plus one, which is the length of
+     * the array of counts, for an array of the given length. The counts take at most {@link #RANGE_FACTOR} times the
+     * memory of the array, but at least {@link #MIN_RANGE} and at most {@link #MAX_RANGE} counts. Arrays with a larger
+     * range are sorted by Merge sort.
+     *
+     * @param length    The length of the array.
+     * @return  The maximum range.
+     * @since v1.0.0
+     */
+    public static long maxRange(int length) {
+        return Math.min(MAX_RANGE, Math.max(MIN_RANGE, (long) RANGE_FACTOR * length));
+    }
+
+    /**
+     * Returns the difference between the biggest and the smallest element of the given array plus one.
+     *
+     * @param array The array. Must not be empty.
+     * @return  The range.
+     * @since v1.0.0
+     */
+    private static long range(int[] array) {
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int element : array) {
+            min = Math.min(min, element);
+            max = Math.max(max, element);
+        }
+        return (long) max - min + 1;
+    }
+
+    /**
+     * Estimates the number of states the algorithm records on its current array: each element is read into the
+     * buffer once and written back once. If the range is too large, the reads are followed by the states of Merge sort.
+     *
+     * @return  The estimated number of states.
+     * @since v1.0.0
+     */
+    @Override
+    public long estimateStates() {
+        int n = array.length;
+        if (n >= 2 && range(array) > maxRange(n)) {
+            return n + new MergeSort(array).estimateStates();
+        }
+        return Math.max(1, 2L * n);
+    }
+
+    /**
+     * Runs the algorithm. Running the algorithm sorts the array from the smallest to the biggest value. Each read into
+     * the buffer and each write is reported to the given tracer and counts as an iteration.
+     *
+     * @param tracer    The tracer receiving the actions.
+     * @since v1.0.0
+     */
+    @Override
+    public void sort(Tracer tracer) {
+        iteration = 1;
+        int n = array.length;
+        if (n < 2) {
+            return;
+        }
+
+        // Read the elements into the buffer and find the smallest and the biggest element.
+        int[] buffer = new int[n];
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            buffer(tracer, i, buffer, i);
+            iteration++;
+            min = Math.min(min, buffer[i]);
+            max = Math.max(max, buffer[i]);
+        }
+        long range = (long) max - min + 1;
+        if (range > maxRange(n)) {
+            // Too many possible elements to count them, so the elements are compared instead.
+            sortWith(new MergeSort(new int[0]), tracer);
+            return;
+        }
+
+        // Count the occurrences of each element.
+        int[] counts = new int[(int) range];
+        for (int element : buffer) {
+            counts[element - min]++;
+        }
+
+        // Write each element as often as it occurred.
+        int index = 0;
+        for (int offset = 0; offset < counts.length; offset++) {
+            for (int count = counts[offset]; count > 0; count--) {
+                write(tracer, index++, min + offset);
+                iteration++;
+            }
+        }
+    }
+}
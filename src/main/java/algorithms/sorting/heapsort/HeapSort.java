@@ -0,0 +1,122 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting.heapsort;
+
+import algorithms.sorting.SortingAlgorithm;
+import algorithms.sorting.Tracer;
+
+/**
+ * An object of this class represents the Heap sort algorithm executed on an int array. The array is arranged into a
+ * max heap, then the biggest element is repeatedly swapped behind the heap.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+public class HeapSort extends SortingAlgorithm {
+
+    /**
+     * Constructor initializing the array that is to be sorted by the Heap sort algorithm.
+     *
+     * @param array The array to be sorted.
+     * @since v1.0.0
+     */
+    public HeapSort(int[] array) {
+        super(array);
+    }
+
+    /**
+     * Returns the name of the Heap sort algorithm.
+     *
+     * @return The name.
+     * @since v1.0.0
+     */
+    @Override
+    public String getName() {
+        return "Heap Sort";
+    }
+
+    /**
+     * Returns the type of this algorithm.
+     *
+     * @return The type.
+     * @since v1.0.0
+     */
+    @Override
+    public String getType() {
+        return "Sorting";
+    }
+
+    /**
+     * Estimates the number of states the algorithm records on its current array. Sifting an element down the heap
+     * takes up to two comparisons and a swap per level, which adds up to about 2.7 n log n states.
+     *
+     * @return  The estimated number of states.
+     * @since v1.0.0
+     */
+    @Override
+    public long estimateStates() {
+        return estimateStates(2.7);
+    }
+
+    /**
+     * Runs the algorithm. Running the algorithm sorts the array from the smallest to the biggest value. Each comparison
+     * and swap is reported to the given tracer.
+     *
+     * @param tracer    The tracer receiving the actions.
+     * @since v1.0.0
+     */
+    @Override
+    public void sort(Tracer tracer) {
+        iteration = 1;
+        int n = array.length;
+
+        // Arrange the array into a max heap.
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(tracer, i, n);
+        }
+
+        // Swap the biggest element behind the heap and restore the heap.
+        for (int end = n - 1; end > 0; end--) {
+            swap(tracer, 0, end);
+            siftDown(tracer, 0, end);
+        }
+    }
+
+    /**
+     * Moves the element at the given index down the heap until it is not smaller than its children.
+     *
+     * @param tracer    The tracer receiving the actions.
+     * @param index The index of the element.
+     * @param size  The number of elements in the heap.
+     * @since v1.0.0
+     */
+    private void siftDown(Tracer tracer, int index, int size) {
+        int child;
+        while ((child = 2 * index + 1) < size) {
+            if (child + 1 < size && compare(tracer, child, child + 1) < 0) {
+                child++;
+            }
+            if (compare(tracer, index, child) >= 0) {
+                return;
+            }
+            swap(tracer, index, child);
+            index = child;
+        }
+    }
+}
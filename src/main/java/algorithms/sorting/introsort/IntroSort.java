@@ -0,0 +1,161 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting.introsort;
+
+import algorithms.sorting.SortingAlgorithm;
+import algorithms.sorting.Tracer;
+
+/**
+ * An object of this class represents the Intro sort algorithm executed on an int array. The array is sorted by Quick
+ * sort with a median-of-three pivot until the recursion gets deeper than twice the logarithm of the length of the
+ * array. Ranges beyond this depth are sorted by Heap sort, so the worst case stays O(n log n). Short ranges are sorted
+ * by insertion sort.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+public class IntroSort extends SortingAlgorithm {
+
+    /**
+     * The length of the ranges that are sorted by insertion sort instead of being partitioned.
+     *
+     * @since v1.0.0
+     */
+    private static final int INSERTION_THRESHOLD = 16;
+
+    /**
+     * Constructor initializing the array that is to be sorted by the Intro sort algorithm.
+     *
+     * @param array The array to be sorted.
+     * @since v1.0.0
+     */
+    public IntroSort(int[] array) {
+        super(array);
+    }
+
+    /**
+     * Returns the name of the Intro sort algorithm.
+     *
+     * @return The name.
+     * @since v1.0.0
+     */
+    @Override
+    public String getName() {
+        return "Intro Sort";
+    }
+
+    /**
+     * Returns the type of this algorithm.
+     *
+     * @return The type.
+     * @since v1.0.0
+     */
+    @Override
+    public String getType() {
+        return "Sorting";
+    }
+
+    /**
+     * Runs the algorithm. Running the algorithm sorts the array from the smallest to the biggest value. Each comparison
+     * and swap is reported to the given tracer.
+     *
+     * @param tracer    The tracer receiving the actions.
+     * @since v1.0.0
+     */
+    @Override
+    public void sort(Tracer tracer) {
+        iteration = 1;
+        if (array.length < 2) {
+            return;
+        }
+        int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(array.length));
+        introSort(tracer, 0, array.length - 1, depthLimit);
+        // The partitions are already in order, so each element moves less than the insertion threshold.
+        insertionSort(tracer, 0, array.length - 1);
+    }
+
+    /**
+     * Partitions the given range until its parts are shorter than the insertion threshold, which are left for the
+     * final insertion sort. Falls back to Heap sort once the depth limit is reached.
+     *
+     * @param tracer    The tracer receiving the actions.
+     * @param low   The first index of the range.
+     * @param high  The last index of the range.
+     * @param depthLimit    The number of partitions left before falling back to Heap sort.
+     * @since v1.0.0
+     */
+    private void introSort(Tracer tracer, int low, int high, int depthLimit) {
+        while (high - low >= INSERTION_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(tracer, low, high);
+                return;
+            }
+            int pivot = partition(tracer, low, high);
+            if (pivot - low < high - pivot) {
+                introSort(tracer, low, pivot - 1, depthLimit);
+                low = pivot + 1;
+            } else {
+                introSort(tracer, pivot + 1, high, depthLimit);
+                high = pivot - 1;
+            }
+        }
+    }
+
+    /**
+     * Sorts the given range of the array by Heap sort.
+     *
+     * @param tracer    The tracer receiving the actions.
+     * @param low   The first index of the range.
+     * @param high  The last index of the range.
+     * @since v1.0.0
+     */
+    private void heapSort(Tracer tracer, int low, int high) {
+        int n = high - low + 1;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(tracer, low, i, n);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            swap(tracer, low, low + end);
+            siftDown(tracer, low, 0, end);
+        }
+    }
+
+    /**
+     * Moves the element at the given heap index down the heap until it is not smaller than its children.
+     *
+     * @param tracer    The tracer receiving the actions.
+     * @param offset    The index of the root of the heap in the array.
+     * @param index The heap index of the element.
+     * @param size  The number of elements in the heap.
+     * @since v1.0.0
+     */
+    private void siftDown(Tracer tracer, int offset, int index, int size) {
+        int child;
+        while ((child = 2 * index + 1) < size) {
+            if (child + 1 < size && compare(tracer, offset + child, offset + child + 1) < 0) {
+                child++;
+            }
+            if (compare(tracer, offset + index, offset + child) >= 0) {
+                return;
+            }
+            swap(tracer, offset + index, offset + child);
+            index = child;
+        }
+    }
+}
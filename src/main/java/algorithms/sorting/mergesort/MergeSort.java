@@ -0,0 +1,160 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting.mergesort;
+
+import algorithms.sorting.SortingAlgorithm;
+import algorithms.sorting.Tracer;
+
+/**
+ * An object of this class represents the top-down Merge sort algorithm executed on an int array. The array is split in
+ * halves, which are sorted recursively and merged afterwards. Short ranges are sorted by insertion sort. The halves are
+ * merged into an auxiliary buffer, which is copied back to the array afterwards.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+public class MergeSort extends SortingAlgorithm {
+
+    /**
+     * The length of the ranges that are sorted by insertion sort instead of being split.
+     *
+     * @since v1.0.0
+     */
+    private static final int INSERTION_THRESHOLD = 16;
+
+    /**
+     * The auxiliary buffer the halves are merged into.
+     *
+     * @since v1.0.0
+     */
+    private int[] buffer;
+
+    /**
+     * Constructor initializing the array that is to be sorted by the Merge sort algorithm.
+     *
+     * @param array The array to be sorted.
+     * @since v1.0.0
+     */
+    public MergeSort(int[] array) {
+        super(array);
+    }
+
+    /**
+     * Returns the name of the Merge sort algorithm.
+     *
+     * @return The name.
+     * @since v1.0.0
+     */
+    @Override
+    public String getName() {
+        return "Merge Sort";
+    }
+
+    /**
+     * Returns the type of this algorithm.
+     *
+     * @return The type.
+     * @since v1.0.0
+     */
+    @Override
+    public String getType() {
+        return "Sorting";
+    }
+
+    /**
+     * Estimates the number of states the algorithm records on a shuffled or reversed array. Each level of merging
+     * compares, buffers and copies back most of the elements, which adds up to about 2.8 n log n states. Sorted runs
+     * are not merged, so a presorted array takes far fewer states.
+     *
+     * @return  The estimated number of states.
+     * @since v1.0.0
+     */
+    @Override
+    public long estimateStates() {
+        return estimateStates(2.8);
+    }
+
+    /**
+     * Runs the algorithm. Running the algorithm sorts the array from the smallest to the biggest value. Each comparison,
+     * swap, read into the buffer and copy back is reported to the given tracer.
+     *
+     * @param tracer    The tracer receiving the actions.
+     * @since v1.0.0
+     */
+    @Override
+    public void sort(Tracer tracer) {
+        iteration = 1;
+        buffer = new int[array.length];
+        mergeSort(tracer, 0, array.length);
+        buffer = null;
+    }
+
+    /**
+     * Sorts the given range of the array.
+     *
+     * @param tracer    The tracer receiving the actions.
+     * @param from  The first index of the range.
+     * @param to    The index after the last index of the range.
+     * @since v1.0.0
+     */
+    private void mergeSort(Tracer tracer, int from, int to) {
+        if (to - from <= INSERTION_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                for (int j = i; j > from && compare(tracer, j - 1, j) > 0; j--) {
+                    swap(tracer, j - 1, j);
+                }
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(tracer, from, mid);
+        mergeSort(tracer, mid, to);
+
+        // Nothing to merge if the halves are already in order.
+        if (compare(tracer, mid - 1, mid) <= 0) {
+            return;
+        }
+        merge(tracer, from, mid, to);
+    }
+
+    /**
+     * Merges the sorted ranges [from, mid) and [mid, to). The smaller of the two next elements of both ranges is read
+     * into the buffer until both ranges are merged. Then the buffer is copied back to the array.
+     *
+     * @param tracer    The tracer receiving the actions.
+     * @param from  The first index of the first range.
+     * @param mid   The first index of the second range.
+     * @param to    The index after the last index of the second range.
+     * @since v1.0.0
+     */
+    private void merge(Tracer tracer, int from, int mid, int to) {
+        int i = from;
+        int j = mid;
+        for (int k = from; k < to; k++) {
+            if (j >= to || (i < mid && compare(tracer, i, j) <= 0)) {
+                buffer(tracer, i++, buffer, k);
+            } else {
+                buffer(tracer, j++, buffer, k);
+            }
+        }
+        for (int k = from; k < to; k++) {
+            copy(tracer, k, buffer, k);
+        }
+    }
+}
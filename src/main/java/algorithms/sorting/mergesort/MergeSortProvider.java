@@ -0,0 +1,39 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting.mergesort;
+
+import algorithms.AlgorithmProvider;
+
+/**
+ * Publishes the Merge sort algorithm to the algorithm catalog.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+public class MergeSortProvider extends AlgorithmProvider.Base {
+
+    /**
+     * Constructor describing the Merge sort algorithm.
+     *
+     * @since v1.0.0
+     */
+    public MergeSortProvider() {
+        super("Merge Sort", "Sorting", "O(n log n)", "algorithms.sorting.mergesort.MergeSort");
+    }
+}
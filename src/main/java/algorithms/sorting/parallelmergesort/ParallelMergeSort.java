@@ -0,0 +1,649 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting.parallelmergesort;
+
+import algorithms.sorting.SortingAction;
+import algorithms.sorting.SortingAlgorithm;
+import algorithms.sorting.Tracer;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * An object of this class represents a parallel Merge sort algorithm executed on an int array. The array is split in
+ * halves which are sorted by separate fork/join tasks and merged afterwards. Small ranges are sorted sequentially.
+ * <p>
+ * Tracers are not thread-safe, so while sorting, each task records its actions into its own trace segment, which is
+ * only used by the worker thread running the task. After sorting, the segments are merged into a single ordered trace
+ * by a logical clock: the actions of a task follow the actions of its left and then its right subtask, just like in a
+ * sequential Merge sort. The tasks work on disjoint ranges, so replaying the merged trace on the unsorted array gives
+ * the same result, no matter in which order the tasks actually ran. Hence the trace is deterministic.
+ * <p>
+ * Tracers that only count the actions do not need them in order, so no segments are kept for them. Each task counts
+ * its actions by kind, and the counts of all tasks are summed and given to the tracer after sorting.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+public class ParallelMergeSort extends SortingAlgorithm {
+
+    /**
+     * The length of the ranges that are sorted sequentially instead of being split into further tasks.
+     *
+     * @since v1.0.0
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 13;
+
+    /**
+     * The length of the ranges that are sorted by insertion sort.
+     *
+     * @since v1.0.0
+     */
+    private static final int INSERTION_THRESHOLD = 32;
+
+    /**
+     * All sorting actions, indexed by their ordinal.
+     *
+     * @since v1.0.0
+     */
+    private static final SortingAction[] ACTIONS = SortingAction.values();
+
+    /**
+     * The pool running the tasks.
+     *
+     * @since v1.0.0
+     */
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    /**
+     * Constructor initializing the array that is to be sorted by the parallel Merge sort algorithm.
+     *
+     * @param array The array to be sorted.
+     * @since v1.0.0
+     */
+    public ParallelMergeSort(int[] array) {
+        super(array);
+    }
+
+    /**
+     * Returns the name of the parallel Merge sort algorithm.
+     *
+     * @return The name.
+     * @since v1.0.0
+     */
+    @Override
+    public String getName() {
+        return "Parallel Merge Sort";
+    }
+
+    /**
+     * Returns the type of this algorithm.
+     *
+     * @return The type.
+     * @since v1.0.0
+     */
+    @Override
+    public String getType() {
+        return "Sorting";
+    }
+
+    /**
+     * Estimates the number of states the algorithm records on a shuffled or reversed array. The tasks only split the
+     * sorting, each merge runs sequentially, so the states are those of a sequential Merge sort: each level of merging
+     * compares, buffers and copies back most of the elements, and short ranges are sorted by insertion sort with swaps,
+     * which adds up to about 3 n log n states. Sorted runs are not merged, so a presorted array takes far fewer states.
+     *
+     * @return  The estimated number of states.
+     * @since v1.0.0
+     */
+    @Override
+    public long estimateStates() {
+        return estimateStates(3.0);
+    }
+
+    /**
+     * Sets the pool running the tasks. By default, the common pool is used.
+     *
+     * @param pool  The pool.
+     * @since v1.0.0
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Runs the algorithm. Running the algorithm sorts the array from the smallest to the biggest value. Without a
+     * tracer, the tasks sort without recording. With a tracer that only counts, the tasks count their actions, and the
+     * sums are given to the tracer. With a recording tracer, the tasks record their actions into trace segments, which
+     * are replayed to the tracer in the order of the logical clock after sorting.
+     *
+     * @param tracer    The tracer receiving the actions.
+     * @since v1.0.0
+     */
+    @Override
+    public void sort(Tracer tracer) {
+        int n = array.length;
+        if (n < 2) {
+            return;
+        }
+        if (tracer == Tracer.NONE) {
+            pool.invoke(new SortTask(array, new int[n], 0, n));
+            return;
+        }
+
+        if (!tracer.isRecording()) {
+            TracedSortTask root = new TracedSortTask(new TracedMerger(array), 0, n, false);
+            pool.invoke(root);
+            long[] counts = new long[ACTIONS.length];
+            root.sumCounts(counts);
+            int clock = 0;
+            for (SortingAction action : ACTIONS) {
+                if (counts[action.ordinal()] > 0) {
+                    clock += (int) counts[action.ordinal()];
+                    tracer.count(action, counts[action.ordinal()], clock);
+                }
+            }
+            return;
+        }
+
+        int[] initial = Arrays.copyOf(array, n);
+        TracedSortTask root = new TracedSortTask(new TracedMerger(array), 0, n, true);
+        pool.invoke(root);
+
+        System.arraycopy(initial, 0, array, 0, n);
+        root.replay(tracer, array, new int[n], new int[]{0});
+    }
+
+    /**
+     * Sorts the given range of the array sequentially by insertion sort.
+     *
+     * @param array The array.
+     * @param from  The first index of the range.
+     * @param to    The index after the last index of the range.
+     * @since v1.0.0
+     */
+    private static void insertionSort(int[] array, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            int element = array[i];
+            int j = i - 1;
+            while (j >= from && array[j] > element) {
+                array[j + 1] = array[j];
+                j--;
+            }
+            array[j + 1] = element;
+        }
+    }
+
+    /**
+     * Sorts the given range of the array sequentially by Merge sort.
+     *
+     * @param array The array.
+     * @param buffer    The buffer used for merging. Must be as long as the array.
+     * @param from  The first index of the range.
+     * @param to    The index after the last index of the range.
+     * @since v1.0.0
+     */
+    private static void mergeSort(int[] array, int[] buffer, int from, int to) {
+        if (to - from <= INSERTION_THRESHOLD) {
+            insertionSort(array, from, to);
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(array, buffer, from, mid);
+        mergeSort(array, buffer, mid, to);
+        merge(array, buffer, from, mid, to);
+    }
+
+    /**
+     * Merges the sorted ranges [from, mid) and [mid, to) of the array through the buffer. Nothing is done if the
+     * ranges are already in order.
+     *
+     * @param array The array.
+     * @param buffer    The buffer used for merging. Must be as long as the array.
+     * @param from  The first index of the first range.
+     * @param mid   The first index of the second range.
+     * @param to    The index after the last index of the second range.
+     * @since v1.0.0
+     */
+    private static void merge(int[] array, int[] buffer, int from, int mid, int to) {
+        if (array[mid - 1] <= array[mid]) {
+            return;
+        }
+        System.arraycopy(array, from, buffer, from, to - from);
+        int i = from;
+        int j = mid;
+        for (int k = from; k < to; k++) {
+            if (j >= to || (i < mid && buffer[i] <= buffer[j])) {
+                array[k] = buffer[i++];
+            } else {
+                array[k] = buffer[j++];
+            }
+        }
+    }
+
+    /**
+     * The task sorting a range of the array without tracing. Ranges shorter than the sequential threshold are sorted
+     * sequentially; longer ranges are split into two subtasks.
+     *
+     * @author Tim-Michael Krieg
+     * @version 1.0.0
+     * @since v1.0.0
+     */
+    private static class SortTask extends RecursiveAction {
+
+        /**
+         * The array.
+         *
+         * @since v1.0.0
+         */
+        private final int[] array;
+
+        /**
+         * The buffer used for merging.
+         *
+         * @since v1.0.0
+         */
+        private final int[] buffer;
+
+        /**
+         * The first index of the range.
+         *
+         * @since v1.0.0
+         */
+        private final int from;
+
+        /**
+         * The index after the last index of the range.
+         *
+         * @since v1.0.0
+         */
+        private final int to;
+
+        /**
+         * Constructor initializing the range sorted by this task.
+         *
+         * @param array The array.
+         * @param buffer    The buffer used for merging. Must be as long as the array.
+         * @param from  The first index of the range.
+         * @param to    The index after the last index of the range.
+         * @since v1.0.0
+         */
+        SortTask(int[] array, int[] buffer, int from, int to) {
+            this.array = array;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Sorts the range.
+         *
+         * @since v1.0.0
+         */
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                mergeSort(array, buffer, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SortTask(array, buffer, from, mid), new SortTask(array, buffer, mid, to));
+            merge(array, buffer, from, mid, to);
+        }
+    }
+
+    /**
+     * The state shared by all traced tasks: the array and the buffer used for merging. The tasks use disjoint ranges of
+     * both arrays.
+     *
+     * @author Tim-Michael Krieg
+     * @version 1.0.0
+     * @since v1.0.0
+     */
+    private static class TracedMerger {
+
+        /**
+         * The array.
+         *
+         * @since v1.0.0
+         */
+        private final int[] array;
+
+        /**
+         * The buffer the halves are merged into.
+         *
+         * @since v1.0.0
+         */
+        private final int[] buffer;
+
+        /**
+         * Constructor initializing the buffer.
+         *
+         * @param array The array.
+         * @since v1.0.0
+         */
+        TracedMerger(int[] array) {
+            this.array = array;
+            buffer = new int[array.length];
+        }
+
+        /**
+         * Sorts the given range sequentially by Merge sort and records the actions into the given segment. Short
+         * ranges are sorted by insertion sort with swaps of neighbouring elements.
+         *
+         * @param segment   The trace segment of the task.
+         * @param from  The first index of the range.
+         * @param to    The index after the last index of the range.
+         * @since v1.0.0
+         */
+        void mergeSort(Segment segment, int from, int to) {
+            if (to - from <= INSERTION_THRESHOLD) {
+                for (int i = from + 1; i < to; i++) {
+                    for (int j = i; j > from; j--) {
+                        segment.add(SortingAction.COMPARE, j - 1, j);
+                        if (array[j - 1] <= array[j]) {
+                            break;
+                        }
+                        segment.add(SortingAction.SWAP, j - 1, j);
+                        swap(j - 1, j);
+                    }
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            mergeSort(segment, from, mid);
+            mergeSort(segment, mid, to);
+            merge(segment, from, mid, to);
+        }
+
+        /**
+         * Merges the sorted ranges [from, mid) and [mid, to) through the buffer and records the actions into the given
+         * segment. Nothing is done if the ranges are already in order.
+         *
+         * @param segment   The trace segment of the task.
+         * @param from  The first index of the first range.
+         * @param mid   The first index of the second range.
+         * @param to    The index after the last index of the second range.
+         * @since v1.0.0
+         */
+        void merge(Segment segment, int from, int mid, int to) {
+            segment.add(SortingAction.COMPARE, mid - 1, mid);
+            if (array[mid - 1] <= array[mid]) {
+                return;
+            }
+
+            int i = from;
+            int j = mid;
+            for (int k = from; k < to; k++) {
+                if (i < mid && j < to) {
+                    segment.add(SortingAction.COMPARE, i, j);
+                }
+                int index = j >= to || (i < mid && array[i] <= array[j]) ? i++ : j++;
+                segment.add(SortingAction.BUFFER, index, k);
+                buffer[k] = array[index];
+            }
+            for (int k = from; k < to; k++) {
+                segment.add(SortingAction.COPY, k, k);
+                array[k] = buffer[k];
+            }
+        }
+
+        /**
+         * Swaps the elements at the given indices.
+         *
+         * @param index1    The index of the first element.
+         * @param index2    The index of the second element.
+         * @since v1.0.0
+         */
+        private void swap(int index1, int index2) {
+            int tmp = array[index1];
+            array[index1] = array[index2];
+            array[index2] = tmp;
+        }
+    }
+
+    /**
+     * The task sorting a range of the array while recording or counting its actions in its own trace segment.
+     *
+     * @author Tim-Michael Krieg
+     * @version 1.0.0
+     * @since v1.0.0
+     */
+    private static class TracedSortTask extends RecursiveAction {
+
+        /**
+         * The state shared by all traced tasks.
+         *
+         * @since v1.0.0
+         */
+        private final TracedMerger merger;
+
+        /**
+         * The first index of the range.
+         *
+         * @since v1.0.0
+         */
+        private final int from;
+
+        /**
+         * The index after the last index of the range.
+         *
+         * @since v1.0.0
+         */
+        private final int to;
+
+        /**
+         * The actions of this task, without the actions of its subtasks.
+         *
+         * @since v1.0.0
+         */
+        private final Segment segment;
+
+        /**
+         * The subtask sorting the first half of the range, or null if the range was sorted sequentially.
+         *
+         * @since v1.0.0
+         */
+        private TracedSortTask left;
+
+        /**
+         * The subtask sorting the second half of the range, or null if the range was sorted sequentially.
+         *
+         * @since v1.0.0
+         */
+        private TracedSortTask right;
+
+        /**
+         * Constructor initializing the range sorted by this task.
+         *
+         * @param merger    The state shared by all traced tasks.
+         * @param from  The first index of the range.
+         * @param to    The index after the last index of the range.
+         * @param recording True if the actions are recorded, false if they are only counted.
+         * @since v1.0.0
+         */
+        TracedSortTask(TracedMerger merger, int from, int to, boolean recording) {
+            this.merger = merger;
+            this.from = from;
+            this.to = to;
+            segment = new Segment(recording);
+        }
+
+        /**
+         * Sorts the range.
+         *
+         * @since v1.0.0
+         */
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                merger.mergeSort(segment, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            left = new TracedSortTask(merger, from, mid, segment.recording);
+            right = new TracedSortTask(merger, mid, to, segment.recording);
+            invokeAll(left, right);
+            merger.merge(segment, from, mid, to);
+        }
+
+        /**
+         * Reports the actions of the subtasks and then the actions of this task to the tracer. The position of each
+         * action in this order is its logical time, which is passed to the tracer as the iteration. The actions are
+         * performed on the array and the buffer after they were reported.
+         *
+         * @param tracer    The tracer receiving the actions.
+         * @param array The array, which must be in the state before the first action of this task.
+         * @param buffer    The buffer the actions read into and copy from.
+         * @param clock The logical clock, given as an array of length 1, so subtasks can advance it.
+         * @since v1.0.0
+         */
+        void replay(Tracer tracer, int[] array, int[] buffer, int[] clock) {
+            if (left != null) {
+                left.replay(tracer, array, buffer, clock);
+                right.replay(tracer, array, buffer, clock);
+            }
+            segment.replay(tracer, array, buffer, clock);
+        }
+
+        /**
+         * Adds the numbers of actions of this task and its subtasks to the given counts, by the ordinal of the action.
+         *
+         * @param counts    The counts.
+         * @since v1.0.0
+         */
+        void sumCounts(long[] counts) {
+            if (left != null) {
+                left.sumCounts(counts);
+                right.sumCounts(counts);
+            }
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += segment.counts[i];
+            }
+        }
+    }
+
+    /**
+     * A trace segment holding the actions of a single task. Only used by the worker thread running the task, so it
+     * needs no synchronization. Each action is stored as three ints: the ordinal of the action and both indices. If the
+     * actions are not recorded, the segment only counts them by kind.
+     *
+     * @author Tim-Michael Krieg
+     * @version 1.0.0
+     * @since v1.0.0
+     */
+    private static class Segment {
+
+        /**
+         * The actions of the segment.
+         *
+         * @since v1.0.0
+         */
+        private int[] actions;
+
+        /**
+         * The numbers of actions added to the segment, by the ordinal of the action. Only used if the actions are not
+         * recorded.
+         *
+         * @since v1.0.0
+         */
+        private final long[] counts = new long[ACTIONS.length];
+
+        /**
+         * True if the actions are recorded, false if they are only counted.
+         *
+         * @since v1.0.0
+         */
+        private final boolean recording;
+
+        /**
+         * The number of ints used in the actions array.
+         *
+         * @since v1.0.0
+         */
+        private int size = 0;
+
+        /**
+         * Constructor initializing an empty segment.
+         *
+         * @param recording True if the actions are recorded, false if they are only counted.
+         * @since v1.0.0
+         */
+        Segment(boolean recording) {
+            this.recording = recording;
+            actions = recording ? new int[48] : null;
+        }
+
+        /**
+         * Adds an action to the segment, or counts it if the actions are not recorded.
+         *
+         * @param action    The action.
+         * @param index1    The index of the first element.
+         * @param index2    The index of the second element.
+         * @since v1.0.0
+         */
+        void add(SortingAction action, int index1, int index2) {
+            if (!recording) {
+                counts[action.ordinal()]++;
+                return;
+            }
+            if (size + 3 > actions.length) {
+                actions = Arrays.copyOf(actions, actions.length * 2);
+            }
+            actions[size++] = action.ordinal();
+            actions[size++] = index1;
+            actions[size++] = index2;
+        }
+
+        /**
+         * Reports the actions of the segment to the tracer and performs them on the array and the buffer.
+         *
+         * @param tracer    The tracer receiving the actions.
+         * @param array The array.
+         * @param buffer    The buffer the actions read into and copy from.
+         * @param clock The logical clock, given as an array of length 1.
+         * @since v1.0.0
+         */
+        void replay(Tracer tracer, int[] array, int[] buffer, int[] clock) {
+            for (int i = 0; i < size; i += 3) {
+                int index1 = actions[i + 1];
+                int index2 = actions[i + 2];
+                switch (ACTIONS[actions[i]]) {
+                    case COMPARE -> tracer.compare(array, ++clock[0], index1, index2);
+                    case SWAP -> {
+                        tracer.swap(array, ++clock[0], index1, index2);
+                        int tmp = array[index1];
+                        array[index1] = array[index2];
+                        array[index2] = tmp;
+                    }
+                    case BUFFER -> {
+                        tracer.buffer(array, ++clock[0], index1, index2);
+                        buffer[index2] = array[index1];
+                    }
+                    case COPY -> {
+                        tracer.copy(array, ++clock[0], index1, index2, buffer[index2]);
+                        array[index1] = buffer[index2];
+                    }
+                    default -> throw new IllegalStateException("Unexpected action " + ACTIONS[actions[i]] + ".");
+                }
+            }
+        }
+    }
+}
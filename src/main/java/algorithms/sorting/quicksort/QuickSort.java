@@ -0,0 +1,107 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting.quicksort;
+
+import algorithms.sorting.SortingAlgorithm;
+import algorithms.sorting.Tracer;
+
+/**
+ * An object of this class represents the Quick sort algorithm executed on an int array. The pivot of each range is the
+ * median of its first, middle and last element. Short ranges are sorted by insertion sort.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+public class QuickSort extends SortingAlgorithm {
+
+    /**
+     * The length of the ranges that are sorted by insertion sort instead of being partitioned.
+     *
+     * @since v1.0.0
+     */
+    private static final int INSERTION_THRESHOLD = 16;
+
+    /**
+     * Constructor initializing the array that is to be sorted by the Quick sort algorithm.
+     *
+     * @param array The array to be sorted.
+     * @since v1.0.0
+     */
+    public QuickSort(int[] array) {
+        super(array);
+    }
+
+    /**
+     * Returns the name of the Quick sort algorithm.
+     *
+     * @return The name.
+     * @since v1.0.0
+     */
+    @Override
+    public String getName() {
+        return "Quick Sort";
+    }
+
+    /**
+     * Returns the type of this algorithm.
+     *
+     * @return The type.
+     * @since v1.0.0
+     */
+    @Override
+    public String getType() {
+        return "Sorting";
+    }
+
+    /**
+     * Runs the algorithm. Running the algorithm sorts the array from the smallest to the biggest value. Each comparison
+     * and swap is reported to the given tracer.
+     *
+     * @param tracer    The tracer receiving the actions.
+     * @since v1.0.0
+     */
+    @Override
+    public void sort(Tracer tracer) {
+        iteration = 1;
+        quickSort(tracer, 0, array.length - 1);
+    }
+
+    /**
+     * Sorts the given range of the array. The smaller part of each partition is sorted recursively and the bigger part
+     * in the loop, so the recursion depth stays logarithmic.
+     *
+     * @param tracer    The tracer receiving the actions.
+     * @param low   The first index of the range.
+     * @param high  The last index of the range.
+     * @since v1.0.0
+     */
+    private void quickSort(Tracer tracer, int low, int high) {
+        while (high - low >= INSERTION_THRESHOLD) {
+            int pivot = partition(tracer, low, high);
+            if (pivot - low < high - pivot) {
+                quickSort(tracer, low, pivot - 1);
+                low = pivot + 1;
+            } else {
+                quickSort(tracer, pivot + 1, high);
+                high = pivot - 1;
+            }
+        }
+        insertionSort(tracer, low, high);
+    }
+}
@@ -0,0 +1,200 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting.radixsort;
+
+import algorithms.sorting.SortingAlgorithm;
+import algorithms.sorting.Tracer;
+
+/**
+ * An object of this class represents the least significant digit (LSD) Radix sort algorithm executed on an int array.
+ * Each element is split into four digits of one byte. Starting with the least significant digit, the elements are read
+ * into a buffer and copied back to the array ordered by the digit. Since each pass keeps the order of elements with the
+ * same digit, the array is sorted after the pass of the most significant digit. Passes in which all elements have the
+ * same digit are skipped. No elements are compared.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+public class LsdRadixSort extends SortingAlgorithm {
+
+    /**
+     * The number of bits of a digit.
+     *
+     * @since v1.0.0
+     */
+    static final int DIGIT_BITS = 8;
+
+    /**
+     * The number of different digits.
+     *
+     * @since v1.0.0
+     */
+    static final int RADIX = 1 << DIGIT_BITS;
+
+    /**
+     * The number of digits of an element.
+     *
+     * @since v1.0.0
+     */
+    static final int DIGITS = Integer.SIZE / DIGIT_BITS;
+
+    /**
+     * Constructor initializing the array that is to be sorted by the LSD Radix sort algorithm.
+     *
+     * @param array The array to be sorted.
+     * @since v1.0.0
+     */
+    public LsdRadixSort(int[] array) {
+        super(array);
+    }
+
+    /**
+     * Returns the name of the LSD Radix sort algorithm.
+     *
+     * @return The name.
+     * @since v1.0.0
+     */
+    @Override
+    public String getName() {
+        return "LSD Radix Sort";
+    }
+
+    /**
+     * Returns the type of this algorithm.
+     *
+     * @return The type.
+     * @since v1.0.0
+     */
+    @Override
+    public String getType() {
+        return "Sorting";
+    }
+
+    /**
+     * Estimates the number of states the algorithm records on its current array. All elements are read into the
+     * buffer once, then every pass whose digit is not the same for all elements copies them back and, except for the
+     * first such pass, reads them again. The passes that are skipped are exactly the digits in which no element
+     * differs from the first one.
+     *
+     * @return  The estimated number of states.
+     * @since v1.0.0
+     */
+    @Override
+    public long estimateStates() {
+        long n = array.length;
+        if (n < 2) {
+            return 1;
+        }
+        int differences = 0;
+        for (int element : array) {
+            differences |= element ^ array[0];
+        }
+        int passes = 0;
+        for (int pass = 0; pass < DIGITS; pass++) {
+            if (((differences >>> (pass * DIGIT_BITS)) & (RADIX - 1)) != 0) {
+                passes++;
+            }
+        }
+        return Math.max(n, 2 * n * passes);
+    }
+
+    /**
+     * Runs the algorithm. Running the algorithm sorts the array from the smallest to the biggest value. Each read into
+     * the buffer and each copy back is reported to the given tracer and counts as an iteration.
+     *
+     * @param tracer    The tracer receiving the actions.
+     * @since v1.0.0
+     */
+    @Override
+    public void sort(Tracer tracer) {
+        iteration = 1;
+        int n = array.length;
+        if (n < 2) {
+            return;
+        }
+
+        // Read the elements into the buffer and count the digits of all passes at once.
+        int[] buffer = new int[n];
+        int[][] counts = new int[DIGITS][RADIX + 1];
+        for (int i = 0; i < n; i++) {
+            buffer(tracer, i, buffer, i);
+            iteration++;
+            for (int pass = 0; pass < DIGITS; pass++) {
+                counts[pass][digit(buffer[i], pass * DIGIT_BITS) + 1]++;
+            }
+        }
+
+        boolean buffered = true;
+        for (int pass = 0; pass < DIGITS; pass++) {
+            int[] offsets = counts[pass];
+            if (isSingleDigit(offsets, n)) {
+                continue;
+            }
+
+            // The previous pass copied the elements back to the array, so they have to be read again.
+            if (!buffered) {
+                for (int i = 0; i < n; i++) {
+                    buffer(tracer, i, buffer, i);
+                    iteration++;
+                }
+            }
+
+            // Turn the counts into the index of the first element with each digit and copy the elements back.
+            for (int d = 0; d < RADIX; d++) {
+                offsets[d + 1] += offsets[d];
+            }
+            int shift = pass * DIGIT_BITS;
+            for (int i = 0; i < n; i++) {
+                copy(tracer, offsets[digit(buffer[i], shift)]++, buffer, i);
+                iteration++;
+            }
+            buffered = false;
+        }
+    }
+
+    /**
+     * Returns the digit of the given element at the given shift. The sign bit is flipped, so negative elements have
+     * smaller digits than positive elements.
+     *
+     * @param element   The element.
+     * @param shift The number of bits below the digit.
+     * @return  The digit.
+     * @since v1.0.0
+     */
+    static int digit(int element, int shift) {
+        return ((element ^ Integer.MIN_VALUE) >>> shift) & (RADIX - 1);
+    }
+
+    /**
+     * Returns whether all elements have the same digit, given the counts of the digits shifted by one.
+     *
+     * @param counts    The number of elements with each digit, where the count of digit d is at index d + 1.
+     * @param n The number of elements.
+     * @return  True, if a single digit occurs n times.
+     * @since v1.0.0
+     */
+    static boolean isSingleDigit(int[] counts, int n) {
+        for (int d = 1; d <= RADIX; d++) {
+            if (counts[d] == n) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,189 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting.radixsort;
+
+import algorithms.sorting.SortingAlgorithm;
+import algorithms.sorting.Tracer;
+
+import static algorithms.sorting.radixsort.LsdRadixSort.*;
+
+/**
+ * An object of this class represents the most significant digit (MSD) Radix sort algorithm executed on an int array.
+ * Each element is split into four digits of one byte. Starting with the most significant digit, the elements of a range
+ * are read into a buffer and copied back to the array grouped by the digit. Then each group is sorted recursively by
+ * the next digit. Short ranges are sorted by insertion sort.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+public class MsdRadixSort extends SortingAlgorithm {
+
+    /**
+     * The length of the ranges that are sorted by insertion sort instead of being grouped by a digit.
+     *
+     * @since v1.0.0
+     */
+    private static final int INSERTION_THRESHOLD = 16;
+
+    /**
+     * The buffer the elements of a range are read into.
+     *
+     * @since v1.0.0
+     */
+    private int[] buffer;
+
+    /**
+     * Constructor initializing the array that is to be sorted by the MSD Radix sort algorithm.
+     *
+     * @param array The array to be sorted.
+     * @since v1.0.0
+     */
+    public MsdRadixSort(int[] array) {
+        super(array);
+    }
+
+    /**
+     * Returns the name of the MSD Radix sort algorithm.
+     *
+     * @return The name.
+     * @since v1.0.0
+     */
+    @Override
+    public String getName() {
+        return "MSD Radix Sort";
+    }
+
+    /**
+     * Returns the type of this algorithm.
+     *
+     * @return The type.
+     * @since v1.0.0
+     */
+    @Override
+    public String getType() {
+        return "Sorting";
+    }
+
+    /**
+     * Estimates the number of states the algorithm records on its current array. Each level of the recursion reads
+     * all elements into the buffer and, if their digits differ, copies them back. The recursion ends once the groups
+     * are small enough for insertion sort, whose few steps on each small group are not counted.
+     *
+     * @return  The estimated number of states.
+     * @since v1.0.0
+     */
+    @Override
+    public long estimateStates() {
+        long n = array.length;
+        if (n < 2) {
+            return 1;
+        }
+        int differences = 0;
+        for (int element : array) {
+            differences |= element ^ array[0];
+        }
+        long states = 0;
+        long groupLength = n;
+        for (int shift = (DIGITS - 1) * DIGIT_BITS; shift >= 0 && groupLength > INSERTION_THRESHOLD; shift -= DIGIT_BITS) {
+            int digits = (differences >>> shift) & (RADIX - 1);
+            if (digits == 0) {
+                states += n;
+            } else {
+                states += 2 * n;
+                groupLength /= Integer.highestOneBit(digits) * 2L;
+            }
+        }
+        return states;
+    }
+
+    /**
+     * Runs the algorithm. Running the algorithm sorts the array from the smallest to the biggest value. Each read into
+     * the buffer and each copy back counts as an iteration. These actions, as well as the comparisons and swaps of
+     * insertion sort, are reported to the given tracer.
+     *
+     * @param tracer    The tracer receiving the actions.
+     * @since v1.0.0
+     */
+    @Override
+    public void sort(Tracer tracer) {
+        iteration = 1;
+        buffer = new int[array.length];
+        radixSort(tracer, 0, array.length, (DIGITS - 1) * DIGIT_BITS);
+        buffer = null;
+    }
+
+    /**
+     * Sorts the given range of the array, whose elements have the same digits above the given shift. If all elements
+     * have the same digit at the shift, they are not copied back and the range is sorted by the next digit.
+     *
+     * @param tracer    The tracer receiving the actions.
+     * @param from  The first index of the range.
+     * @param to    The index after the last index of the range.
+     * @param shift The number of bits below the digit the range is grouped by.
+     * @since v1.0.0
+     */
+    private void radixSort(Tracer tracer, int from, int to, int shift) {
+        if (to - from <= INSERTION_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                for (int j = i; j > from && compare(tracer, j - 1, j) > 0; j--) {
+                    swap(tracer, j - 1, j);
+                }
+            }
+            return;
+        }
+
+        // Read the elements into the buffer and count the digits.
+        int[] offsets = new int[RADIX + 1];
+        for (int i = from; i < to; i++) {
+            buffer(tracer, i, buffer, i);
+            iteration++;
+            offsets[digit(buffer[i], shift) + 1]++;
+        }
+
+        // All elements have the same digit, so the whole range is a single group.
+        if (isSingleDigit(offsets, to - from)) {
+            if (shift > 0) {
+                radixSort(tracer, from, to, shift - DIGIT_BITS);
+            }
+            return;
+        }
+
+        // Turn the counts into the index of the first element with each digit and copy the elements back.
+        offsets[0] = from;
+        for (int d = 0; d < RADIX; d++) {
+            offsets[d + 1] += offsets[d];
+        }
+        for (int i = from; i < to; i++) {
+            copy(tracer, offsets[digit(buffer[i], shift)]++, buffer, i);
+            iteration++;
+        }
+
+        // After copying, each offset is the index after the last element with its digit.
+        if (shift > 0) {
+            int start = from;
+            for (int d = 0; d < RADIX; d++) {
+                int end = offsets[d];
+                if (end - start > 1) {
+                    radixSort(tracer, start, end, shift - DIGIT_BITS);
+                }
+                start = end;
+            }
+        }
+    }
+}
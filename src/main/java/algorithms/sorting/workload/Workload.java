@@ -0,0 +1,70 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting.workload;
+
+/**
+ * Describes an array generated by the workload generator. The generator is deterministic, so the same workload always
+ * generates the same array, no matter how many threads are used. Storing the workload of an input is thus enough to
+ * regenerate it exactly.
+ *
+ * @param shape The shape of the array.
+ * @param length    The length of the array.
+ * @param seed  The seed of the random number generator.
+ * @param parameter The parameter of the shape. See {@link WorkloadShape} for its meaning.
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+public record Workload(WorkloadShape shape, int length, long seed, double parameter) {
+
+    /**
+     * Constructor describing an array of the given shape with the default parameter of the shape.
+     *
+     * @param shape The shape of the array.
+     * @param length    The length of the array.
+     * @param seed  The seed of the random number generator.
+     * @since v1.0.0
+     */
+    public Workload(WorkloadShape shape, int length, long seed) {
+        this(shape, length, seed, shape.getDefaultParameter(length));
+    }
+
+    /**
+     * Generates the array described by this workload.
+     *
+     * @return  The array.
+     * @since v1.0.0
+     */
+    public int[] generate() {
+        return new WorkloadGenerator(seed).generate(shape, length, parameter);
+    }
+
+    /**
+     * Returns a compact string-representation of this workload, for example "SHUFFLED(n=1000, seed=42)".
+     *
+     * @return  The string-representation.
+     * @since v1.0.0
+     */
+    @Override
+    public String toString() {
+        if (shape.getDefaultParameter(length) == 0) {
+            return String.format("%s(n=%d, seed=%d)", shape, length, seed);
+        }
+        return String.format("%s(n=%d, seed=%d, parameter=%s)", shape, length, seed, parameter);
+    }
+}
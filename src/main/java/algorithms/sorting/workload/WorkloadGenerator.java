@@ -0,0 +1,454 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting.workload;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Generates arrays of the shapes given by {@link WorkloadShape} from a seed. The array is split into blocks of fixed
+ * length, which are filled in parallel. Each block draws from its own random number generator, seeded from the seed of
+ * the generator and the number of the block, so the result does not depend on the number of threads or the order in
+ * which the blocks are filled. Shuffling is parallelized in the same way: each element is sent to a random bucket,
+ * the buckets are filled block by block and then shuffled independently.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+public class WorkloadGenerator {
+
+    /**
+     * The number of bits of the length of a block.
+     *
+     * @since v1.0.0
+     */
+    private static final int BLOCK_BITS = 16;
+
+    /**
+     * The length of a block.
+     *
+     * @since v1.0.0
+     */
+    private static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+
+    /**
+     * The seed of the random number generator.
+     *
+     * @since v1.0.0
+     */
+    private final long seed;
+
+    /**
+     * Constructor initializing the seed of the random number generator.
+     *
+     * @param seed  The seed.
+     * @since v1.0.0
+     */
+    public WorkloadGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Returns the seed of the random number generator.
+     *
+     * @return  The seed.
+     * @since v1.0.0
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Generates an array of the given shape and length with the default parameter of the shape.
+     *
+     * @param shape The shape of the array.
+     * @param length    The length of the array.
+     * @return  The array.
+     * @since v1.0.0
+     */
+    public int[] generate(WorkloadShape shape, int length) {
+        return generate(shape, length, shape.getDefaultParameter(length));
+    }
+
+    /**
+     * Generates an array of the given shape and length.
+     *
+     * @param shape The shape of the array.
+     * @param length    The length of the array.
+     * @param parameter The parameter of the shape. See {@link WorkloadShape} for its meaning.
+     * @return  The array.
+     * @since v1.0.0
+     */
+    public int[] generate(WorkloadShape shape, int length, double parameter) {
+        int[] array = new int[length];
+        fill(array, shape, parameter);
+        return array;
+    }
+
+    /**
+     * Fills the given array with the given shape.
+     *
+     * @param array The array.
+     * @param shape The shape of the array.
+     * @param parameter The parameter of the shape. See {@link WorkloadShape} for its meaning.
+     * @throws IllegalArgumentException If the parameter is not valid for the shape.
+     * @since v1.0.0
+     */
+    public void fill(int[] array, WorkloadShape shape, double parameter) {
+        int n = array.length;
+        if (n == 0) {
+            return;
+        }
+        long[] seeds = new SplittableRandom(seed).longs(blocks(n) + 1L).toArray();
+        switch (shape) {
+            case SORTED -> fillBlocks(array, (i, random) -> i + 1, seeds);
+            case REVERSED -> fillBlocks(array, (i, random) -> n - i, seeds);
+            case SHUFFLED -> shuffle(array, seeds);
+            case RANDOM -> fillBlocks(array, (i, random) -> random.nextInt(n) + 1, seeds);
+            case NEARLY_SORTED -> {
+                fillBlocks(array, (i, random) -> i + 1, seeds);
+                SplittableRandom random = new SplittableRandom(seeds[seeds.length - 1]);
+                for (long swap = (long) positive(shape, parameter); swap > 0; swap--) {
+                    int index1 = random.nextInt(n);
+                    int index2 = random.nextInt(n);
+                    int tmp = array[index1];
+                    array[index1] = array[index2];
+                    array[index2] = tmp;
+                }
+            }
+            case FEW_UNIQUE -> {
+                int values = (int) Math.min(n, positive(shape, parameter));
+                fillBlocks(array, (i, random) -> spread(random.nextInt(values), values, n), seeds);
+            }
+            case SAWTOOTH -> {
+                int tooth = (int) Math.min(n, positive(shape, parameter));
+                fillBlocks(array, (i, random) -> spread(i % tooth, tooth, n), seeds);
+            }
+            case ORGAN_PIPE -> fillBlocks(array, (i, random) -> i < (n + 1) / 2 ? 2 * i + 1 : 2 * (n - i), seeds);
+            case ZIPF -> {
+                ZipfSampler sampler = new ZipfSampler(n, positive(shape, parameter));
+                fillBlocks(array, (i, random) -> sampler.sample(random), seeds);
+            }
+            case RANDOM_RUNS -> fillRuns(array, (int) Math.min(n, positive(shape, parameter)), seeds);
+        }
+    }
+
+    /**
+     * Returns the number of blocks of an array of the given length.
+     *
+     * @param length    The length of the array.
+     * @return  The number of blocks.
+     * @since v1.0.0
+     */
+    private static int blocks(int length) {
+        return (int) (((long) length + BLOCK_SIZE - 1) >>> BLOCK_BITS);
+    }
+
+    /**
+     * Returns the given parameter if it is positive.
+     *
+     * @param shape The shape taking the parameter.
+     * @param parameter The parameter.
+     * @return  The parameter.
+     * @throws IllegalArgumentException If the parameter is not positive.
+     * @since v1.0.0
+     */
+    private static double positive(WorkloadShape shape, double parameter) {
+        if (!(parameter > 0)) {
+            throw new IllegalArgumentException("The parameter of " + shape + " must be positive: " + parameter + ".");
+        }
+        return parameter;
+    }
+
+    /**
+     * Maps the given value out of the given number of values to an element between 1 and the given length, so that
+     * the values are spread evenly.
+     *
+     * @param value The value, between 0 and the number of values minus one.
+     * @param values    The number of values.
+     * @param length    The length of the array.
+     * @return  The element.
+     * @since v1.0.0
+     */
+    private static int spread(int value, int values, int length) {
+        return values == 1 ? length : 1 + (int) ((long) value * (length - 1) / (values - 1));
+    }
+
+    /**
+     * Fills the blocks of the given array in parallel. Each element is computed from its index and the random number
+     * generator of its block.
+     *
+     * @param array The array.
+     * @param element   The function computing each element.
+     * @param seeds The seeds of the random number generators of the blocks.
+     * @since v1.0.0
+     */
+    private static void fillBlocks(int[] array, ElementFunction element, long[] seeds) {
+        IntStream.range(0, blocks(array.length)).parallel().forEach(block -> {
+            SplittableRandom random = new SplittableRandom(seeds[block]);
+            int end = Math.min(array.length, (block + 1) << BLOCK_BITS);
+            for (int i = block << BLOCK_BITS; i < end; i++) {
+                array[i] = element.apply(i, random);
+            }
+        });
+    }
+
+    /**
+     * Fills the blocks of the given array with ascending runs of random elements in parallel. Runs do not cross the
+     * border of a block.
+     *
+     * @param array The array.
+     * @param meanLength    The mean length of a run.
+     * @param seeds The seeds of the random number generators of the blocks.
+     * @since v1.0.0
+     */
+    private static void fillRuns(int[] array, int meanLength, long[] seeds) {
+        int n = array.length;
+        IntStream.range(0, blocks(n)).parallel().forEach(block -> {
+            SplittableRandom random = new SplittableRandom(seeds[block]);
+            int end = Math.min(n, (block + 1) << BLOCK_BITS);
+            for (int i = block << BLOCK_BITS; i < end; i++) {
+                array[i] = random.nextInt(n) + 1;
+            }
+            for (int start = block << BLOCK_BITS; start < end; ) {
+                int runEnd = Math.min(end, start + 1 + random.nextInt(2 * meanLength - 1));
+                Arrays.sort(array, start, runEnd);
+                start = runEnd;
+            }
+        });
+    }
+
+    /**
+     * Fills the given array with the numbers from 1 to its length in random order. Each element is sent to a random
+     * bucket, one bucket per block. The blocks count their elements per bucket in parallel, then they scatter their
+     * elements into the buckets in parallel, reproducing the same random choices. Finally, each bucket is shuffled by
+     * the Fisher-Yates algorithm in parallel. Since each element is equally likely to end up in each bucket and each
+     * bucket is shuffled uniformly, every order is equally likely.
+     *
+     * @param array The array.
+     * @param seeds The seeds of the random number generators of the blocks. The last seed is used for the buckets.
+     * @since v1.0.0
+     */
+    private static void shuffle(int[] array, long[] seeds) {
+        int n = array.length;
+        int blocks = blocks(n);
+
+        // Count the elements each block sends to each bucket.
+        int[][] offsets = new int[blocks][blocks];
+        IntStream.range(0, blocks).parallel().forEach(block -> {
+            SplittableRandom random = new SplittableRandom(seeds[block]);
+            int length = Math.min(n, (block + 1) << BLOCK_BITS) - (block << BLOCK_BITS);
+            for (int i = 0; i < length; i++) {
+                offsets[block][random.nextInt(blocks)]++;
+            }
+        });
+
+        // Turn the counts into the index of the first element each block sends to each bucket.
+        int[] buckets = new int[blocks + 1];
+        int index = 0;
+        for (int bucket = 0; bucket < blocks; bucket++) {
+            for (int block = 0; block < blocks; block++) {
+                int count = offsets[block][bucket];
+                offsets[block][bucket] = index;
+                index += count;
+            }
+            buckets[bucket + 1] = index;
+        }
+
+        // Scatter the elements into the buckets, drawing the same buckets as while counting.
+        IntStream.range(0, blocks).parallel().forEach(block -> {
+            SplittableRandom random = new SplittableRandom(seeds[block]);
+            int end = Math.min(n, (block + 1) << BLOCK_BITS);
+            for (int i = block << BLOCK_BITS; i < end; i++) {
+                array[offsets[block][random.nextInt(blocks)]++] = i + 1;
+            }
+        });
+
+        // Shuffle each bucket.
+        long[] bucketSeeds = new SplittableRandom(seeds[blocks]).longs(blocks).toArray();
+        IntStream.range(0, blocks).parallel().forEach(bucket -> {
+            SplittableRandom random = new SplittableRandom(bucketSeeds[bucket]);
+            int from = buckets[bucket];
+            for (int i = buckets[bucket + 1] - 1; i > from; i--) {
+                int j = from + random.nextInt(i - from + 1);
+                int tmp = array[i];
+                array[i] = array[j];
+                array[j] = tmp;
+            }
+        });
+    }
+
+    /**
+     * Computes an element of an array from its index and a random number generator.
+     *
+     * @author Tim-Michael Krieg
+     * @version 1.0.0
+     * @since v1.0.0
+     */
+    @FunctionalInterface
+    private interface ElementFunction {
+
+        /**
+         * Computes the element at the given index.
+         *
+         * @param index The index of the element.
+         * @param random    The random number generator of the block of the element.
+         * @return  The element.
+         * @since v1.0.0
+         */
+        int apply(int index, SplittableRandom random);
+    }
+
+    /**
+     * Draws elements from a Zipf distribution by rejection-inversion (Hörmann and Derflinger, 1996), which takes
+     * constant time per element and no memory, regardless of the number of elements.
+     *
+     * @author Tim-Michael Krieg
+     * @version 1.0.0
+     * @since v1.0.0
+     */
+    private static class ZipfSampler {
+
+        /**
+         * The number of elements.
+         *
+         * @since v1.0.0
+         */
+        private final int n;
+
+        /**
+         * The exponent of the distribution.
+         *
+         * @since v1.0.0
+         */
+        private final double exponent;
+
+        /**
+         * The integral of the hat function at 1.5, minus 1.
+         *
+         * @since v1.0.0
+         */
+        private final double hIntegralX1;
+
+        /**
+         * The integral of the hat function at n + 0.5.
+         *
+         * @since v1.0.0
+         */
+        private final double hIntegralN;
+
+        /**
+         * The width of the region around each element in which samples are accepted without further checks.
+         *
+         * @since v1.0.0
+         */
+        private final double s;
+
+        /**
+         * Constructor precomputing the constants of the sampler.
+         *
+         * @param n The number of elements.
+         * @param exponent  The exponent of the distribution. Must be positive.
+         * @since v1.0.0
+         */
+        ZipfSampler(int n, double exponent) {
+            this.n = n;
+            this.exponent = exponent;
+            hIntegralX1 = hIntegral(1.5) - 1;
+            hIntegralN = hIntegral(n + 0.5);
+            s = 2 - hIntegralInverse(hIntegral(2.5) - h(2));
+        }
+
+        /**
+         * Draws an element between 1 and n.
+         *
+         * @param random    The random number generator.
+         * @return  The element.
+         * @since v1.0.0
+         */
+        int sample(SplittableRandom random) {
+            while (true) {
+                double u = hIntegralN + random.nextDouble() * (hIntegralX1 - hIntegralN);
+                double x = hIntegralInverse(u);
+                int k = (int) Math.max(1, Math.min(n, (long) (x + 0.5)));
+                if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+                    return k;
+                }
+            }
+        }
+
+        /**
+         * The hat function 1 / x^exponent.
+         *
+         * @param x The argument.
+         * @return  The value.
+         * @since v1.0.0
+         */
+        private double h(double x) {
+            return Math.exp(-exponent * Math.log(x));
+        }
+
+        /**
+         * The integral of the hat function, (x^(1 - exponent) - 1) / (1 - exponent), or log(x) if the exponent is 1.
+         *
+         * @param x The argument.
+         * @return  The value.
+         * @since v1.0.0
+         */
+        private double hIntegral(double x) {
+            double logX = Math.log(x);
+            return expm1OverX((1 - exponent) * logX) * logX;
+        }
+
+        /**
+         * The inverse of the integral of the hat function.
+         *
+         * @param x The argument.
+         * @return  The value.
+         * @since v1.0.0
+         */
+        private double hIntegralInverse(double x) {
+            double t = Math.max(-1, x * (1 - exponent));
+            return Math.exp(log1pOverX(t) * x);
+        }
+
+        /**
+         * Returns (e^x - 1) / x, which is 1 for x = 0. Uses a Taylor series close to 0 to stay accurate.
+         *
+         * @param x The argument.
+         * @return  The value.
+         * @since v1.0.0
+         */
+        private static double expm1OverX(double x) {
+            return Math.abs(x) > 1e-8 ? Math.expm1(x) / x : 1 + x * 0.5 * (1 + x / 3 * (1 + 0.25 * x));
+        }
+
+        /**
+         * Returns log(1 + x) / x, which is 1 for x = 0. Uses a Taylor series close to 0 to stay accurate.
+         *
+         * @param x The argument.
+         * @return  The value.
+         * @since v1.0.0
+         */
+        private static double log1pOverX(double x) {
+            return Math.abs(x) > 1e-8 ? Math.log1p(x) / x : 1 - x * (0.5 - x * (1.0 / 3 - 0.25 * x));
+        }
+    }
+}
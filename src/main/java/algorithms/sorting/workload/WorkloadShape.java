@@ -0,0 +1,124 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting.workload;
+
+/**
+ * Each element of this enumeration represents a shape of the arrays generated by the workload generator. All shapes
+ * contain elements between 1 and the length of the array. Some shapes take a parameter, which is described with each
+ * shape; the other shapes ignore it.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+public enum WorkloadShape {
+
+    /**
+     * The numbers from 1 to the length of the array in ascending order.
+     *
+     * @since v1.0.0
+     */
+    SORTED,
+
+    /**
+     * The numbers from 1 to the length of the array in descending order.
+     *
+     * @since v1.0.0
+     */
+    REVERSED,
+
+    /**
+     * The numbers from 1 to the length of the array in random order. Every order is equally likely.
+     *
+     * @since v1.0.0
+     */
+    SHUFFLED,
+
+    /**
+     * Random elements, each drawn independently and uniformly. Elements may occur more than once.
+     *
+     * @since v1.0.0
+     */
+    RANDOM,
+
+    /**
+     * The sorted numbers after swapping random pairs of elements. The parameter is the number of swaps, by default one
+     * per hundred elements.
+     *
+     * @since v1.0.0
+     */
+    NEARLY_SORTED,
+
+    /**
+     * Random elements out of a few distinct values, spread evenly between 1 and the length of the array. The parameter
+     * is the number of distinct values, by default 8.
+     *
+     * @since v1.0.0
+     */
+    FEW_UNIQUE,
+
+    /**
+     * Ascending teeth of equal length, each rising from 1 to the length of the array. The parameter is the length of a
+     * tooth, by default an eighth of the length of the array.
+     *
+     * @since v1.0.0
+     */
+    SAWTOOTH,
+
+    /**
+     * The odd numbers in ascending order followed by the even numbers in descending order, so the elements rise to the
+     * middle of the array and fall afterwards.
+     *
+     * @since v1.0.0
+     */
+    ORGAN_PIPE,
+
+    /**
+     * Random elements drawn from a Zipf distribution, so the element k occurs with a probability proportional to
+     * 1 / k^s. The parameter is the exponent s, by default 1.
+     *
+     * @since v1.0.0
+     */
+    ZIPF,
+
+    /**
+     * Ascending runs of random elements. The lengths of the runs are drawn uniformly from 1 to twice the mean length
+     * minus one. The parameter is the mean length of a run, by default the square root of the length of the array.
+     *
+     * @since v1.0.0
+     */
+    RANDOM_RUNS;
+
+    /**
+     * Returns the parameter used if none is given for arrays of the given length.
+     *
+     * @param length    The length of the array.
+     * @return  The default parameter, or 0 if the shape takes no parameter.
+     * @since v1.0.0
+     */
+    public double getDefaultParameter(int length) {
+        return switch (this) {
+            case NEARLY_SORTED -> Math.max(1, length / 100);
+            case FEW_UNIQUE -> 8;
+            case SAWTOOTH -> Math.max(2, length / 8);
+            case ZIPF -> 1;
+            case RANDOM_RUNS -> Math.max(2, (int) Math.sqrt(length));
+            default -> 0;
+        };
+    }
+}
@@ -19,6 +19,8 @@ package algorithms.summary;
 
 import algorithms.Algorithm;
 
+import java.util.Map;
+
 /**
  * An object of this class represents a summary of an algorithm. It contains information about the time the algorithm
  * took until completion, the name and type of the algorithm and further information can be added through extending
@@ -57,11 +59,19 @@ public abstract class AlgoSummary {
      *
      * @since v1.0.0
      */
-    protected final int totalIterations;
+    protected final long totalIterations;
+
+    /**
+     * The operation counters of the algorithm, by name. See the Metrics class for the predefined counters.
+     *
+     * @since v1.0.0
+     */
+    protected final Map<String, Long> metrics;
 
     /**
      * Constructor extracting the name and the type of the algorithm, the total time passed until completion of the
-     * algorithm and the number of iterations the algorithm had to go through from the given algorithm object.
+     * algorithm, the number of iterations the algorithm had to go through and its operation counters from the given
+     * algorithm object.
      *
      * @param algorithm The algorithm to extract the information from.
      * @since v1.0.0
@@ -71,6 +81,7 @@ public abstract class AlgoSummary {
         this.type = algorithm.getType();
         this.totalTime = algorithm.getTotalTime();
         this.totalIterations = algorithm.getTotalIterations();
+        this.metrics = algorithm.getMetrics().snapshot();
     }
 
     /**
@@ -109,10 +120,31 @@ public abstract class AlgoSummary {
      * @return  The total amount of iterations.
      * @since v1.0.0
      */
-    public int getTotalIterations() {
+    public long getTotalIterations() {
         return totalIterations;
     }
 
+    /**
+     * Returns the operation counters of the algorithm, by name. The map cannot be modified.
+     *
+     * @return  The counters.
+     * @since v1.0.0
+     */
+    public Map<String, Long> getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the value of the operation counter with the given name, or 0 if there is no such counter.
+     *
+     * @param name  The name of the counter.
+     * @return  The value.
+     * @since v1.0.0
+     */
+    public long getMetric(String name) {
+        return metrics.getOrDefault(name, 0L);
+    }
+
     /**
      * Prints this summary to the console.
      *
@@ -0,0 +1,586 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package cli;
+
+import algorithms.AlgorithmCatalog;
+import algorithms.AlgorithmProvider;
+import algorithms.Metrics;
+import algorithms.StateMachine;
+import algorithms.sorting.MappedTrace;
+import algorithms.sorting.SortingAlgorithm;
+import algorithms.sorting.SortingRace;
+import algorithms.sorting.SortingSummary;
+import algorithms.sorting.TraceFile;
+import algorithms.sorting.TraceMode;
+import algorithms.sorting.workload.Workload;
+import algorithms.sorting.workload.WorkloadShape;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Runs sorting algorithms from the command line without a graphical user interface. No JavaFX class is loaded, so the
+ * runner starts instantly and works on machines without a display. For each algorithm, array length and repetition, a
+ * array of the configured shape is generated and sorted; the results are printed as CSV or JSON. Started through
+ * {@code java -jar JAlgoPlot.jar --headless [options]}. The options are:
+ * <ul>
+ *    <li>{@code --algorithms <names>}: comma-separated names of the algorithms, default: all algorithms
+ *    <li>{@code --sizes <lengths>}: comma-separated lengths of the arrays, default: 1000
+ *    <li>{@code --repetitions <n>}: number of runs per algorithm and length, default: 1
+ *    <li>{@code --mode sort|run|both}: sort without recording states, run and record the states, or both, default: sort
+ *    <li>{@code --trace-mode full|delta|columnar}: how the states are recorded in run mode, default: columnar
+ *    <li>{@code --format csv|json}: output format, default: csv
+ *    <li>{@code --shape <shape>}: shape of the arrays, one of {@link WorkloadShape}, default: shuffled
+ *    <li>{@code --seed <n>}: seed from which the seeds of the arrays are drawn, default: 42
+ *    <li>{@code --save-traces <directory>}: saves the trace of each run to a trace file in the directory, see
+ *    {@link TraceFile}
+ *    <li>{@code --verify-trace <file>}: instead of running algorithms, loads the given trace file, replays it and
+ *    prints whether it sorts its array
+ *    <li>{@code --race <parallelism>}: instead of running the algorithms one by one, races them on each array with the
+ *    given number of algorithms running at the same time and prints the rankings as tables, see {@link SortingRace}
+ * </ul>
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+public class HeadlessRunner {
+
+    /**
+     * The names of all algorithms that can be run, taken from the algorithm catalog.
+     *
+     * @since v1.0.0
+     */
+    private static final List<String> ALGORITHMS = AlgorithmCatalog.getInstance().getNames("Sorting");
+
+    /**
+     * The result of a single run of an algorithm.
+     *
+     * @param mode  Either "sort" or "run".
+     * @param repetition    The number of the repetition, starting at 1.
+     * @param time  The time in seconds measured around the call of the algorithm.
+     * @param states    The number of recorded states, or -1 in sort mode.
+     * @param summary   The summary of the algorithm.
+     * @since v1.0.0
+     */
+    private record Result(String mode, int repetition, double time, long states, SortingSummary summary) {
+    }
+
+    /**
+     * The names of the algorithms to be run.
+     *
+     * @since v1.0.0
+     */
+    private final List<String> algorithms = new ArrayList<>();
+
+    /**
+     * The lengths of the arrays to be sorted.
+     *
+     * @since v1.0.0
+     */
+    private final List<Integer> sizes = new ArrayList<>();
+
+    /**
+     * The number of runs per algorithm and length.
+     *
+     * @since v1.0.0
+     */
+    private int repetitions = 1;
+
+    /**
+     * Whether the algorithms sort without recording states.
+     *
+     * @since v1.0.0
+     */
+    private boolean sort = true;
+
+    /**
+     * Whether the algorithms run and record their states.
+     *
+     * @since v1.0.0
+     */
+    private boolean run = false;
+
+    /**
+     * The mode in which the states are recorded in run mode.
+     *
+     * @since v1.0.0
+     */
+    private TraceMode traceMode = TraceMode.COLUMNAR;
+
+    /**
+     * Whether the results are printed as JSON instead of CSV.
+     *
+     * @since v1.0.0
+     */
+    private boolean json = false;
+
+    /**
+     * The shape of the arrays.
+     *
+     * @since v1.0.0
+     */
+    private WorkloadShape shape = WorkloadShape.SHUFFLED;
+
+    /**
+     * The seed from which the seeds of the arrays are drawn.
+     *
+     * @since v1.0.0
+     */
+    private long seed = 42;
+
+    /**
+     * The directory the traces of the runs are saved to, or null if they are not saved.
+     *
+     * @since v1.0.0
+     */
+    private Path traceDirectory;
+
+    /**
+     * The trace file to be verified instead of running algorithms, or null.
+     *
+     * @since v1.0.0
+     */
+    private Path verifiedTrace;
+
+    /**
+     * The number of algorithms running at the same time in a race, or 0 if the algorithms are not raced.
+     *
+     * @since v1.0.0
+     */
+    private int raceParallelism = 0;
+
+    /**
+     * Entry point of the headless mode. Prints the usage and exits with status 2 if the arguments are invalid.
+     *
+     * @param args  The command line arguments without the leading --headless flag.
+     * @since v1.0.0
+     */
+    public static void main(String[] args) {
+        HeadlessRunner runner = new HeadlessRunner();
+        try {
+            runner.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            printUsage(System.err);
+            System.exit(2);
+        }
+        if (runner.verifiedTrace != null) {
+            System.exit(runner.verifyTrace(System.out) ? 0 : 1);
+        }
+        if (runner.raceParallelism > 0) {
+            runner.race(System.out);
+            return;
+        }
+        runner.run(System.out);
+    }
+
+    /**
+     * Parses the command line arguments.
+     *
+     * @param args  The command line arguments.
+     * @throws IllegalArgumentException If an argument is unknown or has an invalid value.
+     * @since v1.0.0
+     */
+    void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--help")) {
+                printUsage(System.out);
+                System.exit(0);
+            }
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException("Missing value of option " + option + ".");
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--algorithms" -> {
+                    for (String name : value.split(",")) {
+                        algorithms.add(findAlgorithm(name.trim()));
+                    }
+                }
+                case "--sizes" -> {
+                    for (String size : value.split(",")) {
+                        sizes.add(parsePositive(option, size.trim()));
+                    }
+                }
+                case "--repetitions" -> repetitions = parsePositive(option, value);
+                case "--mode" -> {
+                    switch (value) {
+                        case "sort" -> {
+                            sort = true;
+                            run = false;
+                        }
+                        case "run" -> {
+                            sort = false;
+                            run = true;
+                        }
+                        case "both" -> {
+                            sort = true;
+                            run = true;
+                        }
+                        default -> throw new IllegalArgumentException("Invalid mode: " + value + ".");
+                    }
+                }
+                case "--trace-mode" -> {
+                    try {
+                        traceMode = TraceMode.valueOf(value.toUpperCase(Locale.ROOT));
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("Invalid trace mode: " + value + ".");
+                    }
+                }
+                case "--format" -> {
+                    switch (value) {
+                        case "csv" -> json = false;
+                        case "json" -> json = true;
+                        default -> throw new IllegalArgumentException("Invalid format: " + value + ".");
+                    }
+                }
+                case "--shape" -> {
+                    try {
+                        shape = WorkloadShape.valueOf(value.toUpperCase(Locale.ROOT).replace('-', '_'));
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("Invalid shape: " + value + ".");
+                    }
+                }
+                case "--seed" -> {
+                    try {
+                        seed = Long.parseLong(value);
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Invalid seed: " + value + ".");
+                    }
+                }
+                case "--save-traces" -> traceDirectory = Path.of(value);
+                case "--verify-trace" -> verifiedTrace = Path.of(value);
+                case "--race" -> raceParallelism = parsePositive(option, value);
+                default -> throw new IllegalArgumentException("Unknown option: " + option + ".");
+            }
+        }
+        if (algorithms.isEmpty()) {
+            algorithms.addAll(ALGORITHMS);
+        }
+        if (sizes.isEmpty()) {
+            sizes.add(1000);
+        }
+        if (traceDirectory != null && !run) {
+            throw new IllegalArgumentException("Option --save-traces needs --mode run or both.");
+        }
+        if (traceDirectory != null && raceParallelism > 0) {
+            throw new IllegalArgumentException("Option --save-traces cannot be combined with --race.");
+        }
+    }
+
+    /**
+     * Runs all configured algorithms and prints the results.
+     *
+     * @param out   The stream the results are printed to.
+     * @since v1.0.0
+     */
+    void run(PrintStream out) {
+        if (json) {
+            out.println("[");
+        } else {
+            out.println("algorithm,mode,shape,seed,size,repetition,seconds,iterations,comparisons,swaps,reads,writes,states");
+        }
+
+        SplittableRandom seeds = new SplittableRandom(seed);
+        boolean first = true;
+        for (int size : sizes) {
+            for (int repetition = 1; repetition <= repetitions; repetition++) {
+                Workload workload = new Workload(shape, size, seeds.nextLong());
+                int[] array = workload.generate();
+                for (String name : algorithms) {
+                    if (sort) {
+                        print(out, sortOnce(name, workload, array, repetition), first);
+                        first = false;
+                    }
+                    if (run) {
+                        print(out, runOnce(name, workload, array, repetition), first);
+                        first = false;
+                    }
+                }
+            }
+        }
+
+        if (json) {
+            out.println();
+            out.println("]");
+        }
+        out.flush();
+    }
+
+    /**
+     * Races all configured algorithms on each array and prints the rankings as tables, each preceded by a line naming
+     * the array.
+     *
+     * @param out   The stream the rankings are printed to.
+     * @since v1.0.0
+     */
+    private void race(PrintStream out) {
+        SortingRace race = new SortingRace(algorithms);
+        race.setParallelism(raceParallelism);
+        SplittableRandom seeds = new SplittableRandom(seed);
+        for (int size : sizes) {
+            for (int repetition = 1; repetition <= repetitions; repetition++) {
+                Workload workload = new Workload(shape, size, seeds.nextLong());
+                out.printf(Locale.ROOT, "%s array of %d elements, seed %d, repetition %d%n", workload.shape(), size, workload.seed(), repetition);
+                out.println(SortingRace.toTable(race.run(workload.generate())));
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Sorts the given array with the given algorithm without recording states.
+     *
+     * @param name  The name of the algorithm.
+     * @param workload  The workload the array was generated from.
+     * @param array The array to be sorted. Is not changed.
+     * @param repetition    The number of the repetition.
+     * @return  The result.
+     * @since v1.0.0
+     */
+    private Result sortOnce(String name, Workload workload, int[] array, int repetition) {
+        SortingAlgorithm algorithm = createAlgorithm(name, workload, array);
+        long start = System.nanoTime();
+        algorithm.sort();
+        double time = (double) (System.nanoTime() - start) / 1_000_000_000;
+        checkSorted(algorithm);
+        return new Result("sort", repetition, time, -1, algorithm.getSummary());
+    }
+
+    /**
+     * Runs the given algorithm on the given array and records its states.
+     *
+     * @param name  The name of the algorithm.
+     * @param workload  The workload the array was generated from.
+     * @param array The array to be sorted. Is not changed.
+     * @param repetition    The number of the repetition.
+     * @return  The result.
+     * @since v1.0.0
+     */
+    private Result runOnce(String name, Workload workload, int[] array, int repetition) {
+        SortingAlgorithm algorithm = createAlgorithm(name, workload, array);
+        algorithm.setTraceMode(traceMode);
+        long start = System.nanoTime();
+        StateMachine machine = algorithm.getStateMachine();
+        long states = machine.size();
+        double time = (double) (System.nanoTime() - start) / 1_000_000_000;
+        checkSorted(algorithm);
+        if (traceDirectory != null) {
+            saveTrace(algorithm.getName(), array, machine, repetition);
+        }
+        return new Result("run", repetition, time, states, algorithm.getSummary());
+    }
+
+    /**
+     * Saves the given trace to a file in the trace directory, named after the algorithm, the length of the array and
+     * the repetition.
+     *
+     * @param name  The name of the algorithm.
+     * @param array The array before sorting.
+     * @param machine   The recorded states.
+     * @param repetition    The number of the repetition.
+     * @throws UncheckedIOException If the file cannot be written.
+     * @since v1.0.0
+     */
+    private void saveTrace(String name, int[] array, StateMachine machine, int repetition) {
+        String fileName = name.toLowerCase(Locale.ROOT).replace(' ', '-') + "-" + array.length + "-" + repetition + ".japt";
+        Path path = traceDirectory.resolve(fileName);
+        try {
+            Files.createDirectories(traceDirectory);
+            TraceFile.save(path, name, array, machine);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot save trace " + path + ".", e);
+        }
+    }
+
+    /**
+     * Loads the trace file to be verified, replays all of its states on the array before sorting and prints the name of
+     * the algorithm, the number of states and whether the replayed array is sorted.
+     *
+     * @param out   The stream the result is printed to.
+     * @return  True if the trace sorts its array, false if not or if the file cannot be loaded or is corrupted.
+     * @since v1.0.0
+     */
+    private boolean verifyTrace(PrintStream out) {
+        MappedTrace trace;
+        int[] array;
+        try {
+            trace = TraceFile.load(verifiedTrace);
+            array = trace.getArrayAt(trace.size());
+        } catch (IOException | IllegalStateException e) {
+            System.err.println(e.getMessage());
+            return false;
+        }
+        boolean sorted = true;
+        for (int i = 1; i < array.length && sorted; i++) {
+            sorted = array[i - 1] <= array[i];
+        }
+        out.printf(Locale.ROOT, "%s: %d states on %d elements, %s%n", trace.getAlgorithmName(), trace.size(), array.length, sorted ? "sorted" : "NOT sorted");
+        return sorted;
+    }
+
+    /**
+     * Prints a single result as a CSV line or as a JSON object.
+     *
+     * @param out   The stream the result is printed to.
+     * @param result    The result.
+     * @param first Whether this is the first result, which is not preceded by a comma in JSON.
+     * @since v1.0.0
+     */
+    private void print(PrintStream out, Result result, boolean first) {
+        SortingSummary summary = result.summary();
+        boolean counted = result.mode().equals("run");
+        if (json) {
+            out.print(first ? "  " : ",\n  ");
+            out.printf(
+                    Locale.ROOT,
+                    "{\"algorithm\": \"%s\", \"mode\": \"%s\", \"shape\": \"%s\", \"seed\": %d, \"size\": %d, \"repetition\": %d, \"seconds\": %.9f, \"iterations\": %s, \"comparisons\": %s, \"swaps\": %s, \"reads\": %s, \"writes\": %s, \"states\": %s}",
+                    summary.getName().replace("\\", "\\\\").replace("\"", "\\\""),
+                    result.mode(),
+                    summary.getWorkload().shape(),
+                    summary.getWorkload().seed(),
+                    summary.getArrayLength(),
+                    result.repetition(),
+                    result.time(),
+                    counted ? summary.getTotalIterations() : "null",
+                    counted ? summary.getTotalComparisons() : "null",
+                    counted ? summary.getTotalSwaps() : "null",
+                    counted ? summary.getMetric(Metrics.READS) : "null",
+                    counted ? summary.getMetric(Metrics.WRITES) : "null",
+                    counted ? result.states() : "null"
+            );
+        } else {
+            out.printf(
+                    Locale.ROOT,
+                    "%s,%s,%s,%d,%d,%d,%.9f,%s,%s,%s,%s,%s,%s%n",
+                    summary.getName().contains(",") ? "\"" + summary.getName() + "\"" : summary.getName(),
+                    result.mode(),
+                    summary.getWorkload().shape(),
+                    summary.getWorkload().seed(),
+                    summary.getArrayLength(),
+                    result.repetition(),
+                    result.time(),
+                    counted ? summary.getTotalIterations() : "",
+                    counted ? summary.getTotalComparisons() : "",
+                    counted ? summary.getTotalSwaps() : "",
+                    counted ? summary.getMetric(Metrics.READS) : "",
+                    counted ? summary.getMetric(Metrics.WRITES) : "",
+                    counted ? result.states() : ""
+            );
+        }
+    }
+
+    /**
+     * Returns the name of the algorithm matching the given name. Case and spaces are ignored, so "bubblesort" matches
+     * "Bubble Sort".
+     *
+     * @param name  The name given on the command line.
+     * @return  The name of the algorithm.
+     * @throws IllegalArgumentException If no algorithm matches.
+     * @since v1.0.0
+     */
+    private static String findAlgorithm(String name) {
+        AlgorithmProvider provider = AlgorithmCatalog.getInstance().find(name);
+        if (provider != null && ALGORITHMS.contains(provider.getName())) {
+            return provider.getName();
+        }
+        throw new IllegalArgumentException("Unknown algorithm: " + name + ". Available: " + String.join(", ", ALGORITHMS) + ".");
+    }
+
+    /**
+     * Creates the algorithm with the given name on the given array generated from the given workload. The class of the
+     * algorithm is loaded on the first call.
+     *
+     * @param name  The name of the algorithm.
+     * @param workload  The workload the array was generated from.
+     * @param array The array to be sorted. Is copied by the algorithm.
+     * @return  The algorithm.
+     * @since v1.0.0
+     */
+    private static SortingAlgorithm createAlgorithm(String name, Workload workload, int[] array) {
+        SortingAlgorithm algorithm = AlgorithmCatalog.getInstance().createSortingAlgorithm(name, array);
+        algorithm.setArray(array, workload);
+        return algorithm;
+    }
+
+    /**
+     * Parses a positive integer given as the value of an option.
+     *
+     * @param option    The option.
+     * @param value The value.
+     * @return  The positive integer.
+     * @throws IllegalArgumentException If the value is not a positive integer.
+     * @since v1.0.0
+     */
+    private static int parsePositive(String option, String value) {
+        try {
+            int number = Integer.parseInt(value);
+            if (number > 0) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // Handled below.
+        }
+        throw new IllegalArgumentException("Invalid value of option " + option + ": " + value + ".");
+    }
+
+    /**
+     * Checks that the algorithm sorted its array.
+     *
+     * @param algorithm The algorithm.
+     * @throws IllegalStateException    If the array is not sorted.
+     * @since v1.0.0
+     */
+    private static void checkSorted(SortingAlgorithm algorithm) {
+        int[] array = algorithm.getArray();
+        for (int i = 1; i < array.length; i++) {
+            if (array[i - 1] > array[i]) {
+                throw new IllegalStateException(algorithm.getName() + " did not sort the array.");
+            }
+        }
+    }
+
+    /**
+     * Prints the usage of the headless mode.
+     *
+     * @param out   The stream the usage is printed to.
+     * @since v1.0.0
+     */
+    private static void printUsage(PrintStream out) {
+        out.println("Usage: --headless [--algorithms <names>] [--sizes <lengths>] [--repetitions <n>]");
+        out.println("                  [--mode sort|run|both] [--trace-mode full|delta|columnar]");
+        out.println("                  [--format csv|json] [--shape <shape>] [--seed <n>]");
+        out.println("                  [--save-traces <directory>]");
+        out.println("       --headless --race <parallelism> [--algorithms <names>] [--sizes <lengths>]");
+        out.println("                  [--repetitions <n>] [--shape <shape>] [--seed <n>]");
+        out.println("       --headless --verify-trace <file>");
+        out.println("Shapes: " + Arrays.stream(WorkloadShape.values()).map(shape -> shape.name().toLowerCase(Locale.ROOT)).collect(Collectors.joining(", ")));
+        out.println("Algorithms: " + String.join(", ", ALGORITHMS));
+    }
+}
@@ -0,0 +1,460 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package gui.scenes;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static gui.scenes.ArrayUtils.DEFAULT_COLOR;
+import static gui.scenes.ArrayUtils.ENVELOPE_COLOR;
+
+/**
+ * A canvas that draws an array as bars, one bar per element. The height of a bar represents the value of the element.
+ * Instead of one node per element, all bars are drawn onto this single canvas. After the elements or colors of single
+ * indices changed, only the pixel columns covered by their bars are cleared and redrawn.
+ * <p>
+ * If the array has more elements than the canvas has pixel columns, the canvas switches to level of detail: the
+ * elements are grouped into one bucket per pixel column, and each column shows the envelope between the smallest and
+ * the largest element of its bucket together with a bar up to their mean. The minimum, maximum and sum of each bucket
+ * are kept up to date on every change, so drawing only depends on the width of the canvas, not on the length of the
+ * array. A bucket is only scanned again if its minimum or maximum was overwritten by a less extreme element.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+public class ArrayCanvas extends Canvas {
+
+    /**
+     * The gap between two bars if the bars are at least one pixel wide. Narrower bars are drawn without a gap.
+     *
+     * @since v1.0.0
+     */
+    private static final double GAP = 2.0;
+
+    /**
+     * The padding of the canvas. Each side of the canvas has the same padding.
+     *
+     * @since v1.0.0
+     */
+    private final double padding;
+
+    /**
+     * The array that is drawn. Not copied, so changes of the array are drawn on the next repaint.
+     *
+     * @since v1.0.0
+     */
+    private int[] array = new int[0];
+
+    /**
+     * The colors of the bars that are not drawn in the default color. Only a few bars are highlighted at a time, so
+     * they are kept in a map instead of an array as long as the array that is drawn.
+     *
+     * @since v1.0.0
+     */
+    private final Map<Integer, Color> colors = new HashMap<>();
+
+    /**
+     * The number of buckets in level of detail, one per pixel column, or 0 if every element is drawn as its own bar.
+     *
+     * @since v1.0.0
+     */
+    private int buckets = 0;
+
+    /**
+     * The smallest element of each bucket.
+     *
+     * @since v1.0.0
+     */
+    private int[] minimums = new int[0];
+
+    /**
+     * The largest element of each bucket.
+     *
+     * @since v1.0.0
+     */
+    private int[] maximums = new int[0];
+
+    /**
+     * The sum of the elements of each bucket.
+     *
+     * @since v1.0.0
+     */
+    private long[] sums = new long[0];
+
+    /**
+     * Whether the minimum or maximum of each bucket has to be computed again by scanning the bucket.
+     *
+     * @since v1.0.0
+     */
+    private boolean[] stale = new boolean[0];
+
+    /**
+     * Whether the bars hang from the top of the canvas instead of standing on its bottom.
+     *
+     * @since v1.0.0
+     */
+    private boolean flipped = false;
+
+    /**
+     * Constructor initializing the padding of the canvas.
+     *
+     * @param padding   The padding of each side of the canvas.
+     * @since v1.0.0
+     */
+    public ArrayCanvas(double padding) {
+        this.padding = padding;
+    }
+
+    /**
+     * Sets whether the bars hang from the top of the canvas instead of standing on its bottom, and redraws the canvas.
+     *
+     * @param flipped   True to align the bars at the top, false to align them at the bottom.
+     * @since v1.0.0
+     */
+    public void setFlipped(boolean flipped) {
+        this.flipped = flipped;
+        redraw();
+    }
+
+    /**
+     * Sets the array that is drawn, resets all colors and repaints the canvas.
+     *
+     * @param array The array. Is not copied.
+     * @since v1.0.0
+     */
+    public void setArray(int[] array) {
+        this.array = array;
+        colors.clear();
+        repaint();
+    }
+
+    /**
+     * Returns whether the canvas draws buckets of elements instead of single elements, because the array has more
+     * elements than the canvas has pixel columns.
+     *
+     * @return  True in level of detail, false otherwise.
+     * @since v1.0.0
+     */
+    public boolean isLevelOfDetail() {
+        return buckets > 0;
+    }
+
+    /**
+     * Sets the color of the bar at the given index and redraws it.
+     *
+     * @param index The index of the bar.
+     * @param color The color, or null for the default color.
+     * @since v1.0.0
+     */
+    public void setColor(int index, Color color) {
+        if (color == null) {
+            colors.remove(index);
+        } else {
+            colors.put(index, color);
+        }
+        repaint(index);
+    }
+
+    /**
+     * Resets the colors of all bars to the default color and repaints the canvas.
+     *
+     * @since v1.0.0
+     */
+    public void resetColors() {
+        colors.clear();
+        redraw();
+    }
+
+    /**
+     * Updates the bucket of the given index after its element changed. Must be called for every changed element before
+     * the index is redrawn. Without level of detail, nothing has to be updated.
+     *
+     * @param index The index of the changed element.
+     * @param previous  The element at the index before the change.
+     * @since v1.0.0
+     */
+    public void update(int index, int previous) {
+        if (buckets == 0) {
+            return;
+        }
+        int bucket = getBucket(index);
+        int element = array[index];
+        sums[bucket] += element - previous;
+        if (element <= minimums[bucket]) {
+            minimums[bucket] = element;
+        } else if (previous == minimums[bucket]) {
+            stale[bucket] = true;
+        }
+        if (element >= maximums[bucket]) {
+            maximums[bucket] = element;
+        } else if (previous == maximums[bucket]) {
+            stale[bucket] = true;
+        }
+    }
+
+    /**
+     * Updates the buckets of the given indices after their elements were swapped. A swap within a bucket leaves the
+     * bucket unchanged.
+     *
+     * @param index1    The first index.
+     * @param index2    The second index.
+     * @since v1.0.0
+     */
+    public void swapped(int index1, int index2) {
+        if (buckets == 0 || getBucket(index1) == getBucket(index2)) {
+            return;
+        }
+        update(index1, array[index2]);
+        update(index2, array[index1]);
+    }
+
+    /**
+     * Computes the buckets again and redraws the whole canvas. Must be called after the canvas was resized or the whole
+     * array changed.
+     *
+     * @since v1.0.0
+     */
+    public void repaint() {
+        int columns = (int) Math.floor(getWidth() - 2 * padding);
+        buckets = columns > 0 && array.length > columns ? columns : 0;
+        if (buckets > 0) {
+            if (minimums.length != buckets) {
+                minimums = new int[buckets];
+                maximums = new int[buckets];
+                sums = new long[buckets];
+                stale = new boolean[buckets];
+            }
+            IntStream.range(0, buckets).parallel().forEach(this::computeBucket);
+        }
+        redraw();
+    }
+
+    /**
+     * Redraws the whole canvas from the current buckets, without computing them again unless they are stale. In level
+     * of detail, this only takes time proportional to the width of the canvas.
+     *
+     * @since v1.0.0
+     */
+    public void redraw() {
+        GraphicsContext gc = getGraphicsContext2D();
+        gc.clearRect(0, 0, getWidth(), getHeight());
+        if (buckets > 0) {
+            for (int bucket = 0; bucket < buckets; bucket++) {
+                drawBucket(gc, bucket);
+            }
+        } else {
+            drawBars(gc, 0, array.length);
+        }
+    }
+
+    /**
+     * Redraws the bars at the given indices. For each index, the pixel columns covered by its bar are cleared and all
+     * bars overlapping these columns are drawn again, clipped to the columns, so that neighbouring bars sharing a
+     * pixel stay intact. In level of detail, the columns of the buckets of the indices are redrawn.
+     *
+     * @param indices   The indices of the bars.
+     * @since v1.0.0
+     */
+    public void repaint(int... indices) {
+        GraphicsContext gc = getGraphicsContext2D();
+        if (buckets > 0) {
+            for (int index : indices) {
+                drawBucket(gc, getBucket(index));
+            }
+            return;
+        }
+        double width = getBarWidth();
+        double step = width + getGap();
+        for (int index : indices) {
+            double left = Math.floor(padding + index * step);
+            double right = Math.ceil(padding + index * step + width);
+            int from = Math.max(0, (int) Math.floor((left - padding - width) / step));
+            int to = Math.min(array.length, (int) Math.ceil((right - padding) / step) + 1);
+
+            gc.save();
+            gc.beginPath();
+            gc.rect(left, 0, right - left, getHeight());
+            gc.clip();
+            gc.clearRect(left, 0, right - left, getHeight());
+            drawBars(gc, from, to);
+            gc.restore();
+        }
+    }
+
+    /**
+     * Draws the bars of the given range of indices. The fill is only changed when the color changes.
+     *
+     * @param gc    The graphics context of the canvas.
+     * @param from  The index of the first bar.
+     * @param to    The index after the last bar.
+     * @since v1.0.0
+     */
+    private void drawBars(GraphicsContext gc, int from, int to) {
+        double width = getBarWidth();
+        double step = width + getGap();
+        double unit = getUnitHeight();
+        Color fill = null;
+        for (int i = from; i < to; i++) {
+            Color color = colors.isEmpty() ? DEFAULT_COLOR : colors.getOrDefault(i, DEFAULT_COLOR);
+            if (color != fill) {
+                gc.setFill(color);
+                fill = color;
+            }
+            double height = Math.max(0, unit * array[i]);
+            gc.fillRect(padding + i * step, getBarY(height), width, height);
+        }
+    }
+
+    /**
+     * Clears the pixel column of the given bucket and draws the envelope between its smallest and largest element and
+     * a bar up to their mean. The bar takes the color of a highlighted element of the bucket, if there is one. A stale
+     * bucket is computed again first.
+     *
+     * @param gc    The graphics context of the canvas.
+     * @param bucket    The bucket.
+     * @since v1.0.0
+     */
+    private void drawBucket(GraphicsContext gc, int bucket) {
+        if (stale[bucket]) {
+            computeBucket(bucket);
+        }
+        double x = Math.floor(padding) + bucket;
+        double unit = getUnitHeight();
+        double mean = (double) sums[bucket] / (getBucketStart(bucket + 1) - getBucketStart(bucket));
+        double envelope = Math.max(1, unit * (maximums[bucket] - minimums[bucket]));
+
+        gc.clearRect(x, 0, 1, getHeight());
+        gc.setFill(ENVELOPE_COLOR);
+        gc.fillRect(x, flipped ? padding + unit * minimums[bucket] : getHeight() - padding - unit * maximums[bucket], 1, envelope);
+        gc.setFill(getBucketColor(bucket));
+        double height = Math.max(0, unit * mean);
+        gc.fillRect(x, getBarY(height), 1, height);
+    }
+
+    /**
+     * Returns the color of the given bucket: the color of a highlighted element of the bucket, or the default color.
+     *
+     * @param bucket    The bucket.
+     * @return  The color.
+     * @since v1.0.0
+     */
+    private Color getBucketColor(int bucket) {
+        for (Map.Entry<Integer, Color> entry : colors.entrySet()) {
+            if (getBucket(entry.getKey()) == bucket) {
+                return entry.getValue();
+            }
+        }
+        return DEFAULT_COLOR;
+    }
+
+    /**
+     * Computes the minimum, maximum and sum of the given bucket by scanning its elements.
+     *
+     * @param bucket    The bucket.
+     * @since v1.0.0
+     */
+    private void computeBucket(int bucket) {
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        long sum = 0;
+        for (int i = getBucketStart(bucket), end = getBucketStart(bucket + 1); i < end; i++) {
+            int element = array[i];
+            min = Math.min(min, element);
+            max = Math.max(max, element);
+            sum += element;
+        }
+        minimums[bucket] = min;
+        maximums[bucket] = max;
+        sums[bucket] = sum;
+        stale[bucket] = false;
+    }
+
+    /**
+     * Returns the bucket containing the given index.
+     *
+     * @param index The index.
+     * @return  The bucket.
+     * @since v1.0.0
+     */
+    private int getBucket(int index) {
+        return (int) ((long) index * buckets / array.length);
+    }
+
+    /**
+     * Returns the first index of the given bucket. Bucket b contains the indices i with b = i * buckets / n, rounded
+     * down. Since there are fewer buckets than elements, no bucket is empty.
+     *
+     * @param bucket    The bucket, or the number of buckets for the length of the array.
+     * @return  The first index.
+     * @since v1.0.0
+     */
+    private int getBucketStart(int bucket) {
+        return (int) (((long) bucket * array.length + buckets - 1) / buckets);
+    }
+
+    /**
+     * Returns the y-coordinate of the top of a bar of the given height, which stands on the bottom of the canvas or
+     * hangs from its top if the canvas is flipped.
+     *
+     * @param height    The height of the bar.
+     * @return  The y-coordinate.
+     * @since v1.0.0
+     */
+    private double getBarY(double height) {
+        return flipped ? padding : getHeight() - padding - height;
+    }
+
+    /**
+     * Returns the height of the bar of the element 1. The bar of the largest element of an array containing the
+     * numbers from 1 to its length fills the canvas.
+     *
+     * @return  The height of the element 1.
+     * @since v1.0.0
+     */
+    private double getUnitHeight() {
+        return (getHeight() - padding * 2) / Math.max(1, array.length);
+    }
+
+    /**
+     * Returns the gap between two bars, which is dropped if it would make the bars narrower than one pixel.
+     *
+     * @return  The gap.
+     * @since v1.0.0
+     */
+    private double getGap() {
+        int n = array.length;
+        return n > 1 && (getWidth() - 2 * padding - GAP * (n - 1)) / n >= 1 ? GAP : 0;
+    }
+
+    /**
+     * Returns the width of a single bar.
+     *
+     * @return  The width of a bar.
+     * @since v1.0.0
+     */
+    private double getBarWidth() {
+        int n = Math.max(1, array.length);
+        return Math.max(0, (getWidth() - 2 * padding - getGap() * (n - 1)) / n);
+    }
+}
@@ -17,28 +17,35 @@
  */
 package gui.scenes;
 
-import algorithms.State;
-import algorithms.StateMachine;
+import algorithms.AlgorithmCatalog;
+import algorithms.AlgorithmProvider;
+import algorithms.sorting.ColumnarStateMachine;
+import algorithms.sorting.SortingAction;
 import algorithms.sorting.SortingAlgorithm;
-import algorithms.sorting.SortingState;
-import algorithms.sorting.bubblesort.BubbleSort;
+import algorithms.sorting.SortingTrace;
+import algorithms.sorting.StreamedTrace;
+import algorithms.sorting.TraceCache;
+import algorithms.sorting.TraceMode;
+import algorithms.sorting.workload.Workload;
+import algorithms.sorting.workload.WorkloadShape;
 import datastructure.Pair;
-import javafx.animation.*;
+import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
-import javafx.util.Duration;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
 
 import static gui.scenes.ArrayUtils.*;
 
 /**
  * A pane that displays an array and the states of a sorting algorithm. The states are displayed as a timeline. The user
- * can control the timeline by using the play, pause and stop buttons. The user can also change the speed of the
- * animation.
+ * can control the timeline by using the play, pause and stop buttons, step forward and back, play in reverse and seek
+ * to any state. The user can also change the speed of the animation.
  *
  * @author TimK
  * @version v1.0.0
@@ -69,14 +76,43 @@ public class ArrayPane extends Pane {
     private int[] array;
 
     /**
-     * The rectangles that are displayed. The height of the rectangles represent the values in the array.
+     * The workload the array was generated from, or null if the array was changed since.
+     *
+     * @since v1.0.0
+     */
+    private Workload workload;
+
+    /**
+     * The random number generator drawing the seeds of the shuffled arrays.
+     *
+     * @since v1.0.0
+     */
+    private final SplittableRandom seeds = new SplittableRandom();
+
+    /**
+     * The way in which the array is drawn. See the RenderMode enumeration for more details.
+     *
+     * @since v1.0.0
+     */
+    private RenderMode renderMode = RenderMode.NODES;
+
+    /**
+     * The rectangles that are displayed. The height of the rectangles represent the values in the array. Only used in
+     * node mode.
      *
      * @since v1.0.0
      */
     private Rectangle[] rectangles;
 
     /**
-     * Represents whether the rectangles are currently flipped.
+     * The canvas the array is drawn onto. Only used in canvas mode.
+     *
+     * @since v1.0.0
+     */
+    private final ArrayCanvas canvas;
+
+    /**
+     * Whether the bars hang from the top of the pane instead of standing on its bottom, in both render modes.
      *
      * @since v1.0.0
      */
@@ -90,19 +126,62 @@ public class ArrayPane extends Pane {
     private final double padding = 10.0;
 
     /**
-     * The algorithm that is executed on the array.
+     * The algorithm that is executed on the array. Once a trace was recorded, it is the algorithm that recorded it.
      *
      * @since v1.0.0
      */
     private SortingAlgorithm algorithm;
 
     /**
-     * The transition that is currently playing. The object is global so that it can be stopped, paused or continued.
-     * The transition is composed of multiple transitions. Each transition represents a state of the algorithm.
+     * The traces of all algorithms displayed so far. Running an algorithm on the same array again replays the cached
+     * trace instead of running the algorithm again.
      *
      * @since v1.0.0
      */
-    private SequentialTransition sequentialTransition;
+    private static final TraceCache TRACES = new TraceCache(TraceCache.DEFAULT_BYTE_BUDGET);
+
+    /**
+     * The maximum number of states the streaming algorithm produces ahead of the playback.
+     *
+     * @since v1.0.0
+     */
+    private static final int STREAM_CAPACITY = 4096;
+
+    /**
+     * The number of states the streamed trace keeps for the playback.
+     *
+     * @since v1.0.0
+     */
+    private static final int STREAM_WINDOW = 1 << 16;
+
+    /**
+     * The engine playing the states of the algorithm on a single animation timer.
+     *
+     * @since v1.0.0
+     */
+    private final PlaybackEngine engine;
+
+    /**
+     * Whether the states of an algorithm are currently played.
+     *
+     * @since v1.0.0
+     */
+    private boolean playing = false;
+
+    /**
+     * The recording of the trace of the algorithm on a virtual thread, or null if no trace is being recorded.
+     *
+     * @since v1.0.0
+     */
+    private TraceRecording recording;
+
+    /**
+     * The trace streamed from the algorithm for the first playback while the trace is recorded, or null if the complete
+     * trace is played.
+     *
+     * @since v1.0.0
+     */
+    private StreamedTrace streamed;
 
     /**
      * Constructor initializing the scene object and the width and height of the pane. Further, listeners are added to
@@ -118,6 +197,8 @@ public class ArrayPane extends Pane {
         setPrefSize(width, 400);
 
         setPadding(new Insets(padding));
+        canvas = new ArrayCanvas(padding);
+        engine = new PlaybackEngine(new StepAnimator());
 
         widthProperty().addListener((observable, oldValue, newValue) ->
                 repaintRectangles()
@@ -140,8 +221,8 @@ public class ArrayPane extends Pane {
     }
 
     /**
-     * Initializes the array and the rectangles. The rectangles are added to the pane. The rectangles are then
-     * displayed.
+     * Initializes the array and the rectangles or the canvas, depending on the render mode. They are added to the pane
+     * and then displayed.
      *
      * @param array_length The length of the array.
      * @since v1.0.0
@@ -149,10 +230,53 @@ public class ArrayPane extends Pane {
     public void initArrays(int array_length) {
         this.array_length = array_length;
         this.array = new int[array_length];
-        this.rectangles = new Rectangle[array_length];
+        this.workload = null;
 
         initArray();
-        initRectangles();
+        initRenderer();
+    }
+
+    /**
+     * Returns the way in which the array is drawn.
+     *
+     * @return  The render mode.
+     * @since v1.0.0
+     */
+    public RenderMode getRenderMode() {
+        return renderMode;
+    }
+
+    /**
+     * Sets the way in which the array is drawn. If an array is displayed, it is drawn again in the new mode. Must not be
+     * called while an algorithm is displayed.
+     *
+     * @param renderMode    The render mode.
+     * @since v1.0.0
+     */
+    public void setRenderMode(RenderMode renderMode) {
+        this.renderMode = renderMode;
+        if (array != null) {
+            initRenderer();
+        }
+    }
+
+    /**
+     * Initializes the nodes that draw the array in the current render mode: one rectangle per element in node mode, or
+     * the canvas in canvas mode.
+     *
+     * @since v1.0.0
+     */
+    private void initRenderer() {
+        if (renderMode == RenderMode.CANVAS) {
+            rectangles = null;
+            getChildren().setAll(canvas);
+            canvas.setWidth(getWidth());
+            canvas.setHeight(getHeight());
+            canvas.setArray(array);
+        } else {
+            rectangles = new Rectangle[array_length];
+            initRectangles();
+        }
     }
 
     /**
@@ -167,13 +291,14 @@ public class ArrayPane extends Pane {
     }
 
     /**
-     * Shuffles the array. The array is shuffled by swapping two random elements of the array. Afterwards, the
-     * rectangles are redrawn.
+     * Shuffles the array. The array is replaced by a shuffled array generated from a new seed, which is recorded in the
+     * summary of the algorithm, so that the array can be generated again. Afterwards, the rectangles are redrawn.
      *
      * @since v1.0.0
      */
     public void shuffleArray() {
-        ArrayUtils.shuffleArray(array);
+        workload = new Workload(WorkloadShape.SHUFFLED, array_length, seeds.nextLong());
+        System.arraycopy(workload.generate(), 0, array, 0, array_length);
         repaintRectangles();
     }
 
@@ -185,6 +310,7 @@ public class ArrayPane extends Pane {
      */
     public void reverseArray() {
         ArrayUtils.reverseArray(array);
+        workload = null;
         repaintRectangles();
     }
 
@@ -206,34 +332,101 @@ public class ArrayPane extends Pane {
     }
 
     /**
-     * Repaints the rectangles. The rectangles are resized and moved to the correct position.
+     * Repaints the rectangles. The rectangles are resized and moved to the correct position. In canvas mode, the canvas
+     * is resized to the pane and redrawn instead.
      *
      * @since v1.0.0
      */
     public void repaintRectangles() {
+        if (array == null) {
+            return;
+        }
+        if (renderMode == RenderMode.CANVAS) {
+            canvas.setWidth(getWidth());
+            canvas.setHeight(getHeight());
+            canvas.repaint();
+            return;
+        }
+        double width = ((getWidth() - 2 * padding) - 2 * (array_length - 1)) / array_length;
+        double unit = getUnitHeight();
         for (int i = 0; i < array_length; i++) {
-            double height = (getHeight() - padding * 2) / array_length * array[i];
-
-            rectangles[i].setHeight(
-                    height
-            );
-
             rectangles[i].setWidth(
-                    ((getWidth() - 2 * padding) - 2 * (array_length - 1)) / array_length
+                    width
             );
 
             rectangles[i].setX(
-                    getRectangleX(i, rectangles[i].getWidth())
+                    getRectangleX(i, width)
             );
 
-            rectangles[i].setY(
-                    getHeight() - padding - height
-            );
+            repaintRectangle(i, unit);
+        }
+    }
 
-            rectangles[i].setTranslateX(
-                    0
-            );
+    /**
+     * Repaints the rectangles at the specified indices after their elements changed. Only their heights and
+     * y-coordinates are updated; the widths and x-coordinates only depend on the index and the size of the pane, so
+     * they are only recomputed by {@link #repaintRectangles()} when the pane is resized or the array is initialized.
+     * In canvas mode, only the columns of the bars are redrawn.
+     *
+     * @param indices   The indices of the rectangles.
+     * @since v1.0.0
+     */
+    private void repaintRectangles(int... indices) {
+        if (renderMode == RenderMode.CANVAS) {
+            canvas.repaint(indices);
+            return;
         }
+        double unit = getUnitHeight();
+        for (int index : indices) {
+            repaintRectangle(index, unit);
+        }
+    }
+
+    /**
+     * Repaints the rectangle at the specified index. The rectangle is resized to the height of its element, aligned at
+     * the bottom of the pane, or at its top if the bars are flipped, and moved back to its position.
+     *
+     * @param index The index of the rectangle.
+     * @param unit  The height of the element 1.
+     * @since v1.0.0
+     */
+    private void repaintRectangle(int index, double unit) {
+        double height = unit * array[index];
+
+        rectangles[index].setHeight(
+                height
+        );
+
+        rectangles[index].setY(
+                getRectangleY(height)
+        );
+
+        rectangles[index].setTranslateX(
+                0
+        );
+    }
+
+    /**
+     * Returns the y-coordinate of a rectangle of the given height, which stands on the bottom of the pane or hangs from
+     * its top if the bars are flipped.
+     *
+     * @param height    The height of the rectangle.
+     * @return  The y-coordinate.
+     * @since v1.0.0
+     */
+    private double getRectangleY(double height) {
+        return flipped ? padding : getHeight() - padding - height;
+    }
+
+    /**
+     * Returns the height of the rectangle of the element 1. The height of each rectangle is its element times this
+     * height, so that the rectangle of the largest element fills the pane.
+     *
+     * @return  The height of the element 1.
+     * @since v1.0.0
+     */
+    private double getUnitHeight() {
+        return (getHeight() - padding * 2) / array_length;
     }
 
     /**
@@ -256,6 +449,10 @@ public class ArrayPane extends Pane {
      */
     private void highlightRectangles(int... indices) {
         for (int index : indices) {
+            if (renderMode == RenderMode.CANVAS) {
+                canvas.setColor(index, SELECTED_COLOR);
+                continue;
+            }
             rectangles[index].setFill(SELECTED_COLOR);
         }
     }
@@ -276,6 +473,10 @@ public class ArrayPane extends Pane {
      * @since v1.0.0
      */
     private void resetRectangleColors() {
+        if (renderMode == RenderMode.CANVAS) {
+            canvas.resetColors();
+            return;
+        }
         for (Rectangle rectangle : rectangles) {
             rectangle.setFill(DEFAULT_COLOR);
         }
@@ -289,6 +490,10 @@ public class ArrayPane extends Pane {
      */
     private void resetRectangleColors(int... indices) {
         for (int index : indices) {
+            if (renderMode == RenderMode.CANVAS) {
+                canvas.setColor(index, null);
+                continue;
+            }
             rectangles[index].setFill(DEFAULT_COLOR);
         }
     }
@@ -304,240 +509,643 @@ public class ArrayPane extends Pane {
     }
 
     /**
-     * Returns a transition that swaps the specified rectangles. The rectangles are swapped by moving them to the
-     * correct position.
+     * Flips the alignment of the bars between the bottom and the top of the pane. The alignment is kept while the
+     * array is repainted and animated, and applies to the rectangles as well as to the canvas.
      *
-     * @param index1    The index of the first rectangle.
-     * @param index2    The index of the second rectangle.
-     * @return The transition that swaps the rectangles.
      * @since v1.0.0
      */
-    private ParallelTransition getSwappingTransition(int index1, int index2) {
-        //double translation = rectangles[index2].getX() - rectangles[index1].getX();
+    public void flipRectangles() {
+        flipped = !flipped;
+        canvas.setFlipped(flipped);
+        repaintRectangles();
+    }
 
-        TranslateTransition tt1 = new TranslateTransition(Duration.millis(500), rectangles[index1]);
-        //tt1.setByX(translation);
-        tt1.byXProperty().bind(rectangles[index2].xProperty().subtract(rectangles[index1].xProperty()));
+    /**
+     * Returns the algorithm that is currently being used.
+     *
+     * @return  The algorithm that is currently being used.
+     * @since v1.0.0
+     */
+    public SortingAlgorithm getAlgorithm() {
+        return algorithm;
+    }
 
-        TranslateTransition tt2 = new TranslateTransition(Duration.millis(500), rectangles[index2]);
-        //tt2.setByX(-translation);
-        tt2.byXProperty().bind(rectangles[index1].xProperty().subtract(rectangles[index2].xProperty()));
+    /**
+     * Sets the algorithm that is used to sort the array. The pane only needs the indices of each state, so the
+     * algorithm records its states into primitive columns without state objects or copies of the array.
+     *
+     * @param algorithmName The name of the algorithm.
+     * @since v1.0.0
+     */
+    public void setAlgorithm(String algorithmName) {
+        this.algorithm = createAlgorithm(algorithmName, array);
+        if (algorithm != null) {
+            algorithm.setTraceMode(TraceMode.COLUMNAR);
+        }
+    }
 
-        ParallelTransition swappingTransition = new ParallelTransition(tt1, tt2);
+    /**
+     * Creates the algorithm with the given name on the given array. The algorithm is looked up in the algorithm catalog.
+     *
+     * @param algorithmName The name of the algorithm.
+     * @param array The array to be sorted.
+     * @return  The algorithm, or null if there is no algorithm with the given name.
+     * @since v1.0.0
+     */
+    private static SortingAlgorithm createAlgorithm(String algorithmName, int[] array) {
+        AlgorithmProvider provider = AlgorithmCatalog.getInstance().find(algorithmName);
+        return provider != null ? provider.createSortingAlgorithm(array) : null;
+    }
 
-        swappingTransition.setOnFinished(
-                event -> {
-                    rectangles[index1].setTranslateX(0);
-                    rectangles[index2].setTranslateX(0);
+    /**
+     * Returns the cache of the traces displayed so far.
+     *
+     * @return  The trace cache.
+     * @since v1.0.0
+     */
+    public TraceCache getTraceCache() {
+        return TRACES;
+    }
 
-                    int tmp = array[index1];
-                    array[index1] = array[index2];
-                    array[index2] = tmp;
-                    repaintRectangles();
-                }
-        );
+    /**
+     * Creates a new instance of the current algorithm on the current array, which is told the workload the array was
+     * generated from, so the seed of the array reaches the summary of the run.
+     *
+     * @return  The algorithm.
+     * @since v1.0.0
+     */
+    private SortingAlgorithm createRun() {
+        SortingAlgorithm run = createAlgorithm(algorithm.getName(), array);
+        run.setArray(array, workload);
+        return run;
+    }
 
-        return swappingTransition;
+    /**
+     * Starts the display of the sorting algorithm. The sorting algorithm is applied to the current state of the array.
+     * If the trace of the algorithm on this array is cached, it is replayed without running the algorithm. Otherwise,
+     * the playback starts right away on the states streamed from the algorithm, which only runs a bounded number of
+     * states ahead of the playback, while the complete trace is recorded on a second virtual thread and the scene shows
+     * the estimated progress. The streamed playback only goes forward; once the recording is complete, the playback
+     * continues on the recorded trace, which also allows stepping back, reversing and seeking. The application thread
+     * never waits for the algorithm. The states are played by the playback engine, which animates one comparison, swap,
+     * write, read into a buffer or copy back at a time.
+     *
+     * @since v1.0.0
+     */
+    public void startAlgorithm() {
+        SortingTrace trace = TRACES.getIfPresent(algorithm.getName(), array);
+        if (trace != null) {
+            workload = null;
+            playTrace(trace);
+            return;
+        }
+        SortingAlgorithm streamer = createRun();
+        SortingAlgorithm recorder = createRun();
+        // The playback changes the array, so it no longer matches the workload.
+        workload = null;
+
+        streamer.setTraceMode(TraceMode.COLUMNAR);
+        streamed = new StreamedTrace(array.clone(), streamer.streamStateMachine(STREAM_CAPACITY), STREAM_WINDOW);
+        playing = true;
+        engine.play(streamed);
+        scene.enableStreamedPlayback();
+
+        recording = new TraceRecording(recorder);
+        scene.showProgress(recording.progressProperty());
+        Thread.ofVirtual().name(algorithm.getName() + " recorder").start(recording);
     }
 
     /**
-     * Returns a transition that swaps the specified rectangles. The rectangles are swapped by moving them to the
-     * correct position.
+     * Closes the streamed trace, if any, which stops the streaming algorithm.
      *
-     * @param indices   The pair indices of the rectangles that are swapped.
-     * @return The transition that swaps the rectangles.
      * @since v1.0.0
      */
-    private ParallelTransition getSwappingTransition(Pair<Integer, Integer> indices) {
-        return getSwappingTransition(indices.first, indices.second);
+    private void closeStream() {
+        if (streamed != null) {
+            streamed.close();
+            streamed = null;
+        }
     }
 
     /**
-     * Returns a transition that highlights the specified rectangles. The rectangles are highlighted by applying a
-     * FillTransition.
+     * Returns the number of states applied to the displayed array by the playback.
      *
-     * @param index1    The index of the first rectangle.
-     * @param index2    The index of the second rectangle.
-     * @return The transition that highlights the rectangles.
+     * @return  The position of the playback.
      * @since v1.0.0
      */
-    private ParallelTransition getComparisonTransition(int index1, int index2) {
-        FillTransition ft1 = new FillTransition(Duration.millis(500), rectangles[index1], DEFAULT_COLOR, SELECTED_COLOR);
-        FillTransition ft2 = new FillTransition(Duration.millis(500), rectangles[index2], DEFAULT_COLOR, SELECTED_COLOR);
+    public long getPlaybackPosition() {
+        return engine.getPosition();
+    }
 
-        ParallelTransition comparisonTransition = new ParallelTransition(ft1, ft2);
+    /**
+     * Plays the given trace of the algorithm on the current array and enables the timeline of the scene.
+     *
+     * @param trace The trace.
+     * @since v1.0.0
+     */
+    private void playTrace(SortingTrace trace) {
+        playing = true;
+        engine.play(trace);
+        scene.enablePlayback(trace.size());
+    }
 
-        comparisonTransition.setOnFinished(
-                event -> {
-                    resetRectangleColors(index1, index2);
-                }
-        );
+    /**
+     * Stops the current algorithm and resets the colors of the rectangles. Further, if rectangles are not at the correct
+     * position, they are moved to the correct position. The array stays at the state the playback was stopped at. A
+     * streaming algorithm is stopped, and a trace that is still being recorded is cancelled; the recording stops within
+     * a few thousand states and is not cached.
+     *
+     * @since v1.0.0
+     */
+    public void stopAlgorithm() {
+        if (playing) {
+            engine.stop();
+            playing = false;
+            resetRectangleColors();
+            repaintRectangles();
+            scene.disablePlayback();
+        }
+        closeStream();
+        if (recording != null) {
+            recording.cancel();
+            recording = null;
+            scene.hideProgress();
+        }
+    }
 
-        return comparisonTransition;
+    /**
+     * Returns the speed at which the states are played.
+     *
+     * @return  The speed in steps per second.
+     * @since v1.0.0
+     */
+    public double getSpeed() {
+        return engine.getSpeed();
     }
 
     /**
-     * Returns a transition that highlights the specified rectangles. The rectangles are highlighted by applying a
-     * FillTransition.
+     * Sets the speed at which the states are played. Can be changed while an algorithm is displayed. See the
+     * PlaybackEngine class for the range of speeds.
      *
-     * @param indices   The pair indices of the rectangles that are highlighted.
-     * @return The transition that highlights the rectangles.
+     * @param speed The speed in steps per second.
      * @since v1.0.0
      */
-    private ParallelTransition getComparisonTransition(Pair<Integer, Integer> indices) {
-        return getComparisonTransition(indices.first, indices.second);
+    public void setSpeed(double speed) {
+        engine.setSpeed(speed);
     }
 
     /**
-     * Plays a swapping transition that swaps the specified rectangles. The rectangles are swapped by moving them to the
-     * correct position.
+     * Pauses the algorithm.
      *
-     * @param index1    The index of the first rectangle.
-     * @param index2    The index of the second rectangle.
      * @since v1.0.0
      */
-    private void swapRectangles(int index1, int index2) {
-        getSwappingTransition(index1, index2).play();
+    public void pauseAlgorithm() {
+        engine.pause();
     }
 
     /**
-     * Plays a swapping transition that swaps the specified rectangles. The rectangles are swapped by moving them to the
-     * correct position.
+     * Resumes the algorithm.
      *
-     * @param indices   The pair indices of the rectangles that are swapped.
      * @since v1.0.0
      */
-    private void swapRectangles(Pair<Integer, Integer> indices) {
-        swapRectangles(indices.first, indices.second);
+    public void resumeAlgorithm() {
+        engine.resume();
     }
 
     /**
-     * TODO: Fix this method.
+     * Returns whether the algorithm is paused.
+     *
+     * @return  True if paused, false otherwise.
+     * @since v1.0.0
      */
-    public void flipRectangles() {
-        for (int i = 0; i < array_length; i++) {
-            if (flipped) {
-                rectangles[i].setY(
-                        getHeight() - padding - rectangles[i].getHeight()
-                );
-            } else {
-                rectangles[i].setY(
-                        padding
-                );
-            }
-        }
-        flipped = !flipped;
+    public boolean isPaused() {
+        return engine.isPaused();
     }
 
     /**
-     * Returns the algorithm that is currently being used.
+     * Pauses the algorithm and applies its next step.
      *
-     * @return  The algorithm that is currently being used.
      * @since v1.0.0
      */
-    public SortingAlgorithm getAlgorithm() {
-        return algorithm;
+    public void stepForward() {
+        engine.stepForward();
     }
 
     /**
-     * Sets the algorithm that is used to sort the array.
+     * Pauses the algorithm and undoes its previous step.
      *
-     * @param algorithmName The name of the algorithm.
      * @since v1.0.0
      */
-    public void setAlgorithm(String algorithmName) {
-        this.algorithm = switch (algorithmName) {
-            case "Bubble Sort" -> new BubbleSort(array);
-            default -> null;
-            //TODO: Add more cases
-        };
+    public void stepBack() {
+        engine.stepBack();
     }
 
     /**
-     * Updates the algorithm with the current array.
+     * Sets whether the algorithm is played in reverse, undoing one step after another.
      *
+     * @param reversed  True to play in reverse, false to play forward.
      * @since v1.0.0
      */
-    private void updateAlgorithm() {
-        algorithm.setArray(array);
+    public void setReversed(boolean reversed) {
+        engine.setReversed(reversed);
     }
 
     /**
-     * Starts the display of the sorting algorithm. The sorting algorithm is applied to the current state of the array.
-     * Each swapping and comparison is displayed by a transition. All transitions are played in sequence.
+     * Moves the display to the given state of the algorithm. See {@link PlaybackEngine#seek(long)}.
      *
+     * @param step  The number of states applied to the array.
      * @since v1.0.0
      */
-    public void startAlgorithm() {
-        updateAlgorithm();
+    public void seek(long step) {
+        engine.seek(step);
+    }
 
-        StateMachine machine = algorithm.getStateMachine();
+    /**
+     * Draws the steps played by the playback engine onto the rectangles or the canvas. In node mode, comparisons and
+     * reads into a buffer fade the rectangles into their color, swaps move the rectangles to each other's position and
+     * writes fade the rectangle while resizing it. In canvas mode, the bars are drawn in their color for the whole step.
+     * The change of a step is only applied to the array once the step finished. Steps applied without animation only
+     * remember the changed indices, which are drawn once per frame. If more than a quarter of the array changed, the
+     * whole array is drawn instead, which in level of detail only takes time proportional to the width of the canvas.
+     *
+     * @author Tim-Michael Krieg
+     * @version 1.0.0
+     * @since v1.0.0
+     */
+    private class StepAnimator implements PlaybackEngine.StepView {
+
+        /**
+         * The action of the current step.
+         *
+         * @since v1.0.0
+         */
+        private SortingAction action;
+
+        /**
+         * The indices of the array changed or highlighted by the current step.
+         *
+         * @since v1.0.0
+         */
+        private int[] indices;
+
+        /**
+         * The element written by the current step.
+         *
+         * @since v1.0.0
+         */
+        private int element;
+
+        /**
+         * The color the elements of the current step are highlighted in.
+         *
+         * @since v1.0.0
+         */
+        private Color color;
+
+        /**
+         * Marks the indices that changed since the last frame, so that each index is only remembered once.
+         *
+         * @since v1.0.0
+         */
+        private final BitSet dirty = new BitSet();
+
+        /**
+         * The indices that changed since the last frame, in the order they changed first.
+         *
+         * @since v1.0.0
+         */
+        private int[] changed = new int[64];
+
+        /**
+         * The number of indices that changed since the last frame.
+         *
+         * @since v1.0.0
+         */
+        private int changedCount = 0;
+
+        /**
+         * Whether so many indices changed since the last frame that the whole array is drawn.
+         *
+         * @since v1.0.0
+         */
+        private boolean changedAll = false;
+
+        /**
+         * Remembers the step and, in canvas mode, draws its bars in their color.
+         *
+         * @param action    The action of the step.
+         * @param index1    The first index of the step.
+         * @param index2    The second index of the step, or -1 if the action only has one index.
+         * @param element   The element written by the step, or the first element compared or swapped.
+         * @since v1.0.0
+         */
+        @Override
+        public void beginStep(SortingAction action, int index1, int index2, int element) {
+            this.action = action;
+            this.element = element;
+            this.indices = action == SortingAction.COMPARE || action == SortingAction.SWAP
+                    ? new int[] {index1, index2}
+                    : new int[] {index1};
+            this.color = switch (action) {
+                case WRITE -> WRITE_COLOR;
+                case BUFFER, COPY -> BUFFER_COLOR;
+                default -> SELECTED_COLOR;
+            };
+            if (renderMode == RenderMode.CANVAS) {
+                for (int index : indices) {
+                    canvas.setColor(index, color);
+                }
+            }
+        }
 
-        Iterator<State> iterator = machine.iterator();
+        /**
+         * Draws the step at the given fraction of its duration. Only used in node mode.
+         *
+         * @param fraction  The fraction, between 0 inclusive and 1 exclusive.
+         * @since v1.0.0
+         */
+        @Override
+        public void interpolateStep(double fraction) {
+            if (renderMode == RenderMode.CANVAS) {
+                return;
+            }
+            switch (action) {
+                case SWAP -> {
+                    double distance = rectangles[indices[1]].getX() - rectangles[indices[0]].getX();
+                    rectangles[indices[0]].setTranslateX(distance * fraction);
+                    rectangles[indices[1]].setTranslateX(-distance * fraction);
+                }
+                case WRITE, COPY -> {
+                    Rectangle rectangle = rectangles[indices[0]];
+                    double unit = getUnitHeight();
+                    double height = unit * (array[indices[0]] + (element - array[indices[0]]) * fraction);
+                    rectangle.setFill(DEFAULT_COLOR.interpolate(color, fraction));
+                    rectangle.setHeight(height);
+                    rectangle.setY(getRectangleY(height));
+                }
+                default -> {
+                    for (int index : indices) {
+                        rectangles[index].setFill(DEFAULT_COLOR.interpolate(color, fraction));
+                    }
+                }
+            }
+        }
 
-        List<Animation> transitions = new ArrayList<>();
+        /**
+         * Applies the change of the step to the array and redraws the elements of the step in the default color.
+         *
+         * @since v1.0.0
+         */
+        @Override
+        public void finishStep() {
+            switch (action) {
+                case SWAP -> swap(indices[0], indices[1]);
+                case WRITE, COPY -> write(indices[0], element);
+                default -> {
+                }
+            }
+            resetRectangleColors(indices);
+            repaintRectangles(indices);
+        }
 
-        while (iterator.hasNext()) {
-            SortingState state = (SortingState) iterator.next();
-            switch (state.getAction()) {
+        /**
+         * Applies the change of a step to the array and remembers the changed indices.
+         *
+         * @param action    The action of the step.
+         * @param index1    The first index of the step.
+         * @param index2    The second index of the step, or -1 if the action only has one index.
+         * @param element   The element written by the step, or the first element compared or swapped.
+         * @since v1.0.0
+         */
+        @Override
+        public void applyStep(SortingAction action, int index1, int index2, int element) {
+            switch (action) {
                 case SWAP -> {
-                    transitions.add(getSwappingTransition(state.getIndices()));
+                    swap(index1, index2);
+                    markChanged(index1);
+                    markChanged(index2);
+                }
+                case WRITE, COPY -> {
+                    write(index1, element);
+                    markChanged(index1);
+                }
+                default -> {
+                }
+            }
+        }
+
+        /**
+         * Draws the indices that changed since the last frame, or the whole array if too many changed.
+         *
+         * @since v1.0.0
+         */
+        @Override
+        public void render() {
+            if (changedAll) {
+                if (renderMode == RenderMode.CANVAS) {
+                    canvas.redraw();
+                } else {
+                    repaintRectangles();
                 }
-                case COMPARE -> {
-                    transitions.add(getComparisonTransition(state.getIndices()));
+                dirty.clear();
+            } else if (changedCount > 0) {
+                repaintRectangles(Arrays.copyOf(changed, changedCount));
+                for (int i = 0; i < changedCount; i++) {
+                    dirty.clear(changed[i]);
                 }
             }
+            changedCount = 0;
+            changedAll = false;
         }
 
-        Animation[] animations = transitions.toArray(new Animation[0]);
+        /**
+         * Swaps the elements at the given indices and keeps the buckets of the canvas up to date.
+         *
+         * @param index1    The first index.
+         * @param index2    The second index.
+         * @since v1.0.0
+         */
+        private void swap(int index1, int index2) {
+            int tmp = array[index1];
+            array[index1] = array[index2];
+            array[index2] = tmp;
+            if (renderMode == RenderMode.CANVAS) {
+                canvas.swapped(index1, index2);
+            }
+        }
 
-        sequentialTransition = new SequentialTransition(animations);
+        /**
+         * Writes the given element to the given index and keeps the buckets of the canvas up to date.
+         *
+         * @param index The index.
+         * @param element   The element.
+         * @since v1.0.0
+         */
+        private void write(int index, int element) {
+            int previous = array[index];
+            array[index] = element;
+            if (renderMode == RenderMode.CANVAS) {
+                canvas.update(index, previous);
+            }
+        }
 
-        sequentialTransition.setOnFinished(
-                event -> {
-                    scene.resetAlgo();
+        /**
+         * Remembers that the element at the given index changed since the last frame.
+         *
+         * @param index The index.
+         * @since v1.0.0
+         */
+        private void markChanged(int index) {
+            if (changedAll || dirty.get(index)) {
+                return;
+            }
+            dirty.set(index);
+            if (changedCount == changed.length) {
+                if (changedCount >= array_length / 4) {
+                    changedAll = true;
+                    return;
                 }
-        );
+                changed = Arrays.copyOf(changed, changedCount * 2);
+            }
+            changed[changedCount++] = index;
+        }
 
-        sequentialTransition.setRate(1);
+        /**
+         * Copies the given array into the displayed array and draws it entirely. In canvas mode, the buckets of the
+         * level of detail are recomputed.
+         *
+         * @param array The array at the new position.
+         * @since v1.0.0
+         */
+        @Override
+        public void showArray(int[] array) {
+            System.arraycopy(array, 0, ArrayPane.this.array, 0, array_length);
+            dirty.clear();
+            changedCount = 0;
+            changedAll = false;
+            repaintRectangles();
+        }
 
-        sequentialTransition.play();
-    }
+        /**
+         * Moves the timeline of the scene to the new position.
+         *
+         * @param position  The number of states applied to the array.
+         * @since v1.0.0
+         */
+        @Override
+        public void positionChanged(long position) {
+            scene.updateTimeline(position);
+        }
 
-    /**
-     * Stops the current algorithm and resets the colors of the rectangles. Further, if rectangles are not at the correct
-     * position, they are moved to the correct position.
-     *
-     * @since v1.0.0
-     */
-    public void stopAlgorithm() {
-        if (sequentialTransition != null) {
-            sequentialTransition.stop();
-            resetRectangleColors();
-            repaintRectangles();
+        /**
+         * Tells the scene that the playback paused at the end of the trace. The trace stays loaded, so the user can
+         * still step back or seek until the algorithm is stopped.
+         *
+         * @since v1.0.0
+         */
+        @Override
+        public void finished() {
+            scene.playbackFinished();
         }
     }
 
     /**
-     * Pauses the algorithm.
+     * Records the trace of an algorithm on a virtual thread and adds it to the trace cache. The progress is the number
+     * of states recorded so far relative to the number of states estimated by the algorithm, and stays below 1 until
+     * the trace is complete, since the estimate may be too low. Cancelling the recording stops the algorithm at its
+     * next progress report. Once the trace is complete, the playback continues on it on the application thread.
      *
+     * @author Tim-Michael Krieg
+     * @version 1.0.0
      * @since v1.0.0
      */
-    public void pauseAlgorithm() {
-        if (sequentialTransition != null) {
-            sequentialTransition.pause();
+    private class TraceRecording extends Task<ColumnarStateMachine> {
+
+        /**
+         * The largest share of the progress reported before the trace is complete.
+         *
+         * @since v1.0.0
+         */
+        private static final double MAX_ESTIMATED_PROGRESS = 0.99;
+
+        /**
+         * The algorithm recording the trace.
+         *
+         * @since v1.0.0
+         */
+        private final SortingAlgorithm recorder;
+
+        /**
+         * Constructor initializing the algorithm recording the trace.
+         *
+         * @param recorder  The algorithm. Its array must not be sorted yet.
+         * @since v1.0.0
+         */
+        private TraceRecording(SortingAlgorithm recorder) {
+            this.recorder = recorder;
         }
-    }
 
-    /**
-     * Resumes the algorithm.
-     *
-     * @since v1.0.0
-     */
-    public void resumeAlgorithm() {
-        if (sequentialTransition != null) {
-            sequentialTransition.play();
+        /**
+         * Records the trace, reporting the progress every few thousand states, and adds it to the trace cache. Its
+         * snapshots are taken right away.
+         *
+         * @return  The trace.
+         * @throws CancellationException    If the recording was cancelled.
+         * @since v1.0.0
+         */
+        @Override
+        protected ColumnarStateMachine call() {
+            long estimate = recorder.estimateStates();
+            recorder.setTraceMode(TraceMode.COLUMNAR);
+            recorder.setProgressListener(states -> {
+                if (isCancelled()) {
+                    throw new CancellationException("The recording of the trace was cancelled.");
+                }
+                updateProgress(Math.min(states, estimate * MAX_ESTIMATED_PROGRESS), estimate);
+            });
+            ColumnarStateMachine trace = TRACES.record(recorder);
+            // Takes all snapshots of the trace here, so that seeking on the application thread never replays more
+            // than one keyframe interval of states.
+            trace.getArrayAt(trace.size());
+            return trace;
+        }
+
+        /**
+         * Hides the progress, stops the streaming algorithm and continues the playback on the recorded trace at the
+         * same position, unless the recording was replaced in the meantime. The recorder becomes the algorithm of the
+         * pane, so its summary holds the counters of the run and the workload of the array.
+         *
+         * @since v1.0.0
+         */
+        @Override
+        protected void succeeded() {
+            if (recording != this) {
+                return;
+            }
+            recording = null;
+            algorithm = recorder;
+            scene.hideProgress();
+            engine.replaceTrace(getValue());
+            closeStream();
+            scene.enablePlayback(getValue().size());
         }
-    }
 
+        /**
+         * Hides the progress, stops the playback, resets the controls of the scene and shows the error the algorithm
+         * failed with.
+         *
+         * @since v1.0.0
+         */
+        @Override
+        protected void failed() {
+            if (recording != this) {
+                return;
+            }
+            recording = null;
+            scene.hideProgress();
+            stopAlgorithm();
+            scene.resetAlgo();
+            scene.showRecordingError(recorder.getName(), getException());
+        }
+    }
 }
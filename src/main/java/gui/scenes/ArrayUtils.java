@@ -20,7 +20,7 @@ package gui.scenes;
 import javafx.scene.paint.Color;
 
 /**
- * Utility class for the display of the array. Contains methods to shuffle or reverse the array. Furthermore, it
+ * Utility class for the display of the array. Contains a method to reverse the array. Furthermore, it
  * contains the colors used for the array.
  *
  * @author Tim-Michael Krieg
@@ -45,21 +45,27 @@ public class ArrayUtils {
     public static final Color SELECTED_COLOR = Color.rgb(255, 0, 0, 0.5);
 
     /**
-     * Shuffles the given array. The array is shuffled by swapping each element with a random element in the array.
+     * The color of the array elements that are currently being overwritten with an element that is not taken from a
+     * buffer.
      *
-     * @param array The array to shuffle.
      * @since 1.0.0
      */
-    public static void shuffleArray(int[] array) {
-        int index;
-        int temp;
-        for (int i = array.length - 1; i > 0; i--) {
-            index = (int) (Math.random() * (i + 1));
-            temp = array[index];
-            array[index] = array[i];
-            array[i] = temp;
-        }
-    }
+    public static final Color WRITE_COLOR = Color.rgb(0, 160, 0, 0.5);
+
+    /**
+     * The color of the array elements that are currently being read into a buffer or copied back from it.
+     *
+     * @since 1.0.0
+     */
+    public static final Color BUFFER_COLOR = Color.rgb(0, 0, 255, 0.5);
+
+    /**
+     * The color of the envelope between the smallest and the largest element of a bucket when more elements than
+     * pixel columns are displayed.
+     *
+     * @since 1.0.0
+     */
+    public static final Color ENVELOPE_COLOR = Color.rgb(0, 0, 0, 0.2);
 
     /**
      * Reverses the given array. The array is reversed by swapping each element with the element at the opposite end of
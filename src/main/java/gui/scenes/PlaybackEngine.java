@@ -0,0 +1,684 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package gui.scenes;
+
+import algorithms.sorting.SortingAction;
+import algorithms.sorting.SortingTrace;
+import algorithms.sorting.StreamedTrace;
+import javafx.animation.AnimationTimer;
+
+/**
+ * Plays the states of a sorting trace on a single AnimationTimer. The engine keeps its position in the trace, the
+ * number of states applied to the displayed array, and reads the states at the position by random access, so it can
+ * play forward as well as in reverse. On each frame, the time passed since the previous frame is added to the current
+ * step; once a step took its full duration, it is finished and the next step begins in the same frame. Drawing is left
+ * to a {@link StepView}.
+ * <p>
+ * Playing in reverse undoes the states: swaps are their own inverse, and writes and copies write back the element they
+ * overwrote, which the trace keeps as the second element of the state. Seeking to a state close to the position steps
+ * there the same way; seeking further rebuilds the array from the closest snapshot of the trace, so it never walks
+ * more than one keyframe interval of states.
+ * <p>
+ * The speed is given in steps per second. As long as a step lasts long enough to be seen, each step is animated. At
+ * higher speeds, all steps due in a frame are applied to the array without animation and only the resulting array is
+ * drawn. The steps applied in a single frame are limited by a time budget, so a frame never takes much longer than
+ * the display interval; steps that do not fit are dropped from the schedule instead of piling up.
+ * <p>
+ * A {@link StreamedTrace} is played while the algorithm is still running. Before each frame, the states produced so
+ * far are read; if the playback catches up with the algorithm, it waits for further states instead of finishing.
+ * Streamed traces only keep a window of states, so they are played forward only, until they are replaced by the
+ * complete trace through {@link #replaceTrace(SortingTrace)}.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+public class PlaybackEngine extends AnimationTimer {
+
+    /**
+     * The lowest speed in steps per second.
+     *
+     * @since v1.0.0
+     */
+    public static final double MIN_SPEED = 0.25;
+
+    /**
+     * The highest speed in steps per second.
+     *
+     * @since v1.0.0
+     */
+    public static final double MAX_SPEED = 10_000_000;
+
+    /**
+     * The speed in steps per second at which playback starts, one step every 500 milliseconds.
+     *
+     * @since v1.0.0
+     */
+    public static final double DEFAULT_SPEED = 2;
+
+    /**
+     * The shortest duration of a step in nanoseconds that is still animated, two frames at 60 frames per second.
+     * Shorter steps are applied without animation.
+     *
+     * @since v1.0.0
+     */
+    private static final long MIN_ANIMATED_STEP_NANOS = 33_000_000L;
+
+    /**
+     * The time in nanoseconds a frame may spend applying steps without animation.
+     *
+     * @since v1.0.0
+     */
+    private static final long FRAME_BUDGET_NANOS = 8_000_000L;
+
+    /**
+     * The number of steps applied between two checks of the frame budget.
+     *
+     * @since v1.0.0
+     */
+    private static final int BUDGET_CHECK_INTERVAL = 1024;
+
+    /**
+     * The view drawing the steps.
+     *
+     * @since v1.0.0
+     */
+    private final StepView view;
+
+    /**
+     * The trace that is played, or null if the engine was stopped.
+     *
+     * @since v1.0.0
+     */
+    private SortingTrace trace;
+
+    /**
+     * The number of states of the trace applied to the displayed array.
+     *
+     * @since v1.0.0
+     */
+    private long position = 0;
+
+    /**
+     * The number of the state whose step is currently animated.
+     *
+     * @since v1.0.0
+     */
+    private long current = -1;
+
+    /**
+     * Whether the trace is played in reverse, undoing one state after another.
+     *
+     * @since v1.0.0
+     */
+    private boolean reversed = false;
+
+    /**
+     * Whether a step began and is not finished yet.
+     *
+     * @since v1.0.0
+     */
+    private boolean stepping = false;
+
+    /**
+     * The time in nanoseconds that passed since the current step began, not counting pauses.
+     *
+     * @since v1.0.0
+     */
+    private long elapsed = 0;
+
+    /**
+     * The timestamp of the previous frame in nanoseconds, or -1 before the first frame.
+     *
+     * @since v1.0.0
+     */
+    private long lastFrame = -1;
+
+    /**
+     * Whether the playback is paused.
+     *
+     * @since v1.0.0
+     */
+    private boolean paused = false;
+
+    /**
+     * The duration of a single step in nanoseconds.
+     *
+     * @since v1.0.0
+     */
+    private long stepNanos = (long) (1e9 / DEFAULT_SPEED);
+
+    /**
+     * Constructor initializing the view drawing the steps.
+     *
+     * @param view  The view.
+     * @since v1.0.0
+     */
+    public PlaybackEngine(StepView view) {
+        this.view = view;
+    }
+
+    /**
+     * Starts playing the given trace forward from the first state. The displayed array must be the array before the
+     * first state.
+     *
+     * @param trace The trace.
+     * @since v1.0.0
+     */
+    public void play(SortingTrace trace) {
+        this.trace = trace;
+        position = 0;
+        reversed = false;
+        stepping = false;
+        elapsed = 0;
+        lastFrame = -1;
+        paused = false;
+        start();
+    }
+
+    /**
+     * Continues the playback on the given trace at the current position. The trace must contain the same states as the
+     * trace played so far, for example the complete recording of a streamed trace. The current step is kept.
+     *
+     * @param trace The trace.
+     * @since v1.0.0
+     */
+    public void replaceTrace(SortingTrace trace) {
+        this.trace = trace;
+    }
+
+    /**
+     * Returns whether the trace is still streamed from the running algorithm, so it may grow and can only be played
+     * forward.
+     *
+     * @return  True if the trace is streamed and not complete yet.
+     * @since v1.0.0
+     */
+    public boolean isStreaming() {
+        return trace instanceof StreamedTrace streamed && !streamed.isComplete();
+    }
+
+    /**
+     * Reads the states the algorithm produced so far into the streamed trace, if the trace is streamed.
+     *
+     * @since v1.0.0
+     */
+    private void fillTrace() {
+        if (trace instanceof StreamedTrace streamed) {
+            try {
+                streamed.fill(stepping ? current : position);
+            } catch (IllegalStateException e) {
+                // The algorithm failed. The trace ends here, and the recording of the same algorithm reports the error.
+            }
+        }
+    }
+
+    /**
+     * Pauses the playback. The current step stays where it is.
+     *
+     * @since v1.0.0
+     */
+    public void pause() {
+        paused = true;
+    }
+
+    /**
+     * Resumes the playback after a pause.
+     *
+     * @since v1.0.0
+     */
+    public void resume() {
+        paused = false;
+    }
+
+    /**
+     * Returns whether the playback is paused.
+     *
+     * @return  True if paused, false otherwise.
+     * @since v1.0.0
+     */
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Returns whether the trace is played in reverse.
+     *
+     * @return  True if reversed, false otherwise.
+     * @since v1.0.0
+     */
+    public boolean isReversed() {
+        return reversed;
+    }
+
+    /**
+     * Sets the direction of the playback. The step currently animated is finished in the old direction first. Ignored
+     * while the trace is streamed.
+     *
+     * @param reversed  True to undo the states, false to apply them.
+     * @since v1.0.0
+     */
+    public void setReversed(boolean reversed) {
+        if (trace instanceof StreamedTrace) {
+            return;
+        }
+        if (stepping) {
+            finishCurrentStep();
+            view.positionChanged(position);
+        }
+        this.reversed = reversed;
+    }
+
+    /**
+     * Returns the number of states of the trace applied to the displayed array.
+     *
+     * @return  The position, between 0 and the length of the trace.
+     * @since v1.0.0
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * Returns the number of states of the trace that is played.
+     *
+     * @return  The length of the trace, or 0 if the engine was stopped.
+     * @since v1.0.0
+     */
+    public long getLength() {
+        return trace == null ? 0 : trace.size();
+    }
+
+    /**
+     * Pauses the playback and applies the next state that changes the display, without animation.
+     *
+     * @since v1.0.0
+     */
+    public void stepForward() {
+        step(false);
+    }
+
+    /**
+     * Pauses the playback and undoes the previous state that changes the display, without animation. Ignored while
+     * the trace is streamed.
+     *
+     * @since v1.0.0
+     */
+    public void stepBack() {
+        step(true);
+    }
+
+    /**
+     * Pauses the playback and applies or undoes a single step. The step currently animated is finished first.
+     *
+     * @param backward  True to undo the previous step, false to apply the next one.
+     * @since v1.0.0
+     */
+    private void step(boolean backward) {
+        if (trace == null || backward && trace instanceof StreamedTrace) {
+            return;
+        }
+        pause();
+        fillTrace();
+        finishCurrentStep();
+        elapsed = 0;
+        boolean direction = reversed;
+        reversed = backward;
+        applyNextStep();
+        reversed = direction;
+        view.render();
+        view.positionChanged(position);
+    }
+
+    /**
+     * Moves the playback to the given state. The step currently animated is finished first. If the state is at most one
+     * keyframe interval away, the states in between are applied or undone one by one; otherwise, the array is rebuilt
+     * from the closest snapshot of the trace and drawn entirely. Playback continues from the new position unless it is
+     * paused. Ignored while the trace is streamed.
+     *
+     * @param step  The number of states to be applied. Is clamped between 0 and the length of the trace.
+     * @since v1.0.0
+     */
+    public void seek(long step) {
+        if (trace == null || trace instanceof StreamedTrace) {
+            return;
+        }
+        finishCurrentStep();
+        elapsed = 0;
+        long target = Math.max(0, Math.min(trace.size(), step));
+        if (Math.abs(target - position) <= trace.getKeyframeInterval()) {
+            for (; position < target; position++) {
+                applyState(position, false);
+            }
+            for (; position > target; position--) {
+                applyState(position - 1, true);
+            }
+            view.render();
+        } else {
+            view.showArray(trace.getArrayAt(target));
+            position = target;
+        }
+        view.positionChanged(position);
+    }
+
+    /**
+     * Returns the speed of the playback.
+     *
+     * @return  The speed in steps per second.
+     * @since v1.0.0
+     */
+    public double getSpeed() {
+        return 1e9 / stepNanos;
+    }
+
+    /**
+     * Sets the speed of the playback. Takes effect on the next frame, also while playing.
+     *
+     * @param speed The speed in steps per second. Is clamped between {@link #MIN_SPEED} and {@link #MAX_SPEED}.
+     * @since v1.0.0
+     */
+    public void setSpeed(double speed) {
+        stepNanos = Math.max(1, Math.round(1e9 / Math.max(MIN_SPEED, Math.min(MAX_SPEED, speed))));
+    }
+
+    /**
+     * Stops the playback and releases the trace. The current step is abandoned without being finished, so the array
+     * stays in the state before the step.
+     *
+     * @since v1.0.0
+     */
+    @Override
+    public void stop() {
+        super.stop();
+        trace = null;
+        stepping = false;
+    }
+
+    /**
+     * Advances the playback by the time passed since the previous frame. Steps are animated or applied in bulk,
+     * depending on the speed. Once the playback reaches the last state, or the first one in reverse, it pauses and the
+     * view is notified. A streamed trace is filled first.
+     *
+     * @param now   The timestamp of the current frame in nanoseconds.
+     * @since v1.0.0
+     */
+    @Override
+    public void handle(long now) {
+        long delta = lastFrame < 0 ? 0 : now - lastFrame;
+        lastFrame = now;
+        if (paused || trace == null) {
+            return;
+        }
+        elapsed += delta;
+        fillTrace();
+
+        if (stepNanos >= MIN_ANIMATED_STEP_NANOS) {
+            animateSteps();
+        } else {
+            applySteps();
+        }
+        view.positionChanged(position);
+    }
+
+    /**
+     * Finishes all steps whose time is up, begins the following ones and interpolates the step that is still running.
+     *
+     * @since v1.0.0
+     */
+    private void animateSteps() {
+        while (true) {
+            if (!stepping && !beginNextStep()) {
+                finish();
+                return;
+            }
+            if (elapsed < stepNanos) {
+                view.interpolateStep((double) elapsed / stepNanos);
+                return;
+            }
+            elapsed -= stepNanos;
+            finishCurrentStep();
+        }
+    }
+
+    /**
+     * Applies all steps due in this frame without animation and draws the resulting array once. A step that was still
+     * animated when the speed was raised is finished first. If the frame budget runs out, the remaining steps are
+     * dropped from the schedule.
+     *
+     * @since v1.0.0
+     */
+    private void applySteps() {
+        finishCurrentStep();
+        long due = elapsed / stepNanos;
+        elapsed -= due * stepNanos;
+
+        long start = System.nanoTime();
+        for (long step = 1; step <= due; step++) {
+            if (!applyNextStep()) {
+                view.render();
+                finish();
+                return;
+            }
+            if (step % BUDGET_CHECK_INTERVAL == 0 && System.nanoTime() - start > FRAME_BUDGET_NANOS) {
+                elapsed = 0;
+                break;
+            }
+        }
+        view.render();
+    }
+
+    /**
+     * Pauses the playback at the last state, or at the first one in reverse, and notifies the view. The trace is kept,
+     * so the playback can be stepped or sought afterwards. While the trace is streamed, the playback waits for further
+     * states instead.
+     *
+     * @since v1.0.0
+     */
+    private void finish() {
+        if (isStreaming()) {
+            elapsed = 0;
+            return;
+        }
+        paused = true;
+        elapsed = 0;
+        position = reversed ? 0 : trace.size();
+        view.finished();
+    }
+
+    /**
+     * Finishes the step that is currently animated, if any, and moves the position past its state.
+     *
+     * @since v1.0.0
+     */
+    private void finishCurrentStep() {
+        if (!stepping) {
+            return;
+        }
+        stepping = false;
+        view.finishStep();
+        position = reversed ? current : current + 1;
+    }
+
+    /**
+     * Returns the number of the next state in the direction of the playback that changes the display. Highlights are
+     * skipped.
+     *
+     * @return  The number of the state, or -1 if there are no more states.
+     * @since v1.0.0
+     */
+    private long nextState() {
+        if (reversed) {
+            for (long step = position - 1; step >= 0; step--) {
+                if (trace.getAction(step) != SortingAction.HIGHLIGHT) {
+                    return step;
+                }
+            }
+        } else {
+            for (long step = position; step < trace.size(); step++) {
+                if (trace.getAction(step) != SortingAction.HIGHLIGHT) {
+                    return step;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the element the given state writes in the direction of the playback: the first element when it is
+     * applied, the overwritten second element when it is undone.
+     *
+     * @param step  The number of the state.
+     * @param undo  True if the state is undone.
+     * @return  The element.
+     * @since v1.0.0
+     */
+    private int getElement(long step, boolean undo) {
+        return undo ? trace.getSecondElement(step) : trace.getFirstElement(step);
+    }
+
+    /**
+     * Begins the step of the next state in the direction of the playback.
+     *
+     * @return  True if a step began, false if there are no more states.
+     * @since v1.0.0
+     */
+    private boolean beginNextStep() {
+        long step = nextState();
+        if (step < 0) {
+            return false;
+        }
+        current = step;
+        view.beginStep(trace.getAction(step), trace.getFirstIndex(step), trace.getSecondIndex(step), getElement(step, reversed));
+        stepping = true;
+        return true;
+    }
+
+    /**
+     * Applies or undoes the next state in the direction of the playback without animation and moves the position past
+     * it.
+     *
+     * @return  True if a step was applied, false if there are no more states.
+     * @since v1.0.0
+     */
+    private boolean applyNextStep() {
+        long step = nextState();
+        if (step < 0) {
+            return false;
+        }
+        applyState(step, reversed);
+        position = reversed ? step : step + 1;
+        return true;
+    }
+
+    /**
+     * Applies or undoes the given state without animation. The position is not changed.
+     *
+     * @param step  The number of the state.
+     * @param undo  True to undo the state, false to apply it.
+     * @since v1.0.0
+     */
+    private void applyState(long step, boolean undo) {
+        SortingAction action = trace.getAction(step);
+        if (action.changesArray()) {
+            view.applyStep(action, trace.getFirstIndex(step), trace.getSecondIndex(step), getElement(step, undo));
+        }
+    }
+
+    /**
+     * Draws the steps played by a playback engine. At low speeds, a step begins, is interpolated on each frame while it
+     * runs and is finished once its time is up. At high speeds, steps are applied without drawing and the array is
+     * rendered once per frame. In reverse, the steps are the inverse of the states: a swap swaps back and a write
+     * writes the overwritten element, so the view draws them like any other step. All methods are called on the
+     * JavaFX application thread.
+     *
+     * @author Tim-Michael Krieg
+     * @version 1.0.0
+     * @since v1.0.0
+     */
+    public interface StepView {
+
+        /**
+         * Begins a step. The state of the algorithm is only valid during this call, so the view has to copy what it
+         * needs.
+         *
+         * @param action    The action of the step.
+         * @param index1    The first index of the step.
+         * @param index2    The second index of the step, or -1 if the action only has one index.
+         * @param element   The element written by the step, or the first element compared or swapped.
+         * @since v1.0.0
+         */
+        void beginStep(SortingAction action, int index1, int index2, int element);
+
+        /**
+         * Draws the current step at the given fraction of its duration.
+         *
+         * @param fraction  The fraction, between 0 inclusive and 1 exclusive.
+         * @since v1.0.0
+         */
+        void interpolateStep(double fraction);
+
+        /**
+         * Finishes the current step. Applies its change to the array and draws the result.
+         *
+         * @since v1.0.0
+         */
+        void finishStep();
+
+        /**
+         * Applies a step to the array without drawing it. The view has to remember which elements changed, so that
+         * the next call of {@link #render()} can draw them.
+         *
+         * @param action    The action of the step.
+         * @param index1    The first index of the step.
+         * @param index2    The second index of the step, or -1 if the action only has one index.
+         * @param element   The element written by the step, or the first element compared or swapped.
+         * @since v1.0.0
+         */
+        void applyStep(SortingAction action, int index1, int index2, int element);
+
+        /**
+         * Draws the elements changed by the steps applied since the previous call.
+         *
+         * @since v1.0.0
+         */
+        void render();
+
+        /**
+         * Replaces the whole displayed array after a seek and draws it.
+         *
+         * @param array The array at the new position. Is a copy and may be changed by the view.
+         * @since v1.0.0
+         */
+        void showArray(int[] array);
+
+        /**
+         * Called after the position of the playback changed, at most once per frame.
+         *
+         * @param position  The number of states applied to the displayed array.
+         * @since v1.0.0
+         */
+        void positionChanged(long position);
+
+        /**
+         * Called after the playback reached the last state, or the first one in reverse, and paused.
+         *
+         * @since v1.0.0
+         */
+        void finished();
+    }
+}
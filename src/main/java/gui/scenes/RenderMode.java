@@ -0,0 +1,44 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package gui.scenes;
+
+/**
+ * Each element of this enumeration represents a way in which the array pane draws the array.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+public enum RenderMode {
+
+    /**
+     * Each element is drawn as its own Rectangle node of the scene graph. Swaps are animated by moving the nodes. The
+     * scene graph slows down for arrays of more than a few thousand elements.
+     *
+     * @since v1.0.0
+     */
+    NODES,
+
+    /**
+     * All elements are drawn onto a single Canvas. Only the columns of the elements that changed are redrawn, so the
+     * cost of a step does not depend on the length of the array.
+     *
+     * @since v1.0.0
+     */
+    CANVAS
+}
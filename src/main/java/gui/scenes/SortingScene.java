@@ -17,8 +17,11 @@
  */
 package gui.scenes;
 
+import algorithms.AlgorithmCatalog;
+import algorithms.sorting.TraceCache;
 import gui.GUI_Utils;
 import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyDoubleProperty;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXMLLoader;
 import javafx.geometry.Insets;
@@ -29,6 +32,7 @@ import javafx.scene.layout.*;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -46,16 +50,12 @@ public class SortingScene {
      */
 
     /**
-     * List of all algorithms that can be displayed by the scene. The list is added to the combo box. It will be updated
-     * regularly to ensure that the combo box always contains the latest algorithms. In future versions, the list will
-     * be replaced by a file containing the algorithms.
+     * List of all algorithms that can be displayed by the scene. The list is added to the combo box. It contains all
+     * sorting algorithms of the algorithm catalog.
      *
      * @since v1.0.0
      */
-    private final String[] ALGORITHMS = {
-            "Bubble Sort",
-            "Soon more..."
-    };
+    private final List<String> ALGORITHMS = AlgorithmCatalog.getInstance().getNames("Sorting");
 
 
     /*
@@ -140,6 +140,92 @@ public class SortingScene {
      */
     private Button flip_align_button;
 
+    /**
+     * Toggle button that switches between drawing the array as rectangle nodes and drawing it onto a single canvas.
+     *
+     * @since v1.0.0
+     */
+    private ToggleButton canvas_button;
+
+    /**
+     * Slider setting the playback speed. Its value is the decimal logarithm of the speed in steps per second, so that
+     * it covers slow motion as well as millions of steps per second.
+     *
+     * @since v1.0.0
+     */
+    private Slider speed_slider;
+
+    /**
+     * Label showing the playback speed set by the speed slider.
+     *
+     * @since v1.0.0
+     */
+    private Label speed_label;
+
+    /**
+     * Progress bar showing the estimated progress while the trace of the algorithm is recorded. Hidden otherwise.
+     *
+     * @since v1.0.0
+     */
+    private ProgressBar progress_bar;
+
+    /**
+     * Button pausing and resuming the playback of the algorithm.
+     *
+     * @since v1.0.0
+     */
+    private Button pause_button;
+
+    /**
+     * Button undoing the previous step of the algorithm.
+     *
+     * @since v1.0.0
+     */
+    private Button step_back_button;
+
+    /**
+     * Button applying the next step of the algorithm.
+     *
+     * @since v1.0.0
+     */
+    private Button step_forward_button;
+
+    /**
+     * Toggle button switching between playing the algorithm forward and in reverse.
+     *
+     * @since v1.0.0
+     */
+    private ToggleButton reverse_button;
+
+    /**
+     * Slider showing the position of the playback in the trace of the algorithm. Dragging it seeks to another state.
+     *
+     * @since v1.0.0
+     */
+    private Slider timeline_slider;
+
+    /**
+     * Label showing the position of the playback and the number of states of the trace.
+     *
+     * @since v1.0.0
+     */
+    private Label timeline_label;
+
+    /**
+     * Whether the timeline slider is being moved by the playback rather than by the user, in which case it must not
+     * seek.
+     *
+     * @since v1.0.0
+     */
+    private boolean updating_timeline = false;
+
+    /**
+     * Label showing the hits, misses and evictions of the trace cache.
+     *
+     * @since v1.0.0
+     */
+    private Label cache_label;
+
     /**
      * Constructor initializing the stage object that the scene is added to. It further initializes the actual scene
      * with its components. The scene can then be accessed by the {@link #getScene() getScene}-method. In future
@@ -188,6 +274,8 @@ public class SortingScene {
         array_pane = new ArrayPane(this, settings_box.getWidth());
         main_pane.setCenter(array_pane);
 
+        main_pane.setBottom(createPlaybackBox());  // Add the playback controls to the bottom of the main pane
+
         return main_pane;  // Return the main pane
     }
 
@@ -265,6 +353,10 @@ public class SortingScene {
         createArrayLengthReader();      // Create the array length reader
         createReverseButton();  // Create the reverse button
         createFlipButton();  // Create the flip button
+        createCanvasButton();  // Create the canvas button
+        createSpeedSlider();  // Create the speed slider and its label
+        createProgressBar();  // Create the progress bar of the recording
+        cache_label = new Label();  // Create the trace cache label
 
         HBox h_box = new HBox();  // Create a new HBox to add all components to
         h_box.setPadding(new Insets(10, 10, 10, 10));  // Set the padding of the HBox
@@ -278,18 +370,180 @@ public class SortingScene {
         h_box.getChildren().addAll(
                 combo_box,
                 run_algo_button,
+                progress_bar,
                 text_field,
                 init_array_button,
                 shuffle_array_button,
                 rev_array_button,
-                //flip_align_button,  TODO: Fix this
-                screenshot
+                flip_align_button,
+                canvas_button,
+                speed_slider,
+                speed_label,
+                screenshot,
+                cache_label
+        );  // Add all components to the HBox
+        h_box.setStyle("-fx-background-color: #336699;");  // Set the background color of the HBox
+
+        return h_box;
+    }
+
+    /**
+     * Creates the lower portion of the scene. That is, it creates a horizontal box containing the controls of the
+     * playback: pause, step back, step forward, reverse and the timeline. They are disabled until an algorithm is
+     * displayed.
+     *
+     * @return  The HBox.
+     * @since v1.0.0
+     */
+    private HBox createPlaybackBox() {
+        pause_button = new Button("Pause");
+        pause_button.setOnAction(event -> {
+            if (array_pane.isPaused()) {
+                array_pane.resumeAlgorithm();
+            } else {
+                array_pane.pauseAlgorithm();
+            }
+            updatePauseButton();
+        });
+
+        step_back_button = new Button("Step Back");
+        step_back_button.setOnAction(event -> {
+            array_pane.stepBack();
+            updatePauseButton();
+        });
+
+        step_forward_button = new Button("Step Forward");
+        step_forward_button.setOnAction(event -> {
+            array_pane.stepForward();
+            updatePauseButton();
+        });
+
+        reverse_button = new ToggleButton("Reverse");
+        reverse_button.setOnAction(event -> array_pane.setReversed(reverse_button.isSelected()));
+
+        timeline_slider = new Slider(0, 0, 0);
+        timeline_slider.setFocusTraversable(false);
+        timeline_slider.valueProperty().addListener((observable, oldValue, newValue) -> {
+            if (!updating_timeline) {
+                array_pane.seek(Math.round(newValue.doubleValue()));
+            }
+        });
+        timeline_label = new Label();
+        disablePlayback();
+
+        HBox h_box = new HBox();  // Create a new HBox to add all components to
+        h_box.setPadding(new Insets(10, 10, 10, 10));  // Set the padding of the HBox
+        h_box.setSpacing(10);  // Set the spacing of the HBox
+        HBox.setHgrow(timeline_slider, Priority.ALWAYS);  // Let the timeline take the remaining width
+
+        h_box.getChildren().addAll(
+                pause_button,
+                step_back_button,
+                step_forward_button,
+                reverse_button,
+                timeline_slider,
+                timeline_label
         );  // Add all components to the HBox
         h_box.setStyle("-fx-background-color: #336699;");  // Set the background color of the HBox
 
         return h_box;
     }
 
+    /**
+     * Enables the playback controls for a trace of the given length, which is played forward from the current position
+     * of the playback.
+     *
+     * @param length    The number of states of the trace.
+     * @since v1.0.0
+     */
+    public void enablePlayback(long length) {
+        disablePlaybackButtons(false);
+        reverse_button.setSelected(false);
+        updatePauseButton();
+        updating_timeline = true;
+        timeline_slider.setMax(length);
+        updating_timeline = false;
+        updateTimeline(array_pane.getPlaybackPosition());
+    }
+
+    /**
+     * Enables the playback controls that work on a trace streamed from the running algorithm: pausing and stepping
+     * forward. Stepping back, reversing and seeking are enabled once the complete trace is recorded.
+     *
+     * @since v1.0.0
+     */
+    public void enableStreamedPlayback() {
+        disablePlaybackButtons(true);
+        pause_button.setDisable(false);
+        step_forward_button.setDisable(false);
+        reverse_button.setSelected(false);
+        updatePauseButton();
+        updateTimeline(0);
+    }
+
+    /**
+     * Disables the playback controls after the algorithm was stopped and clears the timeline.
+     *
+     * @since v1.0.0
+     */
+    public void disablePlayback() {
+        disablePlaybackButtons(true);
+        updating_timeline = true;
+        timeline_slider.setValue(0);
+        timeline_slider.setMax(0);
+        updating_timeline = false;
+        timeline_label.setText("");
+    }
+
+    /**
+     * Disables or enables all playback controls.
+     *
+     * @param disable   True to disable the controls, false to enable them.
+     * @since v1.0.0
+     */
+    private void disablePlaybackButtons(boolean disable) {
+        pause_button.setDisable(disable);
+        step_back_button.setDisable(disable);
+        step_forward_button.setDisable(disable);
+        reverse_button.setDisable(disable);
+        timeline_slider.setDisable(disable);
+    }
+
+    /**
+     * Moves the timeline to the given position of the playback without seeking.
+     *
+     * @param position  The number of states applied to the array.
+     * @since v1.0.0
+     */
+    public void updateTimeline(long position) {
+        updating_timeline = true;
+        timeline_slider.setValue(position);
+        updating_timeline = false;
+        if (timeline_slider.isDisable()) {
+            timeline_label.setText(String.format("%,d", position));
+        } else {
+            timeline_label.setText(String.format("%,d / %,.0f", position, timeline_slider.getMax()));
+        }
+    }
+
+    /**
+     * Called after the playback reached the end of the trace, or its start in reverse, and paused.
+     *
+     * @since v1.0.0
+     */
+    public void playbackFinished() {
+        updatePauseButton();
+    }
+
+    /**
+     * Sets the text of the pause button to the action it performs next.
+     *
+     * @since v1.0.0
+     */
+    private void updatePauseButton() {
+        pause_button.setText(array_pane.isPaused() ? "Play" : "Pause");
+    }
+
     /**
      * Creates the combo box that is used to select the algorithm for display. All available algorithms are stored in
      * the ALGORITHMS attribute. It is disabled by default until an array is initialized.
@@ -323,6 +577,7 @@ public class SortingScene {
                         array_pane.startAlgorithm();
                         disableButtons(true);
                         run_algo_button.setText("Stop");
+                        updateCacheLabel();
                     } else {
                         array_pane.stopAlgorithm();
                         disableButtons(false);
@@ -341,6 +596,7 @@ public class SortingScene {
         shuffle_array_button.setDisable(disable);
         rev_array_button.setDisable(disable);
         flip_align_button.setDisable(disable);
+        canvas_button.setDisable(disable);
         text_field.setDisable(disable);
         combo_box.setDisable(disable);
     }
@@ -365,7 +621,8 @@ public class SortingScene {
     }
 
     /**
-     * Creates the button that initializes the array with the length entered to the text field.
+     * Creates the button that initializes the array with the length entered to the text field. Arrays with more
+     * elements than the pane has pixels in width are displayed in canvas mode.
      *
      * @since v1.0.0
      */
@@ -374,7 +631,12 @@ public class SortingScene {
         init_array_button.setDisable(true);
         init_array_button.setOnAction(
                 event -> {
-                    array_pane.initArrays(Integer.parseInt(text_field.getText()));
+                    int length = Integer.parseInt(text_field.getText());
+                    if (length > array_pane.getWidth() && !canvas_button.isSelected()) {
+                        canvas_button.setSelected(true);
+                        array_pane.setRenderMode(RenderMode.CANVAS);
+                    }
+                    array_pane.initArrays(length);
 
                     combo_box.setDisable(false);
                     combo_box.setPromptText("Select algorithm");
@@ -426,6 +688,103 @@ public class SortingScene {
         );
     }
 
+    /**
+     * Creates the toggle button that switches the displayed array between node mode and canvas mode. Canvas mode keeps
+     * large arrays responsive.
+     *
+     * @since v1.0.0
+     */
+    private void createCanvasButton() {
+        canvas_button = new ToggleButton("Canvas");
+        canvas_button.setOnAction(
+                event -> array_pane.setRenderMode(canvas_button.isSelected() ? RenderMode.CANVAS : RenderMode.NODES)
+        );
+    }
+
+    /**
+     * Creates the slider that sets the playback speed and the label showing it. The slider stays enabled while an
+     * algorithm is displayed, so the speed can be changed during playback.
+     *
+     * @since v1.0.0
+     */
+    private void createSpeedSlider() {
+        speed_slider = new Slider(
+                Math.log10(PlaybackEngine.MIN_SPEED),
+                Math.log10(PlaybackEngine.MAX_SPEED),
+                Math.log10(PlaybackEngine.DEFAULT_SPEED)
+        );
+        speed_slider.setFocusTraversable(false);
+        speed_label = new Label();
+        updateSpeedLabel(PlaybackEngine.DEFAULT_SPEED);
+        speed_slider.valueProperty().addListener((observable, oldValue, newValue) -> {
+            double speed = Math.pow(10, newValue.doubleValue());
+            array_pane.setSpeed(speed);
+            updateSpeedLabel(speed);
+        });
+    }
+
+    /**
+     * Updates the label showing the playback speed.
+     *
+     * @param speed The speed in steps per second.
+     * @since v1.0.0
+     */
+    private void updateSpeedLabel(double speed) {
+        speed_label.setText(speed < 10 ? String.format("%.2f steps/s", speed) : String.format("%,.0f steps/s", speed));
+    }
+
+    /**
+     * Creates the progress bar showing the progress of recording the trace of the algorithm. It is hidden and takes no
+     * space until a recording starts.
+     *
+     * @since v1.0.0
+     */
+    private void createProgressBar() {
+        progress_bar = new ProgressBar(0);
+        progress_bar.setVisible(false);
+        progress_bar.setManaged(false);
+    }
+
+    /**
+     * Shows the progress bar bound to the given progress while the trace of the algorithm is recorded in the
+     * background. The run button stays enabled, so the recording can be stopped.
+     *
+     * @param progress  The progress, between 0 and 1, or -1 while it is unknown.
+     * @since v1.0.0
+     */
+    public void showProgress(ReadOnlyDoubleProperty progress) {
+        progress_bar.progressProperty().bind(progress);
+        progress_bar.setManaged(true);
+        progress_bar.setVisible(true);
+    }
+
+    /**
+     * Hides the progress bar after the trace was recorded or the recording was stopped.
+     *
+     * @since v1.0.0
+     */
+    public void hideProgress() {
+        progress_bar.progressProperty().unbind();
+        progress_bar.setVisible(false);
+        progress_bar.setManaged(false);
+    }
+
+    /**
+     * Shows a dialog telling the user that the trace of the given algorithm could not be recorded, together with the
+     * message of the error.
+     *
+     * @param algorithm The name of the algorithm.
+     * @param error The error the recording failed with.
+     * @since v1.0.0
+     */
+    public void showRecordingError(String algorithm, Throwable error) {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle("Recording failed");
+        alert.setHeaderText(algorithm + " failed while its trace was recorded.");
+        alert.setContentText(error == null ? "Unknown error." : error.toString());
+        alert.show();
+    }
+
     /**
      * Called after the algorithm finished or was stopped. Enables all buttons and sets the run button text to "Run".
      *
@@ -434,6 +793,19 @@ public class SortingScene {
     public void resetAlgo() {
         run_algo_button.setText("Run");
         disableButtons(false);
+        updateCacheLabel();
+    }
+
+    /**
+     * Updates the label showing the counters of the trace cache.
+     *
+     * @since v1.0.0
+     */
+    private void updateCacheLabel() {
+        TraceCache cache = array_pane.getTraceCache();
+        cache_label.setText(
+                String.format("Cache: %d hits, %d misses, %d evictions", cache.getHits(), cache.getMisses(), cache.getEvictions())
+        );
     }
 
 }
@@ -0,0 +1,125 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms;
+
+import algorithms.sorting.SortingAlgorithm;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the algorithm catalog: discovering the providers on the class path, finding algorithms by name and creating
+ * them.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+class AlgorithmCatalogTest {
+
+    /**
+     * The names of the sorting algorithms registered in the service file, in the order of the file.
+     *
+     * @since v1.0.0
+     */
+    private static final List<String> SORTING_ALGORITHMS = List.of(
+            "Bubble Sort", "Quick Sort", "Heap Sort", "Merge Sort", "Intro Sort", "Counting Sort", "LSD Radix Sort", "MSD Radix Sort", "Parallel Merge Sort"
+    );
+
+    /**
+     * A provider describing an algorithm whose class is not on the class path.
+     *
+     * @author Tim-Michael Krieg
+     * @version 1.0.0
+     * @since v1.0.0
+     */
+    private static class MissingProvider extends AlgorithmProvider.Base {
+
+        /**
+         * Constructor describing the missing algorithm.
+         *
+         * @since v1.0.0
+         */
+        MissingProvider() {
+            super("Missing Sort", "sorting", "O(1)", "algorithms.sorting.missing.MissingSort");
+        }
+    }
+
+    /**
+     * All providers registered in the service file are discovered once, in the order of the file, and each of them
+     * creates the algorithm it describes.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void discoversRegisteredProviders() {
+        AlgorithmCatalog catalog = AlgorithmCatalog.getInstance();
+        assertSame(catalog, AlgorithmCatalog.getInstance());
+        assertEquals(SORTING_ALGORITHMS, catalog.getNames("Sorting"));
+        assertEquals(SORTING_ALGORITHMS, catalog.getNames("sorting"));
+        assertEquals(List.of(), catalog.getNames("Graph"));
+        assertEquals(SORTING_ALGORITHMS.size(), new HashSet<>(catalog.getProviders()).size());
+
+        int[] array = {3, 1, 2};
+        for (AlgorithmProvider provider : catalog.getProviders("Sorting")) {
+            SortingAlgorithm algorithm = provider.createSortingAlgorithm(array);
+            assertEquals(provider.getName(), algorithm.getName());
+            assertEquals(provider.getType(), algorithm.getType());
+            assertEquals(provider.getClassName(), algorithm.getClass().getName());
+            assertTrue(provider.isTraced(), provider.getName());
+            algorithm.sort();
+            assertArrayEquals(new int[] {1, 2, 3}, algorithm.getArray(), provider.getName());
+            assertArrayEquals(new int[] {3, 1, 2}, array, provider.getName());
+        }
+    }
+
+    /**
+     * Names are found regardless of case and spaces, and unknown names are not found.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void findIgnoresCaseAndSpaces() {
+        AlgorithmCatalog catalog = AlgorithmCatalog.getInstance();
+        assertEquals("Bubble Sort", catalog.find("bubblesort").getName());
+        assertEquals("LSD Radix Sort", catalog.find("lsd radix SORT").getName());
+        assertEquals("Parallel Merge Sort", catalog.find("ParallelMergeSort").getName());
+        assertNull(catalog.find("Slow Sort"));
+        assertNull(catalog.find("Bubble"));
+
+        assertEquals("Heap Sort", catalog.createSortingAlgorithm("heapsort", new int[] {2, 1}).getName());
+        assertThrows(IllegalArgumentException.class, () -> catalog.createSortingAlgorithm("Slow Sort", new int[] {2, 1}));
+    }
+
+    /**
+     * A catalog can be built from any providers, and a provider whose class is missing fails only when an algorithm is
+     * created.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void missingClassFailsOnCreation() {
+        AlgorithmCatalog catalog = new AlgorithmCatalog(List.of(new MissingProvider()));
+        assertEquals(List.of("Missing Sort"), catalog.getNames("Sorting"));
+        assertEquals("[Missing Sort]", catalog.toString());
+        assertThrows(IllegalStateException.class, () -> catalog.createSortingAlgorithm("missingsort", new int[] {1}));
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the operation counters of an algorithm run.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+class MetricsTest {
+
+    /**
+     * Looking up a predefined counter by name returns its field, so both count into the same counter.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void predefinedCountersAreFoundByName() {
+        Metrics metrics = new Metrics();
+        assertSame(metrics.comparisons, metrics.counter(Metrics.COMPARISONS));
+        assertSame(metrics.swaps, metrics.counter(Metrics.SWAPS));
+        assertSame(metrics.reads, metrics.counter(Metrics.READS));
+        assertSame(metrics.writes, metrics.counter(Metrics.WRITES));
+
+        metrics.comparisons.add(3);
+        metrics.counter(Metrics.COMPARISONS).increment();
+        assertEquals(4L, metrics.get(Metrics.COMPARISONS));
+    }
+
+    /**
+     * Registered counters are created once and are 0 until counted. Unknown counters read as 0.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void registeredCountersAreCreatedOnce() {
+        Metrics metrics = new Metrics();
+        assertEquals(0L, metrics.get("buckets"));
+        assertSame(metrics.counter("buckets"), metrics.counter("buckets"));
+        metrics.counter("buckets").add(5);
+        assertEquals(5L, metrics.get("buckets"));
+    }
+
+    /**
+     * The snapshot lists the predefined counters first and the registered counters by name, and is not updated
+     * afterwards.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void snapshotHasAFixedOrder() {
+        Metrics metrics = new Metrics();
+        metrics.counter("passes").increment();
+        metrics.counter("buckets").add(2);
+        metrics.writes.add(7);
+
+        Map<String, Long> snapshot = metrics.snapshot();
+        assertEquals(List.of(Metrics.COMPARISONS, Metrics.SWAPS, Metrics.READS, Metrics.WRITES, "buckets", "passes"), List.copyOf(snapshot.keySet()));
+        assertEquals(7L, (long) snapshot.get(Metrics.WRITES));
+
+        metrics.writes.increment();
+        assertEquals(7L, (long) snapshot.get(Metrics.WRITES));
+    }
+
+    /**
+     * Resetting sets all counters to 0 but keeps the registered counters.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void resetKeepsRegisteredCounters() {
+        Metrics metrics = new Metrics();
+        metrics.swaps.add(4);
+        metrics.counter("buckets").add(2);
+        metrics.reset();
+
+        assertEquals(0L, metrics.get(Metrics.SWAPS));
+        assertEquals(0L, metrics.get("buckets"));
+        assertTrue(metrics.snapshot().containsKey("buckets"));
+    }
+
+    /**
+     * Counting from several threads at once loses no increments, also while counters are being registered.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void concurrentCountsAreNotLost() {
+        Metrics metrics = new Metrics();
+        IntStream.range(0, 8).parallel().forEach(thread -> {
+            for (int i = 0; i < 10_000; i++) {
+                metrics.comparisons.increment();
+                metrics.counter("custom-" + (i % 16)).increment();
+            }
+        });
+        assertEquals(80_000L, metrics.get(Metrics.COMPARISONS));
+        long custom = metrics.snapshot().entrySet().stream().filter(entry -> entry.getKey().startsWith("custom-")).mapToLong(Map.Entry::getValue).sum();
+        assertEquals(80_000L, custom);
+    }
+}
@@ -0,0 +1,130 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms;
+
+import algorithms.sorting.SortingAlgorithm;
+import algorithms.sorting.TraceMode;
+import algorithms.sorting.bubblesort.BubbleSort;
+import algorithms.sorting.workload.WorkloadGenerator;
+import algorithms.sorting.workload.WorkloadShape;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the keyframe index of state machines, which seeks any state by walking at most one keyframe interval.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+class StateMachineTest {
+
+    /**
+     * Records a full trace of Bubble sort on a shuffled array of the given length.
+     *
+     * @param length    The length of the array.
+     * @return  The state machine.
+     * @since v1.0.0
+     */
+    private static StateMachine record(int length) {
+        SortingAlgorithm algorithm = new BubbleSort(new WorkloadGenerator(3).generate(WorkloadShape.SHUFFLED, length));
+        algorithm.setTraceMode(TraceMode.FULL);
+        return algorithm.getStateMachine();
+    }
+
+    /**
+     * Returns the states of the given state machine in order.
+     *
+     * @param machine   The state machine.
+     * @return  The states.
+     * @since v1.0.0
+     */
+    private static List<State> states(StateMachine machine) {
+        List<State> states = new ArrayList<>();
+        machine.forEach(states::add);
+        return states;
+    }
+
+    /**
+     * Seeking returns the same state as iterating, for the default interval and for intervals that do and do not
+     * divide the number of states.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void seekFindsEveryState() {
+        StateMachine machine = record(60);
+        List<State> states = states(machine);
+        assertEquals(machine.size(), states.size());
+        assertTrue(states.size() > 2 * StateMachine.DEFAULT_KEYFRAME_INTERVAL);
+
+        for (int interval : new int[] {StateMachine.DEFAULT_KEYFRAME_INTERVAL, 1, 7, states.size(), states.size() + 1}) {
+            machine.setKeyframeInterval(interval);
+            assertEquals(interval, machine.getKeyframeInterval());
+            for (int step = 0; step < states.size(); step++) {
+                assertSame(states.get(step), machine.seek(step), "state " + step + " with interval " + interval);
+            }
+        }
+    }
+
+    /**
+     * Every state whose number is a multiple of the keyframe interval is a keyframe.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void keyframesAreEveryIntervalStates() {
+        StateMachine machine = record(10);
+        machine.setKeyframeInterval(5);
+        assertTrue(machine.isKeyframe(0));
+        assertFalse(machine.isKeyframe(4));
+        assertTrue(machine.isKeyframe(5));
+        assertTrue(machine.isKeyframe(10));
+    }
+
+    /**
+     * Seeking outside the states and non-positive keyframe intervals are rejected.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void rejectsInvalidArguments() {
+        StateMachine machine = record(10);
+        assertThrows(IndexOutOfBoundsException.class, () -> machine.seek(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> machine.seek(machine.size()));
+        assertThrows(IllegalArgumentException.class, () -> machine.setKeyframeInterval(0));
+    }
+
+    /**
+     * Clearing the state machine removes all states and keyframes.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void clearRemovesAllStates() {
+        StateMachine machine = record(10);
+        machine.clear();
+        assertEquals(0L, machine.size());
+        assertFalse(machine.iterator().hasNext());
+        assertThrows(IndexOutOfBoundsException.class, () -> machine.seek(0));
+    }
+}
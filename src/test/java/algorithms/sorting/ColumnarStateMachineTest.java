@@ -0,0 +1,146 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting;
+
+import algorithms.State;
+import datastructure.Pair;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the columnar state machine: storing states across chunk boundaries, converting state objects into columns and
+ * clearing the columns.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+class ColumnarStateMachineTest {
+
+    /**
+     * The number of states in a chunk of the columnar state machine.
+     *
+     * @since v1.0.0
+     */
+    private static final int CHUNK_SIZE = 1 << 14;
+
+    /**
+     * Every column of every state reads back as appended, also across the boundaries of the chunks and after the outer
+     * arrays have grown.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void columnsSurviveChunkBoundaries() {
+        int states = 5 * CHUNK_SIZE + 3;
+        ColumnarStateMachine trace = new ColumnarStateMachine(new int[] {0, 1, 2, 3});
+        for (int i = 0; i < states; i++) {
+            trace.append(SortingAction.values()[i % SortingAction.values().length], i % 4, (i + 1) % 4, i, -i, i / 2, 10L * i);
+        }
+
+        assertEquals(states, trace.size());
+        for (int i = 0; i < states; i += i % CHUNK_SIZE == CHUNK_SIZE - 2 ? 1 : 97) {
+            assertEquals(SortingAction.values()[i % SortingAction.values().length], trace.getAction(i), "state " + i);
+            assertEquals(i % 4, trace.getFirstIndex(i), "state " + i);
+            assertEquals((i + 1) % 4, trace.getSecondIndex(i), "state " + i);
+            assertEquals(i, trace.getFirstElement(i), "state " + i);
+            assertEquals(-i, trace.getSecondElement(i), "state " + i);
+            assertEquals(i / 2, trace.getIteration(i), "state " + i);
+            assertEquals(10L * i, trace.getTimeNanos(i), "state " + i);
+        }
+        assertEquals(SortingAction.values()[(states - 1) % SortingAction.values().length], trace.getAction(states - 1));
+    }
+
+    /**
+     * Appending a state object stores its columns, with the time converted to nanoseconds, and replays like the state
+     * itself.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void appendStoresColumnsOfState() {
+        int[] initial = {3, 1, 2};
+        ColumnarStateMachine trace = new ColumnarStateMachine(initial.clone());
+        trace.append(SortingState.comparison(1, 0.5, 1, null, new Pair<>(0, 1), new Pair<>(3, 1)));
+        trace.append(SortingState.swap(2, 0.75, 1, null, null, new Pair<>(0, 1), new Pair<>(3, 1)));
+        trace.append(SortingState.write(3, 1.0, 2, null, null, 2, 7, 2));
+
+        assertEquals(3, trace.size());
+        assertEquals(SortingAction.COMPARE, trace.getAction(0));
+        assertEquals(500_000_000L, trace.getTimeNanos(0));
+        assertEquals(SortingAction.SWAP, trace.getAction(1));
+        assertEquals(1, trace.getSecondIndex(1));
+        assertEquals(SortingAction.WRITE, trace.getAction(2));
+        assertEquals(2, trace.getFirstIndex(2));
+        assertEquals(7, trace.getFirstElement(2));
+        assertEquals(2, trace.getSecondElement(2));
+        assertEquals(2, trace.getIteration(2));
+        assertEquals(1_000_000_000L, trace.getTimeNanos(2));
+
+        int[] array = initial.clone();
+        for (long step = 0; step < trace.size(); step++) {
+            trace.applyTo(step, array);
+        }
+        assertArrayEquals(new int[] {1, 3, 7}, array);
+        assertArrayEquals(new int[] {1, 3, 7}, trace.getArrayAt(trace.size()));
+        for (long step = trace.size() - 1; step >= 0; step--) {
+            trace.undo(step, array);
+        }
+        assertArrayEquals(initial, array);
+    }
+
+    /**
+     * Only sorting states can be stored.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void appendRejectsOtherStates() {
+        ColumnarStateMachine trace = new ColumnarStateMachine(new int[] {1});
+        State state = new State(1, 0, 0) {
+            @Override
+            public String toString() {
+                return "State";
+            }
+        };
+        assertThrows(IllegalArgumentException.class, () -> trace.append(state));
+        assertEquals(0, trace.size());
+    }
+
+    /**
+     * Clearing drops all states, and the state machine can be filled again afterwards.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void clearDropsAllStates() {
+        ColumnarStateMachine trace = new ColumnarStateMachine(new int[] {2, 1});
+        for (int i = 0; i < CHUNK_SIZE + 1; i++) {
+            trace.append(SortingAction.COMPARE, 0, 1, 2, 1, i, i);
+        }
+        trace.clear();
+        assertEquals(0, trace.size());
+        assertEquals(2 * Integer.BYTES, trace.getEstimatedBytes());
+
+        trace.append(SortingAction.SWAP, 0, 1, 2, 1, 1, 5);
+        assertEquals(1, trace.size());
+        assertEquals(SortingAction.SWAP, trace.getAction(0));
+        assertArrayEquals(new int[] {1, 2}, trace.getArrayAt(1));
+    }
+}
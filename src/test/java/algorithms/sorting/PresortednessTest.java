@@ -0,0 +1,147 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting;
+
+import algorithms.sorting.workload.WorkloadGenerator;
+import algorithms.sorting.workload.WorkloadShape;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the measures of presortedness against straightforward quadratic computations, on sequential and parallel
+ * computation and on the edge cases of empty, sorted and reversed arrays.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+class PresortednessTest {
+
+    /**
+     * Computes the measures of the given array by comparing all pairs of elements.
+     *
+     * @param array The array.
+     * @return  The measures.
+     * @since v1.0.0
+     */
+    private static Presortedness bruteForce(int[] array) {
+        int n = array.length;
+        long inversions = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                if (array[i] > array[j]) {
+                    inversions++;
+                }
+            }
+        }
+
+        int runs = n == 0 ? 0 : 1;
+        for (int i = 1; i < n; i++) {
+            if (array[i - 1] > array[i]) {
+                runs++;
+            }
+        }
+
+        int[] lengths = new int[n];
+        int longest = 0;
+        for (int i = 0; i < n; i++) {
+            lengths[i] = 1;
+            for (int j = 0; j < i; j++) {
+                if (array[j] < array[i]) {
+                    lengths[i] = Math.max(lengths[i], lengths[j] + 1);
+                }
+            }
+            longest = Math.max(longest, lengths[i]);
+        }
+
+        Integer[] order = IntStream.range(0, n).boxed().sorted(Comparator.comparingInt(i -> array[i])).toArray(Integer[]::new);
+        int displacement = 0;
+        for (int position = 0; position < n; position++) {
+            displacement = Math.max(displacement, Math.abs(position - order[position]));
+        }
+
+        return new Presortedness(n, inversions, runs, longest, displacement);
+    }
+
+    /**
+     * The measures of random arrays with duplicates and negative elements match the quadratic computation, both
+     * sequentially and in parallel, and the array is not changed.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void matchesBruteForce() {
+        SplittableRandom random = new SplittableRandom(11);
+        for (int length : new int[] {2, 3, 31, 32, 33, 100, 777}) {
+            for (int bound : new int[] {2, 10, 1000}) {
+                int[] array = random.ints(length, -bound, bound).toArray();
+                int[] copy = array.clone();
+                Presortedness expected = bruteForce(array);
+                assertEquals(expected, Presortedness.of(array), Arrays.toString(array));
+                assertEquals(expected, Presortedness.of(array, true), Arrays.toString(array));
+                assertArrayEquals(copy, array);
+            }
+        }
+    }
+
+    /**
+     * Parallel computation yields the same measures as sequential computation on arrays split into many tasks.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void parallelMatchesSequential() {
+        WorkloadGenerator generator = new WorkloadGenerator(3);
+        for (WorkloadShape shape : WorkloadShape.values()) {
+            int[] array = generator.generate(shape, 100_000);
+            assertEquals(Presortedness.of(array), Presortedness.of(array, true), shape.name());
+        }
+    }
+
+    /**
+     * Empty, single, sorted, constant and reversed arrays have the extreme values of each measure.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void edgeCases() {
+        assertEquals(new Presortedness(0, 0, 0, 0, 0), Presortedness.of(new int[0]));
+        assertEquals(new Presortedness(1, 0, 1, 1, 0), Presortedness.of(new int[] {5}));
+
+        Presortedness sorted = Presortedness.of(IntStream.range(0, 1000).toArray());
+        assertEquals(new Presortedness(1000, 0, 1, 1000, 0), sorted);
+        assertEquals(1, sorted.kendallTau(), 0);
+        assertEquals(1, sorted.sortedShare(), 0);
+
+        Presortedness constant = Presortedness.of(new int[100]);
+        assertEquals(new Presortedness(100, 0, 1, 1, 0), constant);
+        assertEquals(1, constant.kendallTau(), 0);
+
+        Presortedness reversed = Presortedness.of(IntStream.range(0, 1000).map(i -> 999 - i).toArray(), true);
+        assertEquals(new Presortedness(1000, 999L * 1000 / 2, 1000, 1, 999), reversed);
+        assertEquals(reversed.maxInversions(), reversed.inversions());
+        assertEquals(-1, reversed.kendallTau(), 0);
+        assertEquals(0.001, reversed.sortedShare(), 1e-12);
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting;
+
+import algorithms.AlgorithmCatalog;
+import algorithms.sorting.workload.WorkloadGenerator;
+import algorithms.sorting.workload.WorkloadShape;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that every sorting algorithm of the catalog sorts edge inputs and arrays of every workload shape, both when
+ * sorting without tracing and when counting its operations.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+class SortingAlgorithmsTest {
+
+    /**
+     * Returns the edge inputs: empty and single element arrays, pairs, equal elements, duplicates, negative elements,
+     * the extremes of the int range, and sorted and reversed arrays.
+     *
+     * @return  The arrays.
+     * @since v1.0.0
+     */
+    static List<int[]> edgeInputs() {
+        List<int[]> inputs = new ArrayList<>(List.of(
+                new int[0],
+                new int[] {1},
+                new int[] {1, 2},
+                new int[] {2, 1},
+                new int[] {7, 7, 7, 7, 7},
+                new int[] {3, 1, 3, 2, 1, 3, 2},
+                new int[] {-5, 3, 0, -1, -5, 8, -100},
+                new int[] {Integer.MAX_VALUE, Integer.MIN_VALUE, 0, Integer.MAX_VALUE, -1, Integer.MIN_VALUE}
+        ));
+        int[] sorted = new int[100];
+        int[] reversed = new int[100];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = i;
+            reversed[i] = sorted.length - i;
+        }
+        inputs.add(sorted);
+        inputs.add(reversed);
+        return inputs;
+    }
+
+    /**
+     * Asserts that the algorithm with the given name sorts the given array, with and without counting its operations.
+     *
+     * @param name  The name of the algorithm.
+     * @param array The array to be sorted.
+     * @since v1.0.0
+     */
+    static void assertSorts(String name, int[] array) {
+        int[] expected = array.clone();
+        Arrays.sort(expected);
+
+        SortingAlgorithm algorithm = AlgorithmCatalog.getInstance().createSortingAlgorithm(name, array.clone());
+        algorithm.sort();
+        assertArrayEquals(expected, algorithm.getArray(), name + " on " + Arrays.toString(array));
+
+        SortingAlgorithm counted = AlgorithmCatalog.getInstance().createSortingAlgorithm(name, array.clone());
+        counted.count();
+        assertArrayEquals(expected, counted.getArray(), name + " counting on " + Arrays.toString(array));
+    }
+
+    /**
+     * Every algorithm sorts the edge inputs.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void sortsEdgeInputs() {
+        for (String name : AlgorithmCatalog.getInstance().getNames("Sorting")) {
+            for (int[] array : edgeInputs()) {
+                assertSorts(name, array);
+            }
+        }
+    }
+
+    /**
+     * Every algorithm sorts arrays of every workload shape, with lengths around the thresholds of the hybrid
+     * algorithms.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void sortsAllShapes() {
+        WorkloadGenerator generator = new WorkloadGenerator(15);
+        for (String name : AlgorithmCatalog.getInstance().getNames("Sorting")) {
+            for (WorkloadShape shape : WorkloadShape.values()) {
+                for (int length : new int[] {15, 16, 17, 33, 1000}) {
+                    assertSorts(name, generator.generate(shape, length));
+                }
+            }
+        }
+    }
+
+    /**
+     * The parallel Merge sort sorts arrays long enough to be split among several threads.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void sortsInParallel() {
+        WorkloadGenerator generator = new WorkloadGenerator(15);
+        for (WorkloadShape shape : WorkloadShape.values()) {
+            assertSorts("Parallel Merge Sort", generator.generate(shape, 50_000));
+        }
+    }
+
+    /**
+     * Counting the operations of an algorithm does not record states, and a comparison sort compares at least once
+     * per element but the first on a reversed array.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void countsComparisons() {
+        int[] reversed = new WorkloadGenerator(15).generate(WorkloadShape.REVERSED, 64);
+        for (String name : List.of("Bubble Sort", "Quick Sort", "Heap Sort", "Merge Sort", "Intro Sort")) {
+            SortingAlgorithm algorithm = AlgorithmCatalog.getInstance().createSortingAlgorithm(name, reversed.clone());
+            algorithm.count();
+            assertTrue(algorithm.getTotalComparisons() >= reversed.length - 1, name + " compared " + algorithm.getTotalComparisons() + " times");
+        }
+    }
+}
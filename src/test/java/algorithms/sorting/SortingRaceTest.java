@@ -0,0 +1,122 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting;
+
+import algorithms.AlgorithmCatalog;
+import algorithms.sorting.workload.WorkloadGenerator;
+import algorithms.sorting.workload.WorkloadShape;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the sorting race: the results are ranked by time, the counts of each algorithm do not depend on the other
+ * algorithms running at the same time, and the array of the race is not changed.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+class SortingRaceTest {
+
+    /**
+     * The algorithms taking part in the races, including the parallel algorithm.
+     *
+     * @since v1.0.0
+     */
+    private static final List<String> ALGORITHMS = List.of("Merge Sort", "Parallel Merge Sort", "Quick Sort", "Heap Sort");
+
+    /**
+     * Returns the summaries of the given results by the name of the algorithm.
+     *
+     * @param results   The results.
+     * @return  The summaries by name.
+     * @since v1.0.0
+     */
+    private static Map<String, SortingSummary> summaries(List<SortingRace.Result> results) {
+        return results.stream().collect(Collectors.toMap(SortingRace.Result::name, SortingRace.Result::summary));
+    }
+
+    /**
+     * The results are ranked from 1 by ascending time, and each algorithm takes part exactly once.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void resultsAreRankedByTime() {
+        int[] array = new WorkloadGenerator(21).generate(WorkloadShape.SHUFFLED, 20_000);
+        int[] original = array.clone();
+        SortingRace race = new SortingRace(ALGORITHMS);
+        race.setWarmupRuns(1);
+        List<SortingRace.Result> results = race.run(array);
+
+        assertArrayEquals(original, array);
+        assertEquals(ALGORITHMS.size(), results.size());
+        assertEquals(new HashSet<>(ALGORITHMS), results.stream().map(SortingRace.Result::name).collect(Collectors.toSet()));
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i + 1, results.get(i).rank());
+            assertTrue(results.get(i).time() > 0, results.get(i).name());
+            if (i > 0) {
+                assertTrue(results.get(i - 1).time() <= results.get(i).time());
+            }
+        }
+    }
+
+    /**
+     * The algorithms run one after another by default, and running them at the same time gives each algorithm the
+     * same counts as running it alone, which are the counts of the algorithm sorting the array by itself.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void runsAreIsolated() {
+        int[] array = new WorkloadGenerator(22).generate(WorkloadShape.SHUFFLED, 20_000);
+        SortingRace sequential = new SortingRace(ALGORITHMS);
+        assertEquals(1, sequential.getParallelism());
+        SortingRace concurrent = new SortingRace(ALGORITHMS);
+        concurrent.setParallelism(ALGORITHMS.size());
+
+        Map<String, SortingSummary> alone = summaries(sequential.run(array));
+        Map<String, SortingSummary> together = summaries(concurrent.run(array));
+        for (String name : ALGORITHMS) {
+            SortingAlgorithm algorithm = AlgorithmCatalog.getInstance().createSortingAlgorithm(name, array);
+            algorithm.count();
+            assertEquals(algorithm.getTotalComparisons(), alone.get(name).getTotalComparisons(), name);
+            assertEquals(algorithm.getTotalSwaps(), alone.get(name).getTotalSwaps(), name);
+            assertEquals(alone.get(name).getTotalComparisons(), together.get(name).getTotalComparisons(), name);
+            assertEquals(alone.get(name).getTotalSwaps(), together.get(name).getTotalSwaps(), name);
+        }
+    }
+
+    /**
+     * Invalid parallelisms and numbers of warmup runs are rejected.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void rejectsInvalidSettings() {
+        SortingRace race = new SortingRace(ALGORITHMS);
+        assertThrows(IllegalArgumentException.class, () -> race.setParallelism(0));
+        assertThrows(IllegalArgumentException.class, () -> race.setWarmupRuns(-1));
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting;
+
+import algorithms.sorting.workload.WorkloadGenerator;
+import algorithms.sorting.workload.WorkloadShape;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests random access into columnar traces: rebuilding the array at any state from the closest snapshot, moving
+ * cursors and walking back with undo.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+class SortingTraceTest {
+
+    /**
+     * Returns the arrays before each state and after the last one, replayed from the initial array.
+     *
+     * @param trace The trace.
+     * @return  The arrays, indexed by the number of the state.
+     * @since v1.0.0
+     */
+    private static int[][] replay(SortingTrace trace) {
+        int[][] arrays = new int[(int) trace.size() + 1][];
+        int[] array = trace.getInitialArray().clone();
+        for (int step = 0; step < trace.size(); step++) {
+            arrays[step] = array.clone();
+            trace.applyTo(step, array);
+        }
+        arrays[(int) trace.size()] = array;
+        return arrays;
+    }
+
+    /**
+     * The array at every state equals the replayed array, for several keyframe intervals and in any order of access.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void getArrayAtMatchesReplay() {
+        ColumnarStateMachine trace = TraceCodecTest.record("Merge Sort", new WorkloadGenerator(5).generate(WorkloadShape.RANDOM, 300));
+        int[][] expected = replay(trace);
+
+        for (int interval : new int[] {1, 13, 1024, (int) trace.size() + 5}) {
+            trace.setKeyframeInterval(interval);
+            for (int step = (int) trace.size(); step >= 0; step -= 11) {
+                assertArrayEquals(expected[step], trace.getArrayAt(step), "state " + step + " with interval " + interval);
+            }
+            for (int step = 0; step <= trace.size(); step += 17) {
+                assertArrayEquals(expected[step], trace.getArrayAt(step), "state " + step + " with interval " + interval);
+            }
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> trace.getArrayAt(trace.size() + 1));
+    }
+
+    /**
+     * A cursor moved to a state describes that state, and its arrays are the arrays before and after the state.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void seekMovesCursorToState() {
+        ColumnarStateMachine trace = TraceCodecTest.record("Heap Sort", new WorkloadGenerator(5).generate(WorkloadShape.SHUFFLED, 100));
+        int[][] expected = replay(trace);
+
+        for (long step = trace.size() - 1; step >= 0; step -= 29) {
+            SortingTrace.Cursor cursor = trace.seek(step);
+            assertEquals(step, cursor.getStep());
+            assertEquals(step + 1, cursor.getId());
+            assertEquals(trace.getAction(step), cursor.getAction());
+            assertEquals(trace.getFirstIndex(step), cursor.getFirstIndex());
+            assertEquals(trace.getSecondIndex(step), cursor.getSecondIndex());
+            assertArrayEquals(expected[(int) step], cursor.getArrayBefore());
+            if (cursor.getAction().changesArray()) {
+                assertArrayEquals(expected[(int) step + 1], cursor.getArrayAfter());
+            }
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> trace.seek(trace.size()));
+    }
+
+    /**
+     * Undoing the states from the sorted array backwards yields the array before each state, up to the initial array.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void undoWalksBackToInitialArray() {
+        for (String name : new String[] {"Quick Sort", "Counting Sort", "LSD Radix Sort", "Parallel Merge Sort"}) {
+            ColumnarStateMachine trace = TraceCodecTest.record(name, new WorkloadGenerator(5).generate(WorkloadShape.FEW_UNIQUE, 200));
+            int[][] expected = replay(trace);
+            int[] array = trace.getArrayAt(trace.size());
+            for (long step = trace.size() - 1; step >= 0; step--) {
+                trace.undo(step, array);
+                assertArrayEquals(expected[(int) step], array, name + " at state " + step);
+            }
+        }
+    }
+}
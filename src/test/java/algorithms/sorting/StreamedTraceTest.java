@@ -0,0 +1,109 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting;
+
+import algorithms.AlgorithmCatalog;
+import algorithms.StateStream;
+import algorithms.sorting.workload.WorkloadGenerator;
+import algorithms.sorting.workload.WorkloadShape;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the streamed trace: its states equal the recorded trace while only a window of them is kept, and closing it
+ * stops the streaming algorithm.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+class StreamedTraceTest {
+
+    /**
+     * Starts streaming the states of the given algorithm on the given array.
+     *
+     * @param algorithmName The name of the algorithm.
+     * @param array The array to be sorted.
+     * @param capacity  The maximum number of states produced ahead.
+     * @param window    The number of states kept by the trace.
+     * @return  The streamed trace.
+     * @since v1.0.0
+     */
+    private static StreamedTrace stream(String algorithmName, int[] array, int capacity, int window) {
+        SortingAlgorithm algorithm = AlgorithmCatalog.getInstance().createSortingAlgorithm(algorithmName, array);
+        algorithm.setTraceMode(TraceMode.COLUMNAR);
+        return new StreamedTrace(array.clone(), algorithm.streamStateMachine(capacity), window);
+    }
+
+    /**
+     * Reading the streamed trace forward gives the states of the recorded trace, and states that left the window are
+     * gone.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void streamedStatesMatchRecordedTrace() {
+        int[] array = new WorkloadGenerator(31).generate(WorkloadShape.SHUFFLED, 2000);
+        ColumnarStateMachine recorded = TraceCodecTest.record("Quick Sort", array);
+
+        long step = 0;
+        try (StreamedTrace streamed = stream("Quick Sort", array, 64, 256)) {
+            while (!streamed.isComplete() || step < streamed.size()) {
+                streamed.fill(step);
+                for (; step < streamed.size(); step++) {
+                    assertEquals(recorded.getAction(step), streamed.getAction(step), "action of state " + step);
+                    assertEquals(recorded.getFirstIndex(step), streamed.getFirstIndex(step), "first index of state " + step);
+                    assertEquals(recorded.getSecondIndex(step), streamed.getSecondIndex(step), "second index of state " + step);
+                    assertEquals(recorded.getFirstElement(step), streamed.getFirstElement(step), "first element of state " + step);
+                    assertEquals(recorded.getSecondElement(step), streamed.getSecondElement(step), "second element of state " + step);
+                    assertEquals(recorded.getIteration(step), streamed.getIteration(step), "iteration of state " + step);
+                }
+                Thread.onSpinWait();
+            }
+            assertEquals(recorded.size(), streamed.size());
+            assertThrows(IndexOutOfBoundsException.class, () -> streamed.getAction(0));
+        }
+    }
+
+    /**
+     * Closing the trace stops the algorithm, which never runs more than the capacity of the stream ahead.
+     *
+     * @throws InterruptedException Not expected.
+     * @since v1.0.0
+     */
+    @Test
+    void closingStopsAlgorithm() throws InterruptedException {
+        int[] array = new WorkloadGenerator(32).generate(WorkloadShape.REVERSED, 2000);
+        SortingAlgorithm algorithm = AlgorithmCatalog.getInstance().createSortingAlgorithm("Bubble Sort", array);
+        algorithm.setTraceMode(TraceMode.COLUMNAR);
+        StateStream stream = algorithm.streamStateMachine(16);
+        for (int i = 0; i < 100 && stream.size() < 16; i++) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(50);
+        assertEquals(16L, stream.size());
+
+        StreamedTrace streamed = new StreamedTrace(array.clone(), stream, 1024);
+        streamed.fill(0);
+        assertFalse(streamed.isComplete());
+        streamed.close();
+        streamed.fill(0);
+        assertTrue(streamed.isComplete());
+    }
+}
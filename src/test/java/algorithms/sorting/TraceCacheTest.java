@@ -0,0 +1,148 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting;
+
+import algorithms.AlgorithmCatalog;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the cache of traces: lookups by algorithm and array, least recently used eviction within the byte budget, and
+ * the counters of hits, misses and evictions.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+class TraceCacheTest {
+
+    /**
+     * Records the trace of Bubble sort on the given array.
+     *
+     * @param array The array to be sorted.
+     * @return  The trace.
+     * @since v1.0.0
+     */
+    private static ColumnarStateMachine bubbleSort(int... array) {
+        return TraceCodecTest.record("Bubble Sort", array);
+    }
+
+    /**
+     * A cached trace is found for the same algorithm and an equal array, but not for another algorithm or array.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void findsTracesByAlgorithmAndArray() {
+        TraceCache cache = new TraceCache(TraceCache.DEFAULT_BYTE_BUDGET);
+        ColumnarStateMachine trace = bubbleSort(3, 1, 2);
+        cache.put("Bubble Sort", trace);
+
+        assertSame(trace, cache.getIfPresent("Bubble Sort", new int[] {3, 1, 2}));
+        assertNull(cache.getIfPresent("Quick Sort", new int[] {3, 1, 2}));
+        assertNull(cache.getIfPresent("Bubble Sort", new int[] {3, 1}));
+        assertNull(cache.getIfPresent("Bubble Sort", new int[] {1, 2, 3}));
+        assertEquals(1L, cache.getHits());
+        assertEquals(3L, cache.getMisses());
+        assertEquals(1, cache.size());
+        assertEquals(trace.getEstimatedBytes(), cache.getBytes());
+    }
+
+    /**
+     * Arrays of the same length and hash are told apart by their elements.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void hashCollisionsAreMisses() {
+        TraceCache cache = new TraceCache(TraceCache.DEFAULT_BYTE_BUDGET);
+        cache.put("Bubble Sort", bubbleSort(0, 31));
+        assertEquals(Arrays.hashCode(new int[] {0, 31}), Arrays.hashCode(new int[] {1, 0}));
+        assertNull(cache.getIfPresent("Bubble Sort", new int[] {1, 0}));
+        assertNotNull(cache.getIfPresent("Bubble Sort", new int[] {0, 31}));
+    }
+
+    /**
+     * When the byte budget is exceeded, the least recently used trace is evicted, where a lookup counts as a use.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void evictsLeastRecentlyUsedTraces() {
+        ColumnarStateMachine first = bubbleSort(2, 1);
+        ColumnarStateMachine second = bubbleSort(3, 2, 1);
+        ColumnarStateMachine third = bubbleSort(4, 3, 2, 1);
+        TraceCache cache = new TraceCache(first.getEstimatedBytes() + second.getEstimatedBytes() + third.getEstimatedBytes() - 1);
+
+        cache.put("Bubble Sort", first);
+        cache.put("Bubble Sort", second);
+        assertSame(first, cache.getIfPresent("Bubble Sort", new int[] {2, 1}));
+        cache.put("Bubble Sort", third);
+
+        assertEquals(1L, cache.getEvictions());
+        assertEquals(2, cache.size());
+        assertNull(cache.getIfPresent("Bubble Sort", new int[] {3, 2, 1}));
+        assertSame(first, cache.getIfPresent("Bubble Sort", new int[] {2, 1}));
+        assertSame(third, cache.getIfPresent("Bubble Sort", new int[] {4, 3, 2, 1}));
+        assertEquals(first.getEstimatedBytes() + third.getEstimatedBytes(), cache.getBytes());
+    }
+
+    /**
+     * Replacing a trace does not count its bytes twice, and a trace larger than the budget is not cached.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void accountsBytesOfReplacedAndOversizedTraces() {
+        ColumnarStateMachine trace = bubbleSort(2, 1);
+        TraceCache cache = new TraceCache(trace.getEstimatedBytes());
+        cache.put("Bubble Sort", trace);
+        cache.put("Bubble Sort", bubbleSort(2, 1));
+        assertEquals(1, cache.size());
+        assertEquals(trace.getEstimatedBytes(), cache.getBytes());
+        assertEquals(0L, cache.getEvictions());
+
+        TraceCache small = new TraceCache(trace.getEstimatedBytes() - 1);
+        small.put("Bubble Sort", trace);
+        assertEquals(0, small.size());
+        assertEquals(0L, small.getBytes());
+    }
+
+    /**
+     * Getting the trace of an algorithm records it once; the second get returns the cached trace.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void getRecordsOnlyOnMiss() {
+        TraceCache cache = new TraceCache(TraceCache.DEFAULT_BYTE_BUDGET);
+        int[] array = {5, 3, 4, 1, 2};
+        ColumnarStateMachine trace = cache.get(AlgorithmCatalog.getInstance().createSortingAlgorithm("Heap Sort", array.clone()));
+        assertSame(trace, cache.get(AlgorithmCatalog.getInstance().createSortingAlgorithm("Heap Sort", array.clone())));
+        assertEquals(1L, cache.getMisses());
+        assertEquals(1L, cache.getHits());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0L, cache.getBytes());
+        assertEquals(1L, cache.getHits());
+    }
+}
@@ -0,0 +1,213 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting;
+
+import algorithms.AlgorithmCatalog;
+import algorithms.sorting.workload.WorkloadGenerator;
+import algorithms.sorting.workload.WorkloadShape;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the compressed trace encoding: every trace must decode to exactly the states it was encoded from, and runs of
+ * neighbouring comparisons must be packed into run records.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+class TraceCodecTest {
+
+    /**
+     * Records the trace of the algorithm with the given name on the given array in columnar mode.
+     *
+     * @param algorithmName The name of the algorithm.
+     * @param array The array to be sorted.
+     * @return  The trace.
+     * @since v1.0.0
+     */
+    static ColumnarStateMachine record(String algorithmName, int[] array) {
+        SortingAlgorithm algorithm = AlgorithmCatalog.getInstance().createSortingAlgorithm(algorithmName, array);
+        algorithm.setTraceMode(TraceMode.COLUMNAR);
+        return (ColumnarStateMachine) algorithm.getStateMachine();
+    }
+
+    /**
+     * Encodes the given trace with a new encoder and returns the encoder, which holds the counters of the encoding.
+     *
+     * @param trace The trace.
+     * @param out   The stream the compressed trace is written to.
+     * @return  The closed encoder.
+     * @throws IOException  If the stream cannot be written.
+     * @since v1.0.0
+     */
+    private static TraceCodec.Encoder encode(SortingTrace trace, ByteArrayOutputStream out) throws IOException {
+        TraceCodec.Encoder encoder = new TraceCodec.Encoder(out, trace.getInitialArray());
+        for (long step = 0; step < trace.size(); step++) {
+            encoder.write(
+                    trace.getAction(step),
+                    trace.getFirstIndex(step),
+                    trace.getSecondIndex(step),
+                    trace.getFirstElement(step),
+                    trace.getSecondElement(step),
+                    trace.getIteration(step),
+                    trace.getTimeNanos(step)
+            );
+        }
+        encoder.close();
+        return encoder;
+    }
+
+    /**
+     * Asserts that both traces contain the same states, column by column.
+     *
+     * @param expected  The original trace.
+     * @param actual    The decoded trace.
+     * @since v1.0.0
+     */
+    static void assertSameStates(SortingTrace expected, SortingTrace actual) {
+        assertArrayEquals(expected.getInitialArray(), actual.getInitialArray());
+        assertEquals(expected.size(), actual.size(), "number of states");
+        for (long step = 0; step < expected.size(); step++) {
+            assertEquals(expected.getAction(step), actual.getAction(step), "action of state " + step);
+            assertEquals(expected.getFirstIndex(step), actual.getFirstIndex(step), "first index of state " + step);
+            assertEquals(expected.getSecondIndex(step), actual.getSecondIndex(step), "second index of state " + step);
+            assertEquals(expected.getFirstElement(step), actual.getFirstElement(step), "first element of state " + step);
+            assertEquals(expected.getSecondElement(step), actual.getSecondElement(step), "second element of state " + step);
+            assertEquals(expected.getIteration(step), actual.getIteration(step), "iteration of state " + step);
+            assertEquals(expected.getTimeNanos(step), actual.getTimeNanos(step), "time of state " + step);
+        }
+    }
+
+    /**
+     * Bubble sort compares neighbours in consecutive iterations, so its comparisons must be packed into run records,
+     * also on sorted input, and the trace must still decode exactly.
+     *
+     * @throws IOException  Not expected.
+     * @since v1.0.0
+     */
+    @Test
+    void bubbleSortTraceContainsRunsAndRoundTrips() throws IOException {
+        for (WorkloadShape shape : new WorkloadShape[] {WorkloadShape.SORTED, WorkloadShape.SHUFFLED}) {
+            ColumnarStateMachine trace = record("Bubble Sort", new WorkloadGenerator(1).generate(shape, 300));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            TraceCodec.Encoder encoder = encode(trace, out);
+
+            assertTrue(encoder.getRunsWritten() > 0, "no run records for " + shape);
+            assertEquals(trace.size(), encoder.getStatesWritten());
+            assertSameStates(trace, TraceCodec.decode(new ByteArrayInputStream(out.toByteArray())));
+        }
+    }
+
+    /**
+     * On sorted input, each pass of bubble sort but the last, which compares a single pair, is one run, so the trace takes far fewer bytes than states.
+     *
+     * @throws IOException  Not expected.
+     * @since v1.0.0
+     */
+    @Test
+    void sortedBubbleSortTraceIsPackedIntoOneRunPerPass() throws IOException {
+        int length = 200;
+        ColumnarStateMachine trace = record("Bubble Sort", new WorkloadGenerator(1).generate(WorkloadShape.SORTED, length));
+        TraceCodec.Encoder encoder = encode(trace, new ByteArrayOutputStream());
+
+        assertEquals(length - 2, encoder.getRunsWritten());
+        assertTrue(encoder.getBytesWritten() < 3 * trace.size(), encoder.getBytesWritten() + " bytes for " + trace.size() + " states");
+    }
+
+    /**
+     * The traces of all algorithms on all shapes of arrays decode to exactly the states they were encoded from.
+     *
+     * @throws IOException  Not expected.
+     * @since v1.0.0
+     */
+    @Test
+    void allAlgorithmsRoundTrip() throws IOException {
+        for (String name : AlgorithmCatalog.getInstance().getNames("Sorting")) {
+            for (WorkloadShape shape : WorkloadShape.values()) {
+                ColumnarStateMachine trace = record(name, new WorkloadGenerator(7).generate(shape, 257));
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                TraceCodec.encode(out, trace.getInitialArray(), trace);
+                assertSameStates(trace, TraceCodec.decode(new ByteArrayInputStream(out.toByteArray())));
+            }
+        }
+    }
+
+    /**
+     * Highlights and writes with elements that cannot be derived from the array are stored explicitly.
+     *
+     * @throws IOException  Not expected.
+     * @since v1.0.0
+     */
+    @Test
+    void explicitElementsRoundTrip() throws IOException {
+        ColumnarStateMachine trace = new ColumnarStateMachine(new int[] {3, 1, 2});
+        trace.append(SortingAction.HIGHLIGHT, 2, Integer.MIN_VALUE, 2, Integer.MIN_VALUE, 1, 10);
+        trace.append(SortingAction.WRITE, 0, -1, Integer.MIN_VALUE, 3, 2, 25);
+        trace.append(SortingAction.WRITE, 2, -1, Integer.MAX_VALUE, 2, 1, 20);
+        trace.append(SortingAction.COMPARE, 0, 1, 7, 8, -5, Long.MAX_VALUE);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TraceCodec.encode(out, trace.getInitialArray(), trace);
+        assertSameStates(trace, TraceCodec.decode(new ByteArrayInputStream(out.toByteArray())));
+    }
+
+    /**
+     * A stream that does not start with the magic number is rejected.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void rejectsForeignStreams() {
+        assertThrows(IOException.class, () -> TraceCodec.decode(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5, 6})));
+    }
+
+    /**
+     * Decodes a stream made of the header of an empty trace of the given array followed by the given records.
+     *
+     * @param initial   The array before the first state.
+     * @param records   The encoded records.
+     * @return  The decoded trace.
+     * @throws IOException  If the stream is rejected.
+     * @since v1.0.0
+     */
+    private static ColumnarStateMachine decodeRecords(int[] initial, byte... records) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TraceCodec.encode(out, initial, new ColumnarStateMachine(initial));
+        out.write(records);
+        return TraceCodec.decode(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    /**
+     * Records with a tag that names no action, or with indices outside the array, are rejected.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void rejectsCorruptedRecords() {
+        int[] array = {3, 1, 2};
+        assertThrows(IOException.class, () -> decodeRecords(array, (byte) 0x10, (byte) 0, (byte) 0, (byte) 0, (byte) 0));
+        assertThrows(IOException.class, () -> decodeRecords(array, (byte) 0x0F, (byte) 0, (byte) 0, (byte) 0, (byte) 0));
+        assertThrows(IOException.class, () -> decodeRecords(array, (byte) SortingAction.SWAP.ordinal(), (byte) 200, (byte) 0, (byte) 0, (byte) 0));
+        assertThrows(IOException.class, () -> decodeRecords(array, (byte) 0x07, (byte) 2, (byte) 4, (byte) 0, (byte) 0));
+    }
+}
@@ -0,0 +1,247 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting;
+
+import algorithms.sorting.countingsort.CountingSort;
+import algorithms.sorting.workload.WorkloadGenerator;
+import algorithms.sorting.workload.WorkloadShape;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests saving traces to binary files, loading them back through memory mapping, and rejecting files that are not
+ * valid trace files.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+class TraceFileTest {
+
+    /**
+     * The directory the trace files are written to.
+     *
+     * @since v1.0.0
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Asserts that the loaded trace holds the same states as the saved one. Times are compared to the nanosecond they
+     * are stored with.
+     *
+     * @param expected  The saved trace.
+     * @param actual    The loaded trace.
+     * @since v1.0.0
+     */
+    private static void assertSameStates(SortingTrace expected, MappedTrace actual) {
+        assertArrayEquals(expected.getInitialArray(), actual.getInitialArray());
+        assertEquals(expected.size(), actual.size());
+        for (long step = 0; step < expected.size(); step++) {
+            assertEquals(expected.getAction(step), actual.getAction(step), "action of state " + step);
+            assertEquals(expected.getFirstIndex(step), actual.getFirstIndex(step), "first index of state " + step);
+            assertEquals(expected.getSecondIndex(step), actual.getSecondIndex(step), "second index of state " + step);
+            assertEquals(expected.getFirstElement(step), actual.getFirstElement(step), "first element of state " + step);
+            assertEquals(expected.getSecondElement(step), actual.getSecondElement(step), "second element of state " + step);
+            assertEquals(expected.getIteration(step), actual.getIteration(step), "iteration of state " + step);
+            assertTrue(Math.abs(expected.getTimeNanos(step) - actual.getTimeNanos(step)) <= 1, "time of state " + step);
+        }
+    }
+
+    /**
+     * Saves a trace, rewrites the given range of its bytes and returns the path of the file.
+     *
+     * @param name  The name of the file.
+     * @param offset    The offset of the bytes to rewrite.
+     * @param bytes The new bytes.
+     * @return  The path of the file.
+     * @throws IOException  Not expected.
+     * @since v1.0.0
+     */
+    private Path corrupt(String name, int offset, byte... bytes) throws IOException {
+        Path path = directory.resolve(name);
+        ColumnarStateMachine trace = TraceCodecTest.record("Bubble Sort", new int[] {3, 2, 1});
+        TraceFile.save(path, "Bubble Sort", trace.getInitialArray(), trace);
+        byte[] content = Files.readAllBytes(path);
+        System.arraycopy(bytes, 0, content, offset, bytes.length);
+        Files.write(path, content);
+        return path;
+    }
+
+    /**
+     * Asserts that loading the given file fails with an IOException naming the file.
+     *
+     * @param path  The path of the file.
+     * @since v1.0.0
+     */
+    private static void assertRejected(Path path) {
+        IOException exception = assertThrows(IOException.class, () -> TraceFile.load(path));
+        assertTrue(exception.getMessage().contains(path.toString()), exception.getMessage());
+    }
+
+    /**
+     * Columnar traces of all shapes are loaded back with the same states, and replay to the sorted array.
+     *
+     * @throws IOException  Not expected.
+     * @since v1.0.0
+     */
+    @Test
+    void savedTracesLoadBack() throws IOException {
+        for (WorkloadShape shape : WorkloadShape.values()) {
+            int[] array = new WorkloadGenerator(4).generate(shape, 200);
+            ColumnarStateMachine trace = TraceCodecTest.record("Intro Sort", array);
+            Path path = directory.resolve(shape + ".japt");
+            TraceFile.save(path, "Intro Sort", trace.getInitialArray(), trace);
+
+            MappedTrace loaded = TraceFile.load(path);
+            assertEquals("Intro Sort", loaded.getAlgorithmName());
+            assertSameStates(trace, loaded);
+
+            int[] sorted = array.clone();
+            Arrays.sort(sorted);
+            assertArrayEquals(sorted, loaded.getArrayAt(loaded.size()));
+        }
+    }
+
+    /**
+     * Traces recorded in full mode are saved with the same records as columnar traces.
+     *
+     * @throws IOException  Not expected.
+     * @since v1.0.0
+     */
+    @Test
+    void fullTracesLoadBack() throws IOException {
+        int[] array = new WorkloadGenerator(4).generate(WorkloadShape.SHUFFLED, 100);
+        ColumnarStateMachine columnar = TraceCodecTest.record("Counting Sort", array);
+
+        SortingAlgorithm algorithm = new CountingSort(array.clone());
+        algorithm.setTraceMode(TraceMode.FULL);
+        Path path = directory.resolve("full.japt");
+        TraceFile.save(path, algorithm);
+
+        MappedTrace loaded = TraceFile.load(path);
+        assertEquals("Counting Sort", loaded.getAlgorithmName());
+        assertEquals(columnar.size(), loaded.size());
+        for (long step = 0; step < columnar.size(); step++) {
+            assertEquals(columnar.getAction(step), loaded.getAction(step));
+            assertEquals(columnar.getFirstIndex(step), loaded.getFirstIndex(step));
+            assertEquals(columnar.getFirstElement(step), loaded.getFirstElement(step));
+            assertEquals(columnar.getSecondElement(step), loaded.getSecondElement(step));
+        }
+    }
+
+    /**
+     * An empty trace of an empty array is saved and loaded.
+     *
+     * @throws IOException  Not expected.
+     * @since v1.0.0
+     */
+    @Test
+    void emptyTracesLoadBack() throws IOException {
+        Path path = directory.resolve("empty.japt");
+        TraceFile.save(path, "Bubble Sort", new int[0], new ColumnarStateMachine(new int[0]));
+        MappedTrace loaded = TraceFile.load(path);
+        assertEquals(0L, loaded.size());
+        assertArrayEquals(new int[0], loaded.getInitialArray());
+    }
+
+    /**
+     * Files with a wrong magic number or version, or too short to hold a header, are rejected.
+     *
+     * @throws IOException  Not expected.
+     * @since v1.0.0
+     */
+    @Test
+    void rejectsForeignFiles() throws IOException {
+        assertRejected(corrupt("magic.japt", 0, (byte) 'P', (byte) 'N', (byte) 'G'));
+        assertRejected(corrupt("version.japt", Integer.BYTES, (byte) 0, (byte) (TraceFile.VERSION + 1)));
+
+        Path empty = directory.resolve("empty.japt");
+        Files.write(empty, new byte[0]);
+        assertRejected(empty);
+    }
+
+    /**
+     * Lengths in the header that do not fit into the file are rejected instead of allocating huge arrays.
+     *
+     * @throws IOException  Not expected.
+     * @since v1.0.0
+     */
+    @Test
+    void rejectsCorruptedLengths() throws IOException {
+        int nameLength = Integer.BYTES + Short.BYTES;
+        int arrayLength = nameLength + Integer.BYTES + "Bubble Sort".length();
+        assertRejected(corrupt("name.japt", nameLength, ByteBuffer.allocate(Integer.BYTES).putInt(Integer.MAX_VALUE).array()));
+        assertRejected(corrupt("negative.japt", nameLength, ByteBuffer.allocate(Integer.BYTES).putInt(-1).array()));
+        assertRejected(corrupt("array.japt", arrayLength, ByteBuffer.allocate(Integer.BYTES).putInt(1 << 30).array()));
+
+        int statesOffset = arrayLength + Integer.BYTES + 3 * Integer.BYTES;
+        assertRejected(corrupt("states.japt", statesOffset, ByteBuffer.allocate(Long.BYTES).putLong(Long.MAX_VALUE).array()));
+        assertRejected(corrupt("fewer.japt", statesOffset, ByteBuffer.allocate(Long.BYTES).putLong(1).array()));
+    }
+
+    /**
+     * Files whose records end early or that have bytes after the last record are rejected.
+     *
+     * @throws IOException  Not expected.
+     * @since v1.0.0
+     */
+    @Test
+    void rejectsTruncatedFiles() throws IOException {
+        Path path = corrupt("truncated.japt", 0);
+        byte[] content = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(content, content.length - 1));
+        assertRejected(path);
+
+        Files.write(path, Arrays.copyOf(content, content.length + 1));
+        assertRejected(path);
+
+        Files.write(path, Arrays.copyOf(content, 20));
+        assertRejected(path);
+    }
+
+    /**
+     * Records with an unknown action or with indices outside the array are reported when they are replayed.
+     *
+     * @throws IOException  Not expected.
+     * @since v1.0.0
+     */
+    @Test
+    void rejectsCorruptedRecords() throws IOException {
+        int recordOffset = Integer.BYTES + Short.BYTES + Integer.BYTES + "Bubble Sort".length()
+                + Integer.BYTES + 3 * Integer.BYTES + Long.BYTES;
+
+        MappedTrace action = TraceFile.load(corrupt("action.japt", recordOffset, (byte) 99));
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> action.getArrayAt(action.size()));
+        assertTrue(exception.getMessage().contains("action.japt"), exception.getMessage());
+        assertThrows(IllegalStateException.class, () -> action.getAction(0));
+
+        byte[] swap = ByteBuffer.allocate(1 + Integer.BYTES).put((byte) SortingAction.SWAP.ordinal()).putInt(1000).array();
+        MappedTrace index = TraceFile.load(corrupt("index.japt", recordOffset, swap));
+        exception = assertThrows(IllegalStateException.class, () -> index.getArrayAt(index.size()));
+        assertTrue(exception.getMessage().contains("index.japt"), exception.getMessage());
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting;
+
+import algorithms.AlgorithmCatalog;
+import algorithms.State;
+import algorithms.StateMachine;
+import algorithms.sorting.workload.WorkloadGenerator;
+import algorithms.sorting.workload.WorkloadShape;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the full, delta and columnar trace modes record the same states, and that the arrays of all three modes
+ * replay to the same arrays.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+class TraceModeTest {
+
+    /**
+     * Records the trace of the algorithm with the given name on the given array in the given mode.
+     *
+     * @param name  The name of the algorithm.
+     * @param array The array to be sorted.
+     * @param mode  The trace mode.
+     * @return  The trace.
+     * @since v1.0.0
+     */
+    private static StateMachine record(String name, int[] array, TraceMode mode) {
+        SortingAlgorithm algorithm = AlgorithmCatalog.getInstance().createSortingAlgorithm(name, array.clone());
+        algorithm.setTraceMode(mode);
+        return algorithm.getStateMachine();
+    }
+
+    /**
+     * Returns the states of the given state machine, which must not be a columnar state machine.
+     *
+     * @param machine   The state machine.
+     * @return  The states.
+     * @since v1.0.0
+     */
+    private static List<SortingState> states(StateMachine machine) {
+        List<SortingState> states = new ArrayList<>();
+        for (State state : machine) {
+            states.add((SortingState) state);
+        }
+        return states;
+    }
+
+    /**
+     * For every algorithm, the states of the full and delta traces describe the same actions as the columnar trace, and
+     * their arrays before and after each action equal the arrays replayed from the columnar trace.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void allModesReplayTheSameArrays() {
+        int[] array = new WorkloadGenerator(1).generate(WorkloadShape.SHUFFLED, 150);
+        for (String name : AlgorithmCatalog.getInstance().getNames("Sorting")) {
+            ColumnarStateMachine columnar = (ColumnarStateMachine) record(name, array, TraceMode.COLUMNAR);
+            int[] expected = array.clone();
+            Arrays.sort(expected);
+            assertArrayEquals(expected, columnar.getArrayAt(columnar.size()), name);
+
+            for (TraceMode mode : new TraceMode[] {TraceMode.FULL, TraceMode.DELTA}) {
+                List<SortingState> states = states(record(name, array, mode));
+                assertEquals(columnar.size(), states.size(), name + " in " + mode);
+                for (int step = 0; step < states.size(); step++) {
+                    SortingState state = states.get(step);
+                    String message = name + " in " + mode + " at state " + step;
+                    assertEquals(mode == TraceMode.DELTA, state.isDelta(), message);
+                    assertEquals(columnar.getAction(step), state.getAction(), message);
+                    assertEquals(columnar.getFirstIndex(step), state.getFirstIndex(), message);
+                    assertEquals(columnar.getSecondIndex(step), state.getSecondIndex(), message);
+                    assertEquals(columnar.getFirstElement(step), state.getFirstElement(), message);
+                    assertEquals(columnar.getSecondElement(step), state.getSecondElement(), message);
+                    assertEquals(columnar.getIteration(step), state.getIteration(), message);
+                    assertArrayEquals(columnar.getArrayAt(step), state.getArrayBefore(), message);
+                    if (state.getAction().changesArray()) {
+                        assertArrayEquals(columnar.getArrayAt(step + 1), state.getArrayAfter(), message);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Delta states rebuild their arrays from the closest state that stores a copy, so every delta state rebuilds the
+     * same arrays whichever order they are asked for in.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void deltaStatesRebuildArraysInAnyOrder() {
+        int[] array = new WorkloadGenerator(2).generate(WorkloadShape.RANDOM, 100);
+        List<SortingState> full = states(record("Quick Sort", array, TraceMode.FULL));
+        List<SortingState> delta = states(record("Quick Sort", array, TraceMode.DELTA));
+        for (int step = delta.size() - 1; step >= 0; step -= 7) {
+            assertArrayEquals(full.get(step).getArrayBefore(), delta.get(step).getArrayBefore(), "state " + step);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting.countingsort;
+
+import algorithms.sorting.ColumnarStateMachine;
+import algorithms.sorting.SortingAction;
+import algorithms.sorting.TraceMode;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the Counting sort algorithm, including elements whose range is too large for an array of counts.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+class CountingSortTest {
+
+    /**
+     * Sorts the given array with Counting sort and asserts that the result is the sorted array.
+     *
+     * @param array The array to be sorted.
+     * @since v1.0.0
+     */
+    private static void assertSorts(int[] array) {
+        int[] expected = array.clone();
+        Arrays.sort(expected);
+        CountingSort sort = new CountingSort(array);
+        sort.sort();
+        assertArrayEquals(expected, sort.getArray());
+    }
+
+    /**
+     * Empty arrays, single elements, duplicates and negative elements are sorted.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void sortsSmallRanges() {
+        assertSorts(new int[0]);
+        assertSorts(new int[] {42});
+        assertSorts(new int[] {3, 3, 3});
+        assertSorts(new int[] {5, -2, 0, -2, 9, 5, -7});
+        assertSorts(new int[] {Integer.MAX_VALUE, Integer.MAX_VALUE - 3, Integer.MAX_VALUE - 1});
+    }
+
+    /**
+     * Elements spanning the whole int range are sorted instead of failing.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void sortsWideRanges() {
+        assertSorts(new int[] {Integer.MAX_VALUE, 0, Integer.MIN_VALUE, -1, Integer.MAX_VALUE, 1});
+        assertSorts(new int[] {0, CountingSort.MAX_RANGE, 1});
+        assertSorts(new int[] {0, CountingSort.MAX_RANGE - 1, 1});
+    }
+
+    /**
+     * The array of counts is bounded relative to the length of the array, so two far apart elements are not counted.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void rangeIsBoundedByLength() {
+        assertEquals(CountingSort.MIN_RANGE, CountingSort.maxRange(2));
+        assertEquals(CountingSort.RANGE_FACTOR * 100_000L, CountingSort.maxRange(100_000));
+        assertEquals(CountingSort.MAX_RANGE, CountingSort.maxRange(Integer.MAX_VALUE));
+
+        CountingSort sort = new CountingSort(new int[] {60_000_000, 0});
+        sort.count();
+        assertArrayEquals(new int[] {0, 60_000_000}, sort.getArray());
+        assertEquals(1L, sort.getTotalComparisons());
+    }
+
+    /**
+     * Arrays whose range fits into the array of counts are sorted without comparisons.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void smallRangesAreNotCompared() {
+        CountingSort sort = new CountingSort(new int[] {900, -100, 5, 5, 0});
+        sort.count();
+        assertArrayEquals(new int[] {-100, 0, 5, 5, 900}, sort.getArray());
+        assertEquals(0L, sort.getTotalComparisons());
+    }
+
+    /**
+     * The trace of a wide range reads every element into the buffer, followed by the traced comparisons, reads and
+     * copies of Merge sort, and replays to the sorted array. The comparisons are counted.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void traceOfWideRangeReplaysToSortedArray() {
+        int[] array = {Integer.MAX_VALUE, 7, Integer.MIN_VALUE, 7, -3, 12, 0, Integer.MAX_VALUE - 1};
+        int[] expected = array.clone();
+        Arrays.sort(expected);
+
+        CountingSort sort = new CountingSort(array);
+        sort.setTraceMode(TraceMode.COLUMNAR);
+        ColumnarStateMachine trace = (ColumnarStateMachine) sort.getStateMachine();
+
+        for (long step = 0; step < array.length; step++) {
+            assertEquals(SortingAction.BUFFER, trace.getAction(step));
+        }
+        long comparisons = 0;
+        for (long step = array.length; step < trace.size(); step++) {
+            if (trace.getAction(step) == SortingAction.COMPARE) {
+                comparisons++;
+            }
+        }
+        assertTrue(comparisons >= array.length - 1, comparisons + " comparisons traced");
+        assertEquals(comparisons, sort.getTotalComparisons());
+        assertArrayEquals(expected, trace.getArrayAt(trace.size()));
+        assertArrayEquals(expected, sort.getArray());
+    }
+}
@@ -0,0 +1,146 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting.parallelmergesort;
+
+import algorithms.sorting.ColumnarStateMachine;
+import algorithms.sorting.TraceMode;
+import algorithms.sorting.workload.WorkloadGenerator;
+import algorithms.sorting.workload.WorkloadShape;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the parallel Merge sort algorithm on arrays long enough to be split into several tasks: the merged trace
+ * replays to the sorted array and does not depend on the pool, and counting without recording gives the counts of the
+ * trace.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+class ParallelMergeSortTest {
+
+    /**
+     * The length of the arrays, long enough to split the array into several tasks.
+     *
+     * @since v1.0.0
+     */
+    private static final int LENGTH = 40_000;
+
+    /**
+     * Records the trace of the algorithm on the given array, with the tasks run by the given pool.
+     *
+     * @param array The array to be sorted.
+     * @param pool  The pool running the tasks.
+     * @return  The trace.
+     * @since v1.0.0
+     */
+    private static ColumnarStateMachine record(int[] array, ForkJoinPool pool) {
+        ParallelMergeSort sort = new ParallelMergeSort(array.clone());
+        sort.setPool(pool);
+        sort.setTraceMode(TraceMode.COLUMNAR);
+        return (ColumnarStateMachine) sort.getStateMachine();
+    }
+
+    /**
+     * The traces of all shapes replay to the sorted array, and their iterations follow the logical clock.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void tracesReplayToSortedArray() {
+        WorkloadGenerator generator = new WorkloadGenerator(14);
+        for (WorkloadShape shape : WorkloadShape.values()) {
+            int[] array = generator.generate(shape, LENGTH);
+            int[] expected = array.clone();
+            Arrays.sort(expected);
+
+            ColumnarStateMachine trace = record(array, ForkJoinPool.commonPool());
+            assertArrayEquals(expected, trace.getArrayAt(trace.size()), "trace of " + shape);
+            for (long step = 0; step < trace.size(); step++) {
+                assertEquals(step + 1, trace.getIteration(step), "iteration of state " + step + " of " + shape);
+            }
+        }
+    }
+
+    /**
+     * The trace does not depend on the number of threads running the tasks.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void tracesAreDeterministic() {
+        int[] array = new WorkloadGenerator(15).generate(WorkloadShape.SHUFFLED, LENGTH);
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool several = new ForkJoinPool(4);
+        try {
+            ColumnarStateMachine expected = record(array, single);
+            ColumnarStateMachine actual = record(array, several);
+            assertEquals(expected.size(), actual.size());
+            for (long step = 0; step < expected.size(); step++) {
+                assertEquals(expected.getAction(step), actual.getAction(step), "action of state " + step);
+                assertEquals(expected.getFirstIndex(step), actual.getFirstIndex(step), "first index of state " + step);
+                assertEquals(expected.getSecondIndex(step), actual.getSecondIndex(step), "second index of state " + step);
+            }
+        } finally {
+            single.shutdown();
+            several.shutdown();
+        }
+    }
+
+    /**
+     * Counting without recording sorts the array and gives the same counts and iterations as recording the trace.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void countingMatchesTrace() {
+        int[] array = new WorkloadGenerator(16).generate(WorkloadShape.SHUFFLED, LENGTH);
+        int[] expected = array.clone();
+        Arrays.sort(expected);
+
+        ParallelMergeSort traced = new ParallelMergeSort(array.clone());
+        traced.setTraceMode(TraceMode.COLUMNAR);
+        long states = traced.getStateMachine().size();
+
+        ParallelMergeSort counted = new ParallelMergeSort(array.clone());
+        counted.count();
+        assertArrayEquals(expected, counted.getArray());
+        assertEquals(traced.getMetrics().snapshot(), counted.getMetrics().snapshot());
+        assertEquals(states, counted.getTotalIterations());
+        assertEquals(traced.getTotalIterations(), counted.getTotalIterations());
+    }
+
+    /**
+     * Sorting without a tracer sorts the array.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void sortsWithoutTracer() {
+        int[] array = new WorkloadGenerator(17).generate(WorkloadShape.REVERSED, LENGTH);
+        ParallelMergeSort sort = new ParallelMergeSort(array.clone());
+        sort.sort();
+        Arrays.sort(array);
+        assertArrayEquals(array, sort.getArray());
+    }
+}
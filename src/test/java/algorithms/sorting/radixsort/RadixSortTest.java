@@ -0,0 +1,110 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting.radixsort;
+
+import algorithms.sorting.ColumnarStateMachine;
+import algorithms.sorting.SortingAlgorithm;
+import algorithms.sorting.TraceMode;
+import algorithms.sorting.workload.WorkloadGenerator;
+import algorithms.sorting.workload.WorkloadShape;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the LSD and MSD Radix sort algorithms on negative elements, the extremes of the int range and all workload
+ * shapes.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+class RadixSortTest {
+
+    /**
+     * Creates both Radix sort algorithms on a given array.
+     *
+     * @since v1.0.0
+     */
+    private static final List<Function<int[], SortingAlgorithm>> SORTS = List.of(LsdRadixSort::new, MsdRadixSort::new);
+
+    /**
+     * Asserts that both algorithms sort the given array, and that their traces replay to the sorted array.
+     *
+     * @param array The array to be sorted.
+     * @since v1.0.0
+     */
+    private static void assertSorts(int[] array) {
+        int[] expected = array.clone();
+        Arrays.sort(expected);
+        for (Function<int[], SortingAlgorithm> factory : SORTS) {
+            SortingAlgorithm sort = factory.apply(array.clone());
+            sort.sort();
+            assertArrayEquals(expected, sort.getArray(), sort.getName() + " on " + Arrays.toString(array));
+
+            SortingAlgorithm traced = factory.apply(array.clone());
+            traced.setTraceMode(TraceMode.COLUMNAR);
+            ColumnarStateMachine trace = (ColumnarStateMachine) traced.getStateMachine();
+            assertArrayEquals(expected, trace.getArrayAt(trace.size()), "trace of " + sort.getName());
+        }
+    }
+
+    /**
+     * Empty arrays, single elements and equal elements are sorted.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void sortsTrivialArrays() {
+        assertSorts(new int[0]);
+        assertSorts(new int[] {-1});
+        assertSorts(new int[] {4, 4, 4, 4});
+    }
+
+    /**
+     * Negative elements are ordered before positive elements, also at the extremes of the int range.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void sortsNegativeAndExtremeElements() {
+        assertSorts(new int[] {1, -1, 0, -256, 256, -257, 255});
+        assertSorts(new int[] {Integer.MAX_VALUE, Integer.MIN_VALUE, 0, -1, Integer.MIN_VALUE + 1, Integer.MAX_VALUE - 1});
+    }
+
+    /**
+     * Arrays of every workload shape are sorted.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void sortsAllShapes() {
+        WorkloadGenerator generator = new WorkloadGenerator(16);
+        for (WorkloadShape shape : WorkloadShape.values()) {
+            int[] array = generator.generate(shape, 1000);
+            for (int i = 0; i < array.length; i += 3) {
+                array[i] = -array[i];
+            }
+            assertSorts(array);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package algorithms.sorting.workload;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that generated workloads only depend on the seed, and that each shape has the elements it describes.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+class WorkloadGeneratorTest {
+
+    /**
+     * A length spanning several blocks, with a partial last block.
+     *
+     * @since v1.0.0
+     */
+    private static final int LENGTH = 3 * (1 << 16) + 123;
+
+    /**
+     * Returns the numbers from 1 to the given length in ascending order.
+     *
+     * @param length    The length.
+     * @return  The numbers.
+     * @since v1.0.0
+     */
+    private static int[] sorted(int length) {
+        return IntStream.rangeClosed(1, length).toArray();
+    }
+
+    /**
+     * The same seed generates the same arrays, also when the blocks are filled by a single thread, and other seeds
+     * generate other arrays for the random shapes.
+     *
+     * @throws Exception    Not expected.
+     * @since v1.0.0
+     */
+    @Test
+    void arraysOnlyDependOnTheSeed() throws Exception {
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            for (WorkloadShape shape : WorkloadShape.values()) {
+                int[] array = new WorkloadGenerator(42).generate(shape, LENGTH);
+                assertArrayEquals(array, new WorkloadGenerator(42).generate(shape, LENGTH), shape.toString());
+                assertArrayEquals(array, single.submit(() -> new WorkloadGenerator(42).generate(shape, LENGTH)).get(), shape + " on one thread");
+            }
+        } finally {
+            single.shutdown();
+        }
+        for (WorkloadShape shape : new WorkloadShape[] {WorkloadShape.SHUFFLED, WorkloadShape.RANDOM, WorkloadShape.NEARLY_SORTED, WorkloadShape.ZIPF, WorkloadShape.RANDOM_RUNS}) {
+            assertFalse(Arrays.equals(new WorkloadGenerator(1).generate(shape, 1000), new WorkloadGenerator(2).generate(shape, 1000)), shape.toString());
+        }
+    }
+
+    /**
+     * Sorted, reversed, shuffled and organ pipe arrays are permutations of the numbers from 1 to the length, in the
+     * order of their shape.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void permutationShapes() {
+        WorkloadGenerator generator = new WorkloadGenerator(7);
+        assertArrayEquals(sorted(LENGTH), generator.generate(WorkloadShape.SORTED, LENGTH));
+
+        int[] reversed = generator.generate(WorkloadShape.REVERSED, LENGTH);
+        for (int i = 0; i < LENGTH; i++) {
+            assertEquals(LENGTH - i, reversed[i]);
+        }
+
+        int[] shuffled = generator.generate(WorkloadShape.SHUFFLED, LENGTH);
+        assertFalse(Arrays.equals(sorted(LENGTH), shuffled));
+        Arrays.sort(shuffled);
+        assertArrayEquals(sorted(LENGTH), shuffled);
+
+        for (int length : new int[] {1, 2, 7, 8}) {
+            int[] pipe = generator.generate(WorkloadShape.ORGAN_PIPE, length);
+            int peak = 0;
+            while (peak + 1 < length && pipe[peak + 1] > pipe[peak]) {
+                peak++;
+            }
+            for (int i = peak; i + 1 < length; i++) {
+                assertTrue(pipe[i + 1] < pipe[i], "organ pipe of length " + length + " falls after its peak");
+            }
+            Arrays.sort(pipe);
+            assertArrayEquals(sorted(length), pipe);
+        }
+    }
+
+    /**
+     * The elements of the random shapes lie between 1 and the length, and follow the parameter of their shape.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void randomShapesFollowTheirParameter() {
+        WorkloadGenerator generator = new WorkloadGenerator(9);
+        int n = 10_000;
+        for (WorkloadShape shape : WorkloadShape.values()) {
+            for (int element : generator.generate(shape, n)) {
+                assertTrue(element >= 1 && element <= n, shape + " element " + element);
+            }
+        }
+
+        assertEquals(5L, Arrays.stream(generator.generate(WorkloadShape.FEW_UNIQUE, n, 5)).distinct().count());
+
+        int[] sawtooth = generator.generate(WorkloadShape.SAWTOOTH, n, 100);
+        for (int i = 0; i + 1 < n; i++) {
+            assertEquals((i + 1) % 100 != 0, sawtooth[i + 1] > sawtooth[i], "sawtooth at " + i);
+        }
+
+        int[] nearlySorted = generator.generate(WorkloadShape.NEARLY_SORTED, n, 3);
+        long moved = IntStream.range(0, n).filter(i -> nearlySorted[i] != i + 1).count();
+        assertTrue(moved <= 6, moved + " elements moved by 3 swaps");
+
+        int[] runs = generator.generate(WorkloadShape.RANDOM_RUNS, n, 50);
+        long descents = IntStream.range(0, n - 1).filter(i -> runs[i + 1] < runs[i]).count();
+        assertTrue(descents > n / 50 / 4 && descents < n / 50 * 2, descents + " descents for runs of mean length 50");
+
+        int[] zipf = generator.generate(WorkloadShape.ZIPF, n);
+        long ones = Arrays.stream(zipf).filter(element -> element == 1).count();
+        long twos = Arrays.stream(zipf).filter(element -> element == 2).count();
+        assertTrue(ones > twos, ones + " ones and " + twos + " twos");
+    }
+
+    /**
+     * Empty arrays are generated for every shape, and parameters that are not positive are rejected.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void edgeCases() {
+        WorkloadGenerator generator = new WorkloadGenerator(0);
+        for (WorkloadShape shape : WorkloadShape.values()) {
+            assertEquals(0, generator.generate(shape, 0).length);
+            assertEquals(1, generator.generate(shape, 1).length);
+        }
+        assertThrows(IllegalArgumentException.class, () -> generator.generate(WorkloadShape.FEW_UNIQUE, 10, 0));
+        assertThrows(IllegalArgumentException.class, () -> generator.generate(WorkloadShape.ZIPF, 10, Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> generator.generate(WorkloadShape.RANDOM_RUNS, 10, -1));
+    }
+}
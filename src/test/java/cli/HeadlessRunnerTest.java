@@ -0,0 +1,172 @@
+/**
+ *  JAlgoPlot - Made to make understanding algorithms easier.
+ *     Copyright (C) 2022-2023  Tim-Michael Krieg
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Affero General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Affero General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Affero General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package cli;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the headless mode: parsing the command line arguments and printing the results as CSV and as JSON.
+ *
+ * @author Tim-Michael Krieg
+ * @version 1.0.0
+ * @since v1.0.0
+ */
+class HeadlessRunnerTest {
+
+    /**
+     * The directory the traces are saved to.
+     *
+     * @since v1.0.0
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Parses the given arguments, runs the configured algorithms and returns the printed lines.
+     *
+     * @param args  The command line arguments.
+     * @return  The lines printed by the runner.
+     * @since v1.0.0
+     */
+    private static List<String> run(String... args) {
+        HeadlessRunner runner = new HeadlessRunner();
+        runner.parse(args);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        runner.run(new PrintStream(bytes, true, StandardCharsets.UTF_8));
+        return bytes.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    /**
+     * Removes the measured time from the given CSV lines, which is the only column that differs between runs with the
+     * same seed.
+     *
+     * @param lines The CSV lines.
+     * @return  The lines without the seconds column.
+     * @since v1.0.0
+     */
+    private static List<String> withoutSeconds(List<String> lines) {
+        return lines.stream().map(line -> line.replaceFirst("^((?:[^,]*,){6})[^,]*,", "$1")).toList();
+    }
+
+    /**
+     * The CSV output has a header and one line per algorithm, size, repetition and mode. Only runs report counts, and
+     * the same seed yields the same arrays and counts.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void csvHasLinePerResult() {
+        List<String> lines = run("--algorithms", "bubblesort, Heap Sort", "--sizes", "10,20", "--repetitions", "2", "--mode", "both", "--shape", "few-unique");
+
+        assertEquals("algorithm,mode,shape,seed,size,repetition,seconds,iterations,comparisons,swaps,reads,writes,states", lines.get(0));
+        assertEquals(1 + 2 * 2 * 2 * 2, lines.size());
+        for (String line : lines.subList(1, lines.size())) {
+            String[] columns = line.split(",", -1);
+            assertEquals(13, columns.length, line);
+            assertTrue(columns[0].equals("Bubble Sort") || columns[0].equals("Heap Sort"), line);
+            assertEquals("FEW_UNIQUE", columns[2], line);
+            if (columns[1].equals("sort")) {
+                assertEquals("", columns[8], line);
+                assertEquals("", columns[12], line);
+            } else {
+                assertEquals("run", columns[1], line);
+                assertTrue(Long.parseLong(columns[8]) > 0, line);
+                assertTrue(Long.parseLong(columns[12]) > 0, line);
+            }
+        }
+
+        List<String> again = run("--algorithms", "bubblesort, Heap Sort", "--sizes", "10,20", "--repetitions", "2", "--mode", "both", "--shape", "few-unique");
+        assertEquals(withoutSeconds(lines), withoutSeconds(again));
+    }
+
+    /**
+     * The JSON output is an array with one object per result, separated by commas. Sorting without recording reports
+     * null counts.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void jsonHasObjectPerResult() {
+        List<String> lines = run("--algorithms", "quicksort", "--sizes", "50", "--repetitions", "3", "--format", "json", "--seed", "7");
+
+        assertEquals("[", lines.get(0));
+        assertEquals("]", lines.get(lines.size() - 1));
+        List<String> objects = lines.subList(1, lines.size() - 1);
+        assertEquals(3, objects.size());
+        for (int i = 0; i < objects.size(); i++) {
+            String object = objects.get(i);
+            assertTrue(object.startsWith("  {\"algorithm\": \"Quick Sort\", \"mode\": \"sort\", \"shape\": \"SHUFFLED\""), object);
+            assertTrue(object.contains("\"size\": 50, \"repetition\": " + (i + 1) + ","), object);
+            assertTrue(object.endsWith(i < objects.size() - 1 ? "\"states\": null}," : "\"states\": null}"), object);
+        }
+    }
+
+    /**
+     * Saving traces writes one trace file per run, named after the algorithm, the size and the repetition.
+     *
+     * @throws IOException  If the trace directory cannot be listed.
+     * @since v1.0.0
+     */
+    @Test
+    void saveTracesWritesFilePerRun() throws IOException {
+        run("--algorithms", "mergesort", "--sizes", "30", "--repetitions", "2", "--mode", "run", "--save-traces", directory.toString());
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of("merge-sort-30-1.japt", "merge-sort-30-2.japt"), files.map(path -> path.getFileName().toString()).sorted().toList());
+        }
+    }
+
+    /**
+     * Unknown options, missing and invalid values and contradicting options are rejected.
+     *
+     * @since v1.0.0
+     */
+    @Test
+    void parseRejectsInvalidArguments() {
+        List<String[]> invalid = List.of(
+                new String[] {"--unknown", "1"},
+                new String[] {"--sizes"},
+                new String[] {"--sizes", "0"},
+                new String[] {"--sizes", "ten"},
+                new String[] {"--repetitions", "-1"},
+                new String[] {"--algorithms", "Slow Sort"},
+                new String[] {"--mode", "fast"},
+                new String[] {"--trace-mode", "compressed"},
+                new String[] {"--format", "xml"},
+                new String[] {"--shape", "round"},
+                new String[] {"--seed", "x"},
+                new String[] {"--save-traces", "traces"},
+                new String[] {"--mode", "run", "--save-traces", "traces", "--race", "2"}
+        );
+        for (String[] args : invalid) {
+            assertThrows(IllegalArgumentException.class, () -> new HeadlessRunner().parse(args), String.join(" ", args));
+        }
+    }
+}